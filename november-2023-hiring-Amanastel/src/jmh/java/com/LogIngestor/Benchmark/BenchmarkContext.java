@@ -0,0 +1,85 @@
+package com.LogIngestor.Benchmark;
+
+import com.LogIngestor.LogIngestorApplication;
+import com.LogIngestor.Repository.LogRepository;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Starts the application against its own in-memory H2 database, without a web server unless asked for.
+ *
+ * <p>Result caching is off by default so searches measure the storage path; pass
+ * {@code -Dlog.cache.enabled=true} to the forked JVMs to measure cached searches instead.</p>
+ */
+final class BenchmarkContext {
+
+    static final long SEED = 42;
+    private static final int LOAD_BATCH_SIZE = 5_000;
+
+    private BenchmarkContext() {
+    }
+
+    static ConfigurableApplicationContext start() {
+        return start(Map.of());
+    }
+
+    /**
+     * @param overrides Properties replacing the benchmark defaults.
+     */
+    static ConfigurableApplicationContext start(Map<String, Object> overrides) {
+        return run(overrides, WebApplicationType.NONE);
+    }
+
+    /**
+     * Starts the application with its HTTP server on a free port, published as {@code local.server.port}.
+     *
+     * @param overrides Properties replacing the benchmark defaults.
+     */
+    static ConfigurableApplicationContext startServer(Map<String, Object> overrides) {
+        Map<String, Object> properties = new HashMap<>(overrides);
+        properties.putIfAbsent("server.port", 0);
+        return run(properties, WebApplicationType.SERVLET);
+    }
+
+    private static ConfigurableApplicationContext run(Map<String, Object> overrides, WebApplicationType type) {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("spring.datasource.url", "jdbc:h2:mem:bench-" + UUID.randomUUID()
+                + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=TIMESTAMP,COMMIT;DB_CLOSE_DELAY=-1");
+        properties.put("spring.datasource.driver-class-name", "org.h2.Driver");
+        properties.put("spring.datasource.username", "sa");
+        properties.put("spring.datasource.password", "");
+        properties.put("spring.jpa.hibernate.ddl-auto", "create-drop");
+        properties.put("spring.jpa.show-sql", "false");
+        properties.put("log.index.directory", "");
+        properties.put("log.cache.enabled", System.getProperty("log.cache.enabled", "false"));
+        properties.put("log.spool.enabled", System.getProperty("log.spool.enabled", "false"));
+        properties.put("log.wire.enabled", "false");
+        properties.put("logging.level.root", "warn");
+        properties.putAll(overrides);
+
+        // Passed as arguments so they take precedence over application.properties.
+        String[] args = properties.entrySet().stream().map(e -> "--" + e.getKey() + "=" + e.getValue()).toArray(String[]::new);
+        // DevTools would otherwise restart a caller running on the main thread, re-invoking its main method.
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        SpringApplication application = new SpringApplication(LogIngestorApplication.class);
+        application.setWebApplicationType(type);
+        return application.run(args);
+    }
+
+    /**
+     * Stores {@code count} synthetic logs spread over the last 30 days, in batches of {@value #LOAD_BATCH_SIZE}.
+     */
+    static void load(ConfigurableApplicationContext context, int count, LocalDateTime end) {
+        LogRepository logRepository = context.getBean(LogRepository.class);
+        SyntheticLogs logs = new SyntheticLogs(SEED, end, 30);
+        for (int loaded = 0; loaded < count; loaded += LOAD_BATCH_SIZE) {
+            logRepository.saveAll(logs.next(Math.min(LOAD_BATCH_SIZE, count - loaded)));
+        }
+    }
+}
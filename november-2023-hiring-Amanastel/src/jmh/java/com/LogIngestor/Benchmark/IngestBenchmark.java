@@ -0,0 +1,69 @@
+package com.LogIngestor.Benchmark;
+
+import com.LogIngestor.Model.BatchIngestResponse;
+import com.LogIngestor.Model.Log;
+import com.LogIngestor.Service.LogService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Logs ingested per second through {@code saveLog} one at a time and through {@code saveLogs} in batches.
+ *
+ * <p>Batches go through the asynchronous writer. Its queue is kept small and offers wait instead of being
+ * rejected, so once the queue fills up the measured rate is the rate logs are committed, not queued.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx4g"})
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+public class IngestBenchmark {
+
+    private static final int BATCH_SIZE = 500;
+
+    private ConfigurableApplicationContext context;
+    private LogService logService;
+    private SyntheticLogs synthetic;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start(Map.of(
+                "log.ingest.queue-capacity", 10_000,
+                "log.ingest.offer-timeout-ms", 60_000));
+        logService = context.getBean(LogService.class);
+        synthetic = new SyntheticLogs(BenchmarkContext.SEED, LocalDateTime.now(), 1);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Log saveLog() {
+        return logService.saveLog(synthetic.next());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public BatchIngestResponse saveLogsBatch() {
+        return logService.saveLogs(synthetic.next(BATCH_SIZE));
+    }
+}
@@ -0,0 +1,168 @@
+package com.LogIngestor.Benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Closed-loop HTTP load test comparing Tomcat's platform worker pool with virtual-thread request handling.
+ *
+ * <p>Each of {@code clients} concurrent clients sends its next request as soon as the previous one is
+ * answered: 80% single-log ingests, which block on JDBC, and 20% paged searches. Both modes run against a
+ * fresh server with the same seeded dataset; throughput, latency percentiles and errors are printed and
+ * written to {@code target/load-test.json}. Virtual threads need a Java 21+ JVM; on older JVMs the
+ * "virtual" run falls back to platform threads, which the server logs at startup.</p>
+ *
+ * <p>Run with: {@code mvn -P benchmark test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.LogIngestor.Benchmark.LoadTest -Dexec.args="10000 60"} (clients, seconds).
+ * Raise the open-file limit first; every client holds a connection.</p>
+ */
+public final class LoadTest {
+
+    private static final int PRELOADED_LOGS = 100_000;
+    private static final int MAX_SAMPLES = 10_000_000;
+    private static final double INGEST_SHARE = 0.8;
+
+    record Result(String mode, int clients, int seconds, long requests, long errors, double requestsPerSecond,
+                  double p50Millis, double p99Millis, double p999Millis, double maxMillis) {
+    }
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int clients = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 60;
+        List<Result> results = new ArrayList<>();
+        for (boolean virtual : new boolean[]{false, true}) {
+            try (ConfigurableApplicationContext context = BenchmarkContext.startServer(Map.of(
+                    "log.execution.virtual-threads", virtual,
+                    "server.tomcat.max-connections", clients + 1_000,
+                    "server.tomcat.accept-count", clients))) {
+                BenchmarkContext.load(context, PRELOADED_LOGS, LocalDateTime.now());
+                int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+                results.add(run(virtual ? "virtual" : "platform", port, clients, seconds));
+            }
+        }
+        report(results);
+    }
+
+    private static Result run(String mode, int port, int clients, int seconds) throws InterruptedException {
+        ExecutorService callbacks = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        HttpClient http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(30))
+                .executor(callbacks)
+                .build();
+        Load load = new Load(http, "http://localhost:" + port, System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds), clients);
+        long started = System.nanoTime();
+        for (int i = 0; i < clients; i++) load.next();
+        load.done.await();
+        double elapsed = (System.nanoTime() - started) / 1e9;
+        callbacks.shutdownNow();
+        return load.result(mode, clients, seconds, elapsed);
+    }
+
+    private static void report(List<Result> results) throws IOException {
+        System.out.printf("%n%-9s %8s %10s %8s %10s %9s %9s %9s %9s%n",
+                "mode", "clients", "requests", "errors", "req/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (Result r : results) {
+            System.out.printf("%-9s %8d %10d %8d %10.0f %9.1f %9.1f %9.1f %9.1f%n", r.mode(), r.clients(), r.requests(),
+                    r.errors(), r.requestsPerSecond(), r.p50Millis(), r.p99Millis(), r.p999Millis(), r.maxMillis());
+        }
+        File out = new File("target/load-test.json");
+        out.getParentFile().mkdirs();
+        new ObjectMapper().registerModule(new JavaTimeModule()).writerWithDefaultPrettyPrinter().writeValue(out, results);
+        System.out.println("Results written to " + out.getAbsolutePath());
+    }
+
+    /**
+     * The clients of one run; every client loops until the deadline, then counts down {@link #done}.
+     */
+    private static final class Load {
+        private final HttpClient http;
+        private final String base;
+        private final long deadline;
+        private final CountDownLatch done;
+        private final long[] samples = new long[MAX_SAMPLES];
+        private final AtomicInteger sampled = new AtomicInteger();
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+
+        Load(HttpClient http, String base, long deadline, int clients) {
+            this.http = http;
+            this.base = base;
+            this.deadline = deadline;
+            this.done = new CountDownLatch(clients);
+        }
+
+        void next() {
+            if (System.nanoTime() - deadline >= 0) {
+                done.countDown();
+                return;
+            }
+            long started = System.nanoTime();
+            http.sendAsync(request(), HttpResponse.BodyHandlers.discarding()).whenComplete((response, error) -> {
+                record(System.nanoTime() - started, error == null && response.statusCode() < 400);
+                next();
+            });
+        }
+
+        private HttpRequest request() {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            if (random.nextDouble() < INGEST_SHARE) {
+                String body = "{\"level\":\"info\",\"message\":\"GET /api/v1/orders/" + random.nextInt(1_000_000)
+                        + " 200\",\"resourceId\":\"server-" + (1000 + random.nextInt(100)) + "\"}";
+                return HttpRequest.newBuilder(URI.create(base + "/logs/ingest"))
+                        .timeout(Duration.ofSeconds(60))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(body))
+                        .build();
+            }
+            return HttpRequest.newBuilder(URI.create(base + "/logs/searchByLevel?level=error&limit=50"))
+                    .timeout(Duration.ofSeconds(60))
+                    .GET()
+                    .build();
+        }
+
+        private void record(long nanos, boolean ok) {
+            requests.increment();
+            if (!ok) errors.increment();
+            int index = sampled.getAndIncrement();
+            if (index < MAX_SAMPLES) samples[index] = nanos;
+        }
+
+        Result result(String mode, int clients, int seconds, double elapsedSeconds) {
+            long[] sorted = Arrays.copyOf(samples, Math.min(sampled.get(), MAX_SAMPLES));
+            Arrays.sort(sorted);
+            return new Result(mode, clients, seconds, requests.sum(), errors.sum(), requests.sum() / elapsedSeconds,
+                    percentile(sorted, 0.50), percentile(sorted, 0.99), percentile(sorted, 0.999),
+                    sorted.length == 0 ? 0 : sorted[sorted.length - 1] / 1e6);
+        }
+
+        private static double percentile(long[] sorted, double quantile) {
+            if (sorted.length == 0) return 0;
+            return sorted[(int) Math.min(sorted.length - 1, Math.ceil(quantile * sorted.length) - 1)] / 1e6;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.LogIngestor.Benchmark;
+
+import com.LogIngestor.Model.LogQuery;
+import com.LogIngestor.Service.LogService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of returning a large search result, one day of a 30-day dataset of {@code logs} rows, through managed
+ * entities and through stateless reads ({@code log.search.stateless-reads}).
+ *
+ * <p>Each search is read from the database and written as JSON, as the list and export endpoints do. The hot
+ * window is off so every row comes from the database. The benchmark profile runs JMH's GC profiler: compare
+ * {@code gc.alloc.rate.norm} (bytes allocated per search) and {@code gc.time} between the two {@code path}s.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx12g"})
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+public class ReadPathBenchmark {
+
+    @Param({"1000000", "10000000"})
+    public int logs;
+
+    @Param({"managed", "stateless"})
+    public String path;
+
+    private ConfigurableApplicationContext context;
+    private LogService logService;
+    private ObjectMapper objectMapper;
+    private LocalDateTime end;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start(Map.of(
+                "log.search.stateless-reads", path.equals("stateless"),
+                "log.hot.enabled", false));
+        end = LocalDateTime.now();
+        BenchmarkContext.load(context, logs, end);
+        logService = context.getBean(LogService.class);
+        objectMapper = context.getBean(ObjectMapper.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public byte[] searchLogsByDateRange() throws IOException {
+        return objectMapper.writeValueAsBytes(logService.searchLogsByDateRange(end.minusDays(1), end));
+    }
+
+    @Benchmark
+    public void exportLogs() throws IOException {
+        logService.exportLogs(LogQuery.dateRange(end.minusDays(1), end), OutputStream.nullOutputStream());
+    }
+}
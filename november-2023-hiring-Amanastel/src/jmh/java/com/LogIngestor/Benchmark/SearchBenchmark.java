@@ -0,0 +1,78 @@
+package com.LogIngestor.Benchmark;
+
+import com.LogIngestor.Hot.HotLogWindow;
+import com.LogIngestor.Index.LogIndexBootstrap;
+import com.LogIngestor.Model.Log;
+import com.LogIngestor.Model.LogQuery;
+import com.LogIngestor.Model.ScanResult;
+import com.LogIngestor.Service.LogService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of the list searches over a synthetic dataset of {@code logs} rows, through the service calls
+ * the endpoints make: {@code /search} runs {@code searchLogs}, while {@code /searchByRegex} and
+ * {@code /searchByMultipleFilters} run unlimited scans. Each query selects well under one percent of the rows,
+ * as interactive searches do.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx12g"})
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+public class SearchBenchmark {
+
+    @Param({"1000000", "10000000"})
+    public int logs;
+
+    private ConfigurableApplicationContext context;
+    private LogService logService;
+    private LocalDateTime end;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        end = LocalDateTime.now();
+        BenchmarkContext.load(context, logs, end);
+        context.getBean(LogIndexBootstrap.class).rebuild();
+        context.getBean(HotLogWindow.class).preload();
+        logService = context.getBean(LogService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Log> searchLogs() {
+        return logService.searchLogs("error", null, SyntheticLogs.hottestResource(), null, null);
+    }
+
+    @Benchmark
+    public ScanResult searchLogsByRegex() {
+        return logService.scanLogs(LogQuery.regex("Failed to connect to db-7: timeout after 9\\d{3}ms"), null).join();
+    }
+
+    @Benchmark
+    public ScanResult searchLogsByMultipleFilters() {
+        return logService.scanLogs(LogQuery.multipleFilters("warn", "db-3", null, end.minusDays(1), end, null), null).join();
+    }
+}
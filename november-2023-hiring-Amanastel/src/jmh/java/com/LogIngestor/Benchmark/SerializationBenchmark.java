@@ -0,0 +1,51 @@
+package com.LogIngestor.Benchmark;
+
+import com.LogIngestor.Model.Log;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to write a search result of {@code rows} logs as a JSON array, as the list endpoints do.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 5)
+public class SerializationBenchmark {
+
+    @Param({"100", "10000"})
+    public int rows;
+
+    private ObjectMapper objectMapper;
+    private List<Log> result;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        result = new SyntheticLogs(BenchmarkContext.SEED, LocalDateTime.now(), 1).next(rows);
+        for (int i = 0; i < rows; i++) result.get(i).setId((long) i + 1);
+    }
+
+    @Benchmark
+    public byte[] writeResultList() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(result);
+    }
+}
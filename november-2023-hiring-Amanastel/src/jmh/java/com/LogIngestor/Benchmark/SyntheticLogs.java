@@ -0,0 +1,102 @@
+package com.LogIngestor.Benchmark;
+
+import com.LogIngestor.Model.Log;
+import com.LogIngestor.Model.Metadata;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic synthetic logs with the skew of real traffic: mostly info, few errors, and a handful of
+ * resources producing most of the volume (Zipf-distributed over {@value #RESOURCES} resources).
+ */
+final class SyntheticLogs {
+
+    static final int RESOURCES = 1_000;
+    static final int DATABASES = 10;
+
+    private static final String[] LEVELS = {"info", "debug", "warn", "error", "fatal"};
+    private static final double[] LEVEL_WEIGHTS = {0.70, 0.15, 0.10, 0.04, 0.01};
+    private static final double ZIPF_EXPONENT = 1.1;
+    private static final String[] COMMITS = {"5e5342f", "a1b2c3d", "9f8e7d6", "0c1d2e3"};
+
+    private final SplittableRandom random;
+    private final double[] levelCumulative = cumulative(LEVEL_WEIGHTS);
+    private final double[] resourceCumulative;
+    private final LocalDateTime end;
+    private final long spanSeconds;
+
+    /**
+     * Constructor for SyntheticLogs.
+     *
+     * @param seed The random seed; equal seeds produce equal logs.
+     * @param end  The newest timestamp generated.
+     * @param days How far back timestamps are spread.
+     */
+    SyntheticLogs(long seed, LocalDateTime end, int days) {
+        this.random = new SplittableRandom(seed);
+        this.end = end;
+        this.spanSeconds = days * 86_400L;
+        double[] weights = new double[RESOURCES];
+        for (int i = 0; i < RESOURCES; i++) weights[i] = 1 / Math.pow(i + 1, ZIPF_EXPONENT);
+        this.resourceCumulative = cumulative(weights);
+    }
+
+    /**
+     * The resource producing the most logs.
+     */
+    static String hottestResource() {
+        return resource(0);
+    }
+
+    Log next() {
+        String level = LEVELS[pick(levelCumulative)];
+        String resourceId = resource(pick(resourceCumulative));
+        LocalDateTime timestamp = end.minusSeconds(random.nextLong(spanSeconds));
+        String trace = Long.toHexString(random.nextLong());
+        return new Log(null, level, message(level), resourceId, timestamp, "trace-" + trace, "span-" + trace.substring(0, 8),
+                COMMITS[random.nextInt(COMMITS.length)], new Metadata("server-" + random.nextInt(RESOURCES / 10)));
+    }
+
+    List<Log> next(int count) {
+        List<Log> logs = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) logs.add(next());
+        return logs;
+    }
+
+    private String message(String level) {
+        int db = random.nextInt(DATABASES);
+        return switch (level) {
+            case "info" -> random.nextBoolean()
+                    ? "GET /api/v1/orders/" + random.nextInt(1_000_000) + " 200 in " + random.nextInt(500) + "ms"
+                    : "User " + random.nextInt(100_000) + " logged in";
+            case "debug" -> "Cache miss for key session:" + random.nextInt(1_000_000);
+            case "warn" -> "Retrying connection to db-" + db + " (attempt " + (1 + random.nextInt(5)) + ")";
+            case "error" -> "Failed to connect to db-" + db + ": timeout after " + (1_000 + random.nextInt(9_000)) + "ms";
+            default -> "Unhandled exception in worker-" + random.nextInt(64) + ": NullPointerException";
+        };
+    }
+
+    private int pick(double[] cumulative) {
+        int index = Arrays.binarySearch(cumulative, random.nextDouble());
+        return Math.min(index < 0 ? -index - 1 : index, cumulative.length - 1);
+    }
+
+    private static String resource(int index) {
+        return "server-" + (1000 + index);
+    }
+
+    private static double[] cumulative(double[] weights) {
+        double total = Arrays.stream(weights).sum();
+        double[] cumulative = new double[weights.length];
+        double sum = 0;
+        for (int i = 0; i < weights.length; i++) {
+            sum += weights[i] / total;
+            cumulative[i] = sum;
+        }
+        return cumulative;
+    }
+}
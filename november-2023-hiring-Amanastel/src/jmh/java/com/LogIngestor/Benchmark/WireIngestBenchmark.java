@@ -0,0 +1,129 @@
+package com.LogIngestor.Benchmark;
+
+import com.LogIngestor.Ingest.LogBatchWriter;
+import com.LogIngestor.Model.Log;
+import com.LogIngestor.Wire.LogFrameEncoder;
+import com.LogIngestor.Wire.WireIngestServer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Logs ingested per second through {@code POST /logs/ingest/batch} with JSON and through the TCP listener
+ * with binary frames, in batches of {@value #BATCH_SIZE}.
+ *
+ * <p>Both paths end in the same batch writer, so its queue is made large enough to hold a whole iteration
+ * and is drained between iterations: the measured rate is what the transport and decoding sustain, not
+ * the database. An HTTP batch counts once its response arrives; a TCP batch once the listener has handed
+ * every frame of it to the writer.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx6g"})
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class WireIngestBenchmark {
+
+    private static final int BATCH_SIZE = 500;
+    private static final int QUEUE_CAPACITY = 5_000_000;
+
+    private ConfigurableApplicationContext context;
+    private LogBatchWriter logBatchWriter;
+    private WireIngestServer wireIngestServer;
+    private SyntheticLogs synthetic;
+    private HttpClient http;
+    private URI batchUri;
+    private ObjectMapper objectMapper;
+    private SocketChannel channel;
+    private ByteBuffer frames;
+    private long sent;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        context = BenchmarkContext.startServer(Map.of(
+                "log.ingest.queue-capacity", QUEUE_CAPACITY,
+                "log.ingest.offer-timeout-ms", 0,
+                "log.wire.enabled", true,
+                "log.wire.bind-address", "127.0.0.1",
+                "log.wire.tcp-port", 0,
+                "log.wire.udp-port", -1));
+        logBatchWriter = context.getBean(LogBatchWriter.class);
+        wireIngestServer = context.getBean(WireIngestServer.class);
+        synthetic = new SyntheticLogs(BenchmarkContext.SEED, LocalDateTime.now(), 1);
+
+        int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+        http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        batchUri = URI.create("http://localhost:" + port + "/logs/ingest/batch");
+        objectMapper = new ObjectMapper().registerModule(new JavaTimeModule()).disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+        channel = SocketChannel.open(new InetSocketAddress("127.0.0.1", wireIngestServer.getTcpPort()));
+        frames = ByteBuffer.allocate(BATCH_SIZE * 1024);
+    }
+
+    /**
+     * Waits for the writer to catch up, so no iteration starts with a full queue.
+     */
+    @Setup(Level.Iteration)
+    public void drain() throws InterruptedException {
+        while (logBatchWriter.getQueueDepth() > 0) Thread.sleep(100);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        channel.close();
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public String httpJson() throws IOException, InterruptedException {
+        byte[] body = objectMapper.writeValueAsBytes(synthetic.next(BATCH_SIZE));
+        HttpRequest request = HttpRequest.newBuilder(batchUri)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+                .build();
+        return http.send(request, HttpResponse.BodyHandlers.ofString()).body();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public long tcpFrames() throws IOException {
+        List<Log> logs = synthetic.next(BATCH_SIZE);
+        frames.clear();
+        for (Log log : logs) LogFrameEncoder.encode(log, frames);
+        frames.flip();
+        while (frames.hasRemaining()) channel.write(frames);
+        sent += BATCH_SIZE;
+        long handled;
+        while ((handled = wireIngestServer.getAcceptedLogs() + wireIngestServer.getRejectedLogs()) < sent) Thread.onSpinWait();
+        return handled;
+    }
+}
@@ -0,0 +1,281 @@
+package com.LogIngestor.Cache;
+
+import com.LogIngestor.Config.CacheProperties;
+import com.LogIngestor.Config.StorageProperties;
+import com.LogIngestor.Ingest.LogIngestListener;
+import com.LogIngestor.Model.Log;
+import com.LogIngestor.Model.LogQuery;
+import com.LogIngestor.Model.QueryCacheStats;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * Results of list searches keyed by their normalized {@link LogQuery}, bounded by estimated heap size with
+ * Caffeine's W-TinyLFU eviction.
+ *
+ * <p>Invalidation is per query: every saved log evicts only the cached queries it could match, found through
+ * an index of cached queries by resource ID and level. Queries over a range that is already in the past are
+ * therefore never touched by live traffic and stay until evicted. Queries that skip the in-memory re-check
+ * are matched the way a case- and accent-insensitive collation would compare them, so a log the database
+ * could return is never missed.</p>
+ *
+ * <p>A search running while a matching log is saved is returned to its caller but not kept.</p>
+ */
+@Component
+@ConditionalOnProperty(name = StorageProperties.ENGINE, havingValue = "jpa", matchIfMissing = true)
+public class QueryResultCache implements LogIngestListener {
+
+    private static final long LIST_OVERHEAD_BYTES = 64;
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+
+    private final CacheProperties properties;
+    private final Cache<LogQuery, List<Log>> cache;
+    private final Set<Load> loading = ConcurrentHashMap.newKeySet();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    // Queries that may be cached, by collation key of their resource ID or level; guarded by this.
+    private final Map<String, Set<LogQuery>> byResource = new HashMap<>();
+    private final Map<String, Set<LogQuery>> byLevel = new HashMap<>();
+    private final Set<LogQuery> unindexed = new HashSet<>();
+
+    /**
+     * Constructor for QueryResultCache.
+     *
+     * @param properties The cache configuration.
+     */
+    @Autowired
+    public QueryResultCache(CacheProperties properties) {
+        this.properties = properties;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(properties.getMaxMegabytes() * 1024 * 1024)
+                .weigher((LogQuery query, List<Log> logs) -> (int) Math.min(Integer.MAX_VALUE, weigh(logs)))
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Returns the cached result of {@code query}, or runs {@code loader} and caches what it returns.
+     *
+     * @param query  The normalized search.
+     * @param loader Runs the search against the underlying storage.
+     * @return A list owned by the caller.
+     */
+    public List<Log> get(LogQuery query, Supplier<List<Log>> loader) {
+        List<Log> cached = getIfPresent(query);
+        if (cached != null) return cached;
+        Load load = begin(query);
+        try {
+            List<Log> logs = loader.get();
+            complete(load, logs);
+            return logs;
+        } finally {
+            abandon(load);
+        }
+    }
+
+    /**
+     * Returns the cached result of {@code query}.
+     *
+     * @return A list owned by the caller, or null on a miss or when the cache is disabled.
+     */
+    public List<Log> getIfPresent(LogQuery query) {
+        if (!properties.isEnabled()) return null;
+        List<Log> cached = cache.getIfPresent(query);
+        return cached == null ? null : new ArrayList<>(cached);
+    }
+
+    /**
+     * Whether {@code query} has a cached result, without counting as a hit or miss.
+     */
+    public boolean contains(LogQuery query) {
+        return properties.isEnabled() && cache.asMap().containsKey(query);
+    }
+
+    /**
+     * Starts tracking a search whose result may be cached by {@link #complete(Load, List)}. Every load must
+     * be ended by {@link #complete(Load, List)} or {@link #abandon(Load)}, possibly on another thread.
+     */
+    public Load begin(LogQuery query) {
+        Load load = new Load(query);
+        if (properties.isEnabled()) loading.add(load);
+        return load;
+    }
+
+    /**
+     * Caches the result of a search started with {@link #begin(LogQuery)} and ends it.
+     */
+    public void complete(Load load, List<Log> logs) {
+        if (!loading.contains(load)) return;
+        if (logs.size() <= properties.getMaxResultRows()) {
+            synchronized (this) {
+                register(load.query);
+                cache.put(load.query, List.copyOf(logs));
+            }
+            // A log saved while the search ran may be missing from the result.
+            if (load.stale) cache.invalidate(load.query);
+        }
+        loading.remove(load);
+    }
+
+    /**
+     * Ends a search started with {@link #begin(LogQuery)} without caching its result.
+     */
+    public void abandon(Load load) {
+        loading.remove(load);
+    }
+
+    @Override
+    public void onLogsSaved(List<Log> logs) {
+        for (Load load : loading) {
+            if (!load.stale && couldMatchAny(load.query, logs)) load.stale = true;
+        }
+        Set<LogQuery> candidates = new HashSet<>();
+        synchronized (this) {
+            candidates.addAll(unindexed);
+            for (Log log : logs) {
+                if (log.getResourceId() != null) candidates.addAll(byResource.getOrDefault(collationKey(log.getResourceId()), Set.of()));
+                if (log.getLevel() != null) candidates.addAll(byLevel.getOrDefault(collationKey(log.getLevel()), Set.of()));
+            }
+        }
+        for (LogQuery query : candidates) {
+            if (couldMatchAny(query, logs) && cache.asMap().remove(query) != null) invalidations.incrementAndGet();
+        }
+    }
+
+    /**
+     * Drops cached queries that may have returned logs older than {@code cutoff}.
+     */
+    @Override
+    public void onLogsExpired(LocalDateTime cutoff) {
+        cache.asMap().keySet().removeIf(query -> query.getStartTime() == null || query.getStartTime().isBefore(cutoff));
+    }
+
+    /**
+     * Removes queries Caffeine has evicted from the invalidation index.
+     */
+    @Scheduled(fixedDelayString = "${log.cache.prune-interval-ms:60000}")
+    public synchronized void prune() {
+        Map<LogQuery, List<Log>> entries = cache.asMap();
+        unindexed.removeIf(query -> !entries.containsKey(query));
+        for (Map<String, Set<LogQuery>> index : List.of(byResource, byLevel)) {
+            index.values().forEach(queries -> queries.removeIf(query -> !entries.containsKey(query)));
+            index.values().removeIf(Set::isEmpty);
+        }
+    }
+
+    public synchronized void clear() {
+        cache.invalidateAll();
+        unindexed.clear();
+        byResource.clear();
+        byLevel.clear();
+    }
+
+    public QueryCacheStats getStats() {
+        cache.cleanUp();
+        CacheStats stats = cache.stats();
+        QueryCacheStats result = new QueryCacheStats();
+        result.setEnabled(properties.isEnabled());
+        result.setEntries(cache.estimatedSize());
+        result.setEstimatedBytes(cache.policy().eviction().map(eviction -> eviction.weightedSize().orElse(0)).orElse(0L));
+        result.setMaxBytes(properties.getMaxMegabytes() * 1024 * 1024);
+        result.setHits(stats.hitCount());
+        result.setMisses(stats.missCount());
+        result.setHitRate(stats.hitRate());
+        result.setEvictions(stats.evictionCount());
+        result.setInvalidations(invalidations.get());
+        return result;
+    }
+
+    private void register(LogQuery query) {
+        if (query.getResourceId() != null) {
+            byResource.computeIfAbsent(collationKey(query.getResourceId()), k -> new HashSet<>()).add(query);
+        } else if (query.getLevel() != null && query.getLevelMatch() != LogQuery.Match.CONTAINS) {
+            byLevel.computeIfAbsent(collationKey(query.getLevel()), k -> new HashSet<>()).add(query);
+        } else {
+            unindexed.add(query);
+        }
+    }
+
+    private static boolean couldMatchAny(LogQuery query, List<Log> logs) {
+        for (Log log : logs) {
+            if (couldMatch(query, log)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Whether the storage could return {@code log} for {@code query}. Re-checked queries follow
+     * {@link LogQuery#matches(Log)} exactly; the others compare strings by collation key.
+     */
+    static boolean couldMatch(LogQuery query, Log log) {
+        if (query.isVerify()) return query.matches(log);
+        return couldMatch(log.getLevel(), query.getLevel(), query.getLevelMatch())
+                && couldMatch(log.getMessage(), query.getMessage(), query.getMessageMatch())
+                && couldMatch(log.getResourceId(), query.getResourceId(), LogQuery.Match.EXACT)
+                && query.matchesTimestamp(log.getTimestamp())
+                && query.matchesPattern(log.getMessage());
+    }
+
+    private static boolean couldMatch(String value, String expected, LogQuery.Match match) {
+        if (expected == null) return true;
+        if (value == null) return false;
+        return match == LogQuery.Match.CONTAINS
+                ? collationKey(value).contains(collationKey(expected))
+                : collationKey(value).equals(collationKey(expected));
+    }
+
+    /**
+     * Accents stripped, case folded and trailing spaces dropped: strings a case- and accent-insensitive,
+     * space-padded collation considers equal share a key.
+     */
+    static String collationKey(String value) {
+        String stripped = isAscii(value) ? value : COMBINING_MARKS.matcher(Normalizer.normalize(value, Normalizer.Form.NFD)).replaceAll("");
+        String folded = LogQuery.foldCase(stripped);
+        int end = folded.length();
+        while (end > 0 && folded.charAt(end - 1) == ' ') end--;
+        return folded.substring(0, end);
+    }
+
+    private static boolean isAscii(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) >= 0x80) return false;
+        }
+        return true;
+    }
+
+    private static long weigh(List<Log> logs) {
+        long size = LIST_OVERHEAD_BYTES;
+        for (Log log : logs) size += log.estimateHeapBytes();
+        return size;
+    }
+
+    /**
+     * A search in progress; marked stale when a log it could match is saved before it is cached.
+     */
+    public static final class Load {
+        private final LogQuery query;
+        private volatile boolean stale;
+
+        Load(LogQuery query) {
+            this.query = query;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.LogIngestor.Columnar;
+
+import com.LogIngestor.Model.Log;
+import com.LogIngestor.Model.Metadata;
+
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * The columns of a segment, in file order. {@link #ID} and {@link #TIMESTAMP} hold longs, the rest strings.
+ * Low-cardinality string columns are stored as {@link com.LogIngestor.Dictionary.StringDictionary} codes.
+ */
+enum Column {
+    ID(false, null, null),
+    TIMESTAMP(false, null, null),
+    LEVEL(true, Log::getLevel, Log::setLevel),
+    MESSAGE(false, Log::getMessage, Log::setMessage),
+    RESOURCE_ID(true, Log::getResourceId, Log::setResourceId),
+    TRACE_ID(false, Log::getTraceId, Log::setTraceId),
+    SPAN_ID(false, Log::getSpanId, Log::setSpanId),
+    COMMIT(true, Log::getCommit, Log::setCommit),
+    PARENT_RESOURCE_ID(true,
+            log -> log.getMetadata() == null ? null : log.getMetadata().getParentResourceId(),
+            (log, value) -> {
+                if (value != null) log.setMetadata(new Metadata(value));
+            });
+
+    static final Column[] STRINGS = {LEVEL, MESSAGE, RESOURCE_ID, TRACE_ID, SPAN_ID, COMMIT, PARENT_RESOURCE_ID};
+
+    private final boolean dictionary;
+    private final Function<Log, String> getter;
+    private final BiConsumer<Log, String> setter;
+
+    Column(boolean dictionary, Function<Log, String> getter, BiConsumer<Log, String> setter) {
+        this.dictionary = dictionary;
+        this.getter = getter;
+        this.setter = setter;
+    }
+
+    /**
+     * Whether values repeat enough to be worth dictionary encoding.
+     */
+    boolean isDictionary() {
+        return dictionary;
+    }
+
+    String get(Log log) {
+        return getter.apply(log);
+    }
+
+    void set(Log log, String value) {
+        setter.accept(log, value);
+    }
+}
@@ -0,0 +1,231 @@
+package com.LogIngestor.Columnar;
+
+import com.LogIngestor.Template.LogTemplateMiner;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Encodings shared by the segment writer and reader: zig-zag delta varints for long columns,
+ * length-prefixed UTF-8 for string columns (length 0 marks null), varint dictionary codes shifted
+ * by one (0 marks null), template IDs with their parameters for messages, and Deflate over each column.
+ */
+final class ColumnCodec {
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private ColumnCodec() {
+    }
+
+    static long epochNanos(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) * NANOS_PER_SECOND + time.getNano();
+    }
+
+    static LocalDateTime fromEpochNanos(long nanos) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(nanos, NANOS_PER_SECOND), (int) Math.floorMod(nanos, NANOS_PER_SECOND), ZoneOffset.UTC);
+    }
+
+    static byte[] encodeLongs(long[] values) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(values.length * 2);
+        long previous = 0;
+        for (long value : values) {
+            writeVarLong(out, zigZag(value - previous));
+            previous = value;
+        }
+        return out.toByteArray();
+    }
+
+    static long[] decodeLongs(ByteBuffer in, int count) {
+        long[] values = new long[count];
+        long previous = 0;
+        for (int i = 0; i < count; i++) {
+            previous += unZigZag(readVarLong(in));
+            values[i] = previous;
+        }
+        return values;
+    }
+
+    static byte[] encodeStrings(String[] values) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(values.length * 16);
+        for (String value : values) writeString(out, value);
+        return out.toByteArray();
+    }
+
+    static String[] decodeStrings(ByteBuffer in, int count) {
+        String[] values = new String[count];
+        for (int i = 0; i < count; i++) values[i] = readString(in);
+        return values;
+    }
+
+    /**
+     * Template-encoded messages: per row a varint tag, 0 for null, 1 for a plain string that follows, or the
+     * template ID plus two followed by the parameter count and the parameters as strings.
+     *
+     * @param matches The template of each message, null where it is kept plain.
+     */
+    static byte[] encodeTemplated(String[] values, LogTemplateMiner.Match[] matches) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(values.length * 8);
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] == null) {
+                writeVarLong(out, 0);
+            } else if (matches[i] == null) {
+                writeVarLong(out, 1);
+                writeString(out, values[i]);
+            } else {
+                writeVarLong(out, matches[i].template().getId() + 2L);
+                writeVarLong(out, matches[i].params().length);
+                for (String param : matches[i].params()) writeString(out, param);
+            }
+        }
+        return out.toByteArray();
+    }
+
+    static TemplatedMessages decodeTemplated(ByteBuffer in, int count) {
+        int[] templates = new int[count];
+        int[] offsets = new int[count];
+        List<String> values = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int tag = (int) readVarLong(in);
+            offsets[i] = values.size();
+            if (tag == 0) {
+                templates[i] = TemplatedMessages.NULL;
+            } else if (tag == 1) {
+                templates[i] = TemplatedMessages.PLAIN;
+                values.add(readString(in));
+            } else {
+                templates[i] = tag - 2;
+                int params = (int) readVarLong(in);
+                for (int p = 0; p < params; p++) values.add(readString(in));
+            }
+        }
+        return new TemplatedMessages(templates, offsets, values.toArray(new String[0]));
+    }
+
+    static byte[] encodeCodes(int[] codes) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(codes.length * 2);
+        for (int code : codes) writeVarLong(out, code + 1L);
+        return out.toByteArray();
+    }
+
+    /**
+     * @return The codes, with {@code -1} for null values.
+     */
+    static int[] decodeCodes(ByteBuffer in, int count) {
+        int[] codes = new int[count];
+        for (int i = 0; i < count; i++) codes[i] = (int) readVarLong(in) - 1;
+        return codes;
+    }
+
+    /**
+     * Length of {@link #encodeStrings(String[])} without building it.
+     */
+    static long encodedLength(String[] values) {
+        long length = 0;
+        for (String value : values) {
+            if (value == null) {
+                length++;
+                continue;
+            }
+            long bytes = value.getBytes(StandardCharsets.UTF_8).length;
+            length += varLongLength(bytes + 1) + bytes;
+        }
+        return length;
+    }
+
+    static byte[] deflate(byte[] raw) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, raw.length / 4));
+            byte[] buffer = new byte[64 * 1024];
+            while (!deflater.finished()) {
+                int n = deflater.deflate(buffer);
+                out.write(buffer, 0, n);
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    static ByteBuffer inflate(ByteBuffer compressed, int rawLength) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed);
+            byte[] raw = new byte[rawLength];
+            int read = 0;
+            while (read < rawLength) {
+                int n = inflater.inflate(raw, read, rawLength - read);
+                if (n == 0 && (inflater.finished() || inflater.needsInput())) break;
+                read += n;
+            }
+            if (read != rawLength) throw new IllegalStateException("Truncated column: " + read + " of " + rawLength + " bytes");
+            return ByteBuffer.wrap(raw);
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Corrupt column", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static void writeVarLong(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static void writeString(ByteArrayOutputStream out, String value) {
+        if (value == null) {
+            writeVarLong(out, 0);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(out, bytes.length + 1L);
+        out.write(bytes, 0, bytes.length);
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = (int) readVarLong(in);
+        if (length == 0) return null;
+        String value = new String(in.array(), in.arrayOffset() + in.position(), length - 1, StandardCharsets.UTF_8);
+        in.position(in.position() + length - 1);
+        return value;
+    }
+
+    private static int varLongLength(long value) {
+        int length = 1;
+        while ((value & ~0x7FL) != 0) {
+            value >>>= 7;
+            length++;
+        }
+        return length;
+    }
+
+    private static long readVarLong(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) return value;
+        }
+    }
+}
@@ -0,0 +1,363 @@
+package com.LogIngestor.Columnar;
+
+import com.LogIngestor.Config.IngestProperties;
+import com.LogIngestor.Config.StorageProperties;
+import com.LogIngestor.Dictionary.StringDictionary;
+import com.LogIngestor.Model.Log;
+import com.LogIngestor.Model.LogCursor;
+import com.LogIngestor.Model.LogQuery;
+import com.LogIngestor.Model.StorageFootprint;
+import com.LogIngestor.Template.LogTemplate;
+import com.LogIngestor.Template.LogTemplateMiner;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Embedded log store made of immutable {@link ColumnarSegment}s.
+ *
+ * <p>Appended logs are buffered in memory and written out as a new segment every {@code flushIntervalMs}.
+ * Background compaction merges small segments into larger ones. The set of live segments is recorded
+ * in a manifest that is replaced atomically, so a crash during a flush or compaction never exposes
+ * half-written or duplicated segments. Logs still buffered when the process dies are lost.</p>
+ *
+ * <p>When {@code messageTemplates} is on, messages are mined into templates as segments are written, off the
+ * ingest path, and stored as a template ID plus parameters. The templates are journaled next to the segments.</p>
+ */
+@Component
+@ConditionalOnProperty(name = StorageProperties.ENGINE, havingValue = "columnar")
+public class ColumnarLogStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(ColumnarLogStore.class);
+    private static final String MANIFEST = "MANIFEST";
+    private static final String DICTIONARY = "DICTIONARY";
+    private static final String TEMPLATES = "TEMPLATES";
+    private static final String SEGMENT_SUFFIX = ".seg";
+    static final Comparator<Log> ORDER = Comparator.comparing(Log::getTimestamp).thenComparing(Log::getId);
+
+    private final StorageProperties properties;
+    private final StringDictionary dictionary;
+    private final LogTemplateMiner templates;
+    private final int maxBufferedRows;
+    private final Path directory;
+    private final AtomicLong nextId = new AtomicLong(1);
+    private final AtomicLong nextGeneration = new AtomicLong(1);
+
+    // Guarded by this: readers take a consistent snapshot of all three.
+    private List<Log> buffer = new ArrayList<>();
+    private List<List<Log>> flushing = List.of();
+    private List<ColumnarSegment> segments = List.of();
+
+    /**
+     * Constructor for ColumnarLogStore.
+     *
+     * @param properties       The storage configuration.
+     * @param dictionary       The dictionary encoding low-cardinality columns; journaled next to the segments.
+     * @param ingestProperties The ingest configuration; its queue capacity bounds the rows buffered in memory.
+     * @param templates        The miner turning messages into templates; journaled next to the segments.
+     */
+    @Autowired
+    public ColumnarLogStore(StorageProperties properties, StringDictionary dictionary, IngestProperties ingestProperties,
+                            LogTemplateMiner templates) {
+        this.properties = properties;
+        this.dictionary = dictionary;
+        this.templates = templates;
+        this.maxBufferedRows = ingestProperties.getQueueCapacity();
+        this.directory = Path.of(properties.getDirectory());
+    }
+
+    @PostConstruct
+    void open() throws IOException {
+        Files.createDirectories(directory);
+        dictionary.open(directory.resolve(DICTIONARY));
+        templates.open(directory.resolve(TEMPLATES));
+        Set<String> live = new HashSet<>();
+        Path manifest = directory.resolve(MANIFEST);
+        if (Files.exists(manifest)) {
+            for (String name : Files.readAllLines(manifest, StandardCharsets.UTF_8)) {
+                if (!name.isBlank()) live.add(name.trim());
+            }
+        }
+        List<ColumnarSegment> opened = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                if (live.contains(name)) {
+                    ColumnarSegment segment = ColumnarSegment.open(file, dictionary, templates);
+                    opened.add(segment);
+                    nextId.accumulateAndGet(segment.getMaxId() + 1, Math::max);
+                    nextGeneration.accumulateAndGet(generation(name) + 1, Math::max);
+                } else if (name.endsWith(SEGMENT_SUFFIX) || name.endsWith(".tmp")) {
+                    // Left behind by an interrupted flush or compaction.
+                    Files.delete(file);
+                }
+            }
+        }
+        segments = List.copyOf(opened);
+        logger.info("Opened columnar store {}: {} segments, {} logs", directory, opened.size(),
+                opened.stream().mapToLong(ColumnarSegment::getRowCount).sum());
+    }
+
+    @PreDestroy
+    void close() throws IOException {
+        flush();
+        dictionary.close();
+        templates.close();
+    }
+
+    /**
+     * Assigns IDs to the logs and buffers them for the next flush. Repeated values are replaced by the
+     * dictionary's shared instances.
+     *
+     * @return The number of logs accepted; the rest did not fit in the buffer.
+     */
+    public int append(List<Log> logs) {
+        synchronized (this) {
+            int room = Math.max(0, maxBufferedRows - buffer.size() - flushing.stream().mapToInt(List::size).sum());
+            int accepted = Math.min(room, logs.size());
+            for (int i = 0; i < accepted; i++) {
+                Log log = logs.get(i);
+                log.setId(nextId.getAndIncrement());
+                for (Column column : Column.STRINGS) {
+                    if (column.isDictionary()) column.set(log, dictionary.canonical(column.get(log)));
+                }
+                buffer.add(log);
+            }
+            return accepted;
+        }
+    }
+
+    /**
+     * Returns, in {@code (timestamp, id)} order, the first {@code limit} logs after {@code after} that match {@code query}.
+     */
+    public List<Log> find(LogQuery query, LogCursor after, int limit) {
+        List<Log> buffered = new ArrayList<>();
+        List<ColumnarSegment> current;
+        synchronized (this) {
+            collect(buffer, query, after, buffered);
+            for (List<Log> batch : flushing) collect(batch, query, after, buffered);
+            current = segments;
+        }
+        List<Log> result = new ArrayList<>(buffered);
+        for (ColumnarSegment segment : current) {
+            segment.scan(query, after, limit, result);
+        }
+        result.sort(ORDER);
+        return result.size() > limit ? new ArrayList<>(result.subList(0, limit)) : result;
+    }
+
+    public Log findById(long id) {
+        List<ColumnarSegment> current;
+        synchronized (this) {
+            for (Log log : buffer) if (log.getId() == id) return log;
+            for (List<Log> batch : flushing) for (Log log : batch) if (log.getId() == id) return log;
+            current = segments;
+        }
+        for (ColumnarSegment segment : current) {
+            Log log = segment.find(id);
+            if (log != null) return log;
+        }
+        return null;
+    }
+
+    /**
+     * Counts the logs matching {@code query} per message template cluster, using the stored template IDs where
+     * messages are template-encoded. Buffered logs and plain messages are classified against the current templates.
+     *
+     * @return The counts by cluster ID; messages without a template are counted under -1.
+     */
+    public Map<Integer, Long> countTemplates(LogQuery query) {
+        Map<Integer, Long> counts = new HashMap<>();
+        List<ColumnarSegment> current;
+        synchronized (this) {
+            countBuffered(buffer, query, counts);
+            for (List<Log> batch : flushing) countBuffered(batch, query, counts);
+            current = segments;
+        }
+        for (ColumnarSegment segment : current) {
+            segment.countTemplates(query, counts, -1);
+        }
+        return counts;
+    }
+
+    /**
+     * Writes the buffered logs out as a new segment.
+     */
+    @Scheduled(initialDelayString = "${log.storage.flush-interval-ms:1000}", fixedDelayString = "${log.storage.flush-interval-ms:1000}")
+    public void flush() {
+        List<Log> batch;
+        synchronized (this) {
+            if (buffer.isEmpty()) return;
+            batch = buffer;
+            buffer = new ArrayList<>();
+            flushing = concat(flushing, batch);
+        }
+        List<Log> sorted = new ArrayList<>(batch);
+        sorted.sort(ORDER);
+        try {
+            ColumnarSegment segment = writeSegment(sorted);
+            synchronized (this) {
+                List<ColumnarSegment> updated = new ArrayList<>(segments);
+                updated.add(segment);
+                writeManifest(updated);
+                segments = List.copyOf(updated);
+                flushing = flushing.stream().filter(pending -> pending != batch).toList();
+            }
+            logger.debug("Flushed {} logs to {}", sorted.size(), segment.getFile().getFileName());
+        } catch (IOException | UncheckedIOException e) {
+            // Keep the rows visible and retry them with the next flush.
+            synchronized (this) {
+                flushing = flushing.stream().filter(pending -> pending != batch).toList();
+                batch.addAll(buffer);
+                buffer = batch;
+            }
+            logger.error("Failed to flush {} logs to the columnar store", sorted.size(), e);
+        }
+    }
+
+    /**
+     * Merges small segments once there are at least {@code compactionMinSegments} of them.
+     */
+    @Scheduled(initialDelayString = "${log.storage.compaction-interval-ms:60000}", fixedDelayString = "${log.storage.compaction-interval-ms:60000}")
+    public void compact() {
+        int target = properties.getCompactionTargetRows();
+        List<ColumnarSegment> small;
+        synchronized (this) {
+            small = segments.stream().filter(segment -> segment.getRowCount() < target).toList();
+        }
+        if (small.size() < properties.getCompactionMinSegments()) return;
+
+        long started = System.currentTimeMillis();
+        List<Log> rows = new ArrayList<>();
+        for (ColumnarSegment segment : small) rows.addAll(segment.readAll());
+        rows.sort(ORDER);
+        try {
+            List<ColumnarSegment> merged = new ArrayList<>();
+            for (int from = 0; from < rows.size(); from += target) {
+                merged.add(writeSegment(rows.subList(from, Math.min(rows.size(), from + target))));
+            }
+            synchronized (this) {
+                List<ColumnarSegment> updated = new ArrayList<>(segments);
+                updated.removeAll(small);
+                updated.addAll(merged);
+                writeManifest(updated);
+                segments = List.copyOf(updated);
+            }
+            for (ColumnarSegment segment : small) Files.deleteIfExists(segment.getFile());
+            logger.info("Compacted {} segments into {} ({} logs) in {} ms", small.size(), merged.size(), rows.size(),
+                    System.currentTimeMillis() - started);
+        } catch (IOException | UncheckedIOException e) {
+            logger.error("Columnar compaction failed", e);
+        }
+    }
+
+    public int getSegmentCount() {
+        synchronized (this) {
+            return segments.size();
+        }
+    }
+
+    /**
+     * Disk and estimated heap footprint of the flushed segments, per column.
+     */
+    public StorageFootprint getFootprint() {
+        List<ColumnarSegment> current;
+        synchronized (this) {
+            current = segments;
+        }
+        StorageFootprint footprint = StorageFootprint.ofDictionary(dictionary);
+        footprint.setSegments(current.size());
+        footprint.setTemplates(templates.size());
+        Map<String, StorageFootprint.ColumnFootprint> columns = new LinkedHashMap<>();
+        for (ColumnarSegment segment : current) {
+            footprint.setRows(footprint.getRows() + segment.getRowCount());
+            footprint.setDiskBytes(footprint.getDiskBytes() + segment.getSizeOnDisk());
+            for (ColumnarSegment.ColumnStats stats : segment.getColumnStats()) {
+                StorageFootprint.ColumnFootprint column = columns.computeIfAbsent(stats.column(), StorageFootprint.ColumnFootprint::new);
+                if (stats.dictionaryEncoded()) column.setDictionaryEncodedSegments(column.getDictionaryEncodedSegments() + 1);
+                if (stats.templateEncoded()) column.setTemplateEncodedSegments(column.getTemplateEncodedSegments() + 1);
+                column.setStoredBytes(column.getStoredBytes() + stats.storedBytes());
+                column.setRawBytes(column.getRawBytes() + stats.rawBytes());
+                column.setPlainBytes(column.getPlainBytes() + stats.plainBytes());
+            }
+        }
+        footprint.setColumns(new ArrayList<>(columns.values()));
+        footprint.estimateHeap();
+        return footprint;
+    }
+
+    private ColumnarSegment writeSegment(List<Log> sorted) throws IOException {
+        Path file = directory.resolve(String.format("segment-%016d%s", nextGeneration.getAndIncrement(), SEGMENT_SUFFIX));
+        ColumnarSegment.write(file, sorted, dictionary, properties.isMessageTemplates() ? templates : null);
+        dictionary.sync();
+        templates.sync();
+        return ColumnarSegment.open(file, dictionary, templates);
+    }
+
+    private void writeManifest(List<ColumnarSegment> live) {
+        Path manifest = directory.resolve(MANIFEST);
+        Path tmp = directory.resolve(MANIFEST + ".tmp");
+        try {
+            Files.write(tmp, live.stream().map(segment -> segment.getFile().getFileName().toString()).toList(), StandardCharsets.UTF_8);
+            Files.move(tmp, manifest, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void collect(List<Log> logs, LogQuery query, LogCursor after, List<Log> out) {
+        for (Log log : logs) {
+            if (isAfter(log, after) && query.matches(log)) out.add(log);
+        }
+    }
+
+    private void countBuffered(List<Log> logs, LogQuery query, Map<Integer, Long> counts) {
+        for (Log log : logs) {
+            if (!query.matches(log)) continue;
+            LogTemplate template = templates.classify(log.getMessage());
+            counts.merge(template == null ? -1 : template.getClusterId(), 1L, Long::sum);
+        }
+    }
+
+    private static boolean isAfter(Log log, LogCursor after) {
+        if (after == null) return true;
+        int byTimestamp = log.getTimestamp().compareTo(after.timestamp());
+        return byTimestamp > 0 || (byTimestamp == 0 && log.getId() > after.id());
+    }
+
+    private static <T> List<T> concat(List<T> list, T element) {
+        List<T> result = new ArrayList<>(list);
+        result.add(element);
+        return List.copyOf(result);
+    }
+
+    private static long generation(String name) {
+        try {
+            return Long.parseLong(name.substring("segment-".length(), name.length() - SEGMENT_SUFFIX.length()));
+        } catch (RuntimeException e) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,498 @@
+package com.LogIngestor.Columnar;
+
+import com.LogIngestor.Dictionary.CodeMatcher;
+import com.LogIngestor.Dictionary.StringDictionary;
+import com.LogIngestor.Model.Log;
+import com.LogIngestor.Model.LogCursor;
+import com.LogIngestor.Model.LogQuery;
+import com.LogIngestor.Template.LogTemplate;
+import com.LogIngestor.Template.LogTemplateMiner;
+import com.LogIngestor.Template.TemplateMatcher;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.ref.SoftReference;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.IntConsumer;
+import java.util.function.Predicate;
+
+/**
+ * An immutable, memory-mapped file holding a run of logs sorted by {@code (timestamp, id)}, one
+ * Deflate-compressed block per {@link Column}. The header carries the row count, the timestamp and ID
+ * ranges and the distinct levels, so whole segments are skipped without touching their columns.
+ *
+ * <p>Columns are decompressed on first use and kept behind soft references, so repeated scans of a
+ * hot segment do not inflate it again while memory allows. Dictionary columns are filtered on their
+ * codes and decode to the dictionary's shared strings. A template-encoded message column is filtered
+ * per template first, and only rows whose template cannot decide the filter are rebuilt and tested.</p>
+ */
+final class ColumnarSegment {
+
+    private static final long MAGIC_V1 = 0x4C4F475345473031L; // "LOGSEG01"
+    private static final long MAGIC = 0x4C4F475345473032L; // "LOGSEG02", adds per-column encodings
+    private static final byte PLAIN = 0;
+    private static final byte DICTIONARY = 1;
+    private static final byte TEMPLATE = 2;
+
+    /**
+     * Sizes of one column: as stored, once inflated, and as plain strings would have been before inflation.
+     */
+    record ColumnStats(String column, boolean dictionaryEncoded, boolean templateEncoded, long storedBytes, long rawBytes, long plainBytes) {
+    }
+
+    private final Path file;
+    private final MappedByteBuffer buffer;
+    private final StringDictionary dictionary;
+    private final LogTemplateMiner templates;
+    private final int rowCount;
+    private final long minTimestamp;
+    private final long maxTimestamp;
+    private final long minId;
+    private final long maxId;
+    private final Set<String> levels;
+    private final long[] offsets;
+    private final int[] compressedLengths;
+    private final int[] rawLengths;
+    private final byte[] encodings;
+    private final long[] plainLengths;
+    private final SoftReference<?>[] decoded;
+
+    private ColumnarSegment(Path file, MappedByteBuffer buffer, StringDictionary dictionary, LogTemplateMiner templates) {
+        this.file = file;
+        this.buffer = buffer;
+        this.dictionary = dictionary;
+        this.templates = templates;
+        ByteBuffer header = buffer.duplicate();
+        long magic = header.getLong();
+        if (magic != MAGIC && magic != MAGIC_V1) throw new IllegalStateException("Not a log segment: " + file);
+        rowCount = header.getInt();
+        minTimestamp = header.getLong();
+        maxTimestamp = header.getLong();
+        minId = header.getLong();
+        maxId = header.getLong();
+        int levelCount = header.getInt();
+        levels = new LinkedHashSet<>();
+        for (int i = 0; i < levelCount; i++) {
+            byte[] bytes = new byte[header.getShort() & 0xFFFF];
+            header.get(bytes);
+            levels.add(new String(bytes, StandardCharsets.UTF_8));
+        }
+        int columns = header.getInt();
+        offsets = new long[columns];
+        compressedLengths = new int[columns];
+        rawLengths = new int[columns];
+        encodings = new byte[columns];
+        plainLengths = new long[columns];
+        for (int i = 0; i < columns; i++) {
+            offsets[i] = header.getLong();
+            compressedLengths[i] = header.getInt();
+            rawLengths[i] = header.getInt();
+            if (magic == MAGIC) {
+                encodings[i] = header.get();
+                plainLengths[i] = header.getLong();
+            } else {
+                plainLengths[i] = rawLengths[i];
+            }
+        }
+        decoded = new SoftReference<?>[columns];
+    }
+
+    /**
+     * Writes {@code rows}, which must be sorted by {@code (timestamp, id)}, to {@code file} atomically.
+     * Dictionary columns fall back to plain strings if the dictionary cannot take every value; messages are
+     * mined into templates when {@code templates} is given. New dictionary entries and templates must be
+     * synced before the segment is published.
+     */
+    static void write(Path file, List<Log> rows, StringDictionary dictionary, LogTemplateMiner templates) throws IOException {
+        int count = rows.size();
+        long[] ids = new long[count];
+        long[] timestamps = new long[count];
+        Set<String> levels = new LinkedHashSet<>();
+        for (int i = 0; i < count; i++) {
+            Log log = rows.get(i);
+            ids[i] = log.getId();
+            timestamps[i] = ColumnCodec.epochNanos(log.getTimestamp());
+            if (log.getLevel() != null) levels.add(log.getLevel());
+        }
+        List<byte[]> raw = new ArrayList<>(Column.values().length);
+        byte[] encodings = new byte[Column.values().length];
+        long[] plainLengths = new long[Column.values().length];
+        raw.add(ColumnCodec.encodeLongs(ids));
+        raw.add(ColumnCodec.encodeLongs(timestamps));
+        plainLengths[Column.ID.ordinal()] = raw.get(0).length;
+        plainLengths[Column.TIMESTAMP.ordinal()] = raw.get(1).length;
+        for (Column column : Column.STRINGS) {
+            String[] values = new String[count];
+            for (int i = 0; i < count; i++) values[i] = column.get(rows.get(i));
+            int[] codes = column.isDictionary() ? encode(values, dictionary) : null;
+            if (column == Column.MESSAGE && templates != null) {
+                LogTemplateMiner.Match[] matches = new LogTemplateMiner.Match[count];
+                for (int i = 0; i < count; i++) matches[i] = templates.mine(values[i]);
+                raw.add(ColumnCodec.encodeTemplated(values, matches));
+                encodings[column.ordinal()] = TEMPLATE;
+                plainLengths[column.ordinal()] = ColumnCodec.encodedLength(values);
+            } else if (codes != null) {
+                raw.add(ColumnCodec.encodeCodes(codes));
+                encodings[column.ordinal()] = DICTIONARY;
+                plainLengths[column.ordinal()] = ColumnCodec.encodedLength(values);
+            } else {
+                raw.add(ColumnCodec.encodeStrings(values));
+                plainLengths[column.ordinal()] = raw.get(raw.size() - 1).length;
+            }
+        }
+        List<byte[]> compressed = raw.stream().map(ColumnCodec::deflate).toList();
+
+        long minId = Long.MAX_VALUE;
+        long maxId = Long.MIN_VALUE;
+        for (long id : ids) {
+            minId = Math.min(minId, id);
+            maxId = Math.max(maxId, id);
+        }
+        List<byte[]> levelBytes = levels.stream().map(level -> level.getBytes(StandardCharsets.UTF_8)).toList();
+        long headerLength = 8 + 4 + 4 * 8 + 4 + levelBytes.stream().mapToLong(bytes -> 2 + bytes.length).sum()
+                + 4 + (long) compressed.size() * (8 + 4 + 4 + 1 + 8);
+
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp), 1 << 16))) {
+            out.writeLong(MAGIC);
+            out.writeInt(count);
+            out.writeLong(count == 0 ? 0 : timestamps[0]);
+            out.writeLong(count == 0 ? 0 : timestamps[count - 1]);
+            out.writeLong(minId);
+            out.writeLong(maxId);
+            out.writeInt(levelBytes.size());
+            for (byte[] bytes : levelBytes) {
+                out.writeShort(bytes.length);
+                out.write(bytes);
+            }
+            out.writeInt(compressed.size());
+            long offset = headerLength;
+            for (int i = 0; i < compressed.size(); i++) {
+                out.writeLong(offset);
+                out.writeInt(compressed.get(i).length);
+                out.writeInt(raw.get(i).length);
+                out.writeByte(encodings[i]);
+                out.writeLong(plainLengths[i]);
+                offset += compressed.get(i).length;
+            }
+            for (byte[] column : compressed) out.write(column);
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    static ColumnarSegment open(Path file, StringDictionary dictionary, LogTemplateMiner templates) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return new ColumnarSegment(file, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()), dictionary, templates);
+        }
+    }
+
+    /**
+     * @return The dictionary codes of every value, or null if some value has none.
+     */
+    private static int[] encode(String[] values, StringDictionary dictionary) {
+        int[] codes = new int[values.length];
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] == null) {
+                codes[i] = StringDictionary.NONE;
+                continue;
+            }
+            codes[i] = dictionary.code(values[i]);
+            if (codes[i] == StringDictionary.NONE) return null;
+        }
+        return codes;
+    }
+
+    Path getFile() {
+        return file;
+    }
+
+    int getRowCount() {
+        return rowCount;
+    }
+
+    long getMaxId() {
+        return maxId;
+    }
+
+    long getSizeOnDisk() {
+        return buffer.capacity();
+    }
+
+    List<ColumnStats> getColumnStats() {
+        List<ColumnStats> stats = new ArrayList<>(offsets.length);
+        for (Column column : Column.values()) {
+            int i = column.ordinal();
+            stats.add(new ColumnStats(column.name(), encodings[i] == DICTIONARY, encodings[i] == TEMPLATE, compressedLengths[i], rawLengths[i], plainLengths[i]));
+        }
+        return stats;
+    }
+
+    /**
+     * Adds to {@code out}, in {@code (timestamp, id)} order, the first {@code limit} rows after {@code after}
+     * that match {@code query}.
+     */
+    void scan(LogQuery query, LogCursor after, int limit, List<Log> out) {
+        if (!mayContain(query, after)) return;
+        List<Integer> matched = new ArrayList<>();
+        match(query, after, limit, matched::add);
+        if (matched.isEmpty()) return;
+        materialize(matched, longs(Column.TIMESTAMP), longs(Column.ID), out);
+    }
+
+    /**
+     * Counts the rows matching {@code query} per template cluster, without rebuilding messages where the
+     * column is template-encoded. Plain messages are classified against the current templates.
+     *
+     * @param unclustered The key counting messages without a template.
+     */
+    void countTemplates(LogQuery query, Map<Integer, Long> counts, int unclustered) {
+        if (!mayContain(query, null)) return;
+        TemplatedMessages messages = encodings[Column.MESSAGE.ordinal()] == TEMPLATE ? templated() : null;
+        String[] plain = messages == null ? strings(Column.MESSAGE) : null;
+        match(query, null, Integer.MAX_VALUE, row -> {
+            LogTemplate template;
+            if (messages != null && messages.template(row) >= 0) template = templates.template(messages.template(row));
+            else template = templates.classify(messages != null ? messages.message(row, templates) : plain[row]);
+            counts.merge(template == null ? unclustered : template.getClusterId(), 1L, Long::sum);
+        });
+    }
+
+    /**
+     * Passes the index of each of the first {@code limit} rows after {@code after} matching {@code query}, in order.
+     */
+    private void match(LogQuery query, LogCursor after, int limit, IntConsumer out) {
+        long[] timestamps = longs(Column.TIMESTAMP);
+        long[] ids = longs(Column.ID);
+
+        long start = query.getStartTime() == null ? Long.MIN_VALUE : ColumnCodec.epochNanos(query.getStartTime());
+        long end = query.getEndTime() == null ? Long.MAX_VALUE : ColumnCodec.epochNanos(query.getEndTime());
+        boolean inclusive = query.isInclusiveTimeBounds();
+        int from = lowerBound(timestamps, start);
+        int to = query.getEndTime() == null ? rowCount : upperBound(timestamps, end);
+        if (after != null) {
+            long cursorTimestamp = ColumnCodec.epochNanos(after.timestamp());
+            int first = lowerBound(timestamps, cursorTimestamp);
+            while (first < rowCount && timestamps[first] == cursorTimestamp && ids[first] <= after.id()) first++;
+            from = Math.max(from, first);
+        }
+        if (from >= to) return;
+
+        ColumnFilter level = query.getLevel() == null ? null : filter(Column.LEVEL, query::matchesLevel);
+        ColumnFilter resource = query.getResourceId() == null ? null : filter(Column.RESOURCE_ID, query::matchesResourceId);
+        ColumnFilter message = query.getMessage() == null && query.getRegex() == null ? null : messageFilter(query);
+        // Terms of a compiled query that no column filter covers are checked on the rebuilt row, last.
+        RowReader residual = query.getResidual() == null ? null : new RowReader(timestamps, ids);
+
+        int found = 0;
+        for (int i = from; i < to && found < limit; i++) {
+            long timestamp = timestamps[i];
+            if (!inclusive && (timestamp == start || timestamp == end)) continue;
+            if (level != null && !level.matches(i)) continue;
+            if (resource != null && !resource.matches(i)) continue;
+            if (message != null && !message.matches(i)) continue;
+            if (residual != null && !query.getResidual().test(residual.read(i))) continue;
+            out.accept(i);
+            found++;
+        }
+    }
+
+    /**
+     * @return The log with this ID, or null if the segment does not hold it.
+     */
+    Log find(long id) {
+        if (id < minId || id > maxId) return null;
+        long[] ids = longs(Column.ID);
+        for (int i = 0; i < rowCount; i++) {
+            if (ids[i] == id) {
+                List<Log> out = new ArrayList<>(1);
+                materialize(List.of(i), longs(Column.TIMESTAMP), ids, out);
+                return out.get(0);
+            }
+        }
+        return null;
+    }
+
+    List<Log> readAll() {
+        List<Integer> rows = new ArrayList<>(rowCount);
+        for (int i = 0; i < rowCount; i++) rows.add(i);
+        List<Log> out = new ArrayList<>(rowCount);
+        materialize(rows, longs(Column.TIMESTAMP), longs(Column.ID), out);
+        return out;
+    }
+
+    /**
+     * Segment-level skipping based on the header statistics alone.
+     */
+    private boolean mayContain(LogQuery query, LogCursor after) {
+        if (rowCount == 0) return false;
+        if (query.getStartTime() != null && maxTimestamp < ColumnCodec.epochNanos(query.getStartTime())) return false;
+        if (query.getEndTime() != null && minTimestamp > ColumnCodec.epochNanos(query.getEndTime())) return false;
+        if (after != null && maxTimestamp < ColumnCodec.epochNanos(after.timestamp())) return false;
+        return query.getLevel() == null || levels.stream().anyMatch(query::matchesLevel);
+    }
+
+    private void materialize(List<Integer> rows, long[] timestamps, long[] ids, List<Log> out) {
+        RowReader reader = new RowReader(timestamps, ids);
+        for (int row : rows) out.add(reader.read(row));
+    }
+
+    /**
+     * Row filter over one string column: code lookups for dictionary columns, string tests otherwise.
+     */
+    /**
+     * Rebuilds rows as logs, decoding every column once for all the rows read.
+     */
+    private final class RowReader {
+        private final long[] timestamps;
+        private final long[] ids;
+        private final TemplatedMessages messages;
+        private final String[][] columns = new String[Column.STRINGS.length][];
+
+        RowReader(long[] timestamps, long[] ids) {
+            this.timestamps = timestamps;
+            this.ids = ids;
+            this.messages = encodings[Column.MESSAGE.ordinal()] == TEMPLATE ? templated() : null;
+            for (int c = 0; c < columns.length; c++) {
+                // Templated messages are rebuilt for the rows read only.
+                if (messages == null || Column.STRINGS[c] != Column.MESSAGE) columns[c] = strings(Column.STRINGS[c]);
+            }
+        }
+
+        Log read(int row) {
+            Log log = new Log();
+            log.setId(ids[row]);
+            log.setTimestamp(ColumnCodec.fromEpochNanos(timestamps[row]));
+            for (int c = 0; c < columns.length; c++) {
+                Column.STRINGS[c].set(log, columns[c] == null ? messages.message(row, templates) : columns[c][row]);
+            }
+            return log;
+        }
+    }
+
+    private interface ColumnFilter {
+        boolean matches(int row);
+    }
+
+    private ColumnFilter filter(Column column, Predicate<String> predicate) {
+        if (encodings[column.ordinal()] == DICTIONARY) {
+            int[] codes = codes(column);
+            CodeMatcher matcher = dictionary.matcher(predicate);
+            return row -> matcher.matches(codes[row]);
+        }
+        String[] values = strings(column);
+        return row -> predicate.test(values[row]);
+    }
+
+    /**
+     * The message filter: per template where the column is template-encoded, per row otherwise.
+     */
+    private ColumnFilter messageFilter(LogQuery query) {
+        Predicate<String> predicate = value -> query.matchesMessage(value) && query.matchesPattern(value);
+        if (encodings[Column.MESSAGE.ordinal()] != TEMPLATE) {
+            String[] values = strings(Column.MESSAGE);
+            return row -> predicate.test(values[row]);
+        }
+        TemplatedMessages messages = templated();
+        TemplateMatcher matcher = new TemplateMatcher(templates, query);
+        return row -> {
+            int template = messages.template(row);
+            LogTemplate.Coverage coverage = template < 0 ? LogTemplate.Coverage.SOME : matcher.coverage(template);
+            return switch (coverage) {
+                case ALL -> true;
+                case NONE -> false;
+                case SOME -> predicate.test(messages.message(row, templates));
+            };
+        };
+    }
+
+    private long[] longs(Column column) {
+        Object cached = cached(column);
+        if (cached != null) return (long[]) cached;
+        long[] values = ColumnCodec.decodeLongs(raw(column), rowCount);
+        decoded[column.ordinal()] = new SoftReference<>(values);
+        return values;
+    }
+
+    private String[] strings(Column column) {
+        if (encodings[column.ordinal()] == TEMPLATE) {
+            TemplatedMessages messages = templated();
+            String[] values = new String[rowCount];
+            for (int i = 0; i < rowCount; i++) values[i] = messages.message(i, templates);
+            return values;
+        }
+        if (encodings[column.ordinal()] == DICTIONARY) {
+            int[] codes = codes(column);
+            String[] values = new String[rowCount];
+            for (int i = 0; i < rowCount; i++) {
+                if (codes[i] != StringDictionary.NONE) values[i] = dictionary.value(codes[i]);
+            }
+            return values;
+        }
+        Object cached = cached(column);
+        if (cached != null) return (String[]) cached;
+        String[] values = ColumnCodec.decodeStrings(raw(column), rowCount);
+        decoded[column.ordinal()] = new SoftReference<>(values);
+        return values;
+    }
+
+    private int[] codes(Column column) {
+        Object cached = cached(column);
+        if (cached != null) return (int[]) cached;
+        int[] codes = ColumnCodec.decodeCodes(raw(column), rowCount);
+        decoded[column.ordinal()] = new SoftReference<>(codes);
+        return codes;
+    }
+
+    private TemplatedMessages templated() {
+        Object cached = cached(Column.MESSAGE);
+        if (cached != null) return (TemplatedMessages) cached;
+        TemplatedMessages messages = ColumnCodec.decodeTemplated(raw(Column.MESSAGE), rowCount);
+        decoded[Column.MESSAGE.ordinal()] = new SoftReference<>(messages);
+        return messages;
+    }
+
+    private Object cached(Column column) {
+        SoftReference<?> reference = decoded[column.ordinal()];
+        return reference == null ? null : reference.get();
+    }
+
+    private ByteBuffer raw(Column column) {
+        int i = column.ordinal();
+        return ColumnCodec.inflate(buffer.slice((int) offsets[i], compressedLengths[i]), rawLengths[i]);
+    }
+
+    private static int lowerBound(long[] values, long key) {
+        int low = 0;
+        int high = values.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (values[mid] < key) low = mid + 1;
+            else high = mid;
+        }
+        return low;
+    }
+
+    private static int upperBound(long[] values, long key) {
+        int low = 0;
+        int high = values.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (values[mid] <= key) low = mid + 1;
+            else high = mid;
+        }
+        return low;
+    }
+}
@@ -0,0 +1,38 @@
+package com.LogIngestor.Columnar;
+
+import com.LogIngestor.Template.LogTemplateMiner;
+
+/**
+ * A decoded template-encoded message column: per row the template ID and where its parameters start in
+ * one shared array, or a plain message for rows that were not templated. Messages are only rebuilt for
+ * the rows asked for.
+ */
+final class TemplatedMessages {
+
+    static final int NULL = -1;
+    static final int PLAIN = -2;
+
+    private final int[] templates;
+    private final int[] offsets;
+    private final String[] values;
+
+    TemplatedMessages(int[] templates, int[] offsets, String[] values) {
+        this.templates = templates;
+        this.offsets = offsets;
+        this.values = values;
+    }
+
+    /**
+     * The row's template ID, or {@link #NULL} or {@link #PLAIN}.
+     */
+    int template(int row) {
+        return templates[row];
+    }
+
+    String message(int row, LogTemplateMiner miner) {
+        int template = templates[row];
+        if (template == NULL) return null;
+        if (template == PLAIN) return values[offsets[row]];
+        return miner.template(template).render(values, offsets[row]);
+    }
+}
@@ -0,0 +1,35 @@
+package com.LogIngestor.Config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Cache of search results, bound from {@code log.cache.*}.
+ */
+@ConfigurationProperties(prefix = "log.cache")
+@Getter
+@Setter
+public class CacheProperties {
+
+    /**
+     * Cache the results of list searches. Like the hot window, invalidation assumes this instance sees
+     * every ingested log.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Upper bound on the estimated heap held by cached results.
+     */
+    private long maxMegabytes = 128;
+
+    /**
+     * Results with more rows than this are returned but not cached.
+     */
+    private int maxResultRows = 10_000;
+
+    /**
+     * Delay between runs that drop evicted queries from the invalidation index.
+     */
+    private long pruneIntervalMs = 60_000;
+}
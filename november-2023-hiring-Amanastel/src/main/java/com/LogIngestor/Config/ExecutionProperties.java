@@ -0,0 +1,33 @@
+package com.LogIngestor.Config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Threading model of request handling, bound from {@code log.execution.*}.
+ */
+@ConfigurationProperties(prefix = "log.execution")
+@Getter
+@Setter
+public class ExecutionProperties {
+
+    /**
+     * Handle requests on virtual threads instead of Tomcat's platform thread pool. Needs a JVM with
+     * virtual threads (Java 21+); on older JVMs a warning is logged and platform threads are kept.
+     */
+    private boolean virtualThreads = false;
+
+    /**
+     * Most database connections handed out at once while virtual threads are on; further callers wait.
+     * 0 uses the connection pool's maximum size.
+     */
+    private int maxDbConcurrency = 0;
+
+    /**
+     * Longest a caller waits for a database permit before the call fails.
+     */
+    private Duration dbAcquireTimeout = Duration.ofSeconds(30);
+}
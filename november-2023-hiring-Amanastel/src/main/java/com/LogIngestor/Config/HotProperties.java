@@ -0,0 +1,42 @@
+package com.LogIngestor.Config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * In-memory window of recent logs, bound from {@code log.hot.*}.
+ */
+@ConfigurationProperties(prefix = "log.hot")
+@Getter
+@Setter
+public class HotProperties {
+
+    /**
+     * Keep recent logs in memory and answer recent searches from them. Assumes this instance sees every
+     * ingested log, i.e. a single ingestor writes to the database.
+     */
+    private boolean enabled = true;
+
+    /**
+     * How far back the window reaches.
+     */
+    private Duration window = Duration.ofMinutes(15);
+
+    /**
+     * Upper bound on the estimated heap used by the window; the oldest buckets are dropped first.
+     */
+    private long maxMegabytes = 256;
+
+    /**
+     * Width of one time bucket, the unit of eviction.
+     */
+    private Duration bucket = Duration.ofMinutes(1);
+
+    /**
+     * Delay between eviction runs.
+     */
+    private long evictionIntervalMs = 5_000;
+}
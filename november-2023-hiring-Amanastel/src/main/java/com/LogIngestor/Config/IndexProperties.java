@@ -0,0 +1,46 @@
+package com.LogIngestor.Config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * In-process message indexes, bound from {@code log.index.*}.
+ */
+@ConfigurationProperties(prefix = "log.index")
+@Getter
+@Setter
+public class IndexProperties {
+
+    /**
+     * Directory holding index snapshots. Blank keeps the indexes in memory only.
+     */
+    private String directory = "data/index";
+
+    /**
+     * How often the indexes are written to {@link #directory}.
+     */
+    private long snapshotIntervalMs = 300_000;
+
+    /**
+     * Rows fetched per query while rebuilding or catching up from the repository.
+     */
+    private int rebuildBatchSize = 5_000;
+
+    /**
+     * IDs below a snapshot's high-water mark that are re-read on startup. Writer threads allocate IDs in
+     * pooled blocks, so rows with lower IDs can commit after a higher one was already indexed.
+     */
+    private long catchUpOverlap = 100_000;
+
+    /**
+     * Longest token indexed by the term index; longer tokens are usually hashes or payloads.
+     */
+    private int maxTermLength = 64;
+
+    /**
+     * Largest trigram candidate set turned into an ID filter. Broader regexes are not worth an
+     * {@code IN} list and are filtered by the database and the pattern as before.
+     */
+    private int trigramMaxCandidates = 10_000;
+}
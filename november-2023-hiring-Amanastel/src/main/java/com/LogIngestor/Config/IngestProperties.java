@@ -0,0 +1,61 @@
+package com.LogIngestor.Config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Tuning knobs for the asynchronous ingest pipeline, bound from {@code log.ingest.*}.
+ */
+@ConfigurationProperties(prefix = "log.ingest")
+@Getter
+@Setter
+public class IngestProperties {
+
+    /**
+     * Maximum number of logs waiting to be written. Once full, new logs are rejected.
+     */
+    private int queueCapacity = 100_000;
+
+    /**
+     * Number of logs written per transaction / JDBC batch.
+     */
+    private int batchSize = 500;
+
+    /**
+     * Maximum time a partially filled batch waits before it is flushed.
+     */
+    private long flushIntervalMs = 200;
+
+    /**
+     * How long a producer waits for queue space before the log is rejected.
+     */
+    private long offerTimeoutMs = 100;
+
+    /**
+     * Number of threads draining the queue into the database.
+     */
+    private int writerThreads = 2;
+
+    /**
+     * Times a batch is written again after the database failed it, before its logs are dropped and counted
+     * as {@code log.ingest.dropped}. Batches the database rejects for their contents are not retried but
+     * written one log at a time instead.
+     */
+    private int writeRetries = 3;
+
+    /**
+     * Wait before the first retry of a failed batch; it doubles with each further retry.
+     */
+    private long writeRetryBackoffMs = 200;
+
+    /**
+     * Longest NDJSON line accepted by the streaming endpoint; longer lines are reported and skipped.
+     */
+    private int streamMaxLineBytes = 1024 * 1024;
+
+    /**
+     * Maximum number of malformed lines reported back per stream. Further errors are only counted.
+     */
+    private int streamMaxReportedErrors = 100;
+}
@@ -0,0 +1,61 @@
+package com.LogIngestor.Config;
+
+import com.LogIngestor.Partition.PartitionGranularity;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Time partitioning and retention of the log table, bound from {@code log.partition.*}.
+ */
+@ConfigurationProperties(prefix = "log.partition")
+@Getter
+@Setter
+public class PartitionProperties {
+
+    /**
+     * Manage MySQL range partitions on {@code log.timestamp}. Ignored on other databases.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Width of one partition.
+     */
+    private PartitionGranularity granularity = PartitionGranularity.DAY;
+
+    /**
+     * Number of partitions kept ready ahead of the current one, so ingestion never waits for DDL.
+     */
+    private int precreate = 7;
+
+    /**
+     * Most partitions created for existing data when the table is first partitioned; older rows
+     * share a single history partition. MySQL allows at most 8192 partitions per table.
+     */
+    private int maxInitialPartitions = 1_000;
+
+    /**
+     * Partition an existing unpartitioned table that already holds rows. This rebuilds the whole table and
+     * changes its primary key to {@code (id, timestamp)}, blocking writes while it runs, so it is meant for a
+     * planned migration; unset, such a table is left alone and retention falls back to {@code DELETE}.
+     * Empty tables are always partitioned.
+     */
+    private boolean migrateExistingTable;
+
+    /**
+     * How long logs are kept, e.g. {@code 30d}. Unset, the default, keeps logs forever.
+     */
+    private Duration retention;
+
+    /**
+     * Rows removed per statement when retention has to fall back to {@code DELETE} (unpartitioned tables).
+     */
+    private int deleteBatchSize = 10_000;
+
+    /**
+     * Delay between maintenance runs.
+     */
+    private long maintenanceIntervalMs = 3_600_000;
+}
@@ -0,0 +1,56 @@
+package com.LogIngestor.Config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Pre-aggregated log counts behind {@code /logs/stats}, bound from {@code log.rollup.*}.
+ */
+@ConfigurationProperties(prefix = "log.rollup")
+@Getter
+@Setter
+public class RollupProperties {
+
+    /**
+     * Count ingested logs per minute, hour and day by level and resource.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Delay between writes of the in-memory counters to the rollup table.
+     */
+    private long flushIntervalMs = 5_000;
+
+    /**
+     * How long per-minute counts are kept.
+     */
+    private Duration minuteRetention = Duration.ofDays(7);
+
+    /**
+     * How long per-hour counts are kept.
+     */
+    private Duration hourRetention = Duration.ofDays(90);
+
+    /**
+     * How long per-day counts are kept. Unset keeps them forever.
+     */
+    private Duration dayRetention;
+
+    /**
+     * Delay between runs removing counts past their retention.
+     */
+    private long pruneIntervalMs = 3_600_000;
+
+    /**
+     * Rows fetched per round trip when existing logs are rolled up on first start.
+     */
+    private int backfillFetchSize = 5_000;
+
+    /**
+     * Most buckets a single stats request may return.
+     */
+    private int maxBuckets = 10_000;
+}
@@ -0,0 +1,46 @@
+package com.LogIngestor.Config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Parallel scans behind regex and multi-filter searches, bound from {@code log.scan.*}.
+ */
+@ConfigurationProperties(prefix = "log.scan")
+@Getter
+@Setter
+public class ScanProperties {
+
+    /**
+     * Size of the pool shared by all scans.
+     */
+    private int threads = 8;
+
+    /**
+     * Chunks of one scan that may run at the same time.
+     */
+    private int parallelism = 4;
+
+    /**
+     * Width of one chunk, in log IDs.
+     */
+    private long chunkIds = 50_000;
+
+    /**
+     * Longest a scan may run before it returns what it has found so far.
+     */
+    private Duration deadline = Duration.ofSeconds(30);
+
+    /**
+     * Most rows a scan may read from the database before it returns what it has found so far.
+     */
+    private long maxRowsScanned = 5_000_000;
+
+    /**
+     * Most scans running at once; further searches are rejected.
+     */
+    private int maxConcurrentScans = 32;
+}
@@ -0,0 +1,48 @@
+package com.LogIngestor.Config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Search behaviour, bound from {@code log.search.*}.
+ */
+@ConfigurationProperties(prefix = "log.search")
+@Getter
+@Setter
+public class SearchProperties {
+
+    /**
+     * Translate regex filters into {@code REGEXP_LIKE} so the database narrows the rows before the
+     * Java pattern runs. Only enable on databases whose regex dialect accepts the patterns in use (MySQL 8, H2).
+     */
+    private boolean regexPushdown = false;
+
+    /**
+     * The log table uses a case-insensitive collation (MySQL's default), so case-insensitive level filters are sent
+     * as a plain {@code level = ?} that the {@code (level, timestamp)} index serves, instead of {@code lower(level) = ?},
+     * which no index can. Such filters are re-checked in memory either way. Leave off on case-sensitive databases.
+     */
+    private boolean caseInsensitiveCollation = false;
+
+    /**
+     * Largest {@code limit} accepted by the paginated search endpoints.
+     */
+    private int maxPageSize = 10_000;
+
+    /**
+     * JDBC fetch size used when streaming exports, so rows arrive in batches instead of all at once.
+     */
+    private int streamFetchSize = 1_000;
+
+    /**
+     * Read database search results through a Hibernate stateless session, mapping rows straight to detached logs
+     * instead of registering, snapshotting and detaching managed entities. Disable to read managed entities.
+     */
+    private boolean statelessReads = true;
+
+    /**
+     * One search in this many logs its full result at DEBUG; the others log nothing.
+     */
+    private int resultLogSampleRate = 100;
+}
@@ -0,0 +1,64 @@
+package com.LogIngestor.Config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Databases of the sharded storage engine and how work is spread over them, bound from {@code log.shard.*}.
+ */
+@ConfigurationProperties(prefix = "log.shard")
+@Getter
+@Setter
+public class ShardProperties {
+
+    /**
+     * Connection settings of one shard database.
+     */
+    @Getter
+    @Setter
+    public static class Shard {
+        private String url;
+        private String username;
+        private String password;
+
+        /**
+         * Connections kept open to this shard.
+         */
+        private int maxPoolSize = 10;
+    }
+
+    /**
+     * Shards logs are written to, in order: a resource's shard is chosen by its position in this list, so new
+     * shards must be appended. Changing the list starts a rebalance.
+     */
+    private List<Shard> shards = new ArrayList<>();
+
+    /**
+     * Shards being removed: still searched, never written to, and emptied into the others by the next rebalance.
+     */
+    private List<Shard> retired = new ArrayList<>();
+
+    /**
+     * Threads running queries and writes on the shards; a search uses one per shard it touches.
+     */
+    private int threads = 16;
+
+    /**
+     * Logs moved per transaction while rebalancing.
+     */
+    private int rebalanceBatchSize = 1_000;
+
+    /**
+     * Rebalance in the background at startup when the shard list changed since the last rebalance.
+     */
+    private boolean rebalanceOnStart = true;
+
+    /**
+     * Distinguishes the IDs generated by this instance from those of other instances writing to the same shards; 0 to 1023.
+     */
+    private int nodeId = 0;
+}
@@ -0,0 +1,64 @@
+package com.LogIngestor.Config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Probabilistic sketches behind {@code /logs/stats?approximate=true}, bound from {@code log.sketch.*}.
+ * Memory per bucket is fixed by the sizes below, whatever the ingest volume.
+ */
+@ConfigurationProperties(prefix = "log.sketch")
+@Getter
+@Setter
+public class SketchProperties {
+
+    /**
+     * Maintain sketches for every ingested log.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Width of one time bucket; ranges are answered in whole buckets.
+     */
+    private Duration bucket = Duration.ofHours(1);
+
+    /**
+     * How long buckets are kept. With {@link #bucket} this bounds the number of buckets held.
+     */
+    private Duration retention = Duration.ofDays(7);
+
+    /**
+     * Levels, compared ignoring case, that get sketches of their own so that ranges can be filtered by them.
+     */
+    private List<String> levels = new ArrayList<>(List.of("error", "warn"));
+
+    /**
+     * HyperLogLog precision: {@code 2^p} one-byte registers, for a standard error of {@code 1.04 / sqrt(2^p)}.
+     */
+    private int hllPrecision = 12;
+
+    /**
+     * Counters per count-min row; counts are over-estimated by at most {@code e / width} of the range total.
+     */
+    private int cmsWidth = 1_024;
+
+    /**
+     * Count-min rows; the over-estimate bound holds with probability {@code 1 - e^-depth}.
+     */
+    private int cmsDepth = 4;
+
+    /**
+     * Heavy-hitter candidates kept per bucket for resources and for message templates; the most a request may ask for.
+     */
+    private int topK = 100;
+
+    /**
+     * Delay between runs dropping buckets past the retention.
+     */
+    private long evictionIntervalMs = 60_000;
+}
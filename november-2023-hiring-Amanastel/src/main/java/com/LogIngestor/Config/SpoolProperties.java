@@ -0,0 +1,57 @@
+package com.LogIngestor.Config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * On-disk ingest spool, bound from {@code log.spool.*}.
+ */
+@ConfigurationProperties(prefix = "log.spool")
+@Getter
+@Setter
+public class SpoolProperties {
+
+    /**
+     * Acknowledge ingested logs once they are spooled to local disk, and write them to the database in the
+     * background. Ingested logs are then returned without an ID. Only the jpa engine spools.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Directory holding the spool segment files. Like the hot window, it belongs to one instance.
+     */
+    private String directory = "spool";
+
+    /**
+     * Size of each memory-mapped segment file; also the largest single entry.
+     */
+    private int segmentMegabytes = 64;
+
+    /**
+     * Disk quota for all segments together. Once reached, ingest requests get HTTP 429.
+     */
+    private long maxMegabytes = 1024;
+
+    /**
+     * Logs written to the database per transaction by the drainer.
+     */
+    private int drainBatchSize = 500;
+
+    /**
+     * Longest wait for an entry to be forced to disk before the request fails.
+     */
+    private Duration commitTimeout = Duration.ofSeconds(10);
+
+    /**
+     * Delay before retrying a batch after the database rejected it; doubled per failure up to a minute.
+     */
+    private Duration retryBackoff = Duration.ofSeconds(1);
+
+    /**
+     * The {@code Retry-After} sent to clients while the spool is full.
+     */
+    private Duration retryAfter = Duration.ofSeconds(5);
+}
@@ -0,0 +1,91 @@
+package com.LogIngestor.Config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Choice of storage engine and settings of the embedded columnar store, bound from {@code log.storage.*}.
+ */
+@ConfigurationProperties(prefix = "log.storage")
+@Getter
+@Setter
+public class StorageProperties {
+
+    /**
+     * Property that selects the engine; beans of each engine are conditional on it.
+     */
+    public static final String ENGINE = "log.storage.engine";
+
+    public enum Engine {
+        /**
+         * Logs live in the relational database, accessed through JPA.
+         */
+        JPA,
+        /**
+         * Logs live in local immutable columnar segment files; no database is needed.
+         */
+        COLUMNAR,
+        /**
+         * Logs are spread over several databases by resource ID, configured under {@code log.shard.*}.
+         */
+        SHARDED
+    }
+
+    private Engine engine = Engine.JPA;
+
+    /**
+     * Directory holding the columnar segments and their manifest.
+     */
+    private String directory = "data/segments";
+
+    /**
+     * How often buffered logs are written out as a new segment.
+     */
+    private long flushIntervalMs = 1_000;
+
+    /**
+     * Background compaction merges small segments once at least this many exist.
+     */
+    private int compactionMinSegments = 8;
+
+    /**
+     * Segments with at least this many rows are left alone by compaction; merged output is split at this size.
+     */
+    private int compactionTargetRows = 1_000_000;
+
+    /**
+     * Delay between compaction runs.
+     */
+    private long compactionIntervalMs = 60_000;
+
+    /**
+     * Most distinct values held by the string dictionary; further values are stored as plain strings.
+     */
+    private int dictionaryMaxEntries = 1_000_000;
+
+    /**
+     * Store messages as a mined template ID plus the variable tokens, rebuilding them on read.
+     */
+    private boolean messageTemplates = true;
+
+    /**
+     * Most template versions kept; further new messages are stored as plain strings.
+     */
+    private int templateMaxCount = 100_000;
+
+    /**
+     * Smallest fraction of tokens a message must share with a template to join its cluster.
+     */
+    private double templateSimilarity = 0.5;
+
+    /**
+     * Leading tokens of a message used to route it to its candidate templates.
+     */
+    private int templateTreeDepth = 3;
+
+    /**
+     * Most distinct tokens routed separately at one position of the parse tree; others share a wildcard branch.
+     */
+    private int templateMaxChildren = 100;
+}
@@ -0,0 +1,52 @@
+package com.LogIngestor.Config;
+
+import com.LogIngestor.Tail.Backpressure;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Live tail subscriptions, bound from {@code log.tail.*}.
+ */
+@ConfigurationProperties(prefix = "log.tail")
+@Getter
+@Setter
+public class TailProperties {
+
+    /**
+     * Most concurrent subscriptions; further subscribe requests are rejected.
+     */
+    private int maxSubscribers = 5_000;
+
+    /**
+     * Logs buffered per subscriber before its backpressure policy applies.
+     */
+    private int queueCapacity = 1_000;
+
+    /**
+     * Threads writing events to subscribers. A slow client holds one only while its socket buffer is full.
+     */
+    private int senderThreads = 8;
+
+    /**
+     * Events written to one subscriber before its sender moves on to the next.
+     */
+    private int sendBatchSize = 100;
+
+    /**
+     * How long a subscription stays open; the client is expected to reconnect.
+     */
+    private Duration timeout = Duration.ofMinutes(30);
+
+    /**
+     * Delay between heartbeat comments, which also detect closed connections.
+     */
+    private long heartbeatIntervalMs = 15_000;
+
+    /**
+     * Policy used when the subscriber does not choose one.
+     */
+    private Backpressure backpressure = Backpressure.DROP;
+}
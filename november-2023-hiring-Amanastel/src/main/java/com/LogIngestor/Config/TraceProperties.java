@@ -0,0 +1,19 @@
+package com.LogIngestor.Config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Trace reconstruction, bound from {@code log.trace.*}.
+ */
+@ConfigurationProperties(prefix = "log.trace")
+@Getter
+@Setter
+public class TraceProperties {
+
+    /**
+     * Most logs returned for one trace; larger traces keep their earliest logs and are marked truncated.
+     */
+    private int maxLogs = 500_000;
+}
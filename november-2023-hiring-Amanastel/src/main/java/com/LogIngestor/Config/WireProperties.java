@@ -0,0 +1,55 @@
+package com.LogIngestor.Config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Raw TCP/UDP ingest listener, bound from {@code log.wire.*}.
+ */
+@ConfigurationProperties(prefix = "log.wire")
+@Getter
+@Setter
+public class WireProperties {
+
+    /**
+     * Accept binary frames and syslog lines over TCP and UDP next to the HTTP endpoints.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Address both listeners bind to. The listeners are unauthenticated, so the default accepts local
+     * senders only; set {@code 0.0.0.0} to accept remote agents on a trusted network.
+     */
+    private String bindAddress = "127.0.0.1";
+
+    /**
+     * TCP port; 0 picks a free port and -1 disables TCP.
+     */
+    private int tcpPort = 5170;
+
+    /**
+     * UDP port; 0 picks a free port and -1 disables UDP.
+     */
+    private int udpPort = 5170;
+
+    /**
+     * Most open TCP connections; further connections are closed as soon as they are accepted.
+     */
+    private int maxConnections = 10_000;
+
+    /**
+     * Size of each pooled read buffer, which is also the largest frame or syslog line accepted.
+     */
+    private int bufferBytes = 64 * 1024;
+
+    /**
+     * Idle read buffers kept for reuse. Connections only hold a buffer while a frame is incomplete.
+     */
+    private int maxPooledBuffers = 1_024;
+
+    /**
+     * Socket receive buffer requested for UDP, which absorbs bursts while logs are being handed off.
+     */
+    private int udpReceiveBufferBytes = 4 * 1024 * 1024;
+}
@@ -0,0 +1,45 @@
+package com.LogIngestor.Controller;
+
+import com.LogIngestor.Model.QueryCacheStats;
+import com.LogIngestor.Service.CacheService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/logs/cache")
+public class CacheController {
+
+    private final CacheService cacheService;
+
+    @Autowired
+    public CacheController(CacheService cacheService) {
+        this.cacheService = cacheService;
+    }
+
+    /**
+     * Reports hit, miss, eviction and invalidation counts of the search result cache.
+     * URL: http://localhost:3000/logs/cache/stats
+     *
+     * @return ResponseEntity with the cache statistics.
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<QueryCacheStats> getStats() {
+        return ResponseEntity.ok(cacheService.getStats());
+    }
+
+    /**
+     * Drops every cached search result.
+     * URL: http://localhost:3000/logs/cache
+     *
+     * @return ResponseEntity with no content.
+     */
+    @DeleteMapping
+    public ResponseEntity<Void> clear() {
+        cacheService.clear();
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,116 @@
+package com.LogIngestor.Controller;
+
+import com.LogIngestor.Model.LogQuery;
+import com.LogIngestor.Model.QueryPlan;
+import com.LogIngestor.Query.QueryCompiler;
+import com.LogIngestor.Service.LogService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDateTime;
+
+/**
+ * Answers the search endpoints of {@link LogController} when they are called with {@code explain=true}:
+ * the search runs, bypassing the result cache, and its executed plan is returned instead of the logs.
+ * Paging parameters are ignored; the plan is that of the whole search. Endpoints answered by a parallel
+ * scan are explained through the same scan, under the same deadline and row budget.
+ */
+@RestController
+@RequestMapping("/logs")
+public class ExplainController {
+
+    private static final String EXPLAIN = "explain=true";
+
+    private final LogService logService;
+
+    @Autowired
+    public ExplainController(LogService logService) {
+        this.logService = logService;
+    }
+
+    /**
+     * URL: http://localhost:3000/logs/search?level=error&resourceId=server-1234&explain=true
+     */
+    @GetMapping(value = "/search", params = EXPLAIN)
+    public ResponseEntity<QueryPlan> explainSearchLogs(
+            @RequestParam(required = false) String level,
+            @RequestParam(required = false) String message,
+            @RequestParam(required = false) String resourceId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startTime,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endTime
+    ) {
+        return ResponseEntity.ok(logService.explainLogs(LogQuery.exactMatch(level, message, resourceId, startTime, endTime)));
+    }
+
+    /**
+     * URL: http://localhost:3000/logs/searchByLevel?level=error&explain=true
+     */
+    @GetMapping(value = "/searchByLevel", params = EXPLAIN)
+    public ResponseEntity<QueryPlan> explainSearchLogsByLevel(@RequestParam(required = false) String level) {
+        return ResponseEntity.ok(logService.explainLogs(LogQuery.byLevel(level)));
+    }
+
+    /**
+     * URL: http://localhost:3000/logs/searchByDateRange?startTime=2023-11-19T00:00:00Z&endTime=2023-11-20T00:00:00Z&explain=true
+     */
+    @GetMapping(value = "/searchByDateRange", params = EXPLAIN)
+    public ResponseEntity<QueryPlan> explainSearchLogsByDateRange(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startTime,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endTime
+    ) {
+        return ResponseEntity.ok(logService.explainLogs(LogQuery.dateRange(startTime, endTime)));
+    }
+
+    /**
+     * URL: http://localhost:3000/logs/searchByRegex?regex=.*Failed.*&explain=true
+     */
+    @GetMapping(value = "/searchByRegex", params = EXPLAIN)
+    public ResponseEntity<QueryPlan> explainSearchLogsByRegex(@RequestParam(required = false) String regex) {
+        return ResponseEntity.ok(logService.explainScan(LogQuery.regex(regex), null));
+    }
+
+    /**
+     * URL: http://localhost:3000/logs/searchByMultipleFilters?level=error&regex=Failed.*DB&explain=true
+     */
+    @GetMapping(value = {"/searchByMultipleFilters", "/searchByMultipleFiltersWithOptional"}, params = EXPLAIN)
+    public ResponseEntity<QueryPlan> explainSearchLogsByMultipleFilters(
+            @RequestParam(required = false) String level,
+            @RequestParam(required = false) String message,
+            @RequestParam(required = false) String resourceId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startTime,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endTime,
+            @RequestParam(required = false) String regex
+    ) {
+        return ResponseEntity.ok(logService.explainScan(LogQuery.multipleFilters(level, message, resourceId, startTime, endTime, regex), null));
+    }
+
+    /**
+     * URL: http://localhost:3000/logs/scan?regex=Failed.*DB&limit=100&explain=true
+     */
+    @GetMapping(value = "/scan", params = EXPLAIN)
+    public ResponseEntity<QueryPlan> explainScanLogs(
+            @RequestParam(required = false) String level,
+            @RequestParam(required = false) String message,
+            @RequestParam(required = false) String resourceId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startTime,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endTime,
+            @RequestParam(required = false) String regex,
+            @RequestParam(required = false) Integer limit
+    ) {
+        return ResponseEntity.ok(logService.explainScan(LogQuery.multipleFilters(level, message, resourceId, startTime, endTime, regex), limit));
+    }
+
+    /**
+     * The plan's query shows the filters pushed down and the residual terms in the order they are checked.
+     * URL: http://localhost:3000/logs/query?q=level:error AND msg~/Failed.*DB/&explain=true
+     */
+    @GetMapping(value = "/query", params = EXPLAIN)
+    public ResponseEntity<QueryPlan> explainQueryLogs(@RequestParam String q) {
+        return ResponseEntity.ok(logService.explainScan(QueryCompiler.compile(q), null));
+    }
+}
@@ -1,20 +1,42 @@
 package com.LogIngestor.Controller;
 
+import com.LogIngestor.Model.BatchIngestResponse;
 import com.LogIngestor.Model.Log;
+import com.LogIngestor.Model.LogPage;
+import com.LogIngestor.Model.LogQuery;
+import com.LogIngestor.Model.ScanResult;
+import com.LogIngestor.Model.StreamIngestResponse;
+import com.LogIngestor.Query.QueryCompiler;
 import com.LogIngestor.Service.LogService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.zip.GZIPInputStream;
 
 @RestController
 @RequestMapping("/logs")
 public class LogController {
 
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final String PARTIAL_RESULT_HEADER = "X-Partial-Result";
+    private static final String PARTIAL_REASON_HEADER = "X-Partial-Reason";
+    private static final String ROWS_SCANNED_HEADER = "X-Rows-Scanned";
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
     private final LogService logService;
 
     @Autowired
@@ -34,6 +56,37 @@ public class LogController {
         return ResponseEntity.ok(logService.saveLog(log));
     }
 
+    /**
+     * Handles the ingestion of many logs at once. Logs are queued and written asynchronously in batches.
+     * URL: http://localhost:3000/logs/ingest/batch
+     *
+     * @param logs The logs to be ingested.
+     * @return ResponseEntity (202 Accepted) with the number of accepted and rejected logs.
+     */
+    @PostMapping("/ingest/batch")
+    public ResponseEntity<BatchIngestResponse> saveLogsHandler(@RequestBody List<Log> logs) {
+        return ResponseEntity.accepted().body(logService.saveLogs(logs));
+    }
+
+    /**
+     * Handles the ingestion of a newline-delimited JSON stream, optionally gzip-encoded.
+     * The body is parsed incrementally; malformed lines are reported by line number and skipped.
+     * URL: http://localhost:3000/logs/ingest/stream
+     *
+     * @param contentEncoding The Content-Encoding header; "gzip" bodies are decompressed on the fly.
+     * @param body            The raw request body.
+     * @return ResponseEntity (202 Accepted) with line, accept and reject counts.
+     * @throws IOException if the body cannot be read.
+     */
+    @PostMapping(value = "/ingest/stream", consumes = "application/x-ndjson")
+    public ResponseEntity<StreamIngestResponse> saveLogStreamHandler(
+            @RequestHeader(value = HttpHeaders.CONTENT_ENCODING, required = false) String contentEncoding,
+            InputStream body
+    ) throws IOException {
+        InputStream in = "gzip".equalsIgnoreCase(contentEncoding) ? new GZIPInputStream(body, 64 * 1024) : body;
+        return ResponseEntity.accepted().body(logService.saveLogStream(in));
+    }
+
     /**
      * Searches logs based on specified criteria.
      * URL: http://localhost:3000/logs/search?level=error&message=Failed%20to%20connect%20to%20DB&resourceId=server-1234&timestamp=2023-09-15T08:00:00Z&traceId=abc-xyz-123&spanId=span-456&commit=5e5342f&metadata.parentResourceId=server-0987
@@ -43,6 +96,8 @@ public class LogController {
      * @param resourceId The resource ID to filter by.
      * @param startTime  The start timestamp for filtering within a date range.
      * @param endTime    The end timestamp for filtering within a date range.
+     * @param limit      Page size; when set, the response is one keyset page and X-Next-Cursor points to the next.
+     * @param after      The X-Next-Cursor value of the previous page.
      * @return ResponseEntity with a list of logs matching the specified criteria.
      */
     @GetMapping("/search")
@@ -51,8 +106,11 @@ public class LogController {
             @RequestParam(required = false) String message,
             @RequestParam(required = false) String resourceId,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startTime,
-            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endTime
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endTime,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String after
     ) {
+        if (isPaged(limit, after)) return page(LogQuery.exactMatch(level, message, resourceId, startTime, endTime), limit, after);
         List<Log> result = logService.searchLogs(level, message, resourceId, startTime, endTime);
         return ResponseEntity.ok(result);
     }
@@ -73,10 +131,16 @@ public class LogController {
      * Retrieves all logs.
      * URL: http://localhost:3000/logs
      *
+     * @param limit Page size; when set, the response is one keyset page and X-Next-Cursor points to the next.
+     * @param after The X-Next-Cursor value of the previous page.
      * @return ResponseEntity with a list of all logs.
      */
     @GetMapping
-    public ResponseEntity<List<Log>> getAllLogs() {
+    public ResponseEntity<List<Log>> getAllLogs(
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String after
+    ) {
+        if (isPaged(limit, after)) return page(LogQuery.builder().build(), limit, after);
         return ResponseEntity.ok(logService.getAllLogs());
     }
 
@@ -86,12 +150,17 @@ public class LogController {
      * URL: http://localhost:3000/logs/searchByLevel?level=error
      *
      * @param level The log level to filter by.
+     * @param limit Page size; when set, the response is one keyset page and X-Next-Cursor points to the next.
+     * @param after The X-Next-Cursor value of the previous page.
      * @return ResponseEntity with a list of logs matching the specified log level.
      */
     @GetMapping("/searchByLevel")
     public ResponseEntity<List<Log>> searchLogsByLevel(
-            @RequestParam(required = false) String level
+            @RequestParam(required = false) String level,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String after
     ) {
+        if (isPaged(limit, after)) return page(LogQuery.byLevel(level), limit, after);
         List<Log> result = logService.searchLogByLevel(level);
         return ResponseEntity.ok(result);
     }
@@ -102,13 +171,18 @@ public class LogController {
      *
      * @param startTime The start timestamp for filtering within a date range.
      * @param endTime   The end timestamp for filtering within a date range.
+     * @param limit     Page size; when set, the response is one keyset page and X-Next-Cursor points to the next.
+     * @param after     The X-Next-Cursor value of the previous page.
      * @return ResponseEntity with a list of logs within the specified date range.
      */
     @GetMapping("/searchByDateRange")
     public ResponseEntity<List<Log>> searchLogsByDateRange(
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startTime,
-            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endTime
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endTime,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String after
     ) {
+        if (isPaged(limit, after)) return page(LogQuery.dateRange(startTime, endTime), limit, after);
         List<Log> result = logService.searchLogsByDateRange(startTime, endTime);
         return ResponseEntity.ok(result);
     }
@@ -117,15 +191,21 @@ public class LogController {
      * Searches logs based on a regular expression.
      * URL: http://localhost:3000/logs/searchByRegex?regex=.*Failed.*
      *
+     * Without paging the search runs as a parallel scan; X-Partial-Result is set if it stopped early.
+     *
      * @param regex The regular expression for filtering logs.
+     * @param limit Page size; when set, the response is one keyset page and X-Next-Cursor points to the next.
+     * @param after The X-Next-Cursor value of the previous page.
      * @return ResponseEntity with a list of logs matching the specified regular expression.
      */
     @GetMapping("/searchByRegex")
-    public ResponseEntity<List<Log>> searchLogsByRegex(
-            @RequestParam(required = false) String regex
+    public DeferredResult<ResponseEntity<List<Log>>> searchLogsByRegex(
+            @RequestParam(required = false) String regex,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String after
     ) {
-        List<Log> result = logService.searchLogsByRegex(regex);
-        return ResponseEntity.ok(result);
+        if (isPaged(limit, after)) return completed(page(LogQuery.regex(regex), limit, after));
+        return scan(LogQuery.regex(regex), null);
     }
 
     /**
@@ -138,19 +218,25 @@ public class LogController {
      * @param startTime  The start timestamp for filtering within a date range.
      * @param endTime    The end timestamp for filtering within a date range.
      * @param regex      The regular expression for filtering logs.
-     * @return ResponseEntity with a list of logs matching the specified criteria.
+     * @param limit      Page size; when set, the response is one keyset page and X-Next-Cursor points to the next.
+     * @param after      The X-Next-Cursor value of the previous page.
+     * @return ResponseEntity with a list of logs matching the specified criteria; without paging the search runs
+     *         as a parallel scan and X-Partial-Result is set if it stopped early.
      */
     @GetMapping("/searchByMultipleFilters")
-    public ResponseEntity<List<Log>> searchLogsByMultipleFilters(
+    public DeferredResult<ResponseEntity<List<Log>>> searchLogsByMultipleFilters(
             @RequestParam(required = false) String level,
             @RequestParam(required = false) String message,
             @RequestParam(required = false) String resourceId,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startTime,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endTime,
-            @RequestParam(required = false) String regex
+            @RequestParam(required = false) String regex,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String after
     ) {
-        List<Log> result = logService.searchLogsByMultipleFilters(level, message, resourceId, startTime, endTime, regex);
-        return ResponseEntity.ok(result);
+        LogQuery query = LogQuery.multipleFilters(level, message, resourceId, startTime, endTime, regex);
+        if (isPaged(limit, after)) return completed(page(query, limit, after));
+        return scan(query, null);
     }
 
 
@@ -164,18 +250,144 @@ public class LogController {
      * @param startTime  The start timestamp for filtering within a date range.
      * @param endTime    The end timestamp for filtering within a date range.
      * @param regex      The regular expression for filtering logs.
-     * @return ResponseEntity with a list of logs matching the specified criteria.
+     * @param limit      Page size; when set, the response is one keyset page and X-Next-Cursor points to the next.
+     * @param after      The X-Next-Cursor value of the previous page.
+     * @return ResponseEntity with a list of logs matching the specified criteria; without paging the search runs
+     *         as a parallel scan and X-Partial-Result is set if it stopped early.
      */
     @GetMapping("/searchByMultipleFiltersWithOptional")
-    public ResponseEntity<List<Log>> searchLogsByMultipleFiltersWithOptional(
+    public DeferredResult<ResponseEntity<List<Log>>> searchLogsByMultipleFiltersWithOptional(
             @RequestParam(required = false) String level,
             @RequestParam(required = false) String message,
             @RequestParam(required = false) String resourceId,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Optional<LocalDateTime> startTime,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Optional<LocalDateTime> endTime,
+            @RequestParam(required = false) String regex,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String after
+    ) {
+        LogQuery query = LogQuery.multipleFilters(level, message, resourceId, startTime.orElse(null), endTime.orElse(null), regex);
+        if (isPaged(limit, after)) return completed(page(query, limit, after));
+        return scan(query, null);
+    }
+
+    /**
+     * Searches logs with a query expression: terms such as {@code level:error}, {@code resourceId:server-12*},
+     * {@code msg:"connection reset"}, {@code msg~/Failed.*DB/} and {@code time:[-1h,now]}, combined with AND, OR,
+     * NOT and parentheses. The expression is compiled once per request; the terms the storage engine can use
+     * indexes for are pushed down and the rest are checked in memory, cheapest and most selective first.
+     * URL: http://localhost:3000/logs/query?q=level:error AND resourceId:server-12* AND msg~/Failed.*DB/ AND time:[-1h,now]
+     *
+     * @param q     The query expression.
+     * @param limit Page size; when set, the response is one keyset page and X-Next-Cursor points to the next.
+     * @param after The X-Next-Cursor value of the previous page.
+     * @return ResponseEntity with a list of logs matching the expression; without paging the search runs
+     *         as a parallel scan and X-Partial-Result is set if it stopped early.
+     */
+    @GetMapping("/query")
+    public DeferredResult<ResponseEntity<List<Log>>> queryLogs(
+            @RequestParam String q,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String after
+    ) {
+        LogQuery query = QueryCompiler.compile(q);
+        if (isPaged(limit, after)) return completed(page(query, limit, after));
+        return scan(query, null);
+    }
+
+    /**
+     * Scans for logs matching the filters, stopping once {@code limit} are found.
+     * The scan also stops at its deadline or row budget, in which case the logs found so far are returned
+     * with X-Partial-Result: true and X-Partial-Reason set. Closing the connection cancels the scan.
+     * URL: http://localhost:3000/logs/scan?regex=Failed.*DB&limit=100
+     *
+     * @param level      The log level to filter by.
+     * @param message    The log message to filter by.
+     * @param resourceId The resource ID to filter by.
+     * @param startTime  The start timestamp for filtering within a date range.
+     * @param endTime    The end timestamp for filtering within a date range.
+     * @param regex      The regular expression for filtering logs.
+     * @param limit      Stop once this many logs are found.
+     * @return ResponseEntity with the logs found, ordered by timestamp, and the number of rows read in X-Rows-Scanned.
+     */
+    @GetMapping("/scan")
+    public DeferredResult<ResponseEntity<List<Log>>> scanLogs(
+            @RequestParam(required = false) String level,
+            @RequestParam(required = false) String message,
+            @RequestParam(required = false) String resourceId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startTime,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endTime,
+            @RequestParam(required = false) String regex,
+            @RequestParam(required = false) Integer limit
+    ) {
+        return scan(LogQuery.multipleFilters(level, message, resourceId, startTime, endTime, regex), limit);
+    }
+
+    /**
+     * Streams every log matching the filters as newline-delimited JSON, ordered by timestamp.
+     * Rows are read through a database cursor, so exports of any size use bounded memory.
+     * URL: http://localhost:3000/logs/export?level=error&startTime=2023-11-19T00:00:00
+     *
+     * @param level      The log level to filter by.
+     * @param message    The log message to filter by.
+     * @param resourceId The resource ID to filter by.
+     * @param startTime  The start timestamp for filtering within a date range.
+     * @param endTime    The end timestamp for filtering within a date range.
+     * @param regex      The regular expression for filtering logs.
+     * @return ResponseEntity with a streaming NDJSON body.
+     */
+    @GetMapping(value = "/export", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> exportLogs(
+            @RequestParam(required = false) String level,
+            @RequestParam(required = false) String message,
+            @RequestParam(required = false) String resourceId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startTime,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endTime,
             @RequestParam(required = false) String regex
     ) {
-        List<Log> result = logService.searchLogsByMultipleFiltersWithOptional(level, message, resourceId, startTime, endTime, regex);
-        return ResponseEntity.ok(result);
+        LogQuery query = LogQuery.multipleFilters(level, message, resourceId, startTime, endTime, regex);
+        StreamingResponseBody body = out -> logService.exportLogs(query, out);
+        return ResponseEntity.ok().contentType(NDJSON).body(body);
+    }
+
+    private static boolean isPaged(Integer limit, String after) {
+        return limit != null || after != null;
+    }
+
+    private ResponseEntity<List<Log>> page(LogQuery query, Integer limit, String after) {
+        LogPage page = logService.searchLogsPage(query, limit == null ? DEFAULT_PAGE_SIZE : limit, after);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        return response.body(page.getLogs());
+    }
+
+    /**
+     * Answers the request when the scan completes, and cancels the scan if the request times out or the
+     * client goes away first.
+     */
+    private DeferredResult<ResponseEntity<List<Log>>> scan(LogQuery query, Integer limit) {
+        DeferredResult<ResponseEntity<List<Log>>> deferred = new DeferredResult<>();
+        CompletableFuture<ScanResult> scan = logService.scanLogs(query, limit);
+        deferred.onTimeout(() -> scan.cancel(false));
+        deferred.onError(e -> scan.cancel(false));
+        scan.whenComplete((result, error) -> {
+            if (error == null) deferred.setResult(scanned(result));
+            else deferred.setErrorResult(error instanceof CompletionException && error.getCause() != null ? error.getCause() : error);
+        });
+        return deferred;
+    }
+
+    private static ResponseEntity<List<Log>> scanned(ScanResult result) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .header(PARTIAL_RESULT_HEADER, String.valueOf(result.isPartial()))
+                .header(ROWS_SCANNED_HEADER, String.valueOf(result.getRowsScanned()));
+        if (result.isPartial()) response.header(PARTIAL_REASON_HEADER, result.getCutoff().name().toLowerCase());
+        return response.body(result.getLogs());
+    }
+
+    private static <T> DeferredResult<T> completed(T result) {
+        DeferredResult<T> deferred = new DeferredResult<>();
+        deferred.setResult(result);
+        return deferred;
     }
 }
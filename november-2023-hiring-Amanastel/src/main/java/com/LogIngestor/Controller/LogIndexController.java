@@ -0,0 +1,42 @@
+package com.LogIngestor.Controller;
+
+import com.LogIngestor.Config.StorageProperties;
+import com.LogIngestor.Model.Log;
+import com.LogIngestor.Service.LogIndexService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@ConditionalOnProperty(name = StorageProperties.ENGINE, havingValue = "jpa", matchIfMissing = true)
+@RequestMapping("/logs")
+public class LogIndexController {
+
+    private final LogIndexService logIndexService;
+
+    @Autowired
+    public LogIndexController(LogIndexService logIndexService) {
+        this.logIndexService = logIndexService;
+    }
+
+    /**
+     * Searches logs by message terms using the inverted index.
+     * URL: http://localhost:3000/logs/searchByTerms?q=failed%20connect&phrase=false&limit=100
+     *
+     * @param q      The search text; every term must occur in the message.
+     * @param phrase Whether the terms must occur consecutively and in order.
+     * @param limit  The maximum number of logs returned, newest first.
+     * @return ResponseEntity with a list of logs matching the terms.
+     */
+    @GetMapping("/searchByTerms")
+    public ResponseEntity<List<Log>> searchLogsByTerms(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "false") boolean phrase,
+            @RequestParam(defaultValue = "100") int limit
+    ) {
+        return ResponseEntity.ok(logIndexService.searchLogsByTerms(q, phrase, limit));
+    }
+}
@@ -0,0 +1,47 @@
+package com.LogIngestor.Controller;
+
+import com.LogIngestor.Config.StorageProperties;
+import com.LogIngestor.Model.ShardStatus;
+import com.LogIngestor.Service.ShardService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@ConditionalOnProperty(name = StorageProperties.ENGINE, havingValue = "sharded")
+@RequestMapping("/logs/shards")
+public class ShardController {
+
+    private final ShardService shardService;
+
+    @Autowired
+    public ShardController(ShardService shardService) {
+        this.shardService = shardService;
+    }
+
+    /**
+     * Lists the shards with their row counts and whether a rebalance is pending.
+     * URL: http://localhost:3000/logs/shards
+     *
+     * @return ResponseEntity with the shard status.
+     */
+    @GetMapping
+    public ResponseEntity<ShardStatus> getStatus() {
+        return ResponseEntity.ok(shardService.getStatus());
+    }
+
+    /**
+     * Moves every resource to the shard that owns it under the configured shard list.
+     * URL: http://localhost:3000/logs/shards/rebalance
+     *
+     * @return ResponseEntity with the shard status after the rebalance.
+     */
+    @PostMapping("/rebalance")
+    public ResponseEntity<ShardStatus> rebalance() {
+        return ResponseEntity.ok(shardService.rebalance());
+    }
+}
@@ -0,0 +1,48 @@
+package com.LogIngestor.Controller;
+
+import com.LogIngestor.Model.ApproximateStats;
+import com.LogIngestor.Service.SketchService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDateTime;
+
+@RestController
+@RequestMapping("/logs/stats")
+public class SketchController {
+
+    private final SketchService sketchService;
+
+    @Autowired
+    public SketchController(SketchService sketchService) {
+        this.sketchService = sketchService;
+    }
+
+    /**
+     * Estimates distinct resources and traces and the noisiest resources and message templates, with error bounds.
+     * Works with every storage engine, as it reads sketches kept on ingest rather than stored logs.
+     * URL: http://localhost:3000/logs/stats?approximate=true&level=error&top=20&startTime=2023-09-15T00:00:00&endTime=2023-09-16T00:00:00
+     *
+     * @param startTime  The start of the range; defaults to one day before endTime.
+     * @param endTime    The end of the range; defaults to now.
+     * @param level      Only count logs with this level; must be one of log.sketch.levels.
+     * @param resourceId Also estimate the number of logs of this resource.
+     * @param top        How many resources and templates to rank.
+     * @return ResponseEntity with the estimates.
+     */
+    @GetMapping(params = "approximate=true")
+    public ResponseEntity<ApproximateStats> getApproximateStats(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startTime,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endTime,
+            @RequestParam(required = false) String level,
+            @RequestParam(required = false) String resourceId,
+            @RequestParam(defaultValue = "20") int top
+    ) {
+        return ResponseEntity.ok(sketchService.getApproximateStats(startTime, endTime, level, resourceId, top));
+    }
+}
@@ -0,0 +1,32 @@
+package com.LogIngestor.Controller;
+
+import com.LogIngestor.Model.SpoolStatus;
+import com.LogIngestor.Service.SpoolService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/logs/spool")
+public class SpoolController {
+
+    private final SpoolService spoolService;
+
+    @Autowired
+    public SpoolController(SpoolService spoolService) {
+        this.spoolService = spoolService;
+    }
+
+    /**
+     * Reports the depth, disk use and drain lag of the ingest spool.
+     * URL: http://localhost:3000/logs/spool
+     *
+     * @return ResponseEntity with the spool status.
+     */
+    @GetMapping
+    public ResponseEntity<SpoolStatus> getStatus() {
+        return ResponseEntity.ok(spoolService.getStatus());
+    }
+}
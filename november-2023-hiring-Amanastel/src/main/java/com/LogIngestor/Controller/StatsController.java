@@ -0,0 +1,53 @@
+package com.LogIngestor.Controller;
+
+import com.LogIngestor.Config.StorageProperties;
+import com.LogIngestor.Model.LogStats;
+import com.LogIngestor.Service.StatsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RestController
+@ConditionalOnProperty(name = StorageProperties.ENGINE, havingValue = "jpa", matchIfMissing = true)
+@RequestMapping("/logs/stats")
+public class StatsController {
+
+    private final StatsService statsService;
+
+    @Autowired
+    public StatsController(StatsService statsService) {
+        this.statsService = statsService;
+    }
+
+    /**
+     * Counts logs per time bucket, optionally split by level and resource.
+     * URL: http://localhost:3000/logs/stats?groupBy=level,resourceId&interval=1m&startTime=2023-09-15T00:00:00&endTime=2023-09-15T01:00:00
+     *
+     * @param groupBy    Fields to split the counts by: level and/or resourceId.
+     * @param interval   The bucket width, e.g. 1m, 1h or 1d.
+     * @param startTime  The start of the range; defaults to one day before endTime.
+     * @param endTime    The end of the range; defaults to now.
+     * @param level      Only count logs with this level.
+     * @param resourceId Only count logs of this resource.
+     * @return ResponseEntity with the counts per bucket.
+     */
+    @GetMapping
+    public ResponseEntity<LogStats> getStats(
+            @RequestParam(required = false) List<String> groupBy,
+            @RequestParam(defaultValue = "1h") String interval,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startTime,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endTime,
+            @RequestParam(required = false) String level,
+            @RequestParam(required = false) String resourceId
+    ) {
+        return ResponseEntity.ok(statsService.getStats(groupBy, interval, startTime, endTime, level, resourceId));
+    }
+}
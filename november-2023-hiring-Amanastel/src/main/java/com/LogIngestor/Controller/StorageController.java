@@ -0,0 +1,32 @@
+package com.LogIngestor.Controller;
+
+import com.LogIngestor.Model.StorageFootprint;
+import com.LogIngestor.Service.StorageService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/logs/storage")
+public class StorageController {
+
+    private final StorageService storageService;
+
+    @Autowired
+    public StorageController(StorageService storageService) {
+        this.storageService = storageService;
+    }
+
+    /**
+     * Reports disk usage per column and the estimated heap saved by dictionary encoding.
+     * URL: http://localhost:3000/logs/storage/footprint
+     *
+     * @return ResponseEntity with the storage footprint.
+     */
+    @GetMapping("/footprint")
+    public ResponseEntity<StorageFootprint> getFootprint() {
+        return ResponseEntity.ok(storageService.getFootprint());
+    }
+}
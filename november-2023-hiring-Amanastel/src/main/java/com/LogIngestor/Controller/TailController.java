@@ -0,0 +1,51 @@
+package com.LogIngestor.Controller;
+
+import com.LogIngestor.Service.TailService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.LocalDateTime;
+
+@RestController
+@RequestMapping("/logs")
+public class TailController {
+
+    private final TailService tailService;
+
+    @Autowired
+    public TailController(TailService tailService) {
+        this.tailService = tailService;
+    }
+
+    /**
+     * Streams newly saved logs matching the filters as Server-Sent Events.
+     * URL: http://localhost:3000/logs/tail?level=error&resourceId=server-1234&backpressure=sample
+     *
+     * @param level        The log level to filter by, ignoring case.
+     * @param message      Text the log message must contain.
+     * @param resourceId   The resource ID to filter by.
+     * @param startTime    Only logs with a later timestamp.
+     * @param endTime      Only logs with an earlier timestamp.
+     * @param regex        The regular expression for filtering logs.
+     * @param backpressure What to do when the client falls behind: drop or sample.
+     * @return The event stream; {@code log} events carry logs, {@code dropped} events the number skipped.
+     */
+    @GetMapping(value = "/tail", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter tail(
+            @RequestParam(required = false) String level,
+            @RequestParam(required = false) String message,
+            @RequestParam(required = false) String resourceId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startTime,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endTime,
+            @RequestParam(required = false) String regex,
+            @RequestParam(required = false) String backpressure
+    ) {
+        return tailService.tail(level, message, resourceId, startTime, endTime, regex, backpressure);
+    }
+}
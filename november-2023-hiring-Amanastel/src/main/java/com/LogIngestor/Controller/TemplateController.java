@@ -0,0 +1,54 @@
+package com.LogIngestor.Controller;
+
+import com.LogIngestor.Model.LogQuery;
+import com.LogIngestor.Model.TemplateStats;
+import com.LogIngestor.Service.TemplateService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDateTime;
+
+@RestController
+@RequestMapping("/logs/templates")
+public class TemplateController {
+
+    private final TemplateService templateService;
+
+    @Autowired
+    public TemplateController(TemplateService templateService) {
+        this.templateService = templateService;
+    }
+
+    /**
+     * Groups the logs matching the filters by message template, most frequent first.
+     * Requires the columnar engine with message templates on.
+     * URL: http://localhost:3000/logs/templates?level=error&startTime=2023-09-15T00:00:00&limit=20
+     *
+     * @param level      The log level to filter by.
+     * @param message    The log message to filter by.
+     * @param resourceId The resource ID to filter by.
+     * @param startTime  The start time to filter by.
+     * @param endTime    The end time to filter by.
+     * @param regex      The regular expression to filter messages by.
+     * @param limit      How many templates to return.
+     * @return ResponseEntity with the template counts.
+     */
+    @GetMapping
+    public ResponseEntity<TemplateStats> getTemplateStats(
+            @RequestParam(required = false) String level,
+            @RequestParam(required = false) String message,
+            @RequestParam(required = false) String resourceId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startTime,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endTime,
+            @RequestParam(required = false) String regex,
+            @RequestParam(defaultValue = "100") int limit
+    ) {
+        LogQuery query = LogQuery.multipleFilters(level, message, resourceId, startTime, endTime, regex);
+        return ResponseEntity.ok(templateService.getTemplateStats(query, limit));
+    }
+}
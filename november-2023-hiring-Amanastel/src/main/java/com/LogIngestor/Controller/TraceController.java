@@ -0,0 +1,37 @@
+package com.LogIngestor.Controller;
+
+import com.LogIngestor.Config.StorageProperties;
+import com.LogIngestor.Model.LogTrace;
+import com.LogIngestor.Service.TraceService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@ConditionalOnProperty(name = StorageProperties.ENGINE, havingValue = "jpa", matchIfMissing = true)
+@RequestMapping("/logs/trace")
+public class TraceController {
+
+    private final TraceService traceService;
+
+    @Autowired
+    public TraceController(TraceService traceService) {
+        this.traceService = traceService;
+    }
+
+    /**
+     * Returns all logs of a trace grouped by span and ordered by timestamp, with the resource hierarchy.
+     * URL: http://localhost:3000/logs/trace/abc-xyz-123
+     *
+     * @param traceId The trace ID.
+     * @return ResponseEntity with the trace.
+     */
+    @GetMapping("/{traceId}")
+    public ResponseEntity<LogTrace> getTrace(@PathVariable String traceId) {
+        return ResponseEntity.ok(traceService.getTrace(traceId));
+    }
+}
@@ -0,0 +1,38 @@
+package com.LogIngestor.Dictionary;
+
+import java.util.Arrays;
+import java.util.function.Predicate;
+
+/**
+ * A string predicate evaluated on dictionary codes: the first test of a code decodes it and remembers the
+ * answer, every later test is an array lookup. Not thread-safe; create one per scan.
+ */
+public final class CodeMatcher {
+
+    private static final byte UNKNOWN = 0;
+    private static final byte MATCH = 1;
+    private static final byte NO_MATCH = 2;
+
+    private final StringDictionary dictionary;
+    private final Predicate<String> predicate;
+    private byte[] memo = new byte[64];
+
+    CodeMatcher(StringDictionary dictionary, Predicate<String> predicate) {
+        this.dictionary = dictionary;
+        this.predicate = predicate;
+    }
+
+    /**
+     * @param code A dictionary code, or {@link StringDictionary#NONE} for a null value.
+     */
+    public boolean matches(int code) {
+        if (code == StringDictionary.NONE) return predicate.test(null);
+        if (code >= memo.length) memo = Arrays.copyOf(memo, Math.max(code + 1, memo.length * 2));
+        byte state = memo[code];
+        if (state == UNKNOWN) {
+            state = predicate.test(dictionary.value(code)) ? MATCH : NO_MATCH;
+            memo[code] = state;
+        }
+        return state == MATCH;
+    }
+}
@@ -0,0 +1,32 @@
+package com.LogIngestor.Dictionary;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Leaves the column value unchanged but hands Hibernate the dictionary's shared instance on load,
+ * so logs read from the database do not each carry their own copy of a level or resource ID.
+ */
+@Component
+@Converter
+public class DictionaryStringConverter implements AttributeConverter<String, String> {
+
+    private final StringDictionary dictionary;
+
+    @Autowired
+    public DictionaryStringConverter(StringDictionary dictionary) {
+        this.dictionary = dictionary;
+    }
+
+    @Override
+    public String convertToDatabaseColumn(String attribute) {
+        return attribute;
+    }
+
+    @Override
+    public String convertToEntityAttribute(String dbData) {
+        return dictionary.canonical(dbData);
+    }
+}
@@ -0,0 +1,185 @@
+package com.LogIngestor.Dictionary;
+
+import com.LogIngestor.Config.StorageProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UTFDataFormatException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * Process-wide two-way mapping between the low-cardinality strings of a log (level, resource, commit,
+ * parent resource) and dense int codes. Lookups are lock-free; new entries are added under a lock and,
+ * once {@link #open(Path) opened} on a file, appended to it so codes stay stable across restarts.
+ *
+ * <p>Every decoded value is the dictionary's own instance, so equal strings are shared instead of copied
+ * into each {@code Log}. When the dictionary is full, or a value is too long to journal, {@link #code(String)}
+ * returns {@link #NONE} and callers keep the plain string.</p>
+ */
+@Component
+public class StringDictionary {
+
+    public static final int NONE = -1;
+
+    private static final Logger logger = LoggerFactory.getLogger(StringDictionary.class);
+    private static final int MAX_VALUE_BYTES = 65_535;
+
+    private final int maxEntries;
+    private final Map<String, Integer> codes = new ConcurrentHashMap<>();
+    private volatile String[] values = new String[256];
+    private volatile int size;
+    private long valueBytes;
+    private Path file;
+    private FileChannel channel;
+    private DataOutputStream journal;
+
+    /**
+     * Constructor for StringDictionary.
+     *
+     * @param properties The storage configuration holding the dictionary size limit.
+     */
+    @Autowired
+    public StringDictionary(StorageProperties properties) {
+        this.maxEntries = properties.getDictionaryMaxEntries();
+    }
+
+    /**
+     * Loads the entries journaled in {@code file} and appends new entries to it from now on.
+     * A record torn by a crash is truncated away.
+     *
+     * @throws IllegalStateException if entries were already added, since their codes could clash.
+     */
+    public synchronized void open(Path file) throws IOException {
+        if (this.file != null) throw new IllegalStateException("Dictionary already opened on " + this.file);
+        if (size > 0) throw new IllegalStateException("Dictionary already holds " + size + " entries");
+        long valid = 0;
+        if (Files.exists(file)) {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 1 << 16))) {
+                while (true) {
+                    String value = in.readUTF();
+                    insert(value);
+                    valid += 2 + value.getBytes(StandardCharsets.UTF_8).length;
+                }
+            } catch (EOFException | UTFDataFormatException e) {
+                // End of journal, possibly with a torn last record.
+            }
+        }
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        if (channel.size() > valid) {
+            logger.warn("Truncating torn dictionary record in {}", file);
+            channel.truncate(valid);
+        }
+        channel.position(valid);
+        journal = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 14));
+        this.file = file;
+        logger.info("Opened string dictionary {}: {} entries", file, size);
+    }
+
+    /**
+     * Forces journaled entries to disk. Call before persisting data that refers to new codes.
+     */
+    public synchronized void sync() throws IOException {
+        if (journal == null) return;
+        journal.flush();
+        channel.force(false);
+    }
+
+    public synchronized void close() throws IOException {
+        if (journal == null) return;
+        sync();
+        journal.close();
+        journal = null;
+        channel = null;
+        file = null;
+    }
+
+    /**
+     * @return The code of {@code value}, adding it if needed, or {@link #NONE} if it cannot be added.
+     */
+    public int code(String value) {
+        Integer code = codes.get(value);
+        if (code != null) return code;
+        synchronized (this) {
+            code = codes.get(value);
+            if (code != null) return code;
+            if (size >= maxEntries) return NONE;
+            int length = value.getBytes(StandardCharsets.UTF_8).length;
+            if (length > MAX_VALUE_BYTES) return NONE;
+            if (journal != null) {
+                try {
+                    journal.writeUTF(value);
+                } catch (IOException e) {
+                    logger.error("Failed to journal dictionary entry; leaving value unencoded", e);
+                    return NONE;
+                }
+            }
+            return insert(value);
+        }
+    }
+
+    /**
+     * @return The code of {@code value} if it is already in the dictionary, otherwise {@link #NONE}.
+     */
+    public int lookup(String value) {
+        Integer code = value == null ? null : codes.get(value);
+        return code == null ? NONE : code;
+    }
+
+    public String value(int code) {
+        return values[code];
+    }
+
+    /**
+     * Returns the dictionary's shared instance of {@code value}, adding it while there is room.
+     */
+    public String canonical(String value) {
+        if (value == null) return null;
+        int code = code(value);
+        return code == NONE ? value : values[code];
+    }
+
+    /**
+     * Memoizes {@code predicate} per code, so filtering a column of codes evaluates it once per distinct value.
+     */
+    public CodeMatcher matcher(Predicate<String> predicate) {
+        return new CodeMatcher(this, predicate);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Total UTF-8 length of the distinct values.
+     */
+    public synchronized long getValueBytes() {
+        return valueBytes;
+    }
+
+    private int insert(String value) {
+        int code = size;
+        if (code == values.length) values = Arrays.copyOf(values, code * 2);
+        values[code] = value;
+        valueBytes += value.getBytes(StandardCharsets.UTF_8).length;
+        size = code + 1;
+        codes.put(value, code);
+        return code;
+    }
+}
@@ -1,5 +1,6 @@
 package com.LogIngestor.Exception;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -23,6 +24,18 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(err, HttpStatus.BAD_REQUEST);
     }
 
+    // Exception handler for SpoolFullException: the client should back off and retry
+    @ExceptionHandler(SpoolFullException.class)
+    public ResponseEntity<ErrorDetails> spoolFullExceptionHandler(SpoolFullException ex, WebRequest req) {
+        ErrorDetails err = new ErrorDetails();
+        err.setTimeStamp(LocalDateTime.now());
+        err.setMessage(ex.getLocalizedMessage());
+        err.setDescription(req.getDescription(false));
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, ex.getRetryAfter().toSeconds())))
+                .body(err);
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ErrorDetails> gereralExceptionHandler(Exception ex, WebRequest req) {
         ErrorDetails err = new ErrorDetails();
@@ -0,0 +1,20 @@
+package com.LogIngestor.Exception;
+
+import java.time.Duration;
+
+/**
+ * The ingest spool has reached its disk quota; the client should retry after {@link #getRetryAfter()}.
+ */
+public class SpoolFullException extends LogException {
+
+    private final Duration retryAfter;
+
+    public SpoolFullException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -0,0 +1,64 @@
+package com.LogIngestor.Execution;
+
+import com.LogIngestor.Config.ExecutionProperties;
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Opt-in virtual thread mode, enabled with {@code log.execution.virtual-threads=true}.
+ *
+ * <p>Tomcat hands each request to a new virtual thread instead of its bounded worker pool, so a request
+ * blocked on JDBC no longer holds one of the pool's threads. The data source is wrapped in a
+ * {@link ConcurrencyLimitingDataSource} so that the unbounded number of request threads queues in front
+ * of the database instead of on it.</p>
+ */
+@Configuration
+@ConditionalOnProperty(name = "log.execution.virtual-threads", havingValue = "true")
+public class VirtualThreadConfiguration {
+
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadConfiguration.class);
+    private static final int DEFAULT_POOL_SIZE = 10;
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer() {
+        ExecutorService executor = VirtualThreads.newThreadPerTaskExecutor("http-virtual-");
+        if (executor == null) {
+            logger.warn("log.execution.virtual-threads is set but this JVM ({}) has no virtual threads; requests stay on platform threads",
+                    Runtime.version());
+            return protocolHandler -> { };
+        }
+        logger.info("Handling requests on virtual threads");
+        return protocolHandler -> protocolHandler.setExecutor(executor);
+    }
+
+    /**
+     * Wraps the data source in a {@link ConcurrencyLimitingDataSource} sized to the connection pool,
+     * unless {@code log.execution.max-db-concurrency} says otherwise.
+     */
+    @Bean
+    public static BeanPostProcessor concurrencyLimitingDataSourcePostProcessor(ObjectProvider<ExecutionProperties> properties) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof ConcurrencyLimitingDataSource) return bean;
+                ExecutionProperties execution = properties.getObject();
+                int permits = execution.getMaxDbConcurrency();
+                if (permits <= 0 && dataSource instanceof HikariDataSource hikari) permits = hikari.getMaximumPoolSize();
+                // Hikari reports -1 until it starts when the pool size was left at its default of 10.
+                if (permits <= 0) permits = DEFAULT_POOL_SIZE;
+                logger.info("Limiting data source {} to {} concurrent connections", beanName, permits);
+                return new ConcurrencyLimitingDataSource(dataSource, permits, execution.getDbAcquireTimeout());
+            }
+        };
+    }
+}
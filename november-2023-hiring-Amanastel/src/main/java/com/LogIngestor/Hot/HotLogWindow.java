@@ -0,0 +1,299 @@
+package com.LogIngestor.Hot;
+
+import com.LogIngestor.Config.HotProperties;
+import com.LogIngestor.Config.StorageProperties;
+import com.LogIngestor.Ingest.LogIngestListener;
+import com.LogIngestor.Model.Log;
+import com.LogIngestor.Model.LogCursor;
+import com.LogIngestor.Model.LogQuery;
+import com.LogIngestor.Repository.LogRepository;
+import com.LogIngestor.Repository.LogSpecifications;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The most recent logs, kept in memory in time buckets with per-bucket indexes by level and resource.
+ *
+ * <p>The window is complete from {@link #getCoveredFrom()} onwards: it is preloaded from the repository on
+ * startup, then fed by every saved log, and the bound only moves forward as old buckets are evicted.
+ * Logs whose timestamp is older than the bound are not added, so a search starting at or after it can be
+ * answered entirely from memory and a search reaching further back can take the older part from the
+ * database and the rest from here.</p>
+ */
+@Component
+@ConditionalOnProperty(name = StorageProperties.ENGINE, havingValue = "jpa", matchIfMissing = true)
+public class HotLogWindow implements LogIngestListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(HotLogWindow.class);
+    private static final Comparator<Log> ORDER = Comparator.comparing(Log::getTimestamp).thenComparing(Log::getId);
+    private static final int PRELOAD_BATCH_SIZE = 5_000;
+
+    private final LogRepository logRepository;
+    private final HotProperties properties;
+    private final long bucketSeconds;
+    private final NavigableMap<LocalDateTime, Bucket> buckets = new ConcurrentSkipListMap<>();
+    private final AtomicLong bytes = new AtomicLong();
+    private volatile LocalDateTime coveredFrom;
+    private volatile LocalDateTime acceptFrom;
+
+    /**
+     * Constructor for HotLogWindow.
+     *
+     * @param logRepository The repository the window is preloaded from.
+     * @param properties    The window configuration.
+     */
+    @Autowired
+    public HotLogWindow(LogRepository logRepository, HotProperties properties) {
+        this.logRepository = logRepository;
+        this.properties = properties;
+        this.bucketSeconds = Math.max(1, properties.getBucket().toSeconds());
+        this.acceptFrom = properties.isEnabled() ? LocalDateTime.now().minus(properties.getWindow()) : LocalDateTime.MAX;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startPreload() {
+        if (!properties.isEnabled()) return;
+        Thread preload = new Thread(() -> {
+            try {
+                preload();
+            } catch (RuntimeException e) {
+                logger.error("Hot window preload failed; recent searches keep using the database", e);
+            }
+        }, "hot-window-preload");
+        preload.setDaemon(true);
+        preload.start();
+    }
+
+    /**
+     * Loads the logs of the last window from the repository and starts serving searches.
+     */
+    public void preload() {
+        LocalDateTime from = acceptFrom;
+        long started = System.currentTimeMillis();
+        Specification<Log> spec = LogSpecifications.timestampBetween(from, null, true);
+        LogCursor cursor = null;
+        long loaded = 0;
+        while (true) {
+            List<Log> batch = logRepository.findOrdered(cursor == null ? spec : spec.and(LogSpecifications.after(cursor)), PRELOAD_BATCH_SIZE);
+            add(batch);
+            loaded += batch.size();
+            if (batch.size() < PRELOAD_BATCH_SIZE) break;
+            cursor = LogCursor.of(batch.get(batch.size() - 1));
+        }
+        synchronized (this) {
+            coveredFrom = acceptFrom;
+        }
+        logger.info("Hot window ready from {}: {} logs preloaded in {} ms", coveredFrom, loaded, System.currentTimeMillis() - started);
+    }
+
+    /**
+     * The time from which the window holds every log, or null while it is not serving searches.
+     */
+    public LocalDateTime getCoveredFrom() {
+        return coveredFrom;
+    }
+
+    /**
+     * The time from which the window can answer {@code query}, or null if it cannot. The window compares strings
+     * with {@link LogQuery#matches(Log)}, so queries that filter on level, message or resource without that
+     * re-check, and so follow the database collation, are left to the database.
+     */
+    public LocalDateTime getCoveredFrom(LogQuery query) {
+        boolean collated = !query.isVerify() && (query.getLevel() != null || query.getMessage() != null || query.getResourceId() != null);
+        return collated ? null : coveredFrom;
+    }
+
+    @Override
+    public void onLogsSaved(List<Log> logs) {
+        add(logs);
+    }
+
+    /**
+     * Returns, in {@code (timestamp, id)} order, the first {@code limit} logs at or after {@code from}
+     * and after {@code after} that match {@code query}.
+     *
+     * @param from  The lower time bound, inclusive; may be null.
+     * @param after The keyset position to continue from; may be null.
+     */
+    public List<Log> find(LogQuery query, LocalDateTime from, LogCursor after, int limit) {
+        LocalDateTime lower = max(max(from, query.getStartTime()), after == null ? null : after.timestamp());
+        NavigableMap<LocalDateTime, Bucket> range = lower == null ? buckets : buckets.tailMap(bucketStart(lower), true);
+        if (query.getEndTime() != null) range = range.headMap(query.getEndTime(), true);
+
+        Log position = after == null ? null : cursorLog(after);
+        List<Log> result = new ArrayList<>();
+        for (Bucket bucket : range.values()) {
+            List<Log> matched = new ArrayList<>();
+            for (Log log : bucket.candidates(query)) {
+                if (from != null && log.getTimestamp().isBefore(from)) continue;
+                if (position != null && ORDER.compare(log, position) <= 0) continue;
+                if (query.matches(log)) matched.add(log);
+            }
+            matched.sort(ORDER);
+            for (Log log : matched) {
+                result.add(log);
+                if (result.size() == limit) return result;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns, in {@code (timestamp, id)} order, the last {@code limit} logs at or after {@code from}
+     * that match {@code query}: the newest matches, read from the newest bucket down.
+     *
+     * @param from The lower time bound, inclusive; may be null.
+     */
+    public List<Log> findLast(LogQuery query, LocalDateTime from, int limit) {
+        LocalDateTime lower = max(from, query.getStartTime());
+        NavigableMap<LocalDateTime, Bucket> range = lower == null ? buckets : buckets.tailMap(bucketStart(lower), true);
+        if (query.getEndTime() != null) range = range.headMap(query.getEndTime(), true);
+
+        List<Log> result = new ArrayList<>();
+        for (Bucket bucket : range.descendingMap().values()) {
+            List<Log> matched = new ArrayList<>();
+            for (Log log : bucket.candidates(query)) {
+                if (from != null && log.getTimestamp().isBefore(from)) continue;
+                if (query.matches(log)) matched.add(log);
+            }
+            matched.sort(ORDER.reversed());
+            for (Log log : matched) {
+                if (result.size() == limit) break;
+                result.add(log);
+            }
+            if (result.size() == limit) break;
+        }
+        Collections.reverse(result);
+        return result;
+    }
+
+    public long getLogCount() {
+        return buckets.values().stream().mapToLong(Bucket::size).sum();
+    }
+
+    public long getEstimatedBytes() {
+        return bytes.get();
+    }
+
+    /**
+     * Drops buckets older than the window or beyond the memory budget, advancing {@link #getCoveredFrom()}.
+     */
+    @Scheduled(fixedDelayString = "${log.hot.eviction-interval-ms:5000}")
+    public void evict() {
+        if (!properties.isEnabled()) return;
+        LocalDateTime cutoff = LocalDateTime.now().minus(properties.getWindow());
+        long maxBytes = properties.getMaxMegabytes() * 1024 * 1024;
+        while (!buckets.isEmpty()) {
+            Map.Entry<LocalDateTime, Bucket> oldest = buckets.firstEntry();
+            LocalDateTime end = oldest.getKey().plusSeconds(bucketSeconds);
+            if (end.isAfter(cutoff) && bytes.get() <= maxBytes) break;
+            advance(end);
+            buckets.remove(oldest.getKey());
+            bytes.addAndGet(-oldest.getValue().getBytes());
+        }
+        if (acceptFrom.isBefore(cutoff)) advance(bucketStart(cutoff));
+    }
+
+    /**
+     * Empties the window and restarts coverage from now, e.g. after the underlying table was cleared.
+     */
+    public void clear() {
+        advance(LocalDateTime.now());
+        buckets.clear();
+        bytes.set(0);
+    }
+
+    private void add(List<Log> logs) {
+        LocalDateTime accept = acceptFrom;
+        for (Log log : logs) {
+            LocalDateTime timestamp = log.getTimestamp();
+            if (log.getId() == null || timestamp == null || timestamp.isBefore(accept)) continue;
+            Bucket bucket = buckets.computeIfAbsent(bucketStart(timestamp), start -> new Bucket());
+            if (bucket.add(log)) bytes.addAndGet(log.estimateHeapBytes());
+        }
+    }
+
+    /**
+     * Moves the coverage bound forward; logs older than it are no longer accepted or served.
+     */
+    private synchronized void advance(LocalDateTime bound) {
+        if (bound.isAfter(acceptFrom)) acceptFrom = bound;
+        if (coveredFrom != null && bound.isAfter(coveredFrom)) coveredFrom = bound;
+    }
+
+    private LocalDateTime bucketStart(LocalDateTime time) {
+        long seconds = time.toEpochSecond(ZoneOffset.UTC);
+        return LocalDateTime.ofEpochSecond(seconds - Math.floorMod(seconds, bucketSeconds), 0, ZoneOffset.UTC);
+    }
+
+    private static Log cursorLog(LogCursor cursor) {
+        Log log = new Log();
+        log.setId(cursor.id());
+        log.setTimestamp(cursor.timestamp());
+        return log;
+    }
+
+    private static LocalDateTime max(LocalDateTime a, LocalDateTime b) {
+        if (a == null) return b;
+        if (b == null) return a;
+        return a.isAfter(b) ? a : b;
+    }
+
+    /**
+     * One time bucket: its logs plus indexes by case-folded level and by resource ID.
+     */
+    private static final class Bucket {
+        private final Map<Long, Log> byId = new HashMap<>();
+        private final Map<String, List<Log>> byLevel = new HashMap<>();
+        private final Map<String, List<Log>> byResource = new HashMap<>();
+        private long bytes;
+
+        synchronized boolean add(Log log) {
+            if (byId.putIfAbsent(log.getId(), log) != null) return false;
+            if (log.getLevel() != null) byLevel.computeIfAbsent(LogQuery.foldCase(log.getLevel()), k -> new ArrayList<>()).add(log);
+            if (log.getResourceId() != null) byResource.computeIfAbsent(log.getResourceId(), k -> new ArrayList<>()).add(log);
+            bytes += log.estimateHeapBytes();
+            return true;
+        }
+
+        /**
+         * A copy of the logs that can match {@code query}, narrowed by the most selective index available.
+         */
+        synchronized List<Log> candidates(LogQuery query) {
+            if (query.getResourceId() != null) {
+                return new ArrayList<>(byResource.getOrDefault(query.getResourceId(), List.of()));
+            }
+            if (query.getLevel() != null && query.getLevelMatch() != LogQuery.Match.CONTAINS) {
+                return new ArrayList<>(byLevel.getOrDefault(LogQuery.foldCase(query.getLevel()), List.of()));
+            }
+            return new ArrayList<>(byId.values());
+        }
+
+        synchronized long size() {
+            return byId.size();
+        }
+
+        synchronized long getBytes() {
+            return bytes;
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.LogIngestor.Index;
+
+import com.LogIngestor.Config.IndexProperties;
+import com.LogIngestor.Config.StorageProperties;
+import com.LogIngestor.Model.Log;
+import com.LogIngestor.Repository.LogRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Brings every {@link PostingIndex} up to date on startup and snapshots them periodically.
+ * Each index is restored from its snapshot when one exists and then caught up from the repository;
+ * without a usable snapshot it is rebuilt from scratch. Until that finishes the index reports
+ * {@link PostingIndex#isReady()} false and searches fall back to the database.
+ */
+@Component
+@ConditionalOnProperty(name = StorageProperties.ENGINE, havingValue = "jpa", matchIfMissing = true)
+public class LogIndexBootstrap {
+
+    private static final Logger logger = LoggerFactory.getLogger(LogIndexBootstrap.class);
+
+    private final List<PostingIndex> indexes;
+    private final LogRepository logRepository;
+    private final IndexProperties properties;
+
+    @Autowired
+    public LogIndexBootstrap(ObjectProvider<PostingIndex> indexes, LogRepository logRepository, IndexProperties properties) {
+        this.indexes = indexes.orderedStream().toList();
+        this.logRepository = logRepository;
+        this.properties = properties;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startRebuild() {
+        if (indexes.isEmpty()) return;
+        Thread rebuild = new Thread(() -> {
+            try {
+                rebuild();
+            } catch (RuntimeException e) {
+                logger.error("Message index rebuild failed; searches keep using the database", e);
+            }
+        }, "log-index-rebuild");
+        rebuild.setDaemon(true);
+        rebuild.start();
+    }
+
+    /**
+     * Restores snapshots and indexes every log the snapshots do not cover.
+     */
+    public void rebuild() {
+        long started = System.currentTimeMillis();
+        long maxId = logRepository.findMaxId().orElse(0L);
+        long from = Long.MAX_VALUE;
+        for (PostingIndex index : indexes) {
+            from = Math.min(from, restore(index, maxId));
+        }
+
+        long indexed = 0;
+        long lastId = from;
+        while (true) {
+            List<Log> batch = logRepository.findByIdGreaterThanOrderByIdAsc(lastId, PageRequest.of(0, properties.getRebuildBatchSize()));
+            if (batch.isEmpty()) break;
+            for (PostingIndex index : indexes) index.add(batch);
+            lastId = batch.get(batch.size() - 1).getId();
+            indexed += batch.size();
+        }
+        indexes.forEach(PostingIndex::markReady);
+        logger.info("Message indexes ready: {} logs indexed from the repository in {} ms", indexed, System.currentTimeMillis() - started);
+    }
+
+    /**
+     * @return The ID after which this index still needs rows from the repository.
+     */
+    private long restore(PostingIndex index, long maxId) {
+        Path snapshot = snapshotPath(index);
+        if (snapshot == null) return 0;
+        try {
+            if (!index.load(snapshot)) return 0;
+        } catch (IOException e) {
+            logger.warn("Discarding unreadable {} index snapshot {}", index.getName(), snapshot, e);
+            index.clear();
+            return 0;
+        }
+        if (index.getHighWaterMark() > maxId) {
+            logger.warn("Discarding {} index snapshot: it covers IDs up to {} but the database ends at {}",
+                    index.getName(), index.getHighWaterMark(), maxId);
+            index.clear();
+            return 0;
+        }
+        return Math.max(0, index.getHighWaterMark() - properties.getCatchUpOverlap());
+    }
+
+    @Scheduled(initialDelayString = "${log.index.snapshot-interval-ms:300000}", fixedDelayString = "${log.index.snapshot-interval-ms:300000}")
+    public void snapshot() {
+        for (PostingIndex index : indexes) {
+            Path snapshot = snapshotPath(index);
+            if (snapshot == null || !index.isReady()) continue;
+            try {
+                index.save(snapshot);
+            } catch (IOException e) {
+                logger.error("Failed to save {} index snapshot to {}", index.getName(), snapshot, e);
+            }
+        }
+    }
+
+    private Path snapshotPath(PostingIndex index) {
+        String directory = properties.getDirectory();
+        if (directory == null || directory.isBlank()) return null;
+        return Path.of(directory, index.getName() + ".idx");
+    }
+}
@@ -0,0 +1,34 @@
+package com.LogIngestor.Index;
+
+import com.LogIngestor.Config.IndexProperties;
+import com.LogIngestor.Config.StorageProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Consumer;
+
+/**
+ * Inverted index from message terms (see {@link Tokenizer}) to the IDs of the logs containing them.
+ */
+@Component
+@ConditionalOnProperty(name = StorageProperties.ENGINE, havingValue = "jpa", matchIfMissing = true)
+public class MessageTermIndex extends PostingIndex {
+
+    private final int maxTermLength;
+
+    @Autowired
+    public MessageTermIndex(IndexProperties properties) {
+        super("terms");
+        this.maxTermLength = properties.getMaxTermLength();
+    }
+
+    @Override
+    protected void keys(String message, Consumer<String> sink) {
+        Tokenizer.terms(message, maxTermLength, sink);
+    }
+
+    public int getMaxTermLength() {
+        return maxTermLength;
+    }
+}
@@ -0,0 +1,40 @@
+package com.LogIngestor.Index;
+
+import com.LogIngestor.Config.StorageProperties;
+import org.roaringbitmap.longlong.Roaring64NavigableMap;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Consumer;
+
+/**
+ * Index from every three-character window of a message (ASCII letters folded to lower case)
+ * to the IDs of the logs containing it. Used to narrow regex searches to a candidate set.
+ */
+@Component
+@ConditionalOnProperty(name = StorageProperties.ENGINE, havingValue = "jpa", matchIfMissing = true)
+public class MessageTrigramIndex extends PostingIndex {
+
+    public MessageTrigramIndex() {
+        super("trigrams");
+    }
+
+    @Override
+    protected void keys(String message, Consumer<String> sink) {
+        String folded = RegexTrigramPlanner.fold(message);
+        for (int i = 0; i + 3 <= folded.length(); i++) {
+            sink.accept(folded.substring(i, i + 3));
+        }
+    }
+
+    /**
+     * IDs of the only logs whose message can match {@code regex}.
+     *
+     * @return The candidates, or null if the index is not ready or the regex gives no usable constraint.
+     */
+    public Roaring64NavigableMap candidates(String regex) {
+        if (!isReady()) return null;
+        TrigramQuery query = RegexTrigramPlanner.plan(regex);
+        return query.isAll() ? null : query.evaluate(this);
+    }
+}
@@ -0,0 +1,41 @@
+package com.LogIngestor.Index;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Bounded LRU cache of case-insensitive patterns, so dashboards repeating the same regex do not
+ * recompile it on every request.
+ */
+public final class PatternCache {
+
+    private static final int MAX_ENTRIES = 1_024;
+
+    private static final Map<String, Pattern> CACHE = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Pattern> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+
+    private PatternCache() {
+    }
+
+    /**
+     * Returns the compiled form of {@code regex} with {@link Pattern#CASE_INSENSITIVE}.
+     *
+     * @throws java.util.regex.PatternSyntaxException if the regex is invalid.
+     */
+    public static Pattern caseInsensitive(String regex) {
+        synchronized (CACHE) {
+            Pattern pattern = CACHE.get(regex);
+            if (pattern != null) return pattern;
+        }
+        Pattern pattern = Pattern.compile(regex, Pattern.CASE_INSENSITIVE);
+        synchronized (CACHE) {
+            CACHE.put(regex, pattern);
+        }
+        return pattern;
+    }
+}
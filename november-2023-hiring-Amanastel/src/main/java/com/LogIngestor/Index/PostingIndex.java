@@ -0,0 +1,211 @@
+package com.LogIngestor.Index;
+
+import com.LogIngestor.Ingest.LogIngestListener;
+import com.LogIngestor.Model.Log;
+import org.roaringbitmap.longlong.Roaring64NavigableMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * Maps keys extracted from {@link Log#getMessage()} to compressed posting lists of log IDs.
+ * Subclasses decide how a message is broken into keys; this class handles concurrency,
+ * intersection and snapshots.
+ *
+ * <p>Writers take the write lock once per ingested batch; readers take the read lock only
+ * while combining postings, so lookups never block each other.</p>
+ */
+public abstract class PostingIndex implements LogIngestListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(PostingIndex.class);
+    private static final int SNAPSHOT_VERSION = 1;
+
+    private final String name;
+    private final Map<String, Roaring64NavigableMap> postings = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile long highWaterMark;
+    private volatile boolean ready;
+
+    protected PostingIndex(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Emits every key of {@code message}. The same key may be emitted more than once.
+     */
+    protected abstract void keys(String message, Consumer<String> sink);
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Whether the index covers every persisted log, i.e. the startup rebuild has finished.
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    void markReady() {
+        ready = true;
+    }
+
+    public long getHighWaterMark() {
+        return highWaterMark;
+    }
+
+    public int getKeyCount() {
+        lock.readLock().lock();
+        try {
+            return postings.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void onLogsSaved(List<Log> logs) {
+        add(logs);
+    }
+
+    /**
+     * Indexes the messages of the given logs. Logs without an ID or message are ignored.
+     */
+    public void add(Collection<Log> logs) {
+        lock.writeLock().lock();
+        try {
+            for (Log log : logs) {
+                if (log.getId() == null || log.getMessage() == null) continue;
+                long id = log.getId();
+                keys(log.getMessage(), key -> postings.computeIfAbsent(key, k -> new Roaring64NavigableMap()).addLong(id));
+                if (id > highWaterMark) highWaterMark = id;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Number of logs whose message produced {@code key}.
+     */
+    public long cardinality(String key) {
+        lock.readLock().lock();
+        try {
+            Roaring64NavigableMap posting = postings.get(key);
+            return posting == null ? 0 : posting.getLongCardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * IDs of logs whose message produced every one of {@code keys}. Postings are intersected
+     * smallest first, so the work is bounded by the rarest key.
+     *
+     * @return A new bitmap owned by the caller; empty if any key is unknown.
+     */
+    public Roaring64NavigableMap all(Collection<String> keys) {
+        lock.readLock().lock();
+        try {
+            List<Roaring64NavigableMap> lists = new ArrayList<>(keys.size());
+            for (String key : keys) {
+                Roaring64NavigableMap posting = postings.get(key);
+                if (posting == null) return new Roaring64NavigableMap();
+                lists.add(posting);
+            }
+            if (lists.isEmpty()) return new Roaring64NavigableMap();
+            lists.sort(Comparator.comparingLong(Roaring64NavigableMap::getLongCardinality));
+            Roaring64NavigableMap result = new Roaring64NavigableMap();
+            result.or(lists.get(0));
+            for (int i = 1; i < lists.size() && !result.isEmpty(); i++) {
+                result.and(lists.get(i));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Writes the index to {@code file} atomically (temp file + rename).
+     */
+    public void save(Path file) throws IOException {
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        Files.createDirectories(file.getParent());
+        lock.readLock().lock();
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp), 1 << 16))) {
+            out.writeInt(SNAPSHOT_VERSION);
+            out.writeLong(highWaterMark);
+            out.writeInt(postings.size());
+            for (Map.Entry<String, Roaring64NavigableMap> entry : postings.entrySet()) {
+                out.writeUTF(entry.getKey());
+                entry.getValue().serialize(out);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        logger.info("Saved {} index snapshot: {} keys, high-water mark {}", name, getKeyCount(), highWaterMark);
+    }
+
+    /**
+     * Replaces the contents of the index with a snapshot written by {@link #save(Path)}.
+     *
+     * @return true if a compatible snapshot was loaded.
+     */
+    public boolean load(Path file) throws IOException {
+        if (!Files.exists(file)) return false;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 1 << 16))) {
+            if (in.readInt() != SNAPSHOT_VERSION) return false;
+            long mark = in.readLong();
+            int size = in.readInt();
+            Map<String, Roaring64NavigableMap> loaded = new HashMap<>(size * 2);
+            for (int i = 0; i < size; i++) {
+                String key = in.readUTF();
+                Roaring64NavigableMap posting = new Roaring64NavigableMap();
+                posting.deserialize(in);
+                loaded.put(key, posting);
+            }
+            lock.writeLock().lock();
+            try {
+                postings.clear();
+                postings.putAll(loaded);
+                highWaterMark = mark;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        logger.info("Loaded {} index snapshot: {} keys, high-water mark {}", name, getKeyCount(), highWaterMark);
+        return true;
+    }
+
+    /**
+     * Drops everything, e.g. when a snapshot turns out to belong to a different database.
+     */
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            highWaterMark = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
@@ -0,0 +1,288 @@
+package com.LogIngestor.Index;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Derives the trigrams a message must contain to match a regex, in the spirit of Russ Cox's codesearch.
+ * The regex is walked once: literal runs become trigram sets, alternations become ORs and anything
+ * optional or non-literal ({@code .}, classes, {@code *}, {@code ?}) simply ends the current run.
+ *
+ * <p>The result is conservative: every message the regex can match satisfies the query. Whenever the
+ * walker meets a construct it does not model exactly (back-references, {@code (?x)}, {@code (?u)}, hex escapes...)
+ * it gives up and returns {@link TrigramQuery#ALL}. Letters are folded to ASCII lower case, which matches
+ * {@link java.util.regex.Pattern#CASE_INSENSITIVE} without {@code UNICODE_CASE}.</p>
+ */
+public final class RegexTrigramPlanner {
+
+    private RegexTrigramPlanner() {
+    }
+
+    /**
+     * @param regex A pattern that {@link java.util.regex.Pattern#compile(String)} accepts.
+     * @return The trigram constraint for messages matching the pattern.
+     */
+    public static TrigramQuery plan(String regex) {
+        try {
+            Parser parser = new Parser(regex);
+            TrigramQuery query = parser.alternation();
+            return parser.pos == regex.length() ? query : TrigramQuery.ALL;
+        } catch (RuntimeException e) {
+            // Unsupported or unexpected syntax: fall back to scanning every message.
+            return TrigramQuery.ALL;
+        }
+    }
+
+    /**
+     * Folds ASCII upper-case letters only, leaving every other character untouched.
+     */
+    static char fold(char c) {
+        return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+    }
+
+    static String fold(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c >= 'A' && c <= 'Z') {
+                char[] folded = text.toCharArray();
+                for (int j = i; j < folded.length; j++) folded[j] = fold(folded[j]);
+                return new String(folded);
+            }
+        }
+        return text;
+    }
+
+    /**
+     * One parsed element: a literal run, a zero-width assertion, or an opaque sub-expression with its own query.
+     */
+    private record Atom(String literal, boolean zeroWidth, TrigramQuery query) {
+        static final Atom ANY = new Atom(null, false, TrigramQuery.ALL);
+        static final Atom ZERO_WIDTH = new Atom(null, true, TrigramQuery.ALL);
+
+        static Atom literal(String literal) {
+            return new Atom(literal, false, null);
+        }
+
+        static Atom group(TrigramQuery query) {
+            return new Atom(null, false, query);
+        }
+    }
+
+    private static final class Parser {
+        private final String s;
+        private int pos;
+
+        Parser(String s) {
+            this.s = s;
+        }
+
+        TrigramQuery alternation() {
+            List<TrigramQuery> branches = new ArrayList<>();
+            branches.add(sequence());
+            while (pos < s.length() && s.charAt(pos) == '|') {
+                pos++;
+                branches.add(sequence());
+            }
+            return TrigramQuery.or(branches);
+        }
+
+        private TrigramQuery sequence() {
+            List<TrigramQuery> parts = new ArrayList<>();
+            StringBuilder run = new StringBuilder();
+            while (pos < s.length()) {
+                char c = s.charAt(pos);
+                if (c == '|' || c == ')') break;
+                Atom atom = atom();
+                int min = quantifierMin();
+                if (atom.zeroWidth()) {
+                    if (min >= 0) throw new UnsupportedOperationException("quantified assertion");
+                    flush(run, parts);
+                } else if (atom.literal() != null) {
+                    String literal = atom.literal();
+                    if (min < 0) {
+                        run.append(literal);
+                    } else {
+                        // The quantifier only applies to the last character of the literal.
+                        run.append(literal, 0, literal.length() - 1);
+                        if (min >= 1) run.append(literal.charAt(literal.length() - 1));
+                        flush(run, parts);
+                    }
+                } else {
+                    flush(run, parts);
+                    if (min != 0) parts.add(atom.query());
+                }
+            }
+            flush(run, parts);
+            return TrigramQuery.and(parts);
+        }
+
+        private static void flush(StringBuilder run, List<TrigramQuery> parts) {
+            if (run.length() >= 3) parts.add(TrigramQuery.literal(run));
+            run.setLength(0);
+        }
+
+        private Atom atom() {
+            char c = s.charAt(pos);
+            switch (c) {
+                case '(':
+                    return group();
+                case '[':
+                    skipClass();
+                    return Atom.ANY;
+                case '.':
+                    pos++;
+                    return Atom.ANY;
+                case '^':
+                case '$':
+                    pos++;
+                    return Atom.ZERO_WIDTH;
+                case '\\':
+                    return escape();
+                case '*':
+                case '+':
+                case '?':
+                case '{':
+                    throw new UnsupportedOperationException("dangling quantifier");
+                default:
+                    if (Character.isSurrogate(c)) throw new UnsupportedOperationException("supplementary character");
+                    pos++;
+                    return Atom.literal(String.valueOf(fold(c)));
+            }
+        }
+
+        /**
+         * @return The minimum repetition of the quantifier at the current position, or -1 if there is none.
+         */
+        private int quantifierMin() {
+            if (pos >= s.length()) return -1;
+            char c = s.charAt(pos);
+            int min;
+            if (c == '*' || c == '?') {
+                min = 0;
+                pos++;
+            } else if (c == '+') {
+                min = 1;
+                pos++;
+            } else if (c == '{') {
+                int close = s.indexOf('}', pos);
+                if (close < 0) throw new UnsupportedOperationException("unclosed repetition");
+                String bounds = s.substring(pos + 1, close);
+                int comma = bounds.indexOf(',');
+                min = Integer.parseInt((comma < 0 ? bounds : bounds.substring(0, comma)).trim());
+                pos = close + 1;
+            } else {
+                return -1;
+            }
+            if (pos < s.length() && (s.charAt(pos) == '?' || s.charAt(pos) == '+')) pos++;
+            return min;
+        }
+
+        private Atom group() {
+            pos++;
+            boolean zeroWidth = false;
+            if (s.startsWith("?", pos)) {
+                if (s.startsWith("?:", pos) || s.startsWith("?>", pos)) {
+                    pos += 2;
+                } else if (s.startsWith("?=", pos) || s.startsWith("?!", pos)) {
+                    pos += 2;
+                    zeroWidth = true;
+                } else if (s.startsWith("?<=", pos) || s.startsWith("?<!", pos)) {
+                    pos += 3;
+                    zeroWidth = true;
+                } else if (s.startsWith("?<", pos)) {
+                    int close = s.indexOf('>', pos);
+                    if (close < 0) throw new UnsupportedOperationException("unclosed group name");
+                    pos = close + 1;
+                } else {
+                    pos++;
+                    int start = pos;
+                    while (pos < s.length() && (Character.isLetter(s.charAt(pos)) || s.charAt(pos) == '-')) pos++;
+                    String flags = s.substring(start, pos);
+                    if (flags.indexOf('x') >= 0 || flags.indexOf('u') >= 0 || flags.indexOf('U') >= 0) {
+                        throw new UnsupportedOperationException("flags " + flags);
+                    }
+                    if (s.charAt(pos) == ')') {
+                        pos++;
+                        return Atom.ZERO_WIDTH;
+                    }
+                    if (s.charAt(pos) != ':') throw new UnsupportedOperationException("group syntax");
+                    pos++;
+                }
+            }
+            TrigramQuery inner = alternation();
+            if (pos >= s.length() || s.charAt(pos) != ')') throw new UnsupportedOperationException("unclosed group");
+            pos++;
+            return zeroWidth ? Atom.ZERO_WIDTH : Atom.group(inner);
+        }
+
+        private Atom escape() {
+            char c = s.charAt(pos + 1);
+            pos += 2;
+            switch (c) {
+                case 'd': case 'D': case 's': case 'S': case 'w': case 'W':
+                case 'h': case 'H': case 'v': case 'V': case 'R': case 'X':
+                    return Atom.ANY;
+                case 'p': case 'P':
+                    if (s.charAt(pos) == '{') {
+                        int close = s.indexOf('}', pos);
+                        if (close < 0) throw new UnsupportedOperationException("unclosed property");
+                        pos = close + 1;
+                    } else {
+                        pos++;
+                    }
+                    return Atom.ANY;
+                case 'b': case 'B': case 'A': case 'G': case 'z': case 'Z':
+                    return Atom.ZERO_WIDTH;
+                case 't':
+                    return Atom.literal("\t");
+                case 'n':
+                    return Atom.literal("\n");
+                case 'r':
+                    return Atom.literal("\r");
+                case 'f':
+                    return Atom.literal("\f");
+                case 'a':
+                    return Atom.literal("\u0007");
+                case 'e':
+                    return Atom.literal("\u001B");
+                case 'Q': {
+                    int end = s.indexOf("\\E", pos);
+                    String quoted = end < 0 ? s.substring(pos) : s.substring(pos, end);
+                    pos = end < 0 ? s.length() : end + 2;
+                    if (quoted.isEmpty()) return Atom.ZERO_WIDTH;
+                    for (int i = 0; i < quoted.length(); i++) {
+                        if (Character.isSurrogate(quoted.charAt(i))) throw new UnsupportedOperationException("supplementary character");
+                    }
+                    return Atom.literal(fold(quoted));
+                }
+                default:
+                    if (Character.isLetterOrDigit(c) || Character.isSurrogate(c)) {
+                        throw new UnsupportedOperationException("escape \\" + c);
+                    }
+                    return Atom.literal(String.valueOf(c));
+            }
+        }
+
+        private void skipClass() {
+            pos++;
+            if (s.charAt(pos) == '^') pos++;
+            if (s.charAt(pos) == ']') pos++;
+            int depth = 1;
+            while (depth > 0) {
+                char c = s.charAt(pos);
+                if (c == '\\') {
+                    if (s.charAt(pos + 1) == 'Q') throw new UnsupportedOperationException("quote in class");
+                    pos += 2;
+                    if ((s.charAt(pos - 1) == 'p' || s.charAt(pos - 1) == 'P') && s.charAt(pos) == '{') {
+                        pos = s.indexOf('}', pos) + 1;
+                        if (pos == 0) throw new UnsupportedOperationException("unclosed property");
+                    }
+                } else {
+                    if (c == '[') depth++;
+                    else if (c == ']') depth--;
+                    pos++;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.LogIngestor.Index;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Splits text into lower-case terms made of letters and digits. Everything else separates terms,
+ * so {@code "Failed to connect to DB-01"} yields {@code failed, to, connect, to, db, 01}.
+ */
+public final class Tokenizer {
+
+    private Tokenizer() {
+    }
+
+    /**
+     * Emits each term of {@code text} in order, skipping terms longer than {@code maxLength}.
+     */
+    public static void terms(String text, int maxLength, Consumer<String> sink) {
+        int length = text.length();
+        int start = -1;
+        for (int i = 0; i <= length; i++) {
+            boolean termChar = i < length && Character.isLetterOrDigit(text.charAt(i));
+            if (termChar) {
+                if (start < 0) start = i;
+            } else if (start >= 0) {
+                if (i - start <= maxLength) sink.accept(lowerCase(text, start, i));
+                start = -1;
+            }
+        }
+    }
+
+    public static List<String> terms(String text, int maxLength) {
+        List<String> terms = new ArrayList<>();
+        terms(text, maxLength, terms::add);
+        return terms;
+    }
+
+    private static String lowerCase(String text, int start, int end) {
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (Character.toLowerCase(c) != c) {
+                StringBuilder term = new StringBuilder(end - start);
+                for (int j = start; j < end; j++) term.append(Character.toLowerCase(text.charAt(j)));
+                return term.toString();
+            }
+        }
+        return text.substring(start, end);
+    }
+}
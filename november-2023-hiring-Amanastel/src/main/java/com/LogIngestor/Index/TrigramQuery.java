@@ -0,0 +1,109 @@
+package com.LogIngestor.Index;
+
+import org.roaringbitmap.longlong.Roaring64NavigableMap;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Boolean combination of trigram sets that every message matching a regex must satisfy.
+ * {@link #ALL} means the regex gives no usable constraint and every message is a candidate.
+ */
+public final class TrigramQuery {
+
+    public static final TrigramQuery ALL = new TrigramQuery(Type.ALL, Set.of(), List.of());
+
+    private enum Type {
+        ALL, TRIGRAMS, AND, OR
+    }
+
+    private final Type type;
+    private final Set<String> trigrams;
+    private final List<TrigramQuery> children;
+
+    private TrigramQuery(Type type, Set<String> trigrams, List<TrigramQuery> children) {
+        this.type = type;
+        this.trigrams = trigrams;
+        this.children = children;
+    }
+
+    /**
+     * Every trigram of {@code literal} must be present. Literals shorter than three characters constrain nothing.
+     */
+    public static TrigramQuery literal(CharSequence literal) {
+        if (literal.length() < 3) return ALL;
+        Set<String> trigrams = new LinkedHashSet<>();
+        for (int i = 0; i + 3 <= literal.length(); i++) {
+            trigrams.add(literal.subSequence(i, i + 3).toString());
+        }
+        return new TrigramQuery(Type.TRIGRAMS, trigrams, List.of());
+    }
+
+    public static TrigramQuery and(List<TrigramQuery> parts) {
+        List<TrigramQuery> required = new ArrayList<>();
+        for (TrigramQuery part : parts) {
+            if (part.type != Type.ALL) required.add(part);
+        }
+        if (required.isEmpty()) return ALL;
+        if (required.size() == 1) return required.get(0);
+        return new TrigramQuery(Type.AND, Set.of(), List.copyOf(required));
+    }
+
+    public static TrigramQuery or(List<TrigramQuery> alternatives) {
+        for (TrigramQuery alternative : alternatives) {
+            if (alternative.type == Type.ALL) return ALL;
+        }
+        if (alternatives.size() == 1) return alternatives.get(0);
+        return new TrigramQuery(Type.OR, Set.of(), List.copyOf(alternatives));
+    }
+
+    public boolean isAll() {
+        return type == Type.ALL;
+    }
+
+    /**
+     * Resolves the query against a trigram index.
+     *
+     * @return The candidate IDs, or null if the query does not constrain the candidates.
+     */
+    public Roaring64NavigableMap evaluate(PostingIndex index) {
+        switch (type) {
+            case TRIGRAMS:
+                return index.all(trigrams);
+            case AND: {
+                Roaring64NavigableMap result = null;
+                for (TrigramQuery child : children) {
+                    Roaring64NavigableMap ids = child.evaluate(index);
+                    if (ids == null) continue;
+                    if (result == null) result = ids;
+                    else result.and(ids);
+                    if (result.isEmpty()) break;
+                }
+                return result;
+            }
+            case OR: {
+                Roaring64NavigableMap result = new Roaring64NavigableMap();
+                for (TrigramQuery child : children) {
+                    Roaring64NavigableMap ids = child.evaluate(index);
+                    if (ids == null) return null;
+                    result.or(ids);
+                }
+                return result;
+            }
+            default:
+                return null;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return switch (type) {
+            case ALL -> "ALL";
+            case TRIGRAMS -> trigrams.toString();
+            case AND -> "AND" + children;
+            case OR -> "OR" + children;
+        };
+    }
+}
@@ -0,0 +1,213 @@
+package com.LogIngestor.Ingest;
+
+import com.LogIngestor.Config.IngestProperties;
+import com.LogIngestor.Config.StorageProperties;
+import com.LogIngestor.Model.Log;
+import com.LogIngestor.Repository.LogRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded in-process queue drained by a fixed set of writer threads.
+ * Each writer collects up to {@code batchSize} logs (or whatever arrived within {@code flushIntervalMs})
+ * and persists them in a single transaction so Hibernate can send them as one JDBC batch.
+ *
+ * <p>Queued logs have already been acknowledged, so a failed batch is retried with backoff up to
+ * {@code writeRetries} times. A batch the database rejects for its contents is written again one log at a
+ * time instead, so only the offending logs are lost. Logs that are given up on are logged and reported to
+ * {@link LogIngestNotifier#notifyDropped}.</p>
+ */
+@Component
+@ConditionalOnProperty(name = StorageProperties.ENGINE, havingValue = "jpa", matchIfMissing = true)
+public class LogBatchWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(LogBatchWriter.class);
+
+    private final LogRepository logRepository;
+    private final LogIngestNotifier logIngestNotifier;
+    private final TransactionTemplate transactionTemplate;
+    private final IngestProperties properties;
+    private final BlockingQueue<Log> queue;
+    private final List<Thread> writers = new ArrayList<>();
+
+    private volatile boolean running;
+
+    /**
+     * Constructor for LogBatchWriter.
+     *
+     * @param logRepository      The repository for log entities.
+     * @param logIngestNotifier  Notified after each batch is committed.
+     * @param transactionManager The transaction manager used for each batch.
+     * @param properties         The ingest pipeline configuration.
+     * @param registry           The registry the queue depth is published to, as {@code log.ingest.queue.depth}.
+     */
+    @Autowired
+    public LogBatchWriter(LogRepository logRepository, LogIngestNotifier logIngestNotifier,
+                          PlatformTransactionManager transactionManager, IngestProperties properties, MeterRegistry registry) {
+        this.logRepository = logRepository;
+        this.logIngestNotifier = logIngestNotifier;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = properties;
+        this.queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+        Gauge.builder("log.ingest.queue.depth", queue, BlockingQueue::size)
+                .description("Logs waiting for the batch writer")
+                .register(registry);
+    }
+
+    @PostConstruct
+    void start() {
+        running = true;
+        for (int i = 0; i < properties.getWriterThreads(); i++) {
+            Thread writer = new Thread(this::drain, "log-batch-writer-" + i);
+            writer.setDaemon(true);
+            writer.start();
+            writers.add(writer);
+        }
+    }
+
+    /**
+     * Stops accepting new work and lets the writers flush whatever is still queued.
+     */
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        for (Thread writer : writers) {
+            writer.join(TimeUnit.SECONDS.toMillis(30));
+        }
+    }
+
+    /**
+     * Queues a log for asynchronous writing.
+     *
+     * @param log The log to be written.
+     * @return true if the log was queued, false if the queue stayed full for {@code offerTimeoutMs}.
+     */
+    public boolean submit(Log log) {
+        if (!running) return false;
+        try {
+            return queue.offer(log, properties.getOfferTimeoutMs(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Number of logs currently waiting to be written.
+     */
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    private void drain() {
+        int batchSize = properties.getBatchSize();
+        long flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(properties.getFlushIntervalMs());
+        List<Log> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Log first = queue.poll(properties.getFlushIntervalMs(), TimeUnit.MILLISECONDS);
+                if (first == null) continue;
+                batch.add(first);
+
+                long deadline = System.nanoTime() + flushIntervalNanos;
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0) break;
+                    Log next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) break;
+                    batch.add(next);
+                }
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Writes a batch, retrying with backoff when the database fails it.
+     *
+     * @throws InterruptedException if interrupted while waiting to retry; the unwritten logs are reported as dropped.
+     */
+    private void write(List<Log> batch) throws InterruptedException {
+        List<Log> pending = new ArrayList<>(batch);
+        boolean oneByOne = false;
+        int retries = 0;
+        long backoffMs = properties.getWriteRetryBackoffMs();
+        while (true) {
+            try {
+                if (oneByOne) {
+                    writeOneByOne(pending);
+                } else {
+                    save(pending);
+                    logger.debug("Wrote batch of {} logs", pending.size());
+                    logIngestNotifier.notifySaved(pending);
+                }
+                return;
+            } catch (DataIntegrityViolationException e) {
+                logger.warn("Database rejected a batch of {} logs; writing it one log at a time", pending.size(), e);
+                oneByOne = true;
+            } catch (RuntimeException e) {
+                if (retries++ >= properties.getWriteRetries()) {
+                    logger.error("Dropping {} logs after {} failed attempts", pending.size(), retries, e);
+                    logIngestNotifier.notifyDropped(pending);
+                    return;
+                }
+                logger.warn("Failed to write {} logs; retrying in {} ms", pending.size(), backoffMs, e);
+                try {
+                    Thread.sleep(backoffMs);
+                } catch (InterruptedException interrupted) {
+                    logger.error("Dropping {} logs: writer interrupted while waiting to retry", pending.size());
+                    logIngestNotifier.notifyDropped(pending);
+                    throw interrupted;
+                }
+                backoffMs *= 2;
+            }
+        }
+    }
+
+    /**
+     * Writes each log in its own transaction, dropping the ones the database rejects. Logs are removed from
+     * {@code pending} once written or dropped, so after any other failure it holds only the logs left to write.
+     */
+    private void writeOneByOne(List<Log> pending) {
+        for (Iterator<Log> logs = pending.iterator(); logs.hasNext(); ) {
+            Log log = logs.next();
+            try {
+                save(List.of(log));
+                logIngestNotifier.notifySaved(List.of(log));
+            } catch (DataIntegrityViolationException e) {
+                logger.error("Dropping log rejected by the database ({}): {}", e.getMostSpecificCause().getMessage(), log);
+                logIngestNotifier.notifyDropped(List.of(log));
+            }
+            logs.remove();
+        }
+    }
+
+    private void save(List<Log> logs) {
+        // A rolled-back attempt leaves sequence IDs on the logs; clear them so the next attempt inserts again.
+        for (Log log : logs) log.setId(null);
+        transactionTemplate.executeWithoutResult(status -> logRepository.saveAll(logs));
+    }
+}
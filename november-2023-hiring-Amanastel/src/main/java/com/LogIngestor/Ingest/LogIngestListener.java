@@ -0,0 +1,27 @@
+package com.LogIngestor.Ingest;
+
+import com.LogIngestor.Model.Log;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Receives logs right after they have been persisted, with their IDs assigned.
+ * Implementations run on the ingest thread and must not block; the list itself may be reused after the call returns.
+ */
+public interface LogIngestListener {
+
+    void onLogsSaved(List<Log> logs);
+
+    /**
+     * Called when logs that were accepted for ingestion could not be written and were dropped.
+     */
+    default void onLogsDropped(List<Log> logs) {
+    }
+
+    /**
+     * Called after retention removed every log older than {@code cutoff}.
+     */
+    default void onLogsExpired(LocalDateTime cutoff) {
+    }
+}
@@ -0,0 +1,60 @@
+package com.LogIngestor.Ingest;
+
+import com.LogIngestor.Model.Log;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Fans persisted logs out to every {@link LogIngestListener} bean. A failing listener is logged and
+ * never fails the ingest itself.
+ */
+@Component
+public class LogIngestNotifier {
+
+    private static final Logger logger = LoggerFactory.getLogger(LogIngestNotifier.class);
+
+    private final List<LogIngestListener> listeners;
+
+    @Autowired
+    public LogIngestNotifier(ObjectProvider<LogIngestListener> listeners) {
+        this.listeners = listeners.orderedStream().toList();
+    }
+
+    public void notifySaved(List<Log> logs) {
+        if (logs.isEmpty()) return;
+        for (LogIngestListener listener : listeners) {
+            try {
+                listener.onLogsSaved(logs);
+            } catch (RuntimeException e) {
+                logger.error("Ingest listener {} failed for {} logs", listener.getClass().getSimpleName(), logs.size(), e);
+            }
+        }
+    }
+
+    public void notifyDropped(List<Log> logs) {
+        if (logs.isEmpty()) return;
+        for (LogIngestListener listener : listeners) {
+            try {
+                listener.onLogsDropped(logs);
+            } catch (RuntimeException e) {
+                logger.error("Ingest listener {} failed for {} dropped logs", listener.getClass().getSimpleName(), logs.size(), e);
+            }
+        }
+    }
+
+    public void notifyExpired(LocalDateTime cutoff) {
+        for (LogIngestListener listener : listeners) {
+            try {
+                listener.onLogsExpired(cutoff);
+            } catch (RuntimeException e) {
+                logger.error("Ingest listener {} failed for logs expired before {}", listener.getClass().getSimpleName(), cutoff, e);
+            }
+        }
+    }
+}
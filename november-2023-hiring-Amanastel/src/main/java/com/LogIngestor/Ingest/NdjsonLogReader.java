@@ -0,0 +1,225 @@
+package com.LogIngestor.Ingest;
+
+import com.LogIngestor.Config.IngestProperties;
+import com.LogIngestor.Model.BatchIngestResponse;
+import com.LogIngestor.Model.Log;
+import com.LogIngestor.Model.Metadata;
+import com.LogIngestor.Model.StreamIngestResponse;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Reads newline-delimited JSON logs from a stream without ever holding more than one line
+ * and one chunk of logs in memory. Each line is parsed with Jackson's incremental {@link JsonParser};
+ * a malformed line is recorded by line number and skipped.
+ */
+@Component
+public class NdjsonLogReader {
+
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+
+    private final JsonFactory jsonFactory;
+    private final IngestProperties properties;
+
+    /**
+     * Constructor for NdjsonLogReader.
+     *
+     * @param objectMapper The application object mapper whose factory creates the parsers.
+     * @param properties   The ingest pipeline configuration.
+     */
+    @Autowired
+    public NdjsonLogReader(ObjectMapper objectMapper, IngestProperties properties) {
+        this.jsonFactory = objectMapper.getFactory();
+        this.properties = properties;
+    }
+
+    /**
+     * Parses the stream line by line and hands parsed logs to {@code sink} in chunks of {@code batchSize}.
+     *
+     * @param in   The NDJSON input, already decompressed.
+     * @param sink Receives each chunk; the list is reused after the call returns.
+     * @return Line, accept and reject counts plus the first malformed lines.
+     * @throws IOException if the underlying stream cannot be read.
+     */
+    public StreamIngestResponse read(InputStream in, Function<List<Log>, BatchIngestResponse> sink) throws IOException {
+        StreamIngestResponse response = new StreamIngestResponse();
+        int chunkSize = properties.getBatchSize();
+        int maxLineBytes = properties.getStreamMaxLineBytes();
+        List<Log> chunk = new ArrayList<>(chunkSize);
+
+        byte[] readBuffer = new byte[READ_BUFFER_SIZE];
+        byte[] line = new byte[Math.min(maxLineBytes, READ_BUFFER_SIZE)];
+        int lineLength = 0;
+        boolean overflow = false;
+        long lineNumber = 1;
+
+        int read;
+        while ((read = in.read(readBuffer)) != -1) {
+            int start = 0;
+            for (int i = 0; i < read; i++) {
+                if (readBuffer[i] != '\n') continue;
+                if (!overflow) {
+                    line = append(line, lineLength, readBuffer, start, i - start, maxLineBytes);
+                    if (line == null) overflow = true;
+                    else lineLength += i - start;
+                }
+                handleLine(line, lineLength, overflow, lineNumber, chunk, response);
+                if (chunk.size() >= chunkSize) flush(chunk, sink, response);
+                if (line == null) line = new byte[Math.min(maxLineBytes, READ_BUFFER_SIZE)];
+                lineLength = 0;
+                overflow = false;
+                lineNumber++;
+                start = i + 1;
+            }
+            if (!overflow && start < read) {
+                line = append(line, lineLength, readBuffer, start, read - start, maxLineBytes);
+                if (line == null) overflow = true;
+                else lineLength += read - start;
+            }
+        }
+        if (overflow || lineLength > 0) {
+            handleLine(line, lineLength, overflow, lineNumber, chunk, response);
+        }
+        flush(chunk, sink, response);
+        return response;
+    }
+
+    /**
+     * Appends to the line buffer, growing it up to {@code maxLineBytes}.
+     *
+     * @return The (possibly reallocated) buffer, or null if the line would exceed the limit.
+     */
+    private byte[] append(byte[] line, int lineLength, byte[] src, int offset, int length, int maxLineBytes) {
+        int required = lineLength + length;
+        if (required > maxLineBytes) return null;
+        if (required > line.length) {
+            byte[] grown = new byte[Math.min(maxLineBytes, Math.max(required, line.length * 2))];
+            System.arraycopy(line, 0, grown, 0, lineLength);
+            line = grown;
+        }
+        System.arraycopy(src, offset, line, lineLength, length);
+        return line;
+    }
+
+    private void handleLine(byte[] line, int length, boolean overflow, long lineNumber, List<Log> chunk, StreamIngestResponse response) {
+        if (overflow) {
+            response.setLines(response.getLines() + 1);
+            reject(response, lineNumber, "Line exceeds " + properties.getStreamMaxLineBytes() + " bytes");
+            return;
+        }
+        if (length > 0 && line[length - 1] == '\r') length--;
+        if (isBlank(line, length)) return;
+
+        response.setLines(response.getLines() + 1);
+        try {
+            chunk.add(parseLog(line, length));
+        } catch (JsonProcessingException e) {
+            reject(response, lineNumber, e.getOriginalMessage());
+        } catch (IOException | DateTimeParseException e) {
+            reject(response, lineNumber, e.getMessage());
+        }
+    }
+
+    private void flush(List<Log> chunk, Function<List<Log>, BatchIngestResponse> sink, StreamIngestResponse response) {
+        if (chunk.isEmpty()) return;
+        BatchIngestResponse result = sink.apply(chunk);
+        response.setAccepted(response.getAccepted() + result.getAccepted());
+        response.setRejected(response.getRejected() + result.getRejected());
+        chunk.clear();
+    }
+
+    private void reject(StreamIngestResponse response, long lineNumber, String message) {
+        response.setRejected(response.getRejected() + 1);
+        if (response.getErrors().size() < properties.getStreamMaxReportedErrors()) {
+            response.getErrors().add(new StreamIngestResponse.LineError(lineNumber, message));
+        }
+    }
+
+    private Log parseLog(byte[] line, int length) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(line, 0, length)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new JsonParseException(parser, "Expected a JSON object");
+            }
+            Log log = new Log();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                parser.nextToken();
+                switch (field) {
+                    case "level" -> log.setLevel(text(parser));
+                    case "message" -> log.setMessage(text(parser));
+                    case "resourceId" -> log.setResourceId(text(parser));
+                    case "timestamp" -> log.setTimestamp(timestamp(text(parser)));
+                    case "traceId" -> log.setTraceId(text(parser));
+                    case "spanId" -> log.setSpanId(text(parser));
+                    case "commit" -> log.setCommit(text(parser));
+                    case "metadata" -> log.setMetadata(metadata(parser));
+                    default -> parser.skipChildren();
+                }
+            }
+            if (parser.nextToken() != null) {
+                throw new JsonParseException(parser, "Unexpected content after JSON object");
+            }
+            return log;
+        }
+    }
+
+    private Metadata metadata(JsonParser parser) throws IOException {
+        if (parser.currentToken() == JsonToken.VALUE_NULL) return null;
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            throw new JsonParseException(parser, "Expected metadata to be an object");
+        }
+        Metadata metadata = new Metadata();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            parser.nextToken();
+            if ("parentResourceId".equals(field)) metadata.setParentResourceId(text(parser));
+            else parser.skipChildren();
+        }
+        return metadata;
+    }
+
+    private String text(JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.VALUE_NULL) return null;
+        if (!token.isScalarValue()) {
+            throw new JsonParseException(parser, "Expected a scalar value for '" + parser.getCurrentName() + "'");
+        }
+        return parser.getText();
+    }
+
+    /**
+     * Accepts both local ISO timestamps and timestamps with an offset ({@code 2023-09-15T08:00:00Z}),
+     * the latter normalized to UTC like Jackson's own {@code LocalDateTime} deserializer does.
+     */
+    private LocalDateTime timestamp(String value) {
+        if (value == null) return null;
+        if (value.endsWith("Z") || value.lastIndexOf('+') > 10 || value.lastIndexOf('-') > 10) {
+            return OffsetDateTime.parse(value).withOffsetSameInstant(ZoneOffset.UTC).toLocalDateTime();
+        }
+        return LocalDateTime.parse(value);
+    }
+
+    private static boolean isBlank(byte[] line, int length) {
+        for (int i = 0; i < length; i++) {
+            byte b = line[i];
+            if (b != ' ' && b != '\t' && b != '\r') return false;
+        }
+        return true;
+    }
+}
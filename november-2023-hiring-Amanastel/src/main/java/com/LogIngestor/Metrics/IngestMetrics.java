@@ -0,0 +1,43 @@
+package com.LogIngestor.Metrics;
+
+import com.LogIngestor.Ingest.LogIngestListener;
+import com.LogIngestor.Model.Log;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Counts stored logs as {@code log.ingest.logs}, whose rate is the ingest rate, and accepted logs that could
+ * not be written as {@code log.ingest.dropped}. The batch writer's backlog is published by
+ * {@link com.LogIngestor.Ingest.LogBatchWriter} itself.
+ */
+@Component
+public class IngestMetrics implements LogIngestListener {
+
+    private final Counter stored;
+    private final Counter dropped;
+
+    /**
+     * Constructor for IngestMetrics.
+     *
+     * @param registry The registry the counters are published to.
+     */
+    @Autowired
+    public IngestMetrics(MeterRegistry registry) {
+        this.stored = Counter.builder("log.ingest.logs").description("Logs stored").register(registry);
+        this.dropped = Counter.builder("log.ingest.dropped").description("Accepted logs dropped because they could not be written").register(registry);
+    }
+
+    @Override
+    public void onLogsSaved(List<Log> logs) {
+        stored.increment(logs.size());
+    }
+
+    @Override
+    public void onLogsDropped(List<Log> logs) {
+        dropped.increment(logs.size());
+    }
+}
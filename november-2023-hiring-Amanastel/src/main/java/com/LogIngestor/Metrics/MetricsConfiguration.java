@@ -0,0 +1,19 @@
+package com.LogIngestor.Metrics;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+@Configuration
+public class MetricsConfiguration {
+
+    /**
+     * Replaces Spring Boot's default JSON converter with one that times serialization.
+     */
+    @Bean
+    public MappingJackson2HttpMessageConverter mappingJackson2HttpMessageConverter(ObjectMapper objectMapper, MeterRegistry registry) {
+        return new TimedJsonHttpMessageConverter(objectMapper, registry);
+    }
+}
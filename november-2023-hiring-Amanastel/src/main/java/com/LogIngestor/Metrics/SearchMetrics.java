@@ -0,0 +1,61 @@
+package com.LogIngestor.Metrics;
+
+import com.LogIngestor.Model.QueryPlan;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Search meters, tagged by where the rows came from ({@code cache}, {@code hot}, {@code database}, ...):
+ *
+ * <ul>
+ *     <li>{@code log.search}: end-to-end service latency;</li>
+ *     <li>{@code log.search.db}: time spent waiting on the database;</li>
+ *     <li>{@code log.search.rows.scanned} and {@code log.search.rows.returned}: rows read versus rows kept.</li>
+ * </ul>
+ */
+@Component
+public class SearchMetrics {
+
+    static final String DATABASE_STAGE = "database";
+
+    private final MeterRegistry registry;
+
+    /**
+     * Constructor for SearchMetrics.
+     *
+     * @param registry The registry the meters are published to.
+     */
+    @Autowired
+    public SearchMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * Records a finished search from its plan.
+     */
+    public void record(QueryPlan plan) {
+        record(plan.getSource(), (long) (plan.getTotalMillis() * 1e6), (long) (plan.getMillis(DATABASE_STAGE) * 1e6),
+                plan.getRowsScanned(), plan.getRowsReturned());
+    }
+
+    /**
+     * Records a finished search.
+     *
+     * @param source       Where the rows came from.
+     * @param elapsedNanos Time spent in the service.
+     * @param dbNanos      Part of it spent in the database.
+     * @param rowsScanned  Rows read from the database or memory.
+     * @param rowsReturned Rows returned to the caller.
+     */
+    public void record(String source, long elapsedNanos, long dbNanos, long rowsScanned, long rowsReturned) {
+        Timer.builder("log.search").tag("source", source).register(registry).record(elapsedNanos, TimeUnit.NANOSECONDS);
+        if (dbNanos > 0) Timer.builder("log.search.db").tag("source", source).register(registry).record(dbNanos, TimeUnit.NANOSECONDS);
+        DistributionSummary.builder("log.search.rows.scanned").tag("source", source).register(registry).record(rowsScanned);
+        DistributionSummary.builder("log.search.rows.returned").tag("source", source).register(registry).record(rowsReturned);
+    }
+}
@@ -0,0 +1,44 @@
+package com.LogIngestor.Metrics;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The JSON converter used for response bodies, timing every write as {@code log.response.serialization}
+ * so serialization cost can be told apart from database time.
+ */
+public class TimedJsonHttpMessageConverter extends MappingJackson2HttpMessageConverter {
+
+    private final Timer serialization;
+
+    /**
+     * Constructor for TimedJsonHttpMessageConverter.
+     *
+     * @param objectMapper The application's object mapper.
+     * @param registry     The registry the timer is published to.
+     */
+    public TimedJsonHttpMessageConverter(ObjectMapper objectMapper, MeterRegistry registry) {
+        super(objectMapper);
+        this.serialization = Timer.builder("log.response.serialization")
+                .description("Time spent writing JSON response bodies")
+                .register(registry);
+    }
+
+    @Override
+    protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage) throws IOException, HttpMessageNotWritableException {
+        long started = System.nanoTime();
+        try {
+            super.writeInternal(object, type, outputMessage);
+        } finally {
+            serialization.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.LogIngestor.Model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Distinct counts and heaviest resources and message templates over a time range, read from sketches.
+ * Every figure comes with bounds holding with the stated confidence; {@code total} is exact.
+ */
+@Data
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ApproximateStats {
+    private LocalDateTime startTime;
+    private LocalDateTime endTime;
+    private String level;
+    private int buckets;
+    private long total;
+    private Estimate distinctResources;
+    private Estimate distinctTraces;
+    private List<Frequency> topResources = new ArrayList<>();
+    private List<Frequency> topTemplates = new ArrayList<>();
+    private Frequency resource;
+
+    /**
+     * An estimated distinct count; the true count lies in {@code [lower, upper]} with probability {@code confidence}.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Estimate {
+        private long estimate;
+        private long lower;
+        private long upper;
+        private double confidence;
+    }
+
+    /**
+     * An estimated number of logs for one value; never below the true count, which is at least {@code lower}
+     * with probability {@code confidence}.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Frequency {
+        private String value;
+        private long estimate;
+        private long lower;
+        private long upper;
+        private double confidence;
+    }
+}
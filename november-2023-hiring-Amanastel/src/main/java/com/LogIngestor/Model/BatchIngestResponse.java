@@ -0,0 +1,16 @@
+package com.LogIngestor.Model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Result of a bulk ingest request: how many logs were queued for writing and how many were refused.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchIngestResponse {
+    private int accepted;
+    private int rejected;
+}
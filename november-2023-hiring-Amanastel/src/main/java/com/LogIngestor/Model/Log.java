@@ -1,5 +1,6 @@
 package com.LogIngestor.Model;
 
+import com.LogIngestor.Dictionary.DictionaryStringConverter;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -9,24 +10,48 @@ import lombok.Setter;
 import java.time.LocalDateTime;
 
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_log_timestamp", columnList = "timestamp"),
+        @Index(name = "idx_log_level_timestamp", columnList = "level, timestamp"),
+        @Index(name = "idx_log_resource_timestamp", columnList = "resourceId, timestamp"),
+        @Index(name = "idx_log_trace_timestamp", columnList = "traceId, timestamp")
+})
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 public class Log {
 
+    private static final long HEAP_OVERHEAD_BYTES = 160;
+    private static final long STRING_OVERHEAD_BYTES = 40;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "log_seq")
+    @SequenceGenerator(name = "log_seq", sequenceName = "log_seq", allocationSize = 50)
     private Long id;
 
+    @Convert(converter = DictionaryStringConverter.class)
     private String level;
     private String message;
+    @Convert(converter = DictionaryStringConverter.class)
     private String resourceId;
     private LocalDateTime timestamp;
     private String traceId;
     private String spanId;
+    @Convert(converter = DictionaryStringConverter.class)
     private String commit;
 
     @Embedded
     private Metadata metadata;
+
+    /**
+     * Rough heap size of this log and its strings, used to bound in-memory copies of logs.
+     */
+    public long estimateHeapBytes() {
+        long size = HEAP_OVERHEAD_BYTES;
+        for (String value : new String[]{level, message, resourceId, traceId, spanId, commit}) {
+            if (value != null) size += STRING_OVERHEAD_BYTES + value.length();
+        }
+        return size;
+    }
 }
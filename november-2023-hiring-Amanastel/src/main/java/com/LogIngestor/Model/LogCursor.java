@@ -0,0 +1,42 @@
+package com.LogIngestor.Model;
+
+import com.LogIngestor.Exception.LogException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Keyset position in the {@code (timestamp, id)} ordering used by paginated searches.
+ * Clients only ever see it as an opaque string.
+ */
+public record LogCursor(LocalDateTime timestamp, long id) {
+
+    public static LogCursor of(Log log) {
+        return new LogCursor(log.getTimestamp(), log.getId());
+    }
+
+    public String encode() {
+        String raw = timestamp + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Parses a cursor previously returned by {@link #encode()}.
+     *
+     * @param cursor The opaque cursor, may be null.
+     * @return The decoded position, or null if no cursor was given.
+     * @throws LogException if the cursor is malformed.
+     */
+    public static LogCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) return null;
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('|');
+            return new LogCursor(LocalDateTime.parse(raw.substring(0, separator)), Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new LogException("Invalid cursor " + cursor);
+        }
+    }
+}
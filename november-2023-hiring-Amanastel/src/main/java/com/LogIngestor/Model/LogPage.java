@@ -0,0 +1,18 @@
+package com.LogIngestor.Model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated search. {@code nextCursor} is null on the last page.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LogPage {
+    private List<Log> logs;
+    private String nextCursor;
+}
@@ -0,0 +1,195 @@
+package com.LogIngestor.Model;
+
+import com.LogIngestor.Index.PatternCache;
+import com.LogIngestor.Query.LogPredicate;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+import java.util.regex.Pattern;
+
+/**
+ * Normalized description of a log search. Every search endpoint maps its parameters onto one of these,
+ * which is then turned into SQL by {@code LogSpecifications} and, when needed, re-checked with {@link #matches(Log)}.
+ * Queries compiled from an expression by {@code QueryCompiler} may also carry a residual predicate for the terms
+ * no engine can push down; it is only applied by {@link #matches(Log)}.
+ */
+@Getter
+@EqualsAndHashCode
+@ToString
+public class LogQuery {
+
+    /**
+     * How a string filter is compared with the stored value.
+     */
+    public enum Match {
+        EXACT, IGNORE_CASE, CONTAINS
+    }
+
+    private final String level;
+    private final Match levelMatch;
+    private final String message;
+    private final Match messageMatch;
+    private final String resourceId;
+    private final LocalDateTime startTime;
+    private final LocalDateTime endTime;
+    private final boolean inclusiveTimeBounds;
+    private final String regex;
+
+    /**
+     * When true, every row returned by the database is re-checked with {@link #matches(Log)} so that string
+     * comparisons follow Java semantics (case-sensitive equality, {@link String#contains}) instead of the
+     * database collation.
+     */
+    private final boolean verify;
+
+    /**
+     * The canonical text of {@link #residual}, which identifies it in equality and cache keys.
+     */
+    private final String residualExpression;
+
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private final Pattern pattern;
+
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private final LogPredicate residual;
+
+    @Builder(toBuilder = true)
+    private LogQuery(String level, Match levelMatch, String message, Match messageMatch, String resourceId,
+                     LocalDateTime startTime, LocalDateTime endTime, boolean inclusiveTimeBounds, String regex, boolean verify,
+                     LogPredicate residual) {
+        this.level = level;
+        this.levelMatch = levelMatch == null ? Match.EXACT : levelMatch;
+        this.message = message;
+        this.messageMatch = messageMatch == null ? Match.EXACT : messageMatch;
+        this.resourceId = resourceId;
+        this.startTime = startTime;
+        this.endTime = endTime;
+        this.inclusiveTimeBounds = inclusiveTimeBounds;
+        this.regex = regex;
+        this.verify = verify;
+        this.pattern = regex == null ? null : PatternCache.caseInsensitive(regex);
+        this.residual = residual;
+        this.residualExpression = residual == null ? null : residual.toString();
+    }
+
+    /**
+     * Exact match on level, message and resource; the time range only applies when both bounds are given.
+     */
+    public static LogQuery exactMatch(String level, String message, String resourceId, LocalDateTime startTime, LocalDateTime endTime) {
+        boolean ranged = startTime != null && endTime != null;
+        return LogQuery.builder()
+                .level(level)
+                .message(message)
+                .resourceId(resourceId)
+                .startTime(ranged ? startTime : null)
+                .endTime(ranged ? endTime : null)
+                .inclusiveTimeBounds(true)
+                .build();
+    }
+
+    public static LogQuery byLevel(String level) {
+        return LogQuery.builder().level(level).build();
+    }
+
+    /**
+     * Logs strictly after {@code startTime} and strictly before {@code endTime}.
+     */
+    public static LogQuery dateRange(LocalDateTime startTime, LocalDateTime endTime) {
+        return LogQuery.builder().startTime(startTime).endTime(endTime).build();
+    }
+
+    /**
+     * Logs whose message contains a case-insensitive match of {@code regex}.
+     */
+    public static LogQuery regex(String regex) {
+        return LogQuery.builder().regex(regex).verify(true).build();
+    }
+
+    /**
+     * Case-insensitive level, message substring, exact resource, exclusive time bounds and regex, all optional.
+     */
+    public static LogQuery multipleFilters(String level, String message, String resourceId, LocalDateTime startTime, LocalDateTime endTime, String regex) {
+        return LogQuery.builder()
+                .level(level)
+                .levelMatch(Match.IGNORE_CASE)
+                .message(message)
+                .messageMatch(Match.CONTAINS)
+                .resourceId(resourceId)
+                .startTime(startTime)
+                .endTime(endTime)
+                .regex(regex)
+                .verify(true)
+                .build();
+    }
+
+    /**
+     * Evaluates the query against a single log in memory, cheapest filters first and the regex last.
+     *
+     * @param log The log to test.
+     * @return true if the log satisfies every filter of this query.
+     */
+    public boolean matches(Log log) {
+        return matchesTimestamp(log.getTimestamp())
+                && matchesResourceId(log.getResourceId())
+                && matchesLevel(log.getLevel())
+                && matchesMessage(log.getMessage())
+                && (residual == null || residual.test(log))
+                && matchesPattern(log.getMessage());
+    }
+
+    public boolean hasTimeBounds() {
+        return startTime != null || endTime != null;
+    }
+
+    public boolean matchesLevel(String value) {
+        return level == null || matches(value, level, levelMatch);
+    }
+
+    public boolean matchesMessage(String value) {
+        return message == null || matches(value, message, messageMatch);
+    }
+
+    public boolean matchesResourceId(String value) {
+        return resourceId == null || resourceId.equals(value);
+    }
+
+    public boolean matchesTimestamp(LocalDateTime timestamp) {
+        if (!hasTimeBounds()) return true;
+        if (timestamp == null) return false;
+        if (startTime != null && (inclusiveTimeBounds ? timestamp.isBefore(startTime) : !timestamp.isAfter(startTime))) return false;
+        return endTime == null || (inclusiveTimeBounds ? !timestamp.isAfter(endTime) : timestamp.isBefore(endTime));
+    }
+
+    /**
+     * Whether the regex, if any, finds a match in {@code message}.
+     */
+    public boolean matchesPattern(String message) {
+        return pattern == null || (message != null && pattern.matcher(message).find());
+    }
+
+    /**
+     * Folds case the way {@link String#equalsIgnoreCase(String)} compares characters, so values that are
+     * equal ignoring case share a key. Folding is per code point, like {@code toLowerCase(Locale.ROOT)} and
+     * unlike {@code toLowerCase()}, so it does not depend on the default locale (e.g. Turkish dotted I).
+     */
+    public static String foldCase(String value) {
+        StringBuilder folded = new StringBuilder(value.length());
+        value.codePoints().forEach(c -> folded.appendCodePoint(Character.toLowerCase(Character.toUpperCase(c))));
+        return folded.toString();
+    }
+
+    private static boolean matches(String value, String expected, Match match) {
+        if (value == null) return false;
+        return switch (match) {
+            case EXACT -> Objects.equals(value, expected);
+            case IGNORE_CASE -> value.equalsIgnoreCase(expected);
+            case CONTAINS -> value.contains(expected);
+        };
+    }
+}
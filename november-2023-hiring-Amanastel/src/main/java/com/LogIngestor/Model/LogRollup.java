@@ -0,0 +1,42 @@
+package com.LogIngestor.Model;
+
+import com.LogIngestor.Rollup.RollupGranularity;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Number of logs with one level and resource in one time bucket. Missing values are stored as the
+ * empty string so that the unique key also covers them.
+ */
+@Entity
+@Table(name = "log_rollup", uniqueConstraints = @UniqueConstraint(name = "uk_log_rollup_bucket",
+        columnNames = {"granularity", "bucket_start", "level", "resource_id"}))
+@Getter
+@Setter
+@NoArgsConstructor
+public class LogRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 8)
+    private RollupGranularity granularity;
+
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDateTime bucketStart;
+
+    @Column(nullable = false)
+    private String level;
+
+    @Column(name = "resource_id", nullable = false)
+    private String resourceId;
+
+    @Column(name = "log_count", nullable = false)
+    private long logCount;
+}
@@ -0,0 +1,38 @@
+package com.LogIngestor.Model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Log counts per time bucket, optionally split by level and resource. Buckets without logs are omitted.
+ */
+@Data
+@NoArgsConstructor
+public class LogStats {
+    private String interval;
+    private List<String> groupBy = new ArrayList<>();
+    private LocalDateTime startTime;
+    private LocalDateTime endTime;
+    private long total;
+    private List<Bucket> buckets = new ArrayList<>();
+
+    /**
+     * Count of one bucket and group; {@code level} and {@code resourceId} are set only when grouped by.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class Bucket {
+        private LocalDateTime start;
+        private String level;
+        private String resourceId;
+        private long count;
+    }
+}
@@ -0,0 +1,55 @@
+package com.LogIngestor.Model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Every log of one trace, grouped by span, with the resources involved arranged by their parent resource.
+ */
+@Data
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class LogTrace {
+    private String traceId;
+    private LocalDateTime startTime;
+    private LocalDateTime endTime;
+    private long durationMillis;
+    private int logCount;
+    private boolean truncated;
+    private List<Span> spans = new ArrayList<>();
+    private List<Resource> resources = new ArrayList<>();
+
+    /**
+     * The logs of one span in {@code (timestamp, id)} order; spans are listed by their first log.
+     * Logs without a span ID form a span without one.
+     */
+    @Data
+    @NoArgsConstructor
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class Span {
+        private String spanId;
+        private String resourceId;
+        private LocalDateTime startTime;
+        private LocalDateTime endTime;
+        private long durationMillis;
+        private List<Log> logs = new ArrayList<>();
+    }
+
+    /**
+     * A resource of the trace and the resources naming it as their parent. Parents that logged nothing
+     * themselves appear with a count of zero.
+     */
+    @Data
+    @NoArgsConstructor
+    public static class Resource {
+        private String resourceId;
+        private int logCount;
+        private List<String> spanIds = new ArrayList<>();
+        private List<Resource> children = new ArrayList<>();
+    }
+}
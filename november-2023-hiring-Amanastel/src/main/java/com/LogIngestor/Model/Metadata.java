@@ -1,5 +1,7 @@
 package com.LogIngestor.Model;
 
+import com.LogIngestor.Dictionary.DictionaryStringConverter;
+import jakarta.persistence.Convert;
 import jakarta.persistence.Embeddable;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -12,5 +14,6 @@ import lombok.Setter;
 @NoArgsConstructor
 @AllArgsConstructor
 public class Metadata {
+    @Convert(converter = DictionaryStringConverter.class)
     private String parentResourceId;
 }
@@ -0,0 +1,22 @@
+package com.LogIngestor.Model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Counters of the search result cache. Evictions are removals to stay within the memory bound;
+ * invalidations are removals because a newly saved log could match the cached query.
+ */
+@Data
+@NoArgsConstructor
+public class QueryCacheStats {
+    private boolean enabled;
+    private long entries;
+    private long estimatedBytes;
+    private long maxBytes;
+    private long hits;
+    private long misses;
+    private double hitRate;
+    private long evictions;
+    private long invalidations;
+}
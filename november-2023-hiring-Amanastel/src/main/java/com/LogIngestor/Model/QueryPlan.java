@@ -0,0 +1,79 @@
+package com.LogIngestor.Model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * How a search was executed: where its rows came from, which indexes and partitions it could use,
+ * how many rows each stage read and kept, and how long each stage took.
+ */
+@Data
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class QueryPlan {
+
+    private String query;
+    private String source;
+    private boolean cached;
+    private List<String> indexes = new ArrayList<>();
+    private List<String> partitions;
+    private List<String> shards;
+    private Long trigramCandidates;
+    private Scan scan;
+    private long rowsScanned;
+    private long rowsReturned;
+    private double totalMillis;
+    private List<Stage> stages = new ArrayList<>();
+
+    /**
+     * One step of a search, e.g. the database query or the in-memory re-check.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Stage {
+        private String name;
+        private double millis;
+        private long rows;
+    }
+
+    /**
+     * How a parallel scan split its ID range and where it stopped, for searches run by the scan engine.
+     */
+    @Data
+    @NoArgsConstructor
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class Scan {
+        private long minId;
+        private long maxId;
+        private long chunkIds;
+        private int parallelism;
+        private Integer limit;
+        private long maxRowsScanned;
+        private long deadlineMillis;
+        private ScanResult.Cutoff cutoff;
+    }
+
+    /**
+     * Records a stage that started at {@code startedNanos} and ends now.
+     */
+    public void stage(String name, long startedNanos, long rows) {
+        stages.add(new Stage(name, (System.nanoTime() - startedNanos) / 1e6, rows));
+    }
+
+    public void addRowsScanned(long rows) {
+        rowsScanned += rows;
+    }
+
+    /**
+     * Total time spent in stages with the given name.
+     */
+    public double getMillis(String name) {
+        return stages.stream().filter(stage -> stage.getName().equals(name)).mapToDouble(Stage::getMillis).sum();
+    }
+}
@@ -0,0 +1,35 @@
+package com.LogIngestor.Model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Logs found by a scan, and whether the scan stopped before covering every log.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScanResult {
+
+    /**
+     * Why a scan stopped early: it ran out of time or out of rows to read.
+     */
+    public enum Cutoff {
+        DEADLINE, ROW_BUDGET
+    }
+
+    private List<Log> logs;
+    private Cutoff cutoff;
+    private long rowsScanned;
+
+    public static ScanResult complete(List<Log> logs) {
+        return new ScanResult(logs, null, 0);
+    }
+
+    public boolean isPartial() {
+        return cutoff != null;
+    }
+}
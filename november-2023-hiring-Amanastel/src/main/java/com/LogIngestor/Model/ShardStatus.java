@@ -0,0 +1,35 @@
+package com.LogIngestor.Model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Shards of the sharded storage engine, their row counts, and the state of rebalancing.
+ */
+@Data
+@NoArgsConstructor
+public class ShardStatus {
+    private int shardCount;
+    private Integer previousShardCount;
+    private boolean rebalancing;
+    private long lastRebalanceMoved;
+    private LocalDateTime lastRebalanceAt;
+    private List<Shard> shards = new ArrayList<>();
+
+    /**
+     * One shard; {@code role} is {@code active} or {@code retired}.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Shard {
+        private String name;
+        private String role;
+        private long rows;
+    }
+}
@@ -0,0 +1,30 @@
+package com.LogIngestor.Model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * How far a spool has been drained into the database. It is updated in the same transaction as the logs
+ * it covers, so after a crash every spooled log is replayed exactly once.
+ */
+@Entity
+@Table(name = "log_spool_checkpoint")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class SpoolCheckpoint {
+
+    @Id
+    @Column(length = 64)
+    private String spool;
+
+    @Column(name = "drained_offset", nullable = false)
+    private long drainedOffset;
+}
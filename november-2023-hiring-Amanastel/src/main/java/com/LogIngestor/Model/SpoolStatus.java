@@ -0,0 +1,22 @@
+package com.LogIngestor.Model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * State of the ingest spool. Offsets are byte positions in the spool; the depth is what has been
+ * acknowledged but not yet written to the database.
+ */
+@Data
+@NoArgsConstructor
+public class SpoolStatus {
+    private boolean enabled;
+    private long depthEntries;
+    private long depthBytes;
+    private long diskBytes;
+    private long maxBytes;
+    private long drainLagMillis;
+    private long writeOffset;
+    private long durableOffset;
+    private long drainedOffset;
+}
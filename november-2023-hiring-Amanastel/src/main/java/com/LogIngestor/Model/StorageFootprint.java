@@ -0,0 +1,75 @@
+package com.LogIngestor.Model;
+
+import com.LogIngestor.Dictionary.StringDictionary;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Size of the stored logs on disk and an estimate of what the dictionary columns cost on the heap
+ * as plain strings versus dictionary codes. Heap figures assume compressed references and compact strings.
+ */
+@Data
+@NoArgsConstructor
+public class StorageFootprint {
+
+    private static final long REFERENCE_BYTES = 4;
+    private static final long STRING_OVERHEAD_BYTES = 40;
+    private static final long DICTIONARY_ENTRY_OVERHEAD_BYTES = 56;
+
+    private int segments;
+    private long rows;
+    private long diskBytes;
+    private int dictionaryEntries;
+    private long dictionaryValueBytes;
+    private int templates;
+    private long estimatedPlainHeapBytes;
+    private long estimatedEncodedHeapBytes;
+    private List<ColumnFootprint> columns = new ArrayList<>();
+
+    /**
+     * Totals of one column across segments: compressed on disk, inflated, and as plain length-prefixed strings.
+     */
+    @Data
+    @NoArgsConstructor
+    public static class ColumnFootprint {
+        private String column;
+        private int dictionaryEncodedSegments;
+        private int templateEncodedSegments;
+        private long storedBytes;
+        private long rawBytes;
+        private long plainBytes;
+
+        public ColumnFootprint(String column) {
+            this.column = column;
+        }
+    }
+
+    public static StorageFootprint ofDictionary(StringDictionary dictionary) {
+        StorageFootprint footprint = new StorageFootprint();
+        footprint.setDictionaryEntries(dictionary.size());
+        footprint.setDictionaryValueBytes(dictionary.getValueBytes());
+        return footprint;
+    }
+
+    /**
+     * Fills the heap estimates from the dictionary-encoded columns: one string per row when plain,
+     * one int per row plus the shared dictionary when encoded.
+     */
+    public void estimateHeap() {
+        long plain = 0;
+        long encoded = 0;
+        for (ColumnFootprint column : columns) {
+            if (column.getDictionaryEncodedSegments() == 0) continue;
+            plain += rows * (REFERENCE_BYTES + STRING_OVERHEAD_BYTES) + Math.max(0, column.getPlainBytes() - rows);
+            encoded += rows * Integer.BYTES;
+        }
+        if (encoded > 0) {
+            encoded += dictionaryEntries * (STRING_OVERHEAD_BYTES + DICTIONARY_ENTRY_OVERHEAD_BYTES) + dictionaryValueBytes;
+        }
+        estimatedPlainHeapBytes = plain;
+        estimatedEncodedHeapBytes = encoded;
+    }
+}
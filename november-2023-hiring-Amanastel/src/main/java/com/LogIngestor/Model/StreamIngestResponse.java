@@ -0,0 +1,29 @@
+package com.LogIngestor.Model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Result of a streaming NDJSON ingest: counts plus the first malformed lines, reported by line number.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StreamIngestResponse {
+    private long lines;
+    private long accepted;
+    private long rejected;
+    private List<LineError> errors = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class LineError {
+        private long line;
+        private String message;
+    }
+}
@@ -0,0 +1,33 @@
+package com.LogIngestor.Model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Matching logs grouped by message template, most frequent first. Counts are exact; {@code unclustered}
+ * counts messages that were stored without a template and match none.
+ */
+@Data
+@NoArgsConstructor
+public class TemplateStats {
+    private long total;
+    private long unclustered;
+    private int clusters;
+    private List<TemplateCount> templates = new ArrayList<>();
+
+    /**
+     * The latest version of one cluster's template, with {@code <*>} at its variable positions.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class TemplateCount {
+        private int id;
+        private String template;
+        private long count;
+    }
+}
@@ -0,0 +1,251 @@
+package com.LogIngestor.Partition;
+
+import com.LogIngestor.Config.PartitionProperties;
+import com.LogIngestor.Config.StorageProperties;
+import com.LogIngestor.Ingest.LogIngestNotifier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.StringJoiner;
+
+/**
+ * Keeps the log table range-partitioned by {@code timestamp} on MySQL.
+ *
+ * <p>The first run converts the table: the primary key becomes {@code (id, timestamp)} as MySQL requires,
+ * existing rows get one partition per bucket (older ones share {@code p_history}) and {@code p_max}
+ * catches anything beyond the last bucket. That rebuild blocks writes, so a table that already holds rows
+ * is only converted when {@code log.partition.migrate-existing-table} is set, as a planned migration step.
+ * Every run then splits {@code p_max} so that {@code precreate} buckets always exist ahead of now, and drops
+ * whole partitions past the retention period, if one is set, which costs the same no matter how many rows
+ * they hold. Queries bounded by {@code startTime}/{@code endTime} are
+ * pruned to the matching partitions by MySQL itself.</p>
+ *
+ * <p>On other databases, while partitioning is disabled, or while the table awaits that migration, retention
+ * falls back to batched {@code DELETE}s.</p>
+ */
+@Component
+@ConditionalOnProperty(name = StorageProperties.ENGINE, havingValue = "jpa", matchIfMissing = true)
+public class LogPartitionManager {
+
+    static final String HISTORY_PARTITION = "p_history";
+    static final String MAX_PARTITION = "p_max";
+
+    private static final Logger logger = LoggerFactory.getLogger(LogPartitionManager.class);
+    private static final String TABLE = "log";
+    private static final DateTimeFormatter BOUND_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PartitionProperties properties;
+    private final LogIngestNotifier logIngestNotifier;
+    private volatile Boolean mysql;
+    private volatile boolean migrationWarned;
+
+    /**
+     * Constructor for LogPartitionManager.
+     *
+     * @param jdbcTemplate      The template used for partition DDL.
+     * @param properties        The partitioning and retention configuration.
+     * @param logIngestNotifier Told when retention has removed logs.
+     */
+    @Autowired
+    public LogPartitionManager(JdbcTemplate jdbcTemplate, PartitionProperties properties, LogIngestNotifier logIngestNotifier) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = properties;
+        this.logIngestNotifier = logIngestNotifier;
+    }
+
+    @Scheduled(fixedDelayString = "${log.partition.maintenance-interval-ms:3600000}")
+    public void scheduledMaintenance() {
+        try {
+            maintain(LocalDateTime.now());
+        } catch (DataAccessException e) {
+            logger.error("Log partition maintenance failed", e);
+        }
+    }
+
+    /**
+     * Partitions the table if needed, creates upcoming partitions and applies retention.
+     *
+     * @param now The current time, in the same zone as stored timestamps.
+     */
+    public void maintain(LocalDateTime now) {
+        List<String> partitions = properties.isEnabled() && isMySql() ? partitionNames() : List.of();
+        if (partitions.isEmpty() && properties.isEnabled() && isMySql()) {
+            if (properties.isMigrateExistingTable() || isEmpty()) {
+                partitionTable(now);
+                partitions = partitionNames();
+            } else if (!migrationWarned) {
+                migrationWarned = true;
+                logger.warn("Table {} is not partitioned; set log.partition.migrate-existing-table=true to rebuild it "
+                        + "with partitions, which blocks writes while it runs", TABLE);
+            }
+        }
+        if (!partitions.isEmpty()) {
+            createUpcoming(partitions, now);
+            dropExpired(partitionNames(), now);
+        } else if (properties.getRetention() != null) {
+            deleteExpired(now.minus(properties.getRetention()));
+        }
+    }
+
+    /**
+     * Partitions MySQL reads for a query bounded by {@code from} and {@code to}, as reported by {@code EXPLAIN}.
+     *
+     * @param from The lower timestamp bound, or null.
+     * @param to   The upper timestamp bound, or null.
+     * @return The partition names, or null if the table is not partitioned.
+     */
+    public List<String> partitionsFor(LocalDateTime from, LocalDateTime to) {
+        if (!properties.isEnabled() || !isMySql()) return null;
+        StringBuilder sql = new StringBuilder("EXPLAIN SELECT id FROM " + TABLE + " WHERE 1 = 1");
+        List<Object> args = new ArrayList<>();
+        if (from != null) {
+            sql.append(" AND timestamp >= ?");
+            args.add(Timestamp.valueOf(from));
+        }
+        if (to != null) {
+            sql.append(" AND timestamp <= ?");
+            args.add(Timestamp.valueOf(to));
+        }
+        List<String> partitions = new ArrayList<>();
+        jdbcTemplate.query(sql.toString(), rs -> {
+            String names = rs.getString("partitions");
+            if (names != null) partitions.addAll(List.of(names.split(",")));
+        }, args.toArray());
+        return partitions;
+    }
+
+    /**
+     * Bucket starts missing between the last bucket partition and {@code precreate} buckets after now.
+     */
+    List<LocalDateTime> upcomingBuckets(List<String> partitions, LocalDateTime now) {
+        PartitionGranularity granularity = properties.getGranularity();
+        LocalDateTime target = granularity.plus(granularity.floor(now), properties.getPrecreate());
+        LocalDateTime last = null;
+        for (String name : partitions) {
+            LocalDateTime start = granularity.parse(name);
+            if (start != null && (last == null || start.isAfter(last))) last = start;
+        }
+        LocalDateTime next = last == null ? granularity.floor(now) : granularity.next(last);
+        List<LocalDateTime> buckets = new ArrayList<>();
+        for (; !next.isAfter(target); next = granularity.next(next)) buckets.add(next);
+        return buckets;
+    }
+
+    /**
+     * Partitions whose whole range is older than the retention period. {@code p_max} is never dropped.
+     */
+    List<String> expiredPartitions(List<String> partitions, LocalDateTime now) {
+        List<String> expired = new ArrayList<>();
+        if (properties.getRetention() == null) return expired;
+        PartitionGranularity granularity = properties.getGranularity();
+        LocalDateTime cutoff = now.minus(properties.getRetention());
+        LocalDateTime firstBucket = null;
+        for (String name : partitions) {
+            LocalDateTime start = granularity.parse(name);
+            if (start == null) continue;
+            if (firstBucket == null || start.isBefore(firstBucket)) firstBucket = start;
+            if (!granularity.next(start).isAfter(cutoff)) expired.add(name);
+        }
+        if (partitions.contains(HISTORY_PARTITION) && firstBucket != null && !firstBucket.isAfter(cutoff)) {
+            expired.add(0, HISTORY_PARTITION);
+        }
+        return expired;
+    }
+
+    private boolean isEmpty() {
+        return jdbcTemplate.queryForList("SELECT id FROM " + TABLE + " LIMIT 1").isEmpty();
+    }
+
+    private void partitionTable(LocalDateTime now) {
+        PartitionGranularity granularity = properties.getGranularity();
+        LocalDateTime current = granularity.floor(now);
+        LocalDateTime first = granularity.plus(current, -properties.getMaxInitialPartitions());
+        Timestamp oldest = jdbcTemplate.queryForObject("SELECT MIN(timestamp) FROM " + TABLE, Timestamp.class);
+        if (oldest == null || granularity.floor(oldest.toLocalDateTime()).isAfter(first)) {
+            first = oldest == null ? current : granularity.floor(oldest.toLocalDateTime());
+        }
+        if (properties.getRetention() != null) {
+            LocalDateTime kept = granularity.floor(now.minus(properties.getRetention()));
+            if (kept.isAfter(first)) first = kept;
+        }
+        if (first.isAfter(current)) first = current;
+
+        StringJoiner definitions = new StringJoiner(", PARTITION ", "PARTITION ", "");
+        definitions.add(definition(HISTORY_PARTITION, first));
+        for (LocalDateTime start = first; !start.isAfter(current); start = granularity.next(start)) {
+            definitions.add(definition(granularity.partitionName(start), granularity.next(start)));
+        }
+        definitions.add(MAX_PARTITION + " VALUES LESS THAN (MAXVALUE)");
+
+        logger.info("Partitioning table {} by {} from {}", TABLE, granularity, first);
+        jdbcTemplate.execute("ALTER TABLE " + TABLE + " MODIFY timestamp DATETIME(6) NOT NULL");
+        jdbcTemplate.execute("ALTER TABLE " + TABLE + " DROP PRIMARY KEY, ADD PRIMARY KEY (id, timestamp)");
+        jdbcTemplate.execute("ALTER TABLE " + TABLE + " PARTITION BY RANGE COLUMNS(timestamp) (" + definitions + ")");
+    }
+
+    private void createUpcoming(List<String> partitions, LocalDateTime now) {
+        List<LocalDateTime> buckets = upcomingBuckets(partitions, now);
+        if (buckets.isEmpty()) return;
+        PartitionGranularity granularity = properties.getGranularity();
+        StringJoiner definitions = new StringJoiner(", PARTITION ", "PARTITION ", "");
+        for (LocalDateTime start : buckets) {
+            definitions.add(definition(granularity.partitionName(start), granularity.next(start)));
+        }
+        definitions.add(MAX_PARTITION + " VALUES LESS THAN (MAXVALUE)");
+        jdbcTemplate.execute("ALTER TABLE " + TABLE + " REORGANIZE PARTITION " + MAX_PARTITION + " INTO (" + definitions + ")");
+        logger.info("Created {} log partitions up to {}", buckets.size(), granularity.partitionName(buckets.get(buckets.size() - 1)));
+    }
+
+    private void dropExpired(List<String> partitions, LocalDateTime now) {
+        List<String> expired = expiredPartitions(partitions, now);
+        if (expired.isEmpty()) return;
+        jdbcTemplate.execute("ALTER TABLE " + TABLE + " DROP PARTITION " + String.join(", ", expired));
+        logger.info("Dropped expired log partitions {}", expired);
+        logIngestNotifier.notifyExpired(now.minus(properties.getRetention()));
+    }
+
+    private void deleteExpired(LocalDateTime cutoff) {
+        long deleted = 0;
+        int batch;
+        do {
+            batch = jdbcTemplate.update("DELETE FROM " + TABLE + " WHERE timestamp < ? LIMIT " + properties.getDeleteBatchSize(),
+                    Timestamp.valueOf(cutoff));
+            deleted += batch;
+        } while (batch >= properties.getDeleteBatchSize());
+        if (deleted > 0) {
+            logger.info("Deleted {} logs older than {}", deleted, cutoff);
+            logIngestNotifier.notifyExpired(cutoff);
+        }
+    }
+
+    private List<String> partitionNames() {
+        return jdbcTemplate.queryForList("SELECT PARTITION_NAME FROM information_schema.PARTITIONS"
+                + " WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND PARTITION_NAME IS NOT NULL"
+                + " ORDER BY PARTITION_ORDINAL_POSITION", String.class, TABLE);
+    }
+
+    private boolean isMySql() {
+        if (mysql == null) {
+            String product = jdbcTemplate.execute((ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+            mysql = "MySQL".equalsIgnoreCase(product);
+        }
+        return mysql;
+    }
+
+    private static String definition(String name, LocalDateTime upperBound) {
+        return name + " VALUES LESS THAN ('" + BOUND_FORMAT.format(upperBound) + "')";
+    }
+}
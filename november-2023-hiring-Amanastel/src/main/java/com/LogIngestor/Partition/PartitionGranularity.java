@@ -0,0 +1,60 @@
+package com.LogIngestor.Partition;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Width of a log partition. Each bucket partition is named after the start of its range,
+ * e.g. {@code p20231119} for a day or {@code p2023111908} for an hour.
+ */
+public enum PartitionGranularity {
+    HOUR(ChronoUnit.HOURS, "yyyyMMddHH"),
+    DAY(ChronoUnit.DAYS, "yyyyMMdd");
+
+    private static final String PREFIX = "p";
+
+    private final ChronoUnit unit;
+    private final DateTimeFormatter format;
+
+    PartitionGranularity(ChronoUnit unit, String pattern) {
+        this.unit = unit;
+        this.format = DateTimeFormatter.ofPattern(pattern);
+    }
+
+    /**
+     * Start of the bucket containing {@code time}.
+     */
+    public LocalDateTime floor(LocalDateTime time) {
+        return time.truncatedTo(unit);
+    }
+
+    public LocalDateTime next(LocalDateTime bucketStart) {
+        return bucketStart.plus(1, unit);
+    }
+
+    public LocalDateTime plus(LocalDateTime bucketStart, long buckets) {
+        return bucketStart.plus(buckets, unit);
+    }
+
+    public String partitionName(LocalDateTime bucketStart) {
+        return PREFIX + format.format(bucketStart);
+    }
+
+    /**
+     * @return The bucket start encoded in a partition name, or null if the name is not a bucket of this width.
+     */
+    public LocalDateTime parse(String partitionName) {
+        if (partitionName == null || !partitionName.startsWith(PREFIX)) return null;
+        String value = partitionName.substring(PREFIX.length());
+        try {
+            return this == DAY
+                    ? LocalDate.parse(value, format).atStartOfDay()
+                    : LocalDateTime.parse(value, format);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.LogIngestor.Query;
+
+import com.LogIngestor.Model.Log;
+
+import java.util.function.Function;
+
+/**
+ * The string fields a query expression can filter on, with the names it accepts for them and the rough
+ * fraction of logs sharing one value, used as the selectivity of an equality test.
+ */
+enum LogField {
+    LEVEL("level", 0.2, Log::getLevel),
+    MESSAGE("msg", 0.001, Log::getMessage),
+    RESOURCE_ID("resourceId", 0.01, Log::getResourceId),
+    TRACE_ID("traceId", 0.0001, Log::getTraceId),
+    SPAN_ID("spanId", 0.0001, Log::getSpanId),
+    COMMIT("commit", 0.1, Log::getCommit),
+    PARENT_RESOURCE_ID("parentResourceId", 0.05,
+            log -> log.getMetadata() == null ? null : log.getMetadata().getParentResourceId());
+
+    private final String key;
+    private final double equalitySelectivity;
+    private final Function<Log, String> getter;
+
+    LogField(String key, double equalitySelectivity, Function<Log, String> getter) {
+        this.key = key;
+        this.equalitySelectivity = equalitySelectivity;
+        this.getter = getter;
+    }
+
+    /**
+     * Looks a field up by name, ignoring case; {@code message} and {@code metadata.parentResourceId} are accepted too.
+     *
+     * @return The field, or null if there is none by that name.
+     */
+    static LogField of(String name) {
+        if (name.equalsIgnoreCase("message")) return MESSAGE;
+        if (name.equalsIgnoreCase("metadata.parentResourceId")) return PARENT_RESOURCE_ID;
+        for (LogField field : values()) {
+            if (field.key.equalsIgnoreCase(name)) return field;
+        }
+        return null;
+    }
+
+    String key() {
+        return key;
+    }
+
+    double equalitySelectivity() {
+        return equalitySelectivity;
+    }
+
+    String get(Log log) {
+        return getter.apply(log);
+    }
+}
@@ -0,0 +1,314 @@
+package com.LogIngestor.Query;
+
+import com.LogIngestor.Model.Log;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A compiled filter over one log, built by {@link QueryCompiler} from a query expression.
+ *
+ * <p>Every node knows its rough cost per evaluation and the fraction of logs expected to pass it, which the
+ * compiler uses to order the terms of conjunctions and disjunctions. Evaluation allocates nothing: terms are
+ * held in arrays and each regex term reuses one {@link Matcher} per thread. {@link #toString()} is the
+ * canonical expression in evaluation order, with relative times resolved, and serves as the filter's identity.</p>
+ */
+public abstract class LogPredicate {
+
+    private static final double TIME_COST = 1;
+    private static final double COMPARE_COST = 2;
+    private static final double CONTAINS_COST = 10;
+    private static final double REGEX_COST = 50;
+
+    public abstract boolean test(Log log);
+
+    /**
+     * Rough cost of one evaluation, in string comparisons.
+     */
+    abstract double cost();
+
+    /**
+     * Estimated fraction of logs passing.
+     */
+    abstract double selectivity();
+
+    /**
+     * The terms that must all pass: those of a conjunction, else this predicate alone.
+     */
+    List<LogPredicate> conjuncts() {
+        return List.of(this);
+    }
+
+    static LogPredicate and(List<LogPredicate> terms) {
+        return terms.size() == 1 ? terms.get(0) : new Junction(true, terms.toArray(new LogPredicate[0]));
+    }
+
+    static LogPredicate or(List<LogPredicate> terms) {
+        return terms.size() == 1 ? terms.get(0) : new Junction(false, terms.toArray(new LogPredicate[0]));
+    }
+
+    static LogPredicate not(LogPredicate term) {
+        return term instanceof Not not ? not.term : new Not(term);
+    }
+
+    /**
+     * All terms (AND) or any term (OR), tried in array order and short-circuiting.
+     */
+    static final class Junction extends LogPredicate {
+        private final boolean and;
+        private final LogPredicate[] terms;
+
+        Junction(boolean and, LogPredicate[] terms) {
+            this.and = and;
+            this.terms = terms;
+        }
+
+        boolean isAnd() {
+            return and;
+        }
+
+        List<LogPredicate> terms() {
+            return Arrays.asList(terms);
+        }
+
+        @Override
+        public boolean test(Log log) {
+            for (LogPredicate term : terms) {
+                if (term.test(log) != and) return !and;
+            }
+            return and;
+        }
+
+        /**
+         * Each term costs its own cost times the chance that evaluation gets to it.
+         */
+        @Override
+        double cost() {
+            double cost = 0;
+            double reached = 1;
+            for (LogPredicate term : terms) {
+                cost += reached * term.cost();
+                reached *= and ? term.selectivity() : 1 - term.selectivity();
+            }
+            return cost;
+        }
+
+        @Override
+        double selectivity() {
+            double product = 1;
+            for (LogPredicate term : terms) product *= and ? term.selectivity() : 1 - term.selectivity();
+            return and ? product : 1 - product;
+        }
+
+        @Override
+        List<LogPredicate> conjuncts() {
+            return and ? terms() : super.conjuncts();
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder text = new StringBuilder();
+            for (int i = 0; i < terms.length; i++) {
+                if (i > 0) text.append(and ? " AND " : " OR ");
+                boolean nested = terms[i] instanceof Junction;
+                if (nested) text.append('(');
+                text.append(terms[i]);
+                if (nested) text.append(')');
+            }
+            return text.toString();
+        }
+    }
+
+    static final class Not extends LogPredicate {
+        private final LogPredicate term;
+
+        Not(LogPredicate term) {
+            this.term = term;
+        }
+
+        LogPredicate term() {
+            return term;
+        }
+
+        @Override
+        public boolean test(Log log) {
+            return !term.test(log);
+        }
+
+        @Override
+        double cost() {
+            return term.cost();
+        }
+
+        @Override
+        double selectivity() {
+            return 1 - term.selectivity();
+        }
+
+        @Override
+        public String toString() {
+            return term instanceof Junction ? "NOT (" + term + ")" : "NOT " + term;
+        }
+    }
+
+    /**
+     * A string field compared with a value. Logs without the field never match.
+     */
+    static final class Compare extends LogPredicate {
+
+        enum Op {
+            EQUALS, PREFIX, CONTAINS, EXISTS
+        }
+
+        private final LogField field;
+        private final Op op;
+        private final String value;
+        private final boolean ignoreCase;
+
+        Compare(LogField field, Op op, String value, boolean ignoreCase) {
+            this.field = field;
+            this.op = op;
+            this.value = value;
+            this.ignoreCase = ignoreCase;
+        }
+
+        LogField field() {
+            return field;
+        }
+
+        Op op() {
+            return op;
+        }
+
+        String value() {
+            return value;
+        }
+
+        @Override
+        public boolean test(Log log) {
+            String actual = field.get(log);
+            if (actual == null) return false;
+            return switch (op) {
+                case EQUALS -> ignoreCase ? actual.equalsIgnoreCase(value) : actual.equals(value);
+                case PREFIX -> actual.regionMatches(ignoreCase, 0, value, 0, value.length());
+                case CONTAINS -> actual.contains(value);
+                case EXISTS -> true;
+            };
+        }
+
+        @Override
+        double cost() {
+            return op == Op.CONTAINS ? CONTAINS_COST : COMPARE_COST;
+        }
+
+        @Override
+        double selectivity() {
+            return switch (op) {
+                case EQUALS -> field.equalitySelectivity();
+                case PREFIX -> Math.min(0.5, field.equalitySelectivity() * 10);
+                case CONTAINS -> 0.1;
+                case EXISTS -> 0.9;
+            };
+        }
+
+        @Override
+        public String toString() {
+            if (op == Op.EXISTS) return field.key() + ":*";
+            return field.key() + ":" + quote(value) + (op == Op.PREFIX ? "*" : "");
+        }
+
+        private static String quote(String value) {
+            return '"' + value.replace("\\", "\\\\").replace("\"", "\\\"") + '"';
+        }
+    }
+
+    /**
+     * A case-insensitive regex found in a string field.
+     */
+    static final class Regex extends LogPredicate {
+        private final LogField field;
+        private final Pattern pattern;
+        private final ThreadLocal<Matcher> matcher;
+
+        Regex(LogField field, Pattern pattern) {
+            this.field = field;
+            this.pattern = pattern;
+            this.matcher = ThreadLocal.withInitial(() -> pattern.matcher(""));
+        }
+
+        LogField field() {
+            return field;
+        }
+
+        String regex() {
+            return pattern.pattern();
+        }
+
+        @Override
+        public boolean test(Log log) {
+            String actual = field.get(log);
+            return actual != null && matcher.get().reset(actual).find();
+        }
+
+        @Override
+        double cost() {
+            return REGEX_COST;
+        }
+
+        @Override
+        double selectivity() {
+            return 0.1;
+        }
+
+        @Override
+        public String toString() {
+            return field.key() + "~/" + pattern.pattern().replace("/", "\\/") + "/";
+        }
+    }
+
+    /**
+     * The timestamp within inclusive bounds, either of which may be open.
+     */
+    static final class TimeRange extends LogPredicate {
+        private final LocalDateTime from;
+        private final LocalDateTime to;
+
+        TimeRange(LocalDateTime from, LocalDateTime to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        LocalDateTime from() {
+            return from;
+        }
+
+        LocalDateTime to() {
+            return to;
+        }
+
+        @Override
+        public boolean test(Log log) {
+            LocalDateTime timestamp = log.getTimestamp();
+            if (timestamp == null) return false;
+            return (from == null || !timestamp.isBefore(from)) && (to == null || !timestamp.isAfter(to));
+        }
+
+        @Override
+        double cost() {
+            return TIME_COST;
+        }
+
+        @Override
+        double selectivity() {
+            return from != null && to != null ? 0.3 : from != null || to != null ? 0.6 : 1;
+        }
+
+        @Override
+        public String toString() {
+            return "time:[" + (from == null ? "*" : from) + "," + (to == null ? "*" : to) + "]";
+        }
+    }
+}
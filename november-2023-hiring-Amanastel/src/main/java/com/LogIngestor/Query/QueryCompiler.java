@@ -0,0 +1,98 @@
+package com.LogIngestor.Query;
+
+import com.LogIngestor.Exception.LogException;
+import com.LogIngestor.Model.LogQuery;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Compiles a query expression such as {@code level:error AND resourceId:server-12* AND msg~/Failed.*DB/ AND time:[-1h,now]}
+ * into a {@link LogQuery}.
+ *
+ * <p>Top-level conjuncts the storage engines can serve from their indexes are pushed down into the query's own
+ * filters: the first case-insensitive level, exact resource ID, message substring, message regex and time range.
+ * Every engine then narrows rows with them as it does for the other search endpoints, using table indexes,
+ * partitions, segments, shard routing and the trigram index. The remaining terms become the query's residual
+ * {@link LogPredicate}, checked in memory on the rows that pass.</p>
+ *
+ * <p>Terms are ordered by estimated cost and selectivity: a conjunction tries first the terms with the lowest
+ * cost per log they reject, {@code cost / (1 - selectivity)}, and a disjunction the terms with the lowest cost
+ * per log they accept, {@code cost / selectivity}. Time bounds and equality tests therefore run before
+ * substrings, and regexes last.</p>
+ */
+public final class QueryCompiler {
+
+    private QueryCompiler() {
+    }
+
+    public static LogQuery compile(String expression) {
+        return compile(expression, LocalDateTime.now());
+    }
+
+    /**
+     * @param now The time relative bounds such as {@code -1h} are resolved against.
+     * @throws LogException if the expression is blank or malformed.
+     */
+    public static LogQuery compile(String expression, LocalDateTime now) {
+        if (expression == null || expression.isBlank()) throw new LogException("q must not be blank");
+        LogPredicate predicate = optimize(QueryParser.parse(expression, now));
+
+        LogQuery.LogQueryBuilder query = LogQuery.builder().inclusiveTimeBounds(true).verify(true);
+        boolean level = false;
+        boolean resource = false;
+        boolean message = false;
+        boolean regex = false;
+        boolean time = false;
+        List<LogPredicate> residual = new ArrayList<>();
+        for (LogPredicate term : predicate.conjuncts()) {
+            if (term instanceof LogPredicate.Compare compare && compare.op() == LogPredicate.Compare.Op.EQUALS
+                    && compare.field() == LogField.LEVEL && !level) {
+                query.level(compare.value()).levelMatch(LogQuery.Match.IGNORE_CASE);
+                level = true;
+            } else if (term instanceof LogPredicate.Compare compare && compare.op() == LogPredicate.Compare.Op.EQUALS
+                    && compare.field() == LogField.RESOURCE_ID && !resource) {
+                query.resourceId(compare.value());
+                resource = true;
+            } else if (term instanceof LogPredicate.Compare compare && compare.op() == LogPredicate.Compare.Op.CONTAINS
+                    && compare.field() == LogField.MESSAGE && !message) {
+                query.message(compare.value()).messageMatch(LogQuery.Match.CONTAINS);
+                message = true;
+            } else if (term instanceof LogPredicate.Regex pattern && pattern.field() == LogField.MESSAGE && !regex) {
+                query.regex(pattern.regex());
+                regex = true;
+            } else if (term instanceof LogPredicate.TimeRange range && (range.from() != null || range.to() != null) && !time) {
+                query.startTime(range.from()).endTime(range.to());
+                time = true;
+            } else {
+                residual.add(term);
+            }
+        }
+        return query.residual(residual.isEmpty() ? null : LogPredicate.and(residual)).build();
+    }
+
+    /**
+     * Flattens nested conjunctions and disjunctions and orders the terms of each.
+     */
+    static LogPredicate optimize(LogPredicate predicate) {
+        if (predicate instanceof LogPredicate.Not not) {
+            return LogPredicate.not(optimize(not.term()));
+        }
+        if (!(predicate instanceof LogPredicate.Junction junction)) return predicate;
+        List<LogPredicate> terms = new ArrayList<>();
+        for (LogPredicate term : junction.terms()) {
+            LogPredicate optimized = optimize(term);
+            if (optimized instanceof LogPredicate.Junction nested && nested.isAnd() == junction.isAnd()) terms.addAll(nested.terms());
+            else terms.add(optimized);
+        }
+        terms.sort(Comparator.comparingDouble(term -> rank(term, junction.isAnd())));
+        return junction.isAnd() ? LogPredicate.and(terms) : LogPredicate.or(terms);
+    }
+
+    private static double rank(LogPredicate term, boolean and) {
+        double decisive = and ? 1 - term.selectivity() : term.selectivity();
+        return decisive <= 0 ? Double.MAX_VALUE : term.cost() / decisive;
+    }
+}
@@ -0,0 +1,264 @@
+package com.LogIngestor.Query;
+
+import com.LogIngestor.Exception.LogException;
+import com.LogIngestor.Index.PatternCache;
+
+import java.time.DateTimeException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Recursive-descent parser for query expressions:
+ *
+ * <pre>
+ * expr   = and { "OR" and }
+ * and    = unary { ["AND"] unary }
+ * unary  = "NOT" unary | "(" expr ")" | term
+ * term   = field ":" value | field "~" "/" regex "/" | "time" ":" "[" bound "," bound "]"
+ * value  = word | '"' text '"', either followed by "*" for a prefix; "*" alone for any value
+ * bound  = "*" | "now" | ["now"] ("+" | "-") amount ("ms" | "s" | "m" | "h" | "d" | "w") | ISO date-time
+ * </pre>
+ *
+ * Keywords are upper case; juxtaposed terms are ANDed. {@code level} compares ignoring case and {@code msg}
+ * matches a substring; regexes are case-insensitive.
+ */
+final class QueryParser {
+
+    private static final int MAX_LENGTH = 4_096;
+    private static final int MAX_DEPTH = 32;
+
+    private final String input;
+    private final LocalDateTime now;
+    private int position;
+    private int depth;
+
+    private QueryParser(String input, LocalDateTime now) {
+        this.input = input;
+        this.now = now;
+    }
+
+    /**
+     * @param now The time relative bounds are resolved against.
+     * @throws LogException if the expression is malformed, naming the offending position.
+     */
+    static LogPredicate parse(String input, LocalDateTime now) {
+        if (input.length() > MAX_LENGTH) throw new LogException("Query must be at most " + MAX_LENGTH + " characters");
+        QueryParser parser = new QueryParser(input, now);
+        parser.skipSpace();
+        if (parser.atEnd()) throw parser.error("expected a term");
+        LogPredicate predicate = parser.or();
+        parser.skipSpace();
+        if (!parser.atEnd()) throw parser.error("unexpected '" + input.charAt(parser.position) + "'");
+        return predicate;
+    }
+
+    private LogPredicate or() {
+        List<LogPredicate> terms = new ArrayList<>();
+        terms.add(and());
+        while (keyword("OR")) terms.add(and());
+        return LogPredicate.or(terms);
+    }
+
+    private LogPredicate and() {
+        List<LogPredicate> terms = new ArrayList<>();
+        terms.add(unary());
+        while (true) {
+            skipSpace();
+            if (atEnd() || peek() == ')' || isKeyword("OR")) break;
+            keyword("AND");
+            terms.add(unary());
+        }
+        return LogPredicate.and(terms);
+    }
+
+    private LogPredicate unary() {
+        skipSpace();
+        if (keyword("NOT")) return LogPredicate.not(unary());
+        if (atEnd()) throw error("expected a term");
+        if (peek() != '(') return term();
+        if (++depth > MAX_DEPTH) throw error("nested deeper than " + MAX_DEPTH);
+        position++;
+        LogPredicate predicate = or();
+        skipSpace();
+        expect(')');
+        depth--;
+        return predicate;
+    }
+
+    private LogPredicate term() {
+        int start = position;
+        while (!atEnd() && (Character.isLetterOrDigit(peek()) || peek() == '.' || peek() == '_')) position++;
+        String name = input.substring(start, position);
+        if (name.isEmpty()) throw error("expected a field name");
+        if (name.equalsIgnoreCase("time")) {
+            expect(':');
+            return timeRange();
+        }
+        LogField field = LogField.of(name);
+        if (field == null) {
+            position = start;
+            throw error("unknown field '" + name + "'");
+        }
+        if (!atEnd() && peek() == '~') {
+            position++;
+            return regex(field);
+        }
+        expect(':');
+        return compare(field);
+    }
+
+    private LogPredicate compare(LogField field) {
+        boolean ignoreCase = field == LogField.LEVEL;
+        LogPredicate.Compare.Op op = field == LogField.MESSAGE ? LogPredicate.Compare.Op.CONTAINS : LogPredicate.Compare.Op.EQUALS;
+        String value;
+        if (!atEnd() && peek() == '"') {
+            value = quoted();
+        } else {
+            int start = position;
+            while (!atEnd() && !Character.isWhitespace(peek()) && peek() != ')') position++;
+            value = input.substring(start, position);
+            if (value.equals("*")) return new LogPredicate.Compare(field, LogPredicate.Compare.Op.EXISTS, null, false);
+            if (value.endsWith("*")) {
+                value = value.substring(0, value.length() - 1);
+                position--;
+            }
+        }
+        if (value.isEmpty()) throw error("expected a value");
+        if (!atEnd() && peek() == '*') {
+            position++;
+            op = LogPredicate.Compare.Op.PREFIX;
+        }
+        return new LogPredicate.Compare(field, op, value, ignoreCase);
+    }
+
+    private LogPredicate regex(LogField field) {
+        expect('/');
+        int start = position;
+        StringBuilder regex = new StringBuilder();
+        while (!atEnd() && peek() != '/') {
+            char c = input.charAt(position++);
+            if (c == '\\' && !atEnd()) {
+                // \/ is a slash; other escapes are the regex's own.
+                char next = input.charAt(position++);
+                if (next != '/') regex.append(c);
+                regex.append(next);
+            } else {
+                regex.append(c);
+            }
+        }
+        expect('/');
+        try {
+            return new LogPredicate.Regex(field, PatternCache.caseInsensitive(regex.toString()));
+        } catch (PatternSyntaxException e) {
+            position = start;
+            throw error("invalid regex: " + e.getDescription());
+        }
+    }
+
+    private LogPredicate timeRange() {
+        expect('[');
+        LocalDateTime from = bound(',');
+        expect(',');
+        LocalDateTime to = bound(']');
+        expect(']');
+        if (from != null && to != null && from.isAfter(to)) throw error("time range ends before it starts");
+        return new LogPredicate.TimeRange(from, to);
+    }
+
+    private LocalDateTime bound(char end) {
+        skipSpace();
+        int start = position;
+        while (!atEnd() && peek() != end && !Character.isWhitespace(peek())) position++;
+        String text = input.substring(start, position);
+        skipSpace();
+        if (text.equals("*")) return null;
+        if (text.equals("now")) return now;
+        String offset = text.startsWith("now") ? text.substring(3) : text;
+        if (offset.startsWith("-") || offset.startsWith("+")) {
+            Duration duration = duration(offset.substring(1), start);
+            try {
+                return offset.startsWith("-") ? now.minus(duration) : now.plus(duration);
+            } catch (DateTimeException e) {
+                position = start;
+                throw error("relative time out of range");
+            }
+        }
+        try {
+            return LocalDateTime.parse(text, DateTimeFormatter.ISO_DATE_TIME);
+        } catch (DateTimeParseException e) {
+            position = start;
+            throw error("expected '*', 'now', a relative time such as -1h, or an ISO date-time");
+        }
+    }
+
+    private Duration duration(String text, int start) {
+        int digits = 0;
+        while (digits < text.length() && Character.isDigit(text.charAt(digits))) digits++;
+        try {
+            long amount = Long.parseLong(text.substring(0, digits));
+            return switch (text.substring(digits)) {
+                case "ms" -> Duration.ofMillis(amount);
+                case "s" -> Duration.ofSeconds(amount);
+                case "m" -> Duration.ofMinutes(amount);
+                case "h" -> Duration.ofHours(amount);
+                case "d" -> Duration.ofDays(amount);
+                case "w" -> Duration.ofDays(Math.multiplyExact(amount, 7));
+                default -> throw new NumberFormatException();
+            };
+        } catch (NumberFormatException | ArithmeticException e) {
+            position = start;
+            throw error("expected a duration such as 15m, 1h or 7d");
+        }
+    }
+
+    private String quoted() {
+        expect('"');
+        StringBuilder value = new StringBuilder();
+        while (!atEnd() && peek() != '"') {
+            char c = input.charAt(position++);
+            if (c == '\\' && !atEnd()) c = input.charAt(position++);
+            value.append(c);
+        }
+        expect('"');
+        return value.toString();
+    }
+
+    private boolean isKeyword(String keyword) {
+        int end = position + keyword.length();
+        return input.startsWith(keyword, position)
+                && (end == input.length() || Character.isWhitespace(input.charAt(end)) || input.charAt(end) == '(');
+    }
+
+    private boolean keyword(String keyword) {
+        skipSpace();
+        if (!isKeyword(keyword)) return false;
+        position += keyword.length();
+        return true;
+    }
+
+    private void expect(char c) {
+        if (atEnd() || peek() != c) throw error("expected '" + c + "'");
+        position++;
+    }
+
+    private void skipSpace() {
+        while (!atEnd() && Character.isWhitespace(peek())) position++;
+    }
+
+    private boolean atEnd() {
+        return position >= input.length();
+    }
+
+    private char peek() {
+        return input.charAt(position);
+    }
+
+    private LogException error(String message) {
+        return new LogException("Invalid query at position " + position + ": " + message);
+    }
+}
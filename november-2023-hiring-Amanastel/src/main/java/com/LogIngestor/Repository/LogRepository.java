@@ -1,11 +1,22 @@
 package com.LogIngestor.Repository;
 
 import com.LogIngestor.Model.Log;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
 
 import java.util.List;
+import java.util.Optional;
 
-public interface LogRepository extends JpaRepository<Log, Long> {
+public interface LogRepository extends JpaRepository<Log, Long>, JpaSpecificationExecutor<Log>, LogRepositoryCustom {
     public List<Log> findByMessage(String message);
     public List<Log> findByLevel(String level);
+    public List<Log> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    @Query("select max(l.id) from Log l")
+    public Optional<Long> findMaxId();
+
+    @Query("select min(l.id) from Log l")
+    public Optional<Long> findMinId();
 }
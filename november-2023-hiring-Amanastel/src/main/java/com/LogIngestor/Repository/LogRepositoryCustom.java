@@ -0,0 +1,59 @@
+package com.LogIngestor.Repository;
+
+import com.LogIngestor.Model.Log;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Queries that need more control than derived or {@link org.springframework.data.jpa.repository.JpaSpecificationExecutor}
+ * methods give: row limits without a count query, JDBC fetch sizes, statement timeouts, detaching streamed entities
+ * and reads that bypass the persistence context.
+ *
+ * <p>The {@code Stateless} methods read through a Hibernate {@link org.hibernate.StatelessSession}: each row is mapped
+ * straight to a detached {@link Log}, with no entity entry, loaded-state snapshot or dirty check, and nothing is
+ * retained once the caller drops it. They run on the current transaction's connection when there is one.</p>
+ */
+public interface LogRepositoryCustom {
+
+    /**
+     * Returns at most {@code limit} logs matching {@code spec}, ordered by {@code (timestamp, id)}.
+     */
+    List<Log> findOrdered(Specification<Log> spec, int limit);
+
+    /**
+     * Streams logs matching {@code spec} in {@code (timestamp, id)} order as read-only entities.
+     * Must be consumed inside a transaction and closed afterwards.
+     */
+    Stream<Log> streamOrdered(Specification<Log> spec, int fetchSize);
+
+    /**
+     * Returns every log matching {@code spec}, in no particular order, as read-only entities.
+     * The statement is cancelled by the database driver after {@code timeoutMs}.
+     */
+    List<Log> findAllWithTimeout(Specification<Log> spec, int timeoutMs);
+
+    /**
+     * Returns every log matching {@code spec}, in no particular order, as detached logs read through a stateless session.
+     */
+    List<Log> findAllStateless(Specification<Log> spec);
+
+    /**
+     * Returns at most {@code limit} logs matching {@code spec}, ordered by {@code (timestamp, id)}, as detached logs
+     * read through a stateless session.
+     */
+    List<Log> findOrderedStateless(Specification<Log> spec, int limit);
+
+    /**
+     * Passes each log matching {@code spec} to {@code action} in {@code (timestamp, id)} order, reading through a
+     * stateless session and a forward-only cursor, so heap use does not grow with the result size.
+     */
+    void forEachOrderedStateless(Specification<Log> spec, int fetchSize, Consumer<Log> action);
+
+    /**
+     * Removes a log from the persistence context so it can be garbage collected while a stream is still open.
+     */
+    void detach(Log log);
+}
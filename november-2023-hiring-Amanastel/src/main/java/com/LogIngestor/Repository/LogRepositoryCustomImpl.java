@@ -0,0 +1,115 @@
+package com.LogIngestor.Repository;
+
+import com.LogIngestor.Model.Log;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.PersistenceUnit;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+public class LogRepositoryCustomImpl implements LogRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @PersistenceUnit
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Override
+    public List<Log> findOrdered(Specification<Log> spec, int limit) {
+        return orderedQuery(spec).setMaxResults(limit).getResultList();
+    }
+
+    @Override
+    public Stream<Log> streamOrdered(Specification<Log> spec, int fetchSize) {
+        return orderedQuery(spec)
+                .setHint(AvailableHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(AvailableHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
+    @Override
+    public List<Log> findAllWithTimeout(Specification<Log> spec, int timeoutMs) {
+        return entityManager.createQuery(criteria(entityManager.getCriteriaBuilder(), spec, false))
+                .setHint(AvailableHints.HINT_SPEC_QUERY_TIMEOUT, timeoutMs)
+                .setHint(AvailableHints.HINT_READ_ONLY, true)
+                .getResultList();
+    }
+
+    @Override
+    public List<Log> findAllStateless(Specification<Log> spec) {
+        return stateless(session -> session.createQuery(criteria(session.getCriteriaBuilder(), spec, false)).getResultList());
+    }
+
+    @Override
+    public List<Log> findOrderedStateless(Specification<Log> spec, int limit) {
+        return stateless(session -> session.createQuery(criteria(session.getCriteriaBuilder(), spec, true))
+                .setMaxResults(limit)
+                .getResultList());
+    }
+
+    @Override
+    public void forEachOrderedStateless(Specification<Log> spec, int fetchSize, Consumer<Log> action) {
+        stateless(session -> {
+            try (ScrollableResults<Log> rows = session.createQuery(criteria(session.getCriteriaBuilder(), spec, true))
+                    .setFetchSize(fetchSize)
+                    .scroll(ScrollMode.FORWARD_ONLY)) {
+                while (rows.next()) action.accept(rows.get());
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public void detach(Log log) {
+        entityManager.detach(log);
+    }
+
+    private TypedQuery<Log> orderedQuery(Specification<Log> spec) {
+        return entityManager.createQuery(criteria(entityManager.getCriteriaBuilder(), spec, true));
+    }
+
+    private static CriteriaQuery<Log> criteria(CriteriaBuilder cb, Specification<Log> spec, boolean ordered) {
+        CriteriaQuery<Log> query = cb.createQuery(Log.class);
+        Root<Log> root = query.from(Log.class);
+        Predicate predicate = spec == null ? null : spec.toPredicate(root, query, cb);
+        if (predicate != null) query.where(predicate);
+        if (ordered) query.orderBy(cb.asc(root.get("timestamp")), cb.asc(root.get("id")));
+        return query;
+    }
+
+    /**
+     * Runs {@code work} in a stateless session on the connection of the current transaction, if any, so it
+     * sees the transaction's read-only flag and isolation; otherwise on a pooled connection released afterwards.
+     */
+    private <T> T stateless(Function<StatelessSession, T> work) {
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try (StatelessSession session = entityManagerFactory.unwrap(SessionFactory.class).openStatelessSession(connection)) {
+            return work.apply(session);
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.LogIngestor.Repository;
+
+import com.LogIngestor.Model.Log;
+import com.LogIngestor.Model.LogCursor;
+import com.LogIngestor.Model.LogQuery;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Locale;
+
+/**
+ * Builds JPA {@link Specification}s from a {@link LogQuery} so that filtering happens in SQL
+ * and can use the indexes declared on {@link Log}.
+ */
+public final class LogSpecifications {
+
+    private LogSpecifications() {
+    }
+
+    /**
+     * Combines every filter of the query into one specification.
+     *
+     * @param query                    The search to translate.
+     * @param regexPushdown            Whether to translate the regex into {@code REGEXP_LIKE}.
+     * @param caseInsensitiveCollation Whether plain equality on the table already ignores case.
+     * @return A specification matching the query; rows may still need {@link LogQuery#matches(Log)} when it verifies.
+     */
+    public static Specification<Log> matching(LogQuery query, boolean regexPushdown, boolean caseInsensitiveCollation) {
+        Specification<Log> spec = Specification.where(null);
+        if (query.getLevel() != null) {
+            spec = spec.and(query.getLevelMatch() == LogQuery.Match.IGNORE_CASE && !caseInsensitiveCollation
+                    ? fieldEqualsIgnoreCase("level", query.getLevel())
+                    : fieldEquals("level", query.getLevel()));
+        }
+        if (query.getMessage() != null) {
+            spec = spec.and(query.getMessageMatch() == LogQuery.Match.CONTAINS
+                    ? messageContains(query.getMessage())
+                    : fieldEquals("message", query.getMessage()));
+        }
+        if (query.getResourceId() != null) {
+            spec = spec.and(fieldEquals("resourceId", query.getResourceId()));
+        }
+        if (query.getStartTime() != null || query.getEndTime() != null) {
+            spec = spec.and(timestampBetween(query.getStartTime(), query.getEndTime(), query.isInclusiveTimeBounds()));
+        }
+        if (query.getRegex() != null && regexPushdown) {
+            spec = spec.and(messageMatchesRegex(query.getRegex()));
+        }
+        return spec;
+    }
+
+    public static Specification<Log> fieldEquals(String field, String value) {
+        return (root, query, cb) -> cb.equal(root.get(field), value);
+    }
+
+    public static Specification<Log> fieldEqualsIgnoreCase(String field, String value) {
+        return (root, query, cb) -> cb.equal(cb.lower(root.get(field)), value.toLowerCase(Locale.ROOT));
+    }
+
+    public static Specification<Log> messageContains(String message) {
+        return (root, query, cb) -> cb.like(root.get("message"), "%" + escapeLike(message) + "%", '\\');
+    }
+
+    public static Specification<Log> messageContainsIgnoreCase(String lowerCaseText) {
+        return (root, query, cb) -> cb.like(cb.lower(root.get("message")), "%" + escapeLike(lowerCaseText) + "%", '\\');
+    }
+
+    /**
+     * Restricts the timestamp to a range; either bound may be null.
+     */
+    public static Specification<Log> timestampBetween(LocalDateTime startTime, LocalDateTime endTime, boolean inclusive) {
+        return (root, query, cb) -> {
+            var timestamp = root.<LocalDateTime>get("timestamp");
+            if (startTime != null && endTime != null) {
+                return inclusive
+                        ? cb.between(timestamp, startTime, endTime)
+                        : cb.and(cb.greaterThan(timestamp, startTime), cb.lessThan(timestamp, endTime));
+            }
+            if (startTime != null) {
+                return inclusive ? cb.greaterThanOrEqualTo(timestamp, startTime) : cb.greaterThan(timestamp, startTime);
+            }
+            return inclusive ? cb.lessThanOrEqualTo(timestamp, endTime) : cb.lessThan(timestamp, endTime);
+        };
+    }
+
+    public static Specification<Log> messageMatchesRegex(String regex) {
+        return (root, query, cb) -> cb.isTrue(cb.function("REGEXP_LIKE", Boolean.class,
+                root.get("message"), cb.literal(regex), cb.literal("i")));
+    }
+
+    public static Specification<Log> timestampBefore(LocalDateTime time) {
+        return (root, query, cb) -> cb.lessThan(root.get("timestamp"), time);
+    }
+
+    /**
+     * Keyset predicate: rows strictly after {@code cursor} in {@code (timestamp, id)} order.
+     */
+    public static Specification<Log> after(LogCursor cursor) {
+        return (root, query, cb) -> {
+            var timestamp = root.<LocalDateTime>get("timestamp");
+            return cb.or(
+                    cb.greaterThan(timestamp, cursor.timestamp()),
+                    cb.and(cb.equal(timestamp, cursor.timestamp()), cb.greaterThan(root.get("id"), cursor.id())));
+        };
+    }
+
+    /**
+     * Rows whose ID is one of {@code ids} or above {@code indexedUpTo}, i.e. index candidates plus
+     * whatever was committed after the index last caught up.
+     */
+    public static Specification<Log> idInOrAbove(Collection<Long> ids, long indexedUpTo) {
+        return (root, query, cb) -> {
+            var id = root.<Long>get("id");
+            return ids.isEmpty() ? cb.greaterThan(id, indexedUpTo) : cb.or(id.in(ids), cb.greaterThan(id, indexedUpTo));
+        };
+    }
+
+    /**
+     * Logs with an ID from {@code fromId} to {@code toId}, both inclusive.
+     */
+    public static Specification<Log> idBetween(long fromId, long toId) {
+        return (root, query, cb) -> cb.between(root.get("id"), fromId, toId);
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,7 @@
+package com.LogIngestor.Repository;
+
+import com.LogIngestor.Model.SpoolCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface SpoolCheckpointRepository extends JpaRepository<SpoolCheckpoint, String> {
+}
@@ -0,0 +1,276 @@
+package com.LogIngestor.Rollup;
+
+import com.LogIngestor.Config.RollupProperties;
+import com.LogIngestor.Config.StorageProperties;
+import com.LogIngestor.Ingest.LogIngestListener;
+import com.LogIngestor.Model.Log;
+import com.LogIngestor.Model.LogStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Log counts per minute, hour and day by level and resource, kept in the {@code log_rollup} table.
+ *
+ * <p>Saved logs are counted per minute in memory; every flush adds those counts to the minute, hour and day
+ * rows in one transaction, so a histogram over months reads a few hundred day or hour rows instead of the
+ * raw logs. Stats queries also include the counts not flushed yet. On first start, while the table is
+ * empty, the logs already stored are rolled up in the background.</p>
+ */
+@Component
+@ConditionalOnProperty(name = StorageProperties.ENGINE, havingValue = "jpa", matchIfMissing = true)
+public class LogRollupStore implements LogIngestListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(LogRollupStore.class);
+    private static final String TABLE = "log_rollup";
+    private static final int BACKFILL_WRITE_ROWS = 1_000_000;
+    private static final String UPSERT = "INSERT INTO " + TABLE + " (granularity, bucket_start, level, resource_id, log_count)"
+            + " VALUES (?, ?, ?, ?, ?) ON DUPLICATE KEY UPDATE log_count = log_count + VALUES(log_count)";
+    private static final Comparator<LogStats.Bucket> ORDER = Comparator.comparing(LogStats.Bucket::getStart)
+            .thenComparing(LogStats.Bucket::getLevel, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(LogStats.Bucket::getResourceId, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final RollupProperties properties;
+    private final Map<Key, Long> pending = new ConcurrentHashMap<>();
+    // Flushes take the write lock so a query never sees counts both in the table and in pending.
+    private final ReadWriteLock flushLock = new ReentrantReadWriteLock();
+    private volatile boolean ready;
+    private volatile long backfilledUpTo = -1;
+
+    /**
+     * Constructor for LogRollupStore.
+     *
+     * @param jdbcTemplate       The template used to read and write rollups.
+     * @param transactionManager The transaction manager used for each flush.
+     * @param properties         The rollup configuration.
+     */
+    @Autowired
+    public LogRollupStore(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager, RollupProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = properties;
+    }
+
+    /**
+     * Starts flushing, first deciding whether stored logs need a backfill. Logs counted in memory so far
+     * are all stored already and are left to the backfill.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!properties.isEnabled()) return;
+        flushLock.writeLock().lock();
+        try {
+            Long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM log", Long.class);
+            boolean empty = jdbcTemplate.queryForList("SELECT id FROM " + TABLE + " LIMIT 1", Long.class).isEmpty();
+            if (maxId != null && empty) {
+                backfilledUpTo = maxId;
+                pending.clear();
+                Thread backfill = new Thread(() -> backfill(maxId), "rollup-backfill");
+                backfill.setDaemon(true);
+                backfill.start();
+            }
+            ready = true;
+        } finally {
+            flushLock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void onLogsSaved(List<Log> logs) {
+        if (!properties.isEnabled()) return;
+        Map<Key, Long> counts = new HashMap<>();
+        long skipUpTo = backfilledUpTo;
+        for (Log log : logs) {
+            if (log.getTimestamp() == null || (log.getId() != null && log.getId() <= skipUpTo)) continue;
+            counts.merge(Key.of(log), 1L, Long::sum);
+        }
+        counts.forEach((key, count) -> pending.merge(key, count, Long::sum));
+    }
+
+    /**
+     * Adds the in-memory counts to the rollup table. Counts that fail to be written are kept for the next flush.
+     */
+    @Scheduled(fixedDelayString = "${log.rollup.flush-interval-ms:5000}")
+    public void flush() {
+        if (!ready || pending.isEmpty()) return;
+        flushLock.writeLock().lock();
+        try {
+            Map<Key, Long> batch = new HashMap<>();
+            for (Key key : pending.keySet()) {
+                Long count = pending.remove(key);
+                if (count != null) batch.put(key, count);
+            }
+            try {
+                write(batch);
+            } catch (DataAccessException e) {
+                logger.error("Failed to flush {} rollup counts; retrying on the next flush", batch.size(), e);
+                batch.forEach((key, count) -> pending.merge(key, count, Long::sum));
+            }
+        } finally {
+            flushLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes counts past the retention of their granularity.
+     */
+    @Scheduled(fixedDelayString = "${log.rollup.prune-interval-ms:3600000}")
+    public void prune() {
+        if (!ready) return;
+        LocalDateTime now = LocalDateTime.now();
+        for (RollupGranularity granularity : RollupGranularity.values()) {
+            LocalDateTime cutoff = getRetainedFrom(granularity, now);
+            if (cutoff == null) continue;
+            try {
+                int deleted = jdbcTemplate.update("DELETE FROM " + TABLE + " WHERE granularity = ? AND bucket_start < ?",
+                        granularity.name(), Timestamp.valueOf(cutoff));
+                if (deleted > 0) logger.info("Pruned {} {} rollups", deleted, granularity);
+            } catch (DataAccessException e) {
+                logger.error("Failed to prune {} rollups", granularity, e);
+            }
+        }
+    }
+
+    /**
+     * The oldest bucket start still kept at {@code granularity}, or null if it is kept forever.
+     */
+    public LocalDateTime getRetainedFrom(RollupGranularity granularity, LocalDateTime now) {
+        Duration retention = retention(granularity);
+        return retention == null ? null : granularity.floor(now.minus(retention));
+    }
+
+    /**
+     * Counts logs in {@code [from, to)} per {@code interval}, read from the {@code source} rollups.
+     * {@code from}, {@code to} and {@code interval} must be aligned to {@code source}.
+     *
+     * @param level      Only count this level, if not null.
+     * @param resourceId Only count this resource, if not null.
+     * @param byLevel    Split the counts by level.
+     * @param byResource Split the counts by resource.
+     * @return Non-empty buckets ordered by start, level and resource.
+     */
+    public List<LogStats.Bucket> count(RollupGranularity source, Duration interval, LocalDateTime from, LocalDateTime to,
+                                       String level, String resourceId, boolean byLevel, boolean byResource) {
+        StringBuilder sql = new StringBuilder("SELECT bucket_start, ")
+                .append(byLevel ? "level" : "NULL").append(", ")
+                .append(byResource ? "resource_id" : "NULL")
+                .append(", SUM(log_count) FROM ").append(TABLE)
+                .append(" WHERE granularity = ? AND bucket_start >= ? AND bucket_start < ?");
+        List<Object> args = new ArrayList<>(List.of(source.name(), Timestamp.valueOf(from), Timestamp.valueOf(to)));
+        if (level != null) {
+            sql.append(" AND level = ?");
+            args.add(level);
+        }
+        if (resourceId != null) {
+            sql.append(" AND resource_id = ?");
+            args.add(resourceId);
+        }
+        sql.append(" GROUP BY bucket_start");
+        if (byLevel) sql.append(", level");
+        if (byResource) sql.append(", resource_id");
+
+        Map<Key, Long> counts = new HashMap<>();
+        flushLock.readLock().lock();
+        try {
+            jdbcTemplate.query(sql.toString(), rs -> {
+                Key key = new Key(RollupGranularity.align(rs.getTimestamp(1).toLocalDateTime(), interval), rs.getString(2), rs.getString(3));
+                counts.merge(key, rs.getLong(4), Long::sum);
+            }, args.toArray());
+            pending.forEach((key, count) -> {
+                if (key.minute().isBefore(from) || !key.minute().isBefore(to)) return;
+                if (level != null && !level.equals(key.level())) return;
+                if (resourceId != null && !resourceId.equals(key.resourceId())) return;
+                counts.merge(new Key(RollupGranularity.align(key.minute(), interval), byLevel ? key.level() : null,
+                        byResource ? key.resourceId() : null), count, Long::sum);
+            });
+        } finally {
+            flushLock.readLock().unlock();
+        }
+
+        List<LogStats.Bucket> buckets = new ArrayList<>(counts.size());
+        counts.forEach((key, count) -> buckets.add(new LogStats.Bucket(key.minute(), key.level(), key.resourceId(), count)));
+        buckets.sort(ORDER);
+        return buckets;
+    }
+
+    /**
+     * Counts every stored log with an ID up to {@code maxId}; later logs are counted as they are saved.
+     */
+    private void backfill(long maxId) {
+        long started = System.currentTimeMillis();
+        JdbcTemplate streaming = new JdbcTemplate(Objects.requireNonNull(jdbcTemplate.getDataSource()));
+        streaming.setFetchSize(properties.getBackfillFetchSize());
+        Map<Key, Long> counts = new HashMap<>();
+        long[] rows = new long[1];
+        try {
+            streaming.query("SELECT timestamp, level, resource_id FROM log WHERE id <= ? AND timestamp IS NOT NULL", rs -> {
+                counts.merge(new Key(RollupGranularity.MINUTE.floor(rs.getTimestamp(1).toLocalDateTime()),
+                        normalize(rs.getString(2)), normalize(rs.getString(3))), 1L, Long::sum);
+                if (++rows[0] % BACKFILL_WRITE_ROWS == 0) {
+                    write(counts);
+                    counts.clear();
+                }
+            }, maxId);
+            write(counts);
+            logger.info("Rolled up {} stored logs in {} ms", rows[0], System.currentTimeMillis() - started);
+        } catch (DataAccessException e) {
+            logger.error("Rollup backfill failed; stats only cover logs saved from now on", e);
+        }
+    }
+
+    private void write(Map<Key, Long> counts) {
+        if (counts.isEmpty()) return;
+        List<Object[]> rows = new ArrayList<>(counts.size() * 3);
+        for (RollupGranularity granularity : RollupGranularity.values()) {
+            Map<Key, Long> rolled = new HashMap<>();
+            counts.forEach((key, count) -> rolled.merge(new Key(granularity.floor(key.minute()), key.level(), key.resourceId()), count, Long::sum));
+            rolled.forEach((key, count) -> rows.add(new Object[]{granularity.name(), Timestamp.valueOf(key.minute()), key.level(), key.resourceId(), count}));
+        }
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(UPSERT, rows));
+    }
+
+    private Duration retention(RollupGranularity granularity) {
+        return switch (granularity) {
+            case MINUTE -> properties.getMinuteRetention();
+            case HOUR -> properties.getHourRetention();
+            case DAY -> properties.getDayRetention();
+        };
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value;
+    }
+
+    /**
+     * A minute (or, once aligned, any bucket start) with the level and resource counted in it.
+     */
+    private record Key(LocalDateTime minute, String level, String resourceId) {
+        static Key of(Log log) {
+            return new Key(RollupGranularity.MINUTE.floor(log.getTimestamp()), normalize(log.getLevel()), normalize(log.getResourceId()));
+        }
+    }
+}
@@ -0,0 +1,244 @@
+package com.LogIngestor.Scan;
+
+import com.LogIngestor.Config.ScanProperties;
+import com.LogIngestor.Config.StorageProperties;
+import com.LogIngestor.Exception.LogException;
+import com.LogIngestor.Model.Log;
+import com.LogIngestor.Model.LogQuery;
+import com.LogIngestor.Model.QueryPlan;
+import com.LogIngestor.Model.ScanResult;
+import com.LogIngestor.Repository.LogRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs searches as parallel chunk queries over ID ranges on a dedicated, fixed-size pool.
+ *
+ * <p>A scan walks the ID range from the newest chunk down, keeping at most {@code parallelism} chunks in
+ * flight. Each chunk is one database query restricted to its ID range and re-checked in memory when the
+ * query needs it. Once the scan has {@code limit} matches it dispatches no further chunks but still reads the
+ * ones already dispatched, which are all newer than those left, so the newest matches are never missed. Once
+ * its deadline passes or it has read {@code maxRowsScanned} rows it also skips the dispatched chunks not yet
+ * started, and the matches found so far are returned as a partial result. Cancelling the returned future stops the scan after the chunks already
+ * running, each of which is bounded by a statement timeout set to the remaining time.</p>
+ */
+@Component
+@ConditionalOnProperty(name = StorageProperties.ENGINE, havingValue = "jpa", matchIfMissing = true)
+public class LogScanEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(LogScanEngine.class);
+    private static final Comparator<Log> ORDER = Comparator.comparing(Log::getTimestamp).thenComparing(Log::getId);
+
+    /**
+     * Restricts a search to the logs of one chunk, or returns null when the chunk cannot hold a match.
+     */
+    @FunctionalInterface
+    public interface ChunkSpecification {
+        Specification<Log> forRange(long fromId, long toId);
+    }
+
+    private final LogRepository logRepository;
+    private final ScanProperties properties;
+    private final ExecutorService pool;
+    private final Semaphore running;
+
+    /**
+     * Constructor for LogScanEngine.
+     *
+     * @param logRepository The repository chunks are read from.
+     * @param properties    The scan configuration.
+     */
+    @Autowired
+    public LogScanEngine(LogRepository logRepository, ScanProperties properties) {
+        this.logRepository = logRepository;
+        this.properties = properties;
+        this.running = new Semaphore(properties.getMaxConcurrentScans());
+        AtomicInteger threads = new AtomicInteger();
+        this.pool = Executors.newFixedThreadPool(properties.getThreads(), task -> {
+            Thread worker = new Thread(task, "log-scan-" + threads.getAndIncrement());
+            worker.setDaemon(true);
+            return worker;
+        });
+    }
+
+    @PreDestroy
+    void stop() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * Starts scanning the logs with IDs in {@code [minId, maxId]}.
+     *
+     * @param query  The search, used to re-check rows when {@link LogQuery#isVerify()} is set.
+     * @param chunks Builds the database restriction of each chunk.
+     * @param limit  Stop once this many matches are found.
+     * @return The matches in {@code (timestamp, id)} order; cancel it to stop the scan.
+     * @throws LogException if too many scans are already running.
+     */
+    public CompletableFuture<ScanResult> scan(LogQuery query, ChunkSpecification chunks, long minId, long maxId, int limit) {
+        if (!running.tryAcquire()) {
+            throw new LogException("Too many concurrent scans; at most " + properties.getMaxConcurrentScans() + " are allowed");
+        }
+        Scan scan = new Scan(query, chunks, minId, maxId, limit);
+        scan.dispatch();
+        return scan.result;
+    }
+
+    /**
+     * Describes how a scan of the IDs in {@code [minId, maxId]} is split and bounded, for a query plan.
+     *
+     * @param minId The lowest ID scanned.
+     * @param maxId The highest ID scanned.
+     * @param limit The match limit passed to {@link #scan}, or null for none.
+     * @return The scan details; the cutoff is left for the caller to fill in once the scan completes.
+     */
+    public QueryPlan.Scan describe(long minId, long maxId, Integer limit) {
+        QueryPlan.Scan scan = new QueryPlan.Scan();
+        scan.setMinId(minId);
+        scan.setMaxId(maxId);
+        scan.setChunkIds(properties.getChunkIds());
+        scan.setParallelism(properties.getParallelism());
+        scan.setLimit(limit);
+        scan.setMaxRowsScanned(properties.getMaxRowsScanned());
+        scan.setDeadlineMillis(properties.getDeadline().toMillis());
+        return scan;
+    }
+
+    private final class Scan {
+        private final LogQuery query;
+        private final ChunkSpecification chunks;
+        private final long minId;
+        private final int limit;
+        private final long deadline;
+        private final CompletableFuture<ScanResult> result = new CompletableFuture<>();
+
+        // Guarded by this.
+        private final List<Log> matches = new ArrayList<>();
+        private long nextToId;
+        private int inFlight;
+        private long rowsScanned;
+        private boolean stopped;
+        private boolean limitReached;
+        private boolean chunksMissed;
+        private ScanResult.Cutoff cutoff;
+        private RuntimeException failure;
+
+        Scan(LogQuery query, ChunkSpecification chunks, long minId, long maxId, int limit) {
+            this.query = query;
+            this.chunks = chunks;
+            this.minId = minId;
+            this.nextToId = maxId;
+            this.limit = limit;
+            this.deadline = System.nanoTime() + properties.getDeadline().toNanos();
+        }
+
+        /**
+         * Starts chunks until {@code parallelism} are in flight, and completes the scan once none are left.
+         */
+        synchronized void dispatch() {
+            if (result.isDone()) stopped = true;
+            while (!stopped && !limitReached && inFlight < properties.getParallelism() && nextToId >= minId) {
+                long toId = nextToId;
+                long fromId = Math.max(minId, toId - properties.getChunkIds() + 1);
+                nextToId = fromId - 1;
+                inFlight++;
+                pool.execute(() -> run(fromId, toId));
+            }
+            if (inFlight == 0 && !result.isDone()) finish();
+            else if (inFlight == 0) running.release();
+        }
+
+        private synchronized void chunkDone() {
+            inFlight--;
+            dispatch();
+        }
+
+        private void run(long fromId, long toId) {
+            try {
+                scanChunk(fromId, toId);
+            } catch (QueryTimeoutException | jakarta.persistence.QueryTimeoutException e) {
+                stop(ScanResult.Cutoff.DEADLINE, true);
+            } catch (RuntimeException e) {
+                synchronized (this) {
+                    if (failure == null) failure = e;
+                    stopped = true;
+                }
+            } finally {
+                chunkDone();
+            }
+        }
+
+        private void scanChunk(long fromId, long toId) {
+            synchronized (this) {
+                if (stopped || result.isDone()) {
+                    chunksMissed = true;
+                    return;
+                }
+            }
+            long remainingMs = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+            if (remainingMs <= 0) {
+                stop(ScanResult.Cutoff.DEADLINE, true);
+                return;
+            }
+            Specification<Log> spec = chunks.forRange(fromId, toId);
+            if (spec == null) return;
+            List<Log> rows = logRepository.findAllWithTimeout(spec, (int) Math.min(Integer.MAX_VALUE, remainingMs));
+            synchronized (this) {
+                rowsScanned += rows.size();
+                for (Log row : rows) {
+                    if (!query.isVerify() || query.matches(row)) matches.add(row);
+                }
+                if (matches.size() >= limit) {
+                    limitReached = true;
+                } else if (rowsScanned >= properties.getMaxRowsScanned()) {
+                    stop(ScanResult.Cutoff.ROW_BUDGET, false);
+                } else if (System.nanoTime() - deadline >= 0) {
+                    stop(ScanResult.Cutoff.DEADLINE, false);
+                }
+            }
+        }
+
+        private synchronized void stop(ScanResult.Cutoff reason, boolean chunkMissed) {
+            if (cutoff == null) cutoff = reason;
+            chunksMissed |= chunkMissed;
+            stopped = true;
+        }
+
+        /**
+         * Completes the scan, keeping the {@code limit} newest matches in {@link #ORDER}. The result is partial if
+         * a dispatched chunk was skipped, or if the limit was not reached and some chunk was never dispatched.
+         */
+        private void finish() {
+            running.release();
+            if (failure != null) {
+                result.completeExceptionally(failure);
+                return;
+            }
+            List<Log> logs = matches;
+            if (logs.size() > limit) {
+                logs.sort(ORDER.reversed());
+                logs = new ArrayList<>(logs.subList(0, limit));
+            }
+            logs.sort(ORDER);
+            ScanResult.Cutoff reason = chunksMissed || (!limitReached && nextToId >= minId) ? cutoff : null;
+            if (reason != null) logger.info("Scan for {} stopped at {}: {} rows read, {} matches", query, reason, rowsScanned, logs.size());
+            result.complete(new ScanResult(logs, reason, rowsScanned));
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.LogIngestor.Service;
+
+import com.LogIngestor.Model.QueryCacheStats;
+
+public interface CacheService {
+    public QueryCacheStats getStats();
+
+    public void clear();
+}
@@ -0,0 +1,39 @@
+package com.LogIngestor.Service.Impl;
+
+import com.LogIngestor.Cache.QueryResultCache;
+import com.LogIngestor.Model.QueryCacheStats;
+import com.LogIngestor.Service.CacheService;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service implementation exposing the search result cache. The columnar engine has no cache,
+ * so its statistics are reported as disabled and empty.
+ */
+@Service
+public class CacheServiceImpl implements CacheService {
+
+    private final ObjectProvider<QueryResultCache> queryResultCache;
+
+    /**
+     * Constructor for CacheServiceImpl.
+     *
+     * @param queryResultCache The result cache, present only with the JPA engine.
+     */
+    @Autowired
+    public CacheServiceImpl(ObjectProvider<QueryResultCache> queryResultCache) {
+        this.queryResultCache = queryResultCache;
+    }
+
+    @Override
+    public QueryCacheStats getStats() {
+        QueryResultCache cache = queryResultCache.getIfAvailable();
+        return cache == null ? new QueryCacheStats() : cache.getStats();
+    }
+
+    @Override
+    public void clear() {
+        queryResultCache.ifAvailable(QueryResultCache::clear);
+    }
+}
@@ -0,0 +1,128 @@
+package com.LogIngestor.Service.Impl;
+
+import com.LogIngestor.Config.SearchProperties;
+import com.LogIngestor.Config.StorageProperties;
+import com.LogIngestor.Exception.LogException;
+import com.LogIngestor.Index.MessageTermIndex;
+import com.LogIngestor.Index.Tokenizer;
+import com.LogIngestor.Model.Log;
+import com.LogIngestor.Repository.LogRepository;
+import com.LogIngestor.Repository.LogSpecifications;
+import com.LogIngestor.Service.LogIndexService;
+import org.roaringbitmap.longlong.LongIterator;
+import org.roaringbitmap.longlong.Roaring64NavigableMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+/**
+ * Service implementation for searches answered from the in-process message indexes.
+ */
+@Service
+@ConditionalOnProperty(name = StorageProperties.ENGINE, havingValue = "jpa", matchIfMissing = true)
+public class LogIndexServiceImpl implements LogIndexService {
+
+    private static final int FETCH_CHUNK_SIZE = 1_000;
+
+    private final MessageTermIndex termIndex;
+    private final LogRepository logRepository;
+    private final SearchProperties searchProperties;
+    private static final Logger logger = LoggerFactory.getLogger(LogIndexServiceImpl.class);
+
+    /**
+     * Constructor for LogIndexServiceImpl.
+     *
+     * @param termIndex        The inverted index over message terms.
+     * @param logRepository    The repository for log entities.
+     * @param searchProperties The search configuration.
+     */
+    @Autowired
+    public LogIndexServiceImpl(MessageTermIndex termIndex, LogRepository logRepository, SearchProperties searchProperties) {
+        this.termIndex = termIndex;
+        this.logRepository = logRepository;
+        this.searchProperties = searchProperties;
+    }
+
+    /**
+     * Searches logs whose message contains every term of {@code text}, or the terms as a consecutive phrase.
+     * Posting lists are intersected before any row is read; only the surviving IDs are fetched.
+     *
+     * @param text   The search text, tokenized like indexed messages.
+     * @param phrase Whether the terms must appear consecutively and in order.
+     * @param limit  The maximum number of logs returned, newest first.
+     * @return A list of matching logs ordered by descending ID.
+     * @throws LogException if the text has no terms or the limit is out of range.
+     */
+    @Override
+    public List<Log> searchLogsByTerms(String text, boolean phrase, int limit) {
+        if (limit < 1 || limit > searchProperties.getMaxPageSize()) {
+            throw new LogException("limit must be between 1 and " + searchProperties.getMaxPageSize());
+        }
+        List<String> terms = text == null ? List.of() : Tokenizer.terms(text, termIndex.getMaxTermLength());
+        if (terms.isEmpty()) throw new LogException("Search text contains no terms");
+
+        List<Log> logs = termIndex.isReady() ? searchIndex(terms, phrase, limit) : searchDatabase(terms, phrase, limit);
+        logger.info("Search logs by terms {} result: {} logs", terms, logs.size());
+        return logs;
+    }
+
+    private List<Log> searchIndex(List<String> terms, boolean phrase, int limit) {
+        Roaring64NavigableMap ids = termIndex.all(new LinkedHashSet<>(terms));
+        List<Log> result = new ArrayList<>(Math.min(limit, FETCH_CHUNK_SIZE));
+        List<Long> chunk = new ArrayList<>(FETCH_CHUNK_SIZE);
+        LongIterator iterator = ids.getReverseLongIterator();
+        while (iterator.hasNext() && result.size() < limit) {
+            chunk.clear();
+            while (iterator.hasNext() && chunk.size() < FETCH_CHUNK_SIZE) chunk.add(iterator.next());
+            List<Log> rows = logRepository.findAllById(chunk);
+            rows.sort(Comparator.comparing(Log::getId).reversed());
+            for (Log row : rows) {
+                if (phrase && !containsPhrase(row.getMessage(), terms)) continue;
+                result.add(row);
+                if (result.size() == limit) break;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Used while the index is still being rebuilt: narrows with case-insensitive LIKE per term
+     * and applies the exact term semantics in memory.
+     */
+    private List<Log> searchDatabase(List<String> terms, boolean phrase, int limit) {
+        Specification<Log> spec = Specification.where(null);
+        for (String term : new LinkedHashSet<>(terms)) spec = spec.and(LogSpecifications.messageContainsIgnoreCase(term));
+        List<Log> result = new ArrayList<>();
+        for (Log row : logRepository.findAll(spec, Sort.by(Sort.Direction.DESC, "id"))) {
+            List<String> rowTerms = Tokenizer.terms(row.getMessage(), termIndex.getMaxTermLength());
+            if (phrase ? !containsPhrase(rowTerms, terms) : !rowTerms.containsAll(terms)) continue;
+            result.add(row);
+            if (result.size() == limit) break;
+        }
+        return result;
+    }
+
+    private boolean containsPhrase(String message, List<String> terms) {
+        return message != null && containsPhrase(Tokenizer.terms(message, termIndex.getMaxTermLength()), terms);
+    }
+
+    private static boolean containsPhrase(List<String> messageTerms, List<String> terms) {
+        outer:
+        for (int start = 0; start + terms.size() <= messageTerms.size(); start++) {
+            for (int i = 0; i < terms.size(); i++) {
+                if (!messageTerms.get(start + i).equals(terms.get(i))) continue outer;
+            }
+            return true;
+        }
+        return false;
+    }
+}
@@ -1,51 +1,204 @@
 package com.LogIngestor.Service.Impl;
 
+import com.LogIngestor.Cache.QueryResultCache;
+import com.LogIngestor.Config.IndexProperties;
+import com.LogIngestor.Config.SearchProperties;
+import com.LogIngestor.Config.StorageProperties;
 import com.LogIngestor.Exception.LogException;
+import com.LogIngestor.Exception.SpoolFullException;
+import com.LogIngestor.Hot.HotLogWindow;
+import com.LogIngestor.Index.MessageTrigramIndex;
+import com.LogIngestor.Ingest.LogBatchWriter;
+import com.LogIngestor.Ingest.LogIngestNotifier;
+import com.LogIngestor.Ingest.NdjsonLogReader;
+import com.LogIngestor.Metrics.SearchMetrics;
+import com.LogIngestor.Model.BatchIngestResponse;
 import com.LogIngestor.Model.Log;
+import com.LogIngestor.Model.LogCursor;
+import com.LogIngestor.Model.LogPage;
+import com.LogIngestor.Model.LogQuery;
+import com.LogIngestor.Model.QueryPlan;
+import com.LogIngestor.Model.ScanResult;
+import com.LogIngestor.Model.StreamIngestResponse;
+import com.LogIngestor.Partition.LogPartitionManager;
 import com.LogIngestor.Repository.LogRepository;
+import com.LogIngestor.Repository.LogSpecifications;
+import com.LogIngestor.Scan.LogScanEngine;
 import com.LogIngestor.Service.LogService;
+import com.LogIngestor.Spool.LogSpooler;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.roaringbitmap.longlong.Roaring64NavigableMap;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Example;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
-import java.util.regex.Pattern;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Service implementation for handling log-related operations.
  */
 @Service
+@ConditionalOnProperty(name = StorageProperties.ENGINE, havingValue = "jpa", matchIfMissing = true)
 public class LogServiceImpl implements LogService {
 
     private final LogRepository logRepository;
+    private final LogBatchWriter logBatchWriter;
+    private final LogSpooler logSpooler;
+    private final LogIngestNotifier logIngestNotifier;
+    private final NdjsonLogReader ndjsonLogReader;
+    private final SearchProperties searchProperties;
+    private final MessageTrigramIndex messageTrigramIndex;
+    private final IndexProperties indexProperties;
+    private final HotLogWindow hotLogWindow;
+    private final QueryResultCache queryResultCache;
+    private final LogScanEngine logScanEngine;
+    private final LogPartitionManager logPartitionManager;
+    private final SearchMetrics searchMetrics;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTransaction;
+    private final AtomicLong searches = new AtomicLong();
     private static final Logger logger = LoggerFactory.getLogger(LogServiceImpl.class);
 
     /**
      * Constructor for LogServiceImpl.
      *
-     * @param logRepository The repository for log entities.
+     * @param logRepository      The repository for log entities.
+     * @param logBatchWriter     The asynchronous writer used for bulk ingestion.
+     * @param logIngestNotifier  Notified after each log is saved.
+     * @param ndjsonLogReader    The incremental parser used for streaming ingestion.
+     * @param searchProperties   The search configuration.
+     * @param trigramIndex       The index used to narrow regex searches.
+     * @param indexProperties    The message index configuration.
+     * @param hotLogWindow       The in-memory window answering searches over recent logs.
+     * @param queryResultCache   The cache of list search results.
+     * @param logScanEngine      The engine running chunked, cancellable scans.
+     * @param partitionManager   Reports the partitions a search reads.
+     * @param searchMetrics      The search latency and row meters.
+     * @param objectMapper       The mapper used to write exported logs.
+     * @param transactionManager The transaction manager backing streamed exports.
+     * @param logSpooler         The on-disk ingest spool, present when {@code log.spool.enabled} is set.
      */
     @Autowired
-    public LogServiceImpl(LogRepository logRepository) {
+    public LogServiceImpl(LogRepository logRepository, LogBatchWriter logBatchWriter, LogIngestNotifier logIngestNotifier,
+                          NdjsonLogReader ndjsonLogReader, SearchProperties searchProperties, MessageTrigramIndex trigramIndex,
+                          IndexProperties indexProperties, HotLogWindow hotLogWindow, QueryResultCache queryResultCache,
+                          LogScanEngine logScanEngine, LogPartitionManager partitionManager, SearchMetrics searchMetrics,
+                          ObjectMapper objectMapper, PlatformTransactionManager transactionManager,
+                          ObjectProvider<LogSpooler> logSpooler) {
         this.logRepository = logRepository;
+        this.logBatchWriter = logBatchWriter;
+        this.logSpooler = logSpooler.getIfAvailable();
+        this.logIngestNotifier = logIngestNotifier;
+        this.ndjsonLogReader = ndjsonLogReader;
+        this.searchProperties = searchProperties;
+        this.messageTrigramIndex = trigramIndex;
+        this.indexProperties = indexProperties;
+        this.hotLogWindow = hotLogWindow;
+        this.queryResultCache = queryResultCache;
+        this.logScanEngine = logScanEngine;
+        this.logPartitionManager = partitionManager;
+        this.searchMetrics = searchMetrics;
+        this.objectMapper = objectMapper;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
     }
 
     /**
-     * Saves a log entry.
+     * Saves a log entry. With the spool enabled it is only spooled, and returned without an ID.
      *
      * @param log The log entry to be saved.
      * @return The saved log entry.
+     * @throws SpoolFullException if the spool is enabled and full.
      */
     @Override
     public Log saveLog(Log log) {
         log.setTimestamp(LocalDateTime.now());
-        logger.info("Saving log: {}", log);
-        return logRepository.save(log);
+        logger.debug("Saving log: {}", log);
+        if (logSpooler != null) {
+            log.setId(null);
+            logSpooler.spool(List.of(log));
+            return log;
+        }
+        Log saved = logRepository.save(log);
+        logIngestNotifier.notifySaved(List.of(saved));
+        return saved;
+    }
+
+    /**
+     * Queues a batch of log entries for asynchronous, batched writing, or spools them when the spool is enabled.
+     * Entries without a level or message are rejected, as are entries that do not fit in the ingest queue or spool.
+     * Once one entry times out waiting for queue space, the rest of the batch is rejected without waiting, so a
+     * request is held for at most one offer timeout. Entries keep their own timestamp when one is supplied.
+     *
+     * @param logs The log entries to be saved.
+     * @return The number of accepted and rejected entries.
+     * @throws SpoolFullException if the spool is enabled and not even the first valid entry fits.
+     */
+    @Override
+    public BatchIngestResponse saveLogs(List<Log> logs) {
+        int accepted = 0;
+        int rejected = 0;
+        LocalDateTime now = LocalDateTime.now();
+        List<Log> spooled = new ArrayList<>();
+        boolean queueFull = false;
+        for (Log log : logs) {
+            if (log == null || log.getLevel() == null || log.getMessage() == null) {
+                rejected++;
+                continue;
+            }
+            log.setId(null);
+            if (log.getTimestamp() == null) log.setTimestamp(now);
+            if (logSpooler != null) {
+                spooled.add(log);
+            } else if (!queueFull && logBatchWriter.submit(log)) {
+                accepted++;
+            } else {
+                queueFull = true;
+                rejected++;
+            }
+        }
+        if (!spooled.isEmpty()) {
+            accepted = logSpooler.spool(spooled);
+            rejected += spooled.size() - accepted;
+        }
+        logger.debug("Batch ingest: {} accepted, {} rejected", accepted, rejected);
+        return new BatchIngestResponse(accepted, rejected);
+    }
+
+    /**
+     * Ingests a newline-delimited JSON stream. Lines are parsed incrementally and queued in chunks,
+     * so memory use does not depend on the size of the stream.
+     *
+     * @param ndjson The NDJSON input, already decompressed.
+     * @return Line, accept and reject counts plus the first malformed lines.
+     * @throws IOException if the stream cannot be read.
+     */
+    @Override
+    public StreamIngestResponse saveLogStream(InputStream ndjson) throws IOException {
+        StreamIngestResponse response = ndjsonLogReader.read(ndjson, this::saveLogs);
+        logger.debug("Stream ingest: {} lines, {} accepted, {} rejected", response.getLines(), response.getAccepted(), response.getRejected());
+        return response;
     }
 
     /**
@@ -60,19 +213,8 @@ public class LogServiceImpl implements LogService {
      */
     @Override
     public List<Log> searchLogs(String level, String message, String resourceId, LocalDateTime startTime, LocalDateTime endTime) {
-        Log exampleLog = new Log();
-        exampleLog.setLevel(level);
-        exampleLog.setMessage(message);
-        exampleLog.setResourceId(resourceId);
-
-        Example<Log> example = Example.of(exampleLog);
-        List<Log> logs = logRepository.findAll(example);
-
-        if (startTime != null && endTime != null) {
-            logs.removeIf(log -> log.getTimestamp().isBefore(startTime) || log.getTimestamp().isAfter(endTime));
-        }
-
-        logger.info("Search logs result: {}", logs);
+        List<Log> logs = findAll(LogQuery.exactMatch(level, message, resourceId, startTime, endTime));
+        logResult("Search logs", logs);
         return logs;
     }
 
@@ -87,7 +229,7 @@ public class LogServiceImpl implements LogService {
     public Log getLogById(Long id) {
         Optional<Log> log = logRepository.findById(id);
         if (log.isEmpty()) throw new LogException("Log with id " + id + " does not exist");
-        logger.info("Retrieved log by ID: {}", log.get());
+        logger.debug("Retrieved log by ID: {}", log.get());
         return log.get();
     }
 
@@ -101,7 +243,7 @@ public class LogServiceImpl implements LogService {
     public List<Log> getAllLogs() {
         List<Log> logs = logRepository.findAll();
         if (logs.isEmpty()) throw new LogException("No logs found");
-        logger.info("Retrieved all logs: {}", logs);
+        logResult("Retrieve all logs", logs);
         return logs;
     }
 
@@ -113,8 +255,8 @@ public class LogServiceImpl implements LogService {
      */
     @Override
     public List<Log> searchLogByLevel(String level) {
-        List<Log> logs = logRepository.findByLevel(level);
-        logger.info("Search logs by level result: {}", logs);
+        List<Log> logs = findAll(LogQuery.byLevel(level));
+        logResult("Search logs by level", logs);
         if (logs.isEmpty()) throw new LogException("No logs found with level " + level);
         return logs;
     }
@@ -128,11 +270,8 @@ public class LogServiceImpl implements LogService {
      */
     @Override
     public List<Log> searchLogsByDateRange(LocalDateTime startTime, LocalDateTime endTime) {
-        List<Log> logsInRange = logRepository.findAll()
-                .stream()
-                .filter(log -> log.getTimestamp().isAfter(startTime) && log.getTimestamp().isBefore(endTime))
-                .collect(Collectors.toList());
-        logger.info("Search logs by date range result: {}", logsInRange);
+        List<Log> logsInRange = findAll(LogQuery.dateRange(startTime, endTime));
+        logResult("Search logs by date range", logsInRange);
         return logsInRange;
     }
 
@@ -144,12 +283,8 @@ public class LogServiceImpl implements LogService {
      */
     @Override
     public List<Log> searchLogsByRegex(String regex) {
-        Pattern pattern = Pattern.compile(regex, Pattern.CASE_INSENSITIVE);
-        List<Log> logsMatchingRegex = logRepository.findAll()
-                .stream()
-                .filter(log -> pattern.matcher(log.getMessage()).find())
-                .collect(Collectors.toList());
-        logger.info("Search logs by regex result: {}", logsMatchingRegex);
+        List<Log> logsMatchingRegex = findAll(LogQuery.regex(regex));
+        logResult("Search logs by regex", logsMatchingRegex);
         return logsMatchingRegex;
     }
 
@@ -166,31 +301,421 @@ public class LogServiceImpl implements LogService {
      */
     @Override
     public List<Log> searchLogsByMultipleFilters(String level, String message, String resourceId, LocalDateTime startTime, LocalDateTime endTime, String regex) {
-        List<Log> filteredLogs = logRepository.findAll()
-                .stream()
-                .filter(log -> (level == null || log.getLevel().equalsIgnoreCase(level))
-                        && (message == null || log.getMessage().contains(message))
-                        && (resourceId == null || log.getResourceId().equals(resourceId))
-                        && (startTime == null || log.getTimestamp().isAfter(startTime))
-                        && (endTime == null || log.getTimestamp().isBefore(endTime))
-                        && (regex == null || Pattern.compile(regex, Pattern.CASE_INSENSITIVE).matcher(log.getMessage()).find()))
-                .collect(Collectors.toList());
-        logger.info("Search logs by multiple filters result: {}", filteredLogs);
+        List<Log> filteredLogs = findAll(LogQuery.multipleFilters(level, message, resourceId, startTime, endTime, regex));
+        logResult("Search logs by multiple filters", filteredLogs);
         return filteredLogs;
     }
 
     @Override
     public List<Log> searchLogsByMultipleFiltersWithOptional(String level, String message, String resourceId, Optional<LocalDateTime> startTime, Optional<LocalDateTime> endTime, String regex) {
-        List<Log> filteredLogs = logRepository.findAll()
-                .stream()
-                .filter(log -> (level == null || log.getLevel().equalsIgnoreCase(level))
-                        && (message == null || log.getMessage().contains(message))
-                        && (resourceId == null || log.getResourceId().equals(resourceId))
-                        && (startTime.isEmpty() || log.getTimestamp().isAfter(startTime.get()))
-                        && (endTime.isEmpty() || log.getTimestamp().isBefore(endTime.get()))
-                        && (regex == null || Pattern.compile(regex, Pattern.CASE_INSENSITIVE).matcher(log.getMessage()).find()))
-                .collect(Collectors.toList());
-        logger.info("Search logs by multiple filters result: {}", filteredLogs);
+        List<Log> filteredLogs = findAll(LogQuery.multipleFilters(level, message, resourceId, startTime.orElse(null), endTime.orElse(null), regex));
+        logResult("Search logs by multiple filters", filteredLogs);
         return filteredLogs;
     }
+
+    /**
+     * Returns one page of logs matching the query, ordered by timestamp and ID.
+     * Rows newer than the hot window's bound come from memory, older ones from the database.
+     *
+     * @param query The search to run.
+     * @param limit The maximum number of logs on the page.
+     * @param after The cursor returned with the previous page, or null for the first page.
+     * @return The page and the cursor of the next one, if any.
+     * @throws LogException if the limit is out of range or the cursor is malformed.
+     */
+    @Override
+    public LogPage searchLogsPage(LogQuery query, int limit, String after) {
+        if (limit < 1 || limit > searchProperties.getMaxPageSize()) {
+            throw new LogException("limit must be between 1 and " + searchProperties.getMaxPageSize());
+        }
+        long started = System.nanoTime();
+        long dbNanos = 0;
+        long scanned = 0;
+        LogCursor cursor = LogCursor.decode(after);
+        LocalDateTime hotFrom = hotLogWindow.getCoveredFrom(query);
+        List<Log> page;
+        if (isHotOnly(query, hotFrom)) {
+            page = hotLogWindow.find(query, null, cursor, limit);
+            scanned = page.size();
+        } else {
+            boolean split = isSplit(query, hotFrom);
+            Specification<Log> spec = specification(query, null);
+            if (split) spec = spec.and(LogSpecifications.timestampBefore(hotFrom));
+            page = new ArrayList<>(limit);
+            boolean exhausted = false;
+            while (page.size() < limit && !exhausted) {
+                long queried = System.nanoTime();
+                Specification<Log> remaining = cursor == null ? spec : spec.and(LogSpecifications.after(cursor));
+                List<Log> rows = searchProperties.isStatelessReads()
+                        ? logRepository.findOrderedStateless(remaining, limit)
+                        : logRepository.findOrdered(remaining, limit);
+                dbNanos += System.nanoTime() - queried;
+                scanned += rows.size();
+                exhausted = rows.size() < limit;
+                for (Log row : rows) {
+                    cursor = LogCursor.of(row);
+                    if (!query.isVerify() || query.matches(row)) page.add(row);
+                    if (page.size() == limit) break;
+                }
+            }
+            if (split && page.size() < limit) {
+                List<Log> hot = hotLogWindow.find(query, hotFrom, cursor, limit - page.size());
+                scanned += hot.size();
+                page.addAll(hot);
+            }
+        }
+        String nextCursor = page.size() == limit ? LogCursor.of(page.get(limit - 1)).encode() : null;
+        searchMetrics.record("page", System.nanoTime() - started, dbNanos, scanned, page.size());
+        logger.debug("Search logs page result: {} logs, next cursor {}", page.size(), nextCursor);
+        return new LogPage(page, nextCursor);
+    }
+
+    /**
+     * Runs a search as a parallel scan over ID-range chunks that stops at its deadline or row budget.
+     * Rows newer than the hot window's bound come from memory. Complete results of unlimited scans are cached.
+     *
+     * @param query The search to run.
+     * @param limit Keep only the newest this many logs; null for no limit.
+     * @return The matching logs, flagged partial if the scan stopped early; cancel it to stop the scan.
+     * @throws LogException if too many scans are already running.
+     */
+    @Override
+    public CompletableFuture<ScanResult> scanLogs(LogQuery query, Integer limit) {
+        return scan(query, limit, null);
+    }
+
+    /**
+     * Runs a search as {@link #scanLogs} does, without reading or filling the result cache, and describes how it ran.
+     *
+     * @param query The search to explain.
+     * @param limit Keep only the newest this many logs; null for no limit.
+     * @return The executed plan; the matching logs themselves are not returned.
+     * @throws LogException if too many scans are already running.
+     */
+    @Override
+    public QueryPlan explainScan(LogQuery query, Integer limit) {
+        long started = System.nanoTime();
+        QueryPlan plan = new QueryPlan();
+        plan.setQuery(query.toString());
+        plan.setCached(limit == null && queryResultCache.contains(query));
+        try {
+            plan.setRowsReturned(scan(query, limit, plan).join().getLogs().size());
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw e;
+        }
+        plan.setTotalMillis((System.nanoTime() - started) / 1e6);
+        if (!"hot".equals(plan.getSource())) {
+            plan.getIndexes().addAll(0, databaseIndexes(query));
+            plan.setPartitions(logPartitionManager.partitionsFor(query.getStartTime(), query.getEndTime()));
+        }
+        return plan;
+    }
+
+    /**
+     * Runs a scan. With a plan, the result cache is bypassed, metrics are not recorded and the plan receives
+     * the source, stages, row counts and scan details.
+     */
+    private CompletableFuture<ScanResult> scan(LogQuery query, Integer limit, QueryPlan plan) {
+        long started = System.nanoTime();
+        int max = limit == null ? Integer.MAX_VALUE : limit;
+        LocalDateTime hotFrom = hotLogWindow.getCoveredFrom(query);
+        if (isHotOnly(query, hotFrom)) {
+            List<Log> hot = hotLogWindow.findLast(query, null, max);
+            if (plan != null) {
+                plan.stage("hot-window", started, hot.size());
+                plan.getIndexes().add("hot-window");
+                plan.setSource("hot");
+                plan.addRowsScanned(hot.size());
+            }
+            return CompletableFuture.completedFuture(ScanResult.complete(hot));
+        }
+        if (limit == null && plan == null) {
+            List<Log> cached = queryResultCache.getIfPresent(query);
+            if (cached != null) return CompletableFuture.completedFuture(ScanResult.complete(cached));
+        }
+
+        boolean split = isSplit(query, hotFrom);
+        // The hot rows are the newest, so a limited scan takes the newest of them and fills the rest from the database.
+        List<Log> hot = split ? hotLogWindow.findLast(query, hotFrom, max) : List.of();
+        if (plan != null) {
+            plan.setSource(split ? "database+hot" : "database");
+            if (split) {
+                plan.stage("hot-window", started, hot.size());
+                plan.getIndexes().add("hot-window");
+                plan.addRowsScanned(hot.size());
+            }
+        }
+        if (hot.size() >= max) return CompletableFuture.completedFuture(ScanResult.complete(hot));
+        Optional<Long> minId = logRepository.findMinId();
+        if (minId.isEmpty()) return CompletableFuture.completedFuture(ScanResult.complete(new ArrayList<>(hot)));
+        long maxId = logRepository.findMaxId().orElse(minId.get());
+
+        Specification<Log> spec = LogSpecifications.matching(query, searchProperties.isRegexPushdown(), searchProperties.isCaseInsensitiveCollation());
+        Specification<Log> base = split ? spec.and(LogSpecifications.timestampBefore(hotFrom)) : spec;
+        long indexedUpTo = messageTrigramIndex.getHighWaterMark();
+        long lookedUp = System.nanoTime();
+        Roaring64NavigableMap candidates = trigramCandidates(query);
+        if (plan != null && candidates != null) {
+            plan.stage("trigram-index", lookedUp, candidates.getLongCardinality());
+            plan.getIndexes().add("trigram");
+            plan.setTrigramCandidates(candidates.getLongCardinality());
+        }
+        LogScanEngine.ChunkSpecification chunks = candidates == null
+                ? (fromId, toId) -> base.and(LogSpecifications.idBetween(fromId, toId))
+                : (fromId, toId) -> {
+                    List<Long> ids = new ArrayList<>();
+                    candidates.forEach((long id) -> {
+                        if (id >= fromId && id <= toId) ids.add(id);
+                    });
+                    if (ids.isEmpty() && toId <= indexedUpTo) return null;
+                    return base.and(LogSpecifications.idInOrAbove(ids, indexedUpTo)).and(LogSpecifications.idBetween(fromId, toId));
+                };
+
+        QueryResultCache.Load load = limit == null && plan == null ? queryResultCache.begin(query) : null;
+        CompletableFuture<ScanResult> scan;
+        long scanned = System.nanoTime();
+        try {
+            scan = logScanEngine.scan(query, chunks, minId.get(), maxId, max - hot.size());
+        } catch (RuntimeException e) {
+            if (load != null) queryResultCache.abandon(load);
+            throw e;
+        }
+        if (plan != null) plan.setScan(logScanEngine.describe(minId.get(), maxId, limit == null ? null : max - hot.size()));
+        return scan.whenComplete((result, error) -> {
+            if (result != null) {
+                if (plan != null) {
+                    plan.stage("scan", scanned, result.getRowsScanned());
+                    plan.addRowsScanned(result.getRowsScanned());
+                    plan.getScan().setCutoff(result.getCutoff());
+                }
+                result.getLogs().addAll(hot);
+                if (plan == null) {
+                    searchMetrics.record("scan", System.nanoTime() - started, 0, result.getRowsScanned() + hot.size(), result.getLogs().size());
+                }
+            }
+            if (load == null) return;
+            if (result != null && !result.isPartial()) queryResultCache.complete(load, result.getLogs());
+            else queryResultCache.abandon(load);
+        });
+    }
+
+    /**
+     * Writes every log matching the query to {@code out} as newline-delimited JSON.
+     * Rows are read through a JDBC cursor and never enter the persistence context, or are detached once written
+     * when stateless reads are off, so heap use does not grow with the result size.
+     *
+     * @param query The search to run.
+     * @param out   The destination stream; it is flushed but not closed.
+     * @throws IOException if writing to {@code out} fails.
+     */
+    @Override
+    public void exportLogs(LogQuery query, OutputStream out) throws IOException {
+        Specification<Log> spec = specification(query, null);
+        ObjectWriter writer = objectMapper.writerFor(Log.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                    generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                    generator.setRootValueSeparator(null);
+                    Consumer<Log> export = log -> {
+                        if (query.isVerify() && !query.matches(log)) return;
+                        try {
+                            writer.writeValue(generator, log);
+                            generator.writeRaw('\n');
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    };
+                    if (searchProperties.isStatelessReads()) {
+                        logRepository.forEachOrderedStateless(spec, searchProperties.getStreamFetchSize(), export);
+                    } else {
+                        try (Stream<Log> logs = logRepository.streamOrdered(spec, searchProperties.getStreamFetchSize())) {
+                            logs.forEach(log -> {
+                                export.accept(log);
+                                logRepository.detach(log);
+                            });
+                        }
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Runs the query without reading or filling the result cache, and describes how it ran.
+     *
+     * @param query The search to explain.
+     * @return The executed plan; the matching logs themselves are not returned.
+     */
+    @Override
+    public QueryPlan explainLogs(LogQuery query) {
+        long started = System.nanoTime();
+        QueryPlan plan = new QueryPlan();
+        plan.setQuery(query.toString());
+        plan.setCached(queryResultCache.contains(query));
+        load(query, plan);
+        plan.setTotalMillis((System.nanoTime() - started) / 1e6);
+        if (!"hot".equals(plan.getSource())) {
+            plan.getIndexes().addAll(0, databaseIndexes(query));
+            plan.setPartitions(logPartitionManager.partitionsFor(query.getStartTime(), query.getEndTime()));
+        }
+        return plan;
+    }
+
+    /**
+     * Returns the cached result of the query, running it on a miss.
+     *
+     * @param query The search to run.
+     * @return The matching logs.
+     */
+    private List<Log> findAll(LogQuery query) {
+        long started = System.nanoTime();
+        List<Log> cached = queryResultCache.getIfPresent(query);
+        if (cached != null) {
+            searchMetrics.record("cache", System.nanoTime() - started, 0, 0, cached.size());
+            return cached;
+        }
+        QueryPlan plan = new QueryPlan();
+        QueryResultCache.Load load = queryResultCache.begin(query);
+        List<Log> logs;
+        try {
+            logs = load(query, plan);
+            queryResultCache.complete(load, logs);
+        } finally {
+            queryResultCache.abandon(load);
+        }
+        plan.setTotalMillis((System.nanoTime() - started) / 1e6);
+        searchMetrics.record(plan);
+        return logs;
+    }
+
+    /**
+     * Runs a query with every filter pushed down to the database, re-checking rows in memory only
+     * for queries whose string semantics differ from the database collation.
+     *
+     * @param query The search to run.
+     * @param plan  Receives the source, stages and row counts of the search.
+     * @return The matching logs.
+     */
+    private List<Log> load(LogQuery query, QueryPlan plan) {
+        LocalDateTime hotFrom = hotLogWindow.getCoveredFrom(query);
+        long started = System.nanoTime();
+        if (isHotOnly(query, hotFrom)) {
+            List<Log> logs = hotLogWindow.find(query, null, null, Integer.MAX_VALUE);
+            plan.stage("hot-window", started, logs.size());
+            plan.getIndexes().add("hot-window");
+            plan.setSource("hot");
+            plan.addRowsScanned(logs.size());
+            plan.setRowsReturned(logs.size());
+            return logs;
+        }
+
+        boolean split = isSplit(query, hotFrom);
+        Specification<Log> spec = specification(query, plan);
+        started = System.nanoTime();
+        Specification<Log> cold = split ? spec.and(LogSpecifications.timestampBefore(hotFrom)) : spec;
+        List<Log> logs = searchProperties.isStatelessReads() ? logRepository.findAllStateless(cold) : logRepository.findAll(cold);
+        plan.stage("database", started, logs.size());
+        plan.addRowsScanned(logs.size());
+        if (query.isVerify()) {
+            started = System.nanoTime();
+            logs.removeIf(log -> !query.matches(log));
+            plan.stage("verify", started, logs.size());
+        }
+        if (split) {
+            started = System.nanoTime();
+            List<Log> hot = hotLogWindow.find(query, hotFrom, null, Integer.MAX_VALUE);
+            plan.stage("hot-window", started, hot.size());
+            plan.getIndexes().add("hot-window");
+            plan.addRowsScanned(hot.size());
+            logs.addAll(hot);
+        }
+        plan.setSource(split ? "database+hot" : "database");
+        plan.setRowsReturned(logs.size());
+        return logs;
+    }
+
+    /**
+     * Whether every log the query can match is at or after {@code hotFrom}, i.e. held by the hot window.
+     */
+    private static boolean isHotOnly(LogQuery query, LocalDateTime hotFrom) {
+        return hotFrom != null && query.getStartTime() != null && !query.getStartTime().isBefore(hotFrom);
+    }
+
+    /**
+     * Whether the query reaches both before and after {@code hotFrom}, so its results are the database rows
+     * before the bound merged with the hot window from the bound on.
+     */
+    private static boolean isSplit(LogQuery query, LocalDateTime hotFrom) {
+        return hotFrom != null && (query.getEndTime() == null || !query.getEndTime().isBefore(hotFrom));
+    }
+
+    /**
+     * Translates the query into a specification. Regex queries are narrowed to the logs whose message
+     * holds every trigram the regex requires, when the trigram index is ready and the candidate set is small.
+     *
+     * @param query The search to run.
+     * @param plan  Receives the trigram lookup, if not null.
+     * @return A specification matching the query.
+     */
+    private Specification<Log> specification(LogQuery query, QueryPlan plan) {
+        Specification<Log> spec = LogSpecifications.matching(query, searchProperties.isRegexPushdown(), searchProperties.isCaseInsensitiveCollation());
+        long started = System.nanoTime();
+        long indexedUpTo = messageTrigramIndex.getHighWaterMark();
+        Roaring64NavigableMap candidates = trigramCandidates(query);
+        if (candidates == null) return spec;
+        if (plan != null) {
+            plan.stage("trigram-index", started, candidates.getLongCardinality());
+            plan.getIndexes().add("trigram");
+            plan.setTrigramCandidates(candidates.getLongCardinality());
+        }
+
+        List<Long> ids = new ArrayList<>((int) candidates.getLongCardinality());
+        candidates.forEach((long id) -> ids.add(id));
+        logger.debug("Regex {} narrowed to {} trigram candidates", query.getRegex(), ids.size());
+        return spec.and(LogSpecifications.idInOrAbove(ids, indexedUpTo));
+    }
+
+    /**
+     * The IDs of the logs holding every trigram the query's regex requires, or null when the query has no
+     * regex, the index is not ready or the candidate set is too large to be worth narrowing to.
+     */
+    private Roaring64NavigableMap trigramCandidates(LogQuery query) {
+        if (query.getRegex() == null) return null;
+        Roaring64NavigableMap candidates = messageTrigramIndex.candidates(query.getRegex());
+        if (candidates == null || candidates.getLongCardinality() > indexProperties.getTrigramMaxCandidates()) return null;
+        return candidates;
+    }
+
+    /**
+     * The table indexes whose leading columns match the filters pushed down for {@code query}; the
+     * database picks among them.
+     */
+    private List<String> databaseIndexes(LogQuery query) {
+        List<String> indexes = new ArrayList<>();
+        boolean timeBounded = query.getStartTime() != null || query.getEndTime() != null;
+        if (query.getResourceId() != null) indexes.add("idx_log_resource_timestamp");
+        // A case-insensitive level compiles to lower(level) = ?, which the index cannot serve, unless the collation ignores case.
+        boolean levelIndexed = query.getLevelMatch() == LogQuery.Match.EXACT
+                || (query.getLevelMatch() == LogQuery.Match.IGNORE_CASE && searchProperties.isCaseInsensitiveCollation());
+        if (query.getLevel() != null && levelIndexed) indexes.add("idx_log_level_timestamp");
+        if (timeBounded) indexes.add("idx_log_timestamp");
+        if (indexes.isEmpty()) indexes.add("none (full scan)");
+        return indexes;
+    }
+
+    /**
+     * Logs a search result at DEBUG for one search in {@code resultLogSampleRate}; results can be large,
+     * so writing every one would cost more than the search.
+     */
+    private void logResult(String search, List<Log> logs) {
+        if (!logger.isDebugEnabled()) return;
+        if (searches.getAndIncrement() % Math.max(1, searchProperties.getResultLogSampleRate()) != 0) return;
+        logger.debug("{} result: {} logs {}", search, logs.size(), logs);
+    }
 }
@@ -0,0 +1,39 @@
+package com.LogIngestor.Service.Impl;
+
+import com.LogIngestor.Config.StorageProperties;
+import com.LogIngestor.Model.ShardStatus;
+import com.LogIngestor.Service.ShardService;
+import com.LogIngestor.Shard.ShardedLogStore;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service implementation reporting and rebalancing the shards of the sharded storage engine.
+ */
+@Service
+@ConditionalOnProperty(name = StorageProperties.ENGINE, havingValue = "sharded")
+public class ShardServiceImpl implements ShardService {
+
+    private final ShardedLogStore store;
+
+    /**
+     * Constructor for ShardServiceImpl.
+     *
+     * @param store The sharded store.
+     */
+    @Autowired
+    public ShardServiceImpl(ShardedLogStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public ShardStatus getStatus() {
+        return store.getStatus();
+    }
+
+    @Override
+    public ShardStatus rebalance() {
+        return store.rebalance();
+    }
+}
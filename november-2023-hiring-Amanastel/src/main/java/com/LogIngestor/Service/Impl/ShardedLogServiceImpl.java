@@ -0,0 +1,294 @@
+package com.LogIngestor.Service.Impl;
+
+import com.LogIngestor.Config.SearchProperties;
+import com.LogIngestor.Config.StorageProperties;
+import com.LogIngestor.Exception.LogException;
+import com.LogIngestor.Ingest.LogIngestNotifier;
+import com.LogIngestor.Ingest.NdjsonLogReader;
+import com.LogIngestor.Metrics.SearchMetrics;
+import com.LogIngestor.Model.BatchIngestResponse;
+import com.LogIngestor.Model.Log;
+import com.LogIngestor.Model.LogCursor;
+import com.LogIngestor.Model.LogPage;
+import com.LogIngestor.Model.LogQuery;
+import com.LogIngestor.Model.QueryPlan;
+import com.LogIngestor.Model.ScanResult;
+import com.LogIngestor.Model.StreamIngestResponse;
+import com.LogIngestor.Service.LogService;
+import com.LogIngestor.Shard.ShardedLogStore;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Log service backed by the {@link ShardedLogStore}, selected with {@code log.storage.engine=sharded}.
+ * Search semantics are those of {@link LogServiceImpl}; every search is a scatter-gather over the shards
+ * it needs, merged in {@code (timestamp, id)} order.
+ */
+@Service
+@ConditionalOnProperty(name = StorageProperties.ENGINE, havingValue = "sharded")
+public class ShardedLogServiceImpl implements LogService {
+
+    private static final LogQuery ALL = LogQuery.builder().build();
+
+    private final ShardedLogStore store;
+    private final LogIngestNotifier logIngestNotifier;
+    private final NdjsonLogReader ndjsonLogReader;
+    private final SearchProperties searchProperties;
+    private final ObjectMapper objectMapper;
+    private final SearchMetrics searchMetrics;
+    private static final Logger logger = LoggerFactory.getLogger(ShardedLogServiceImpl.class);
+
+    /**
+     * Constructor for ShardedLogServiceImpl.
+     *
+     * @param store             The sharded store holding the logs.
+     * @param logIngestNotifier Notified after logs are stored.
+     * @param ndjsonLogReader   The incremental parser used for streaming ingestion.
+     * @param searchProperties  The search configuration.
+     * @param objectMapper      The mapper used to write exported logs.
+     * @param searchMetrics     The search latency and row meters.
+     */
+    @Autowired
+    public ShardedLogServiceImpl(ShardedLogStore store, LogIngestNotifier logIngestNotifier, NdjsonLogReader ndjsonLogReader,
+                                 SearchProperties searchProperties, ObjectMapper objectMapper, SearchMetrics searchMetrics) {
+        this.store = store;
+        this.logIngestNotifier = logIngestNotifier;
+        this.ndjsonLogReader = ndjsonLogReader;
+        this.searchProperties = searchProperties;
+        this.objectMapper = objectMapper;
+        this.searchMetrics = searchMetrics;
+    }
+
+    /**
+     * Saves a log entry on the shard owning its resource.
+     *
+     * @param log The log entry to be saved.
+     * @return The saved log entry.
+     * @throws LogException if the shard could not store it.
+     */
+    @Override
+    public Log saveLog(Log log) {
+        log.setTimestamp(LocalDateTime.now());
+        logger.debug("Saving log: {}", log);
+        if (store.append(List.of(log)).isEmpty()) throw new LogException("Log shard is unavailable, retry later");
+        logIngestNotifier.notifySaved(List.of(log));
+        return log;
+    }
+
+    /**
+     * Stores a batch of log entries, each shard's share in one transaction, all shards in parallel.
+     * Entries without a level or message are rejected, as are entries whose shard failed.
+     * Entries keep their own timestamp when one is supplied.
+     *
+     * @param logs The log entries to be saved.
+     * @return The number of accepted and rejected entries.
+     */
+    @Override
+    public BatchIngestResponse saveLogs(List<Log> logs) {
+        List<Log> valid = new ArrayList<>(logs.size());
+        LocalDateTime now = LocalDateTime.now();
+        for (Log log : logs) {
+            if (log == null || log.getLevel() == null || log.getMessage() == null) continue;
+            if (log.getTimestamp() == null) log.setTimestamp(now);
+            valid.add(log);
+        }
+        List<Log> stored = valid.isEmpty() ? List.of() : store.append(valid);
+        if (!stored.isEmpty()) logIngestNotifier.notifySaved(stored);
+        logger.debug("Batch ingest: {} accepted, {} rejected", stored.size(), logs.size() - stored.size());
+        return new BatchIngestResponse(stored.size(), logs.size() - stored.size());
+    }
+
+    /**
+     * Ingests a newline-delimited JSON stream in chunks.
+     *
+     * @param ndjson The NDJSON input, already decompressed.
+     * @return Line, accept and reject counts plus the first malformed lines.
+     * @throws IOException if the stream cannot be read.
+     */
+    @Override
+    public StreamIngestResponse saveLogStream(InputStream ndjson) throws IOException {
+        StreamIngestResponse response = ndjsonLogReader.read(ndjson, chunk -> saveLogs(new ArrayList<>(chunk)));
+        logger.debug("Stream ingest: {} lines, {} accepted, {} rejected", response.getLines(), response.getAccepted(), response.getRejected());
+        return response;
+    }
+
+    @Override
+    public List<Log> searchLogs(String level, String message, String resourceId, LocalDateTime startTime, LocalDateTime endTime) {
+        return findAll(LogQuery.exactMatch(level, message, resourceId, startTime, endTime));
+    }
+
+    /**
+     * Retrieves a log entry by its ID, looking on every shard.
+     *
+     * @param id The ID of the log entry.
+     * @return The log entry with the specified ID.
+     * @throws LogException if the log entry with the given ID does not exist.
+     */
+    @Override
+    public Log getLogById(Long id) {
+        Log log = store.findById(id);
+        if (log == null) throw new LogException("Log with id " + id + " does not exist");
+        return log;
+    }
+
+    @Override
+    public List<Log> getAllLogs() {
+        List<Log> logs = findAll(ALL);
+        if (logs.isEmpty()) throw new LogException("No logs found");
+        return logs;
+    }
+
+    @Override
+    public List<Log> searchLogByLevel(String level) {
+        List<Log> logs = findAll(LogQuery.byLevel(level));
+        if (logs.isEmpty()) throw new LogException("No logs found with level " + level);
+        return logs;
+    }
+
+    @Override
+    public List<Log> searchLogsByDateRange(LocalDateTime startTime, LocalDateTime endTime) {
+        return findAll(LogQuery.dateRange(startTime, endTime));
+    }
+
+    @Override
+    public List<Log> searchLogsByRegex(String regex) {
+        return findAll(LogQuery.regex(regex));
+    }
+
+    @Override
+    public List<Log> searchLogsByMultipleFilters(String level, String message, String resourceId, LocalDateTime startTime, LocalDateTime endTime, String regex) {
+        return findAll(LogQuery.multipleFilters(level, message, resourceId, startTime, endTime, regex));
+    }
+
+    @Override
+    public List<Log> searchLogsByMultipleFiltersWithOptional(String level, String message, String resourceId, Optional<LocalDateTime> startTime, Optional<LocalDateTime> endTime, String regex) {
+        return findAll(LogQuery.multipleFilters(level, message, resourceId, startTime.orElse(null), endTime.orElse(null), regex));
+    }
+
+    /**
+     * Returns one page of logs matching the query, ordered by timestamp and ID.
+     *
+     * @param query The search to run.
+     * @param limit The maximum number of logs on the page.
+     * @param after The cursor returned with the previous page, or null for the first page.
+     * @return The page and the cursor of the next one, if any.
+     * @throws LogException if the limit is out of range or the cursor is malformed.
+     */
+    @Override
+    public LogPage searchLogsPage(LogQuery query, int limit, String after) {
+        if (limit < 1 || limit > searchProperties.getMaxPageSize()) {
+            throw new LogException("limit must be between 1 and " + searchProperties.getMaxPageSize());
+        }
+        List<Log> page = store.find(query, LogCursor.decode(after), limit);
+        String nextCursor = page.size() == limit ? LogCursor.of(page.get(page.size() - 1)).encode() : null;
+        return new LogPage(page, nextCursor);
+    }
+
+    /**
+     * Writes every log matching the query to {@code out} as newline-delimited JSON while the shards are
+     * still being read, one fetch-size page per shard at a time.
+     *
+     * @param query The search to run.
+     * @param out   The destination stream; it is flushed but not closed.
+     * @throws IOException if writing to {@code out} fails.
+     */
+    @Override
+    public void exportLogs(LogQuery query, OutputStream out) throws IOException {
+        ObjectWriter writer = objectMapper.writerFor(Log.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            Iterator<Log> logs = store.stream(query, null, searchProperties.getStreamFetchSize());
+            while (logs.hasNext()) {
+                writer.writeValue(generator, logs.next());
+                generator.writeRaw('\n');
+            }
+        }
+    }
+
+    /**
+     * Runs the search as a scatter-gather that stops reading the shards once {@code limit} logs are merged.
+     *
+     * @param query The search to run.
+     * @param limit Stop once this many logs are found; null for no limit.
+     * @return The matching logs, never partial.
+     */
+    @Override
+    public CompletableFuture<ScanResult> scanLogs(LogQuery query, Integer limit) {
+        List<Log> logs = limit == null ? findAll(query) : store.find(query, null, limit);
+        return CompletableFuture.completedFuture(ScanResult.complete(logs));
+    }
+
+    /**
+     * Runs the query and describes how it ran, including the shards it touched; the logs themselves are not returned.
+     *
+     * @param query The search to explain.
+     * @return The executed plan.
+     */
+    @Override
+    public QueryPlan explainLogs(LogQuery query) {
+        long started = System.nanoTime();
+        QueryPlan plan = new QueryPlan();
+        plan.setQuery(query.toString());
+        plan.setSource("sharded");
+        plan.setShards(store.targets(query));
+        long rows = 0;
+        Iterator<Log> logs = store.stream(query, null, searchProperties.getStreamFetchSize());
+        while (logs.hasNext()) {
+            logs.next();
+            rows++;
+        }
+        plan.stage("scatter-gather", started, rows);
+        plan.setRowsReturned(rows);
+        plan.setTotalMillis((System.nanoTime() - started) / 1e6);
+        return plan;
+    }
+
+    /**
+     * Runs the query as {@link #scanLogs} does and describes how it ran, including the shards it touched; the logs
+     * themselves are not returned.
+     *
+     * @param query The search to explain.
+     * @param limit Keep only the newest this many logs; null for no limit.
+     * @return The executed plan.
+     */
+    @Override
+    public QueryPlan explainScan(LogQuery query, Integer limit) {
+        if (limit == null) return explainLogs(query);
+        long started = System.nanoTime();
+        QueryPlan plan = new QueryPlan();
+        plan.setQuery(query.toString());
+        plan.setSource("sharded");
+        plan.setShards(store.targets(query));
+        List<Log> logs = store.find(query, null, limit);
+        plan.stage("scatter-gather", started, logs.size());
+        plan.setRowsReturned(logs.size());
+        plan.setTotalMillis((System.nanoTime() - started) / 1e6);
+        return plan;
+    }
+
+    private List<Log> findAll(LogQuery query) {
+        long started = System.nanoTime();
+        List<Log> logs = new ArrayList<>();
+        store.stream(query, null, searchProperties.getStreamFetchSize()).forEachRemaining(logs::add);
+        searchMetrics.record("sharded", System.nanoTime() - started, 0, logs.size(), logs.size());
+        return logs;
+    }
+}
@@ -0,0 +1,83 @@
+package com.LogIngestor.Service.Impl;
+
+import com.LogIngestor.Config.SketchProperties;
+import com.LogIngestor.Exception.LogException;
+import com.LogIngestor.Model.ApproximateStats;
+import com.LogIngestor.Rollup.RollupGranularity;
+import com.LogIngestor.Service.SketchService;
+import com.LogIngestor.Sketch.LogSketchStore;
+import com.LogIngestor.Sketch.SketchRange;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Service implementation answering distinct counts and heavy hitters from the in-memory sketches, never from raw logs.
+ */
+@Service
+public class SketchServiceImpl implements SketchService {
+
+    private final LogSketchStore logSketchStore;
+    private final SketchProperties properties;
+
+    /**
+     * Constructor for SketchServiceImpl.
+     *
+     * @param logSketchStore The per-bucket sketches.
+     * @param properties     The sketch configuration.
+     */
+    @Autowired
+    public SketchServiceImpl(LogSketchStore logSketchStore, SketchProperties properties) {
+        this.logSketchStore = logSketchStore;
+        this.properties = properties;
+    }
+
+    /**
+     * Estimates distinct resources and traces and the heaviest resources and message templates over a range.
+     * The range is widened to whole buckets and cut to the buckets still kept.
+     *
+     * @param startTime  The start of the range; defaults to one day before {@code endTime}.
+     * @param endTime    The end of the range; defaults to now.
+     * @param level      Only count logs with this level, which must be one of {@code log.sketch.levels}.
+     * @param resourceId Also estimate the number of logs of this resource, if given.
+     * @param top        How many resources and templates to rank.
+     * @return The estimates with their bounds.
+     * @throws LogException if a parameter is invalid or the level has no sketches.
+     */
+    @Override
+    public ApproximateStats getApproximateStats(LocalDateTime startTime, LocalDateTime endTime, String level, String resourceId, int top) {
+        if (!properties.isEnabled()) throw new LogException("Approximate stats are disabled");
+        if (top < 1 || top > properties.getTopK()) throw new LogException("top must be between 1 and " + properties.getTopK());
+        if (level != null && !logSketchStore.isTracked(level)) {
+            throw new LogException("Level " + level + " has no sketches; approximate stats can filter by " + logSketchStore.getLevels());
+        }
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime end = endTime == null ? now : endTime;
+        LocalDateTime start = startTime == null ? end.minusDays(1) : startTime;
+        if (!start.isBefore(end)) throw new LogException("startTime must be before endTime");
+
+        Duration width = logSketchStore.getBucket();
+        LocalDateTime from = RollupGranularity.align(start, width);
+        LocalDateTime to = RollupGranularity.align(end, width);
+        if (to.isBefore(end)) to = to.plus(width);
+        LocalDateTime retainedFrom = logSketchStore.getRetainedFrom(now);
+        if (from.isBefore(retainedFrom)) from = retainedFrom;
+        if (!from.isBefore(to)) throw new LogException("Sketches are only kept from " + retainedFrom);
+
+        SketchRange range = logSketchStore.merge(from, to, level);
+        ApproximateStats stats = new ApproximateStats();
+        stats.setStartTime(from);
+        stats.setEndTime(to);
+        stats.setLevel(level);
+        stats.setBuckets(range.getBuckets());
+        stats.setTotal(range.getTotal());
+        stats.setDistinctResources(range.distinctResources());
+        stats.setDistinctTraces(range.distinctTraces());
+        stats.setTopResources(range.topResources(top));
+        stats.setTopTemplates(range.topTemplates(top));
+        if (resourceId != null) stats.setResource(range.resource(resourceId));
+        return stats;
+    }
+}
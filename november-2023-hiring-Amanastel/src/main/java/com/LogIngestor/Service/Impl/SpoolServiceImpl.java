@@ -0,0 +1,33 @@
+package com.LogIngestor.Service.Impl;
+
+import com.LogIngestor.Model.SpoolStatus;
+import com.LogIngestor.Service.SpoolService;
+import com.LogIngestor.Spool.LogSpooler;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service implementation exposing the ingest spool, reported as disabled and empty when it is off.
+ */
+@Service
+public class SpoolServiceImpl implements SpoolService {
+
+    private final ObjectProvider<LogSpooler> logSpooler;
+
+    /**
+     * Constructor for SpoolServiceImpl.
+     *
+     * @param logSpooler The spool, present only when {@code log.spool.enabled} is set on the jpa engine.
+     */
+    @Autowired
+    public SpoolServiceImpl(ObjectProvider<LogSpooler> logSpooler) {
+        this.logSpooler = logSpooler;
+    }
+
+    @Override
+    public SpoolStatus getStatus() {
+        LogSpooler spooler = logSpooler.getIfAvailable();
+        return spooler == null ? new SpoolStatus() : spooler.getStatus();
+    }
+}
@@ -0,0 +1,113 @@
+package com.LogIngestor.Service.Impl;
+
+import com.LogIngestor.Config.RollupProperties;
+import com.LogIngestor.Config.StorageProperties;
+import com.LogIngestor.Exception.LogException;
+import com.LogIngestor.Model.LogStats;
+import com.LogIngestor.Rollup.LogRollupStore;
+import com.LogIngestor.Rollup.RollupGranularity;
+import com.LogIngestor.Service.StatsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Service implementation answering count histograms from the rollup tables, never from raw logs.
+ */
+@Service
+@ConditionalOnProperty(name = StorageProperties.ENGINE, havingValue = "jpa", matchIfMissing = true)
+public class StatsServiceImpl implements StatsService {
+
+    private static final String LEVEL = "level";
+    private static final String RESOURCE_ID = "resourceId";
+    private static final List<RollupGranularity> COARSEST_FIRST = List.of(RollupGranularity.DAY, RollupGranularity.HOUR, RollupGranularity.MINUTE);
+
+    private final LogRollupStore logRollupStore;
+    private final RollupProperties properties;
+
+    /**
+     * Constructor for StatsServiceImpl.
+     *
+     * @param logRollupStore The store of pre-aggregated counts.
+     * @param properties     The rollup configuration.
+     */
+    @Autowired
+    public StatsServiceImpl(LogRollupStore logRollupStore, RollupProperties properties) {
+        this.logRollupStore = logRollupStore;
+        this.properties = properties;
+    }
+
+    /**
+     * Counts logs per time bucket, read from the coarsest rollup the interval allows.
+     * The range is widened to whole intervals.
+     *
+     * @param groupBy    Fields to split the counts by: {@code level} and/or {@code resourceId}.
+     * @param interval   The bucket width, a whole number of minutes, e.g. {@code 1m}, {@code 1h} or {@code 1d}.
+     * @param startTime  The start of the range; defaults to one day before {@code endTime}.
+     * @param endTime    The end of the range; defaults to now.
+     * @param level      Only count logs with this level, if given.
+     * @param resourceId Only count logs of this resource, if given.
+     * @return The non-empty buckets and their total.
+     * @throws LogException if a parameter is invalid or the range is older than the rollups kept for the interval.
+     */
+    @Override
+    public LogStats getStats(List<String> groupBy, String interval, LocalDateTime startTime, LocalDateTime endTime, String level, String resourceId) {
+        if (!properties.isEnabled()) throw new LogException("Log stats are disabled");
+        List<String> fields = groupBy == null ? List.of() : groupBy.stream().map(String::trim).filter(field -> !field.isEmpty()).distinct().toList();
+        for (String field : fields) {
+            if (!LEVEL.equals(field) && !RESOURCE_ID.equals(field)) throw new LogException("Cannot group by " + field + "; use level or resourceId");
+        }
+        Duration width = parseInterval(interval);
+        LocalDateTime end = endTime == null ? LocalDateTime.now() : endTime;
+        LocalDateTime start = startTime == null ? end.minusDays(1) : startTime;
+        if (!start.isBefore(end)) throw new LogException("startTime must be before endTime");
+
+        LocalDateTime from = RollupGranularity.align(start, width);
+        LocalDateTime to = RollupGranularity.align(end, width);
+        if (to.isBefore(end)) to = to.plus(width);
+        if (Duration.between(from, to).dividedBy(width) > properties.getMaxBuckets()) {
+            throw new LogException("Range spans more than " + properties.getMaxBuckets() + " intervals");
+        }
+
+        RollupGranularity source = source(width, from);
+        LogStats stats = new LogStats();
+        stats.setInterval(interval);
+        stats.setGroupBy(fields);
+        stats.setStartTime(from);
+        stats.setEndTime(to);
+        stats.setBuckets(logRollupStore.count(source, width, from, to, level, resourceId, fields.contains(LEVEL), fields.contains(RESOURCE_ID)));
+        stats.setTotal(stats.getBuckets().stream().mapToLong(LogStats.Bucket::getCount).sum());
+        return stats;
+    }
+
+    private static Duration parseInterval(String interval) {
+        Duration width;
+        try {
+            width = DurationStyle.detectAndParse(interval);
+        } catch (IllegalArgumentException e) {
+            throw new LogException("Invalid interval " + interval + "; use e.g. 1m, 1h or 1d");
+        }
+        if (width.isNegative() || width.isZero() || width.toSeconds() % 60 != 0 || width.toNanos() % 1_000_000_000 != 0) {
+            throw new LogException("interval must be a whole number of minutes");
+        }
+        return width;
+    }
+
+    /**
+     * The coarsest granularity that divides the interval and still holds counts from {@code from}.
+     */
+    private RollupGranularity source(Duration width, LocalDateTime from) {
+        LocalDateTime now = LocalDateTime.now();
+        for (RollupGranularity granularity : COARSEST_FIRST) {
+            if (width.toSeconds() % granularity.getDuration().toSeconds() != 0) continue;
+            LocalDateTime retainedFrom = logRollupStore.getRetainedFrom(granularity, now);
+            if (retainedFrom == null || !from.isBefore(retainedFrom)) return granularity;
+        }
+        throw new LogException("Counts at a " + width.toMinutes() + " minute interval are not kept from " + from + "; use a coarser interval");
+    }
+}
@@ -0,0 +1,38 @@
+package com.LogIngestor.Service.Impl;
+
+import com.LogIngestor.Columnar.ColumnarLogStore;
+import com.LogIngestor.Dictionary.StringDictionary;
+import com.LogIngestor.Model.StorageFootprint;
+import com.LogIngestor.Service.StorageService;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service implementation reporting storage footprint. With the JPA engine only the dictionary
+ * used to share loaded strings is reported; the database owns the rows.
+ */
+@Service
+public class StorageServiceImpl implements StorageService {
+
+    private final ObjectProvider<ColumnarLogStore> columnarLogStore;
+    private final StringDictionary dictionary;
+
+    /**
+     * Constructor for StorageServiceImpl.
+     *
+     * @param columnarLogStore The columnar store, present only with {@code log.storage.engine=columnar}.
+     * @param dictionary       The string dictionary.
+     */
+    @Autowired
+    public StorageServiceImpl(ObjectProvider<ColumnarLogStore> columnarLogStore, StringDictionary dictionary) {
+        this.columnarLogStore = columnarLogStore;
+        this.dictionary = dictionary;
+    }
+
+    @Override
+    public StorageFootprint getFootprint() {
+        ColumnarLogStore store = columnarLogStore.getIfAvailable();
+        return store == null ? StorageFootprint.ofDictionary(dictionary) : store.getFootprint();
+    }
+}
@@ -0,0 +1,64 @@
+package com.LogIngestor.Service.Impl;
+
+import com.LogIngestor.Config.TailProperties;
+import com.LogIngestor.Exception.LogException;
+import com.LogIngestor.Model.LogQuery;
+import com.LogIngestor.Service.TailService;
+import com.LogIngestor.Tail.Backpressure;
+import com.LogIngestor.Tail.TailBroker;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.LocalDateTime;
+import java.util.Locale;
+
+/**
+ * Service implementation opening live tails with the filters of {@code /logs/searchByMultipleFilters}.
+ */
+@Service
+public class TailServiceImpl implements TailService {
+
+    private final TailBroker tailBroker;
+    private final TailProperties properties;
+
+    /**
+     * Constructor for TailServiceImpl.
+     *
+     * @param tailBroker The broker routing saved logs to live tails.
+     * @param properties The live tail configuration.
+     */
+    @Autowired
+    public TailServiceImpl(TailBroker tailBroker, TailProperties properties) {
+        this.tailBroker = tailBroker;
+        this.properties = properties;
+    }
+
+    /**
+     * Opens a Server-Sent Events stream of newly saved logs matching the filters. Each log is sent as a
+     * {@code log} event; logs skipped because the client was too slow are counted in {@code dropped} events.
+     *
+     * @param level        Case-insensitive log level.
+     * @param message      Text the message must contain.
+     * @param resourceId   Exact resource ID.
+     * @param startTime    Only logs with a later timestamp.
+     * @param endTime      Only logs with an earlier timestamp.
+     * @param regex        Case-insensitive regular expression the message must contain a match of.
+     * @param backpressure {@code drop} or {@code sample}; defaults to the configured policy.
+     * @return The event stream.
+     * @throws LogException if the backpressure policy is unknown or too many tails are open.
+     */
+    @Override
+    public SseEmitter tail(String level, String message, String resourceId, LocalDateTime startTime, LocalDateTime endTime, String regex, String backpressure) {
+        Backpressure policy = properties.getBackpressure();
+        if (backpressure != null) {
+            try {
+                policy = Backpressure.valueOf(backpressure.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new LogException("Unknown backpressure " + backpressure + "; use drop or sample");
+            }
+        }
+        LogQuery query = LogQuery.multipleFilters(level, message, resourceId, startTime, endTime, regex);
+        return tailBroker.subscribe(query, policy).getEmitter();
+    }
+}
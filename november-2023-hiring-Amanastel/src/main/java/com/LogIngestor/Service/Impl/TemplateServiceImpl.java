@@ -0,0 +1,77 @@
+package com.LogIngestor.Service.Impl;
+
+import com.LogIngestor.Columnar.ColumnarLogStore;
+import com.LogIngestor.Config.StorageProperties;
+import com.LogIngestor.Exception.LogException;
+import com.LogIngestor.Model.LogQuery;
+import com.LogIngestor.Model.TemplateStats;
+import com.LogIngestor.Service.TemplateService;
+import com.LogIngestor.Template.LogTemplateMiner;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.Comparator;
+import java.util.Map;
+
+/**
+ * Service implementation grouping stored logs by message template. Templates are only mined by the
+ * columnar engine; the JPA and sharded engines keep plain messages for their SQL filters and indexes.
+ */
+@Service
+public class TemplateServiceImpl implements TemplateService {
+
+    private static final int MAX_LIMIT = 10_000;
+
+    private final ObjectProvider<ColumnarLogStore> columnarLogStore;
+    private final ObjectProvider<LogTemplateMiner> templateMiner;
+    private final StorageProperties properties;
+
+    /**
+     * Constructor for TemplateServiceImpl.
+     *
+     * @param columnarLogStore The columnar store, present only with {@code log.storage.engine=columnar}.
+     * @param templateMiner    The template miner, present only with {@code log.storage.engine=columnar}.
+     * @param properties       The storage configuration.
+     */
+    @Autowired
+    public TemplateServiceImpl(ObjectProvider<ColumnarLogStore> columnarLogStore, ObjectProvider<LogTemplateMiner> templateMiner,
+                               StorageProperties properties) {
+        this.columnarLogStore = columnarLogStore;
+        this.templateMiner = templateMiner;
+        this.properties = properties;
+    }
+
+    /**
+     * Counts the logs matching {@code query} per template cluster and names each cluster by its latest template.
+     *
+     * @param query The filters selecting the logs to group.
+     * @param limit How many of the most frequent templates to return.
+     * @return The template counts.
+     * @throws LogException if the limit is invalid or templates are not mined.
+     */
+    @Override
+    public TemplateStats getTemplateStats(LogQuery query, int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) throw new LogException("limit must be between 1 and " + MAX_LIMIT);
+        ColumnarLogStore store = columnarLogStore.getIfAvailable();
+        LogTemplateMiner miner = templateMiner.getIfAvailable();
+        if (store == null || miner == null || !properties.isMessageTemplates()) {
+            throw new LogException("Message templates need log.storage.engine=columnar and log.storage.message-templates=true");
+        }
+
+        Map<Integer, Long> counts = store.countTemplates(query);
+        TemplateStats stats = new TemplateStats();
+        stats.setUnclustered(counts.getOrDefault(-1, 0L));
+        for (Map.Entry<Integer, Long> entry : counts.entrySet()) {
+            stats.setTotal(stats.getTotal() + entry.getValue());
+            if (entry.getKey() >= 0) stats.setClusters(stats.getClusters() + 1);
+        }
+        counts.entrySet().stream()
+                .filter(entry -> entry.getKey() >= 0)
+                .sorted(Map.Entry.<Integer, Long>comparingByValue(Comparator.reverseOrder()).thenComparing(Map.Entry.comparingByKey()))
+                .limit(limit)
+                .forEach(entry -> stats.getTemplates().add(
+                        new TemplateStats.TemplateCount(entry.getKey(), miner.latest(entry.getKey()).getText(), entry.getValue())));
+        return stats;
+    }
+}
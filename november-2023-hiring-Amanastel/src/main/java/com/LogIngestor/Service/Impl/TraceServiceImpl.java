@@ -0,0 +1,82 @@
+package com.LogIngestor.Service.Impl;
+
+import com.LogIngestor.Config.SearchProperties;
+import com.LogIngestor.Config.StorageProperties;
+import com.LogIngestor.Config.TraceProperties;
+import com.LogIngestor.Exception.LogException;
+import com.LogIngestor.Model.Log;
+import com.LogIngestor.Model.LogTrace;
+import com.LogIngestor.Repository.LogRepository;
+import com.LogIngestor.Repository.LogSpecifications;
+import com.LogIngestor.Service.TraceService;
+import com.LogIngestor.Trace.TraceAssembler;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Service implementation rebuilding traces from the {@code (traceId, timestamp)} index.
+ *
+ * <p>The index returns a trace's rows already in {@code (timestamp, id)} order, so they are streamed
+ * through a cursor straight into a {@link TraceAssembler} without sorting; spans and the resource tree are
+ * grouped in memory as the rows arrive.</p>
+ */
+@Service
+@ConditionalOnProperty(name = StorageProperties.ENGINE, havingValue = "jpa", matchIfMissing = true)
+public class TraceServiceImpl implements TraceService {
+
+    private final LogRepository logRepository;
+    private final TraceProperties properties;
+    private final SearchProperties searchProperties;
+    private final TransactionTemplate readOnlyTransaction;
+
+    /**
+     * Constructor for TraceServiceImpl.
+     *
+     * @param logRepository      The repository traces are read from.
+     * @param properties         The trace configuration.
+     * @param searchProperties   The search configuration, for the cursor fetch size.
+     * @param transactionManager The transaction manager the cursor runs in.
+     */
+    @Autowired
+    public TraceServiceImpl(LogRepository logRepository, TraceProperties properties, SearchProperties searchProperties,
+                            PlatformTransactionManager transactionManager) {
+        this.logRepository = logRepository;
+        this.properties = properties;
+        this.searchProperties = searchProperties;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Returns every log of a trace, grouped by span, with the resource hierarchy of the trace.
+     *
+     * @param traceId The trace to rebuild.
+     * @return The trace; truncated after {@code log.trace.max-logs} logs.
+     * @throws LogException if the trace ID is blank or no log carries it.
+     */
+    @Override
+    public LogTrace getTrace(String traceId) {
+        if (traceId == null || traceId.isBlank()) throw new LogException("traceId is required");
+        LogTrace trace = readOnlyTransaction.execute(status -> {
+            TraceAssembler assembler = new TraceAssembler(traceId);
+            try (Stream<Log> logs = logRepository.streamOrdered(LogSpecifications.fieldEquals("traceId", traceId), searchProperties.getStreamFetchSize())) {
+                Iterator<Log> iterator = logs.iterator();
+                while (iterator.hasNext()) {
+                    if (assembler.getLogCount() >= properties.getMaxLogs()) return assembler.build(true);
+                    Log log = iterator.next();
+                    logRepository.detach(log);
+                    assembler.add(log);
+                }
+            }
+            return assembler.build(false);
+        });
+        if (trace.getLogCount() == 0) throw new LogException("No logs found for trace " + traceId);
+        return trace;
+    }
+}
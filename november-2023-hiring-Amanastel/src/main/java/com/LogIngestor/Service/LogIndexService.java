@@ -0,0 +1,9 @@
+package com.LogIngestor.Service;
+
+import com.LogIngestor.Model.Log;
+
+import java.util.List;
+
+public interface LogIndexService {
+    public List<Log> searchLogsByTerms(String text, boolean phrase, int limit);
+}
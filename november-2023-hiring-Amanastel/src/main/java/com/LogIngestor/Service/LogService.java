@@ -1,13 +1,25 @@
 package com.LogIngestor.Service;
 
+import com.LogIngestor.Model.BatchIngestResponse;
 import com.LogIngestor.Model.Log;
+import com.LogIngestor.Model.LogPage;
+import com.LogIngestor.Model.LogQuery;
+import com.LogIngestor.Model.QueryPlan;
+import com.LogIngestor.Model.ScanResult;
+import com.LogIngestor.Model.StreamIngestResponse;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 public interface LogService {
     public Log saveLog(Log log);
+    public BatchIngestResponse saveLogs(List<Log> logs);
+    public StreamIngestResponse saveLogStream(InputStream ndjson) throws IOException;
     public List<Log> searchLogs(String level, String message, String resourceId, LocalDateTime startTime, LocalDateTime endTime);
 
     public Log getLogById(Long id);
@@ -18,6 +30,11 @@ public interface LogService {
     public List<Log> searchLogsByRegex(String regex);
     public List<Log> searchLogsByMultipleFilters(String level, String message, String resourceId, LocalDateTime startTime, LocalDateTime endTime, String regex);
     public List<Log> searchLogsByMultipleFiltersWithOptional(String level, String message, String resourceId, Optional<LocalDateTime> startTime, Optional<LocalDateTime> endTime, String regex);
+    public LogPage searchLogsPage(LogQuery query, int limit, String after);
+    public void exportLogs(LogQuery query, OutputStream out) throws IOException;
+    public CompletableFuture<ScanResult> scanLogs(LogQuery query, Integer limit);
+    public QueryPlan explainLogs(LogQuery query);
+    public QueryPlan explainScan(LogQuery query, Integer limit);
 
 
 }
@@ -0,0 +1,8 @@
+package com.LogIngestor.Service;
+
+import com.LogIngestor.Model.ShardStatus;
+
+public interface ShardService {
+    public ShardStatus getStatus();
+    public ShardStatus rebalance();
+}
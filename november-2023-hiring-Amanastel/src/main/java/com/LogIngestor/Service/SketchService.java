@@ -0,0 +1,9 @@
+package com.LogIngestor.Service;
+
+import com.LogIngestor.Model.ApproximateStats;
+
+import java.time.LocalDateTime;
+
+public interface SketchService {
+    public ApproximateStats getApproximateStats(LocalDateTime startTime, LocalDateTime endTime, String level, String resourceId, int top);
+}
@@ -0,0 +1,7 @@
+package com.LogIngestor.Service;
+
+import com.LogIngestor.Model.SpoolStatus;
+
+public interface SpoolService {
+    public SpoolStatus getStatus();
+}
@@ -0,0 +1,10 @@
+package com.LogIngestor.Service;
+
+import com.LogIngestor.Model.LogStats;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface StatsService {
+    public LogStats getStats(List<String> groupBy, String interval, LocalDateTime startTime, LocalDateTime endTime, String level, String resourceId);
+}
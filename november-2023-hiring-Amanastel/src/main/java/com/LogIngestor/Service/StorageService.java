@@ -0,0 +1,7 @@
+package com.LogIngestor.Service;
+
+import com.LogIngestor.Model.StorageFootprint;
+
+public interface StorageService {
+    public StorageFootprint getFootprint();
+}
@@ -0,0 +1,9 @@
+package com.LogIngestor.Service;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.LocalDateTime;
+
+public interface TailService {
+    public SseEmitter tail(String level, String message, String resourceId, LocalDateTime startTime, LocalDateTime endTime, String regex, String backpressure);
+}
@@ -0,0 +1,8 @@
+package com.LogIngestor.Service;
+
+import com.LogIngestor.Model.LogQuery;
+import com.LogIngestor.Model.TemplateStats;
+
+public interface TemplateService {
+    public TemplateStats getTemplateStats(LogQuery query, int limit);
+}
@@ -0,0 +1,7 @@
+package com.LogIngestor.Service;
+
+import com.LogIngestor.Model.LogTrace;
+
+public interface TraceService {
+    public LogTrace getTrace(String traceId);
+}
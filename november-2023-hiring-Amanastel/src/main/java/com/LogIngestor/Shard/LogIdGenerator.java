@@ -0,0 +1,41 @@
+package com.LogIngestor.Shard;
+
+/**
+ * Log IDs that are unique across shards without asking any of them: milliseconds since 2023 in the high
+ * bits, then the node ID, then a per-millisecond sequence. IDs only grow, and they stay with a log when a
+ * rebalance moves it to another shard.
+ */
+final class LogIdGenerator {
+
+    private static final long EPOCH_MILLIS = 1_672_531_200_000L;
+    private static final int NODE_BITS = 10;
+    private static final int SEQUENCE_BITS = 12;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    private final long node;
+    private long lastMillis;
+    private long sequence;
+
+    LogIdGenerator(int nodeId) {
+        if (nodeId < 0 || nodeId >= 1 << NODE_BITS) {
+            throw new IllegalArgumentException("Node ID must be between 0 and " + ((1 << NODE_BITS) - 1));
+        }
+        this.node = (long) nodeId << SEQUENCE_BITS;
+    }
+
+    /**
+     * The next ID. Once a millisecond's sequence is used up, IDs are taken from the next millisecond rather
+     * than waiting for it, so a burst runs slightly ahead of the clock instead of stalling.
+     */
+    synchronized long next() {
+        long now = Math.max(System.currentTimeMillis(), lastMillis);
+        if (now == lastMillis) {
+            sequence = (sequence + 1) & SEQUENCE_MASK;
+            if (sequence == 0) now++;
+        } else {
+            sequence = 0;
+        }
+        lastMillis = now;
+        return (now - EPOCH_MILLIS) << (NODE_BITS + SEQUENCE_BITS) | node | sequence;
+    }
+}
@@ -0,0 +1,257 @@
+package com.LogIngestor.Shard;
+
+import com.LogIngestor.Dictionary.StringDictionary;
+import com.LogIngestor.Model.Log;
+import com.LogIngestor.Model.LogCursor;
+import com.LogIngestor.Model.LogQuery;
+import com.LogIngestor.Model.Metadata;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * One shard database, accessed with plain JDBC: the shards are not the application's JPA datasource, and
+ * rows are mapped straight to {@link Log}s. Each shard holds a {@code log} table with the same columns as
+ * the JPA engine's, keyed by IDs assigned before the insert so that logs keep them when they move.
+ */
+public final class LogShard implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(LogShard.class);
+    private static final String COLUMNS = "id, level, message, resource_id, timestamp, trace_id, span_id, commit, parent_resource_id";
+    private static final String INSERT = "insert into log (" + COLUMNS + ") values (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String[] SCHEMA = {
+            "create table log (id bigint not null primary key, level varchar(255), message varchar(4096), resource_id varchar(255),"
+                    + " timestamp datetime(6), trace_id varchar(255), span_id varchar(255), commit varchar(255), parent_resource_id varchar(255))",
+            "create index idx_log_timestamp on log (timestamp, id)",
+            "create index idx_log_level_timestamp on log (level, timestamp)",
+            "create index idx_log_resource_timestamp on log (resource_id, timestamp)",
+            "create index idx_log_trace_timestamp on log (trace_id, timestamp)",
+            "create table log_shard_topology (id int not null primary key, shards int not null)"
+    };
+
+    private final String name;
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate transactionTemplate;
+    private final RowMapper<Log> rowMapper;
+
+    /**
+     * Constructor for LogShard.
+     *
+     * @param name       How the shard is reported, e.g. {@code shard-2}.
+     * @param dataSource The shard database; closed with the shard if it is closeable.
+     * @param dictionary Supplies shared instances of repeated level, resource and commit values.
+     */
+    public LogShard(String name, DataSource dataSource, StringDictionary dictionary) {
+        this.name = name;
+        this.dataSource = dataSource;
+        this.jdbc = new JdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        this.rowMapper = (rs, row) -> {
+            Log log = new Log();
+            log.setId(rs.getLong(1));
+            log.setLevel(dictionary.canonical(rs.getString(2)));
+            log.setMessage(rs.getString(3));
+            log.setResourceId(dictionary.canonical(rs.getString(4)));
+            Timestamp timestamp = rs.getTimestamp(5);
+            log.setTimestamp(timestamp == null ? null : timestamp.toLocalDateTime());
+            log.setTraceId(rs.getString(6));
+            log.setSpanId(rs.getString(7));
+            log.setCommit(dictionary.canonical(rs.getString(8)));
+            String parent = rs.getString(9);
+            if (parent != null) log.setMetadata(new Metadata(dictionary.canonical(parent)));
+            return log;
+        };
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Creates the tables and indexes if the shard has none yet.
+     */
+    void createSchema() {
+        try {
+            jdbc.queryForObject("select count(*) from log where 1 = 0", Long.class);
+            return;
+        } catch (DataAccessException e) {
+            logger.info("Creating log tables on {}", name);
+        }
+        for (String statement : SCHEMA) jdbc.execute(statement);
+    }
+
+    /**
+     * The shard count recorded by the last completed rebalance, kept on the first shard.
+     */
+    Optional<Integer> readTopology() {
+        return jdbc.query("select shards from log_shard_topology where id = 1", (rs, row) -> rs.getInt(1)).stream().findFirst();
+    }
+
+    void writeTopology(int shards) {
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbc.update("delete from log_shard_topology where id = 1");
+            jdbc.update("insert into log_shard_topology (id, shards) values (1, ?)", shards);
+        });
+    }
+
+    /**
+     * Inserts logs in one transaction, as one JDBC batch.
+     */
+    void insert(List<Log> logs) {
+        transactionTemplate.executeWithoutResult(status -> batchInsert(logs));
+    }
+
+    /**
+     * Inserts logs copied from another shard in one transaction, replacing any copy left by an interrupted move.
+     */
+    void replace(List<Log> logs) {
+        transactionTemplate.executeWithoutResult(status -> {
+            delete(ids(logs));
+            batchInsert(logs);
+        });
+    }
+
+    void delete(List<Long> ids) {
+        if (ids.isEmpty()) return;
+        jdbc.update("delete from log where id in (" + placeholders(ids.size()) + ")", ids.toArray());
+    }
+
+    /**
+     * Up to {@code limit} logs matching the query's SQL filters after {@code after}, in {@code (timestamp, id)} order.
+     * Filters SQL cannot express the way {@link LogQuery#matches(Log)} does are left to the caller.
+     */
+    List<Log> find(LogQuery query, LogCursor after, int limit) {
+        List<Object> params = new ArrayList<>();
+        StringBuilder sql = new StringBuilder("select ").append(COLUMNS).append(" from log where 1 = 1");
+        where(query, sql, params);
+        if (after != null) {
+            sql.append(" and (timestamp > ? or (timestamp = ? and id > ?))");
+            params.add(Timestamp.valueOf(after.timestamp()));
+            params.add(Timestamp.valueOf(after.timestamp()));
+            params.add(after.id());
+        }
+        sql.append(" order by timestamp, id limit ?");
+        params.add(limit);
+        return jdbc.query(sql.toString(), rowMapper, params.toArray());
+    }
+
+    Log findById(long id) {
+        return jdbc.query("select " + COLUMNS + " from log where id = ?", rowMapper, id).stream().findFirst().orElse(null);
+    }
+
+    /**
+     * Every distinct resource ID on the shard, including null for logs without one.
+     */
+    List<String> resourceIds() {
+        return jdbc.queryForList("select distinct resource_id from log", String.class);
+    }
+
+    /**
+     * Up to {@code limit} logs of one resource with an ID above {@code afterId}, in ID order.
+     */
+    List<Log> findByResource(String resourceId, long afterId, int limit) {
+        if (resourceId == null) {
+            return jdbc.query("select " + COLUMNS + " from log where resource_id is null and id > ? order by id limit ?", rowMapper, afterId, limit);
+        }
+        return jdbc.query("select " + COLUMNS + " from log where resource_id = ? and id > ? order by id limit ?", rowMapper, resourceId, afterId, limit);
+    }
+
+    long count() {
+        Long count = jdbc.queryForObject("select count(*) from log", Long.class);
+        return count == null ? 0 : count;
+    }
+
+    @Override
+    public void close() {
+        if (dataSource instanceof AutoCloseable closeable) {
+            try {
+                closeable.close();
+            } catch (Exception e) {
+                logger.warn("Failed to close {}", name, e);
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+
+    private void batchInsert(List<Log> logs) {
+        jdbc.batchUpdate(INSERT, logs, logs.size(), (ps, log) -> {
+            ps.setLong(1, log.getId());
+            ps.setString(2, log.getLevel());
+            ps.setString(3, log.getMessage());
+            ps.setString(4, log.getResourceId());
+            ps.setTimestamp(5, log.getTimestamp() == null ? null : Timestamp.valueOf(log.getTimestamp()));
+            ps.setString(6, log.getTraceId());
+            ps.setString(7, log.getSpanId());
+            ps.setString(8, log.getCommit());
+            ps.setString(9, log.getMetadata() == null ? null : log.getMetadata().getParentResourceId());
+        });
+    }
+
+    /**
+     * Appends the query's filters the way {@code LogSpecifications} does for the JPA engine; the regex is
+     * always evaluated in memory, as its dialect differs between databases.
+     */
+    private static void where(LogQuery query, StringBuilder sql, List<Object> params) {
+        if (query.getLevel() != null) filter(sql, params, "level", query.getLevel(), query.getLevelMatch());
+        if (query.getMessage() != null) filter(sql, params, "message", query.getMessage(), query.getMessageMatch());
+        if (query.getResourceId() != null) {
+            sql.append(" and resource_id = ?");
+            params.add(query.getResourceId());
+        }
+        boolean inclusive = query.isInclusiveTimeBounds();
+        if (query.getStartTime() != null) {
+            sql.append(inclusive ? " and timestamp >= ?" : " and timestamp > ?");
+            params.add(Timestamp.valueOf(query.getStartTime()));
+        }
+        if (query.getEndTime() != null) {
+            sql.append(inclusive ? " and timestamp <= ?" : " and timestamp < ?");
+            params.add(Timestamp.valueOf(query.getEndTime()));
+        }
+    }
+
+    private static void filter(StringBuilder sql, List<Object> params, String column, String value, LogQuery.Match match) {
+        switch (match) {
+            case EXACT -> {
+                sql.append(" and ").append(column).append(" = ?");
+                params.add(value);
+            }
+            case IGNORE_CASE -> {
+                sql.append(" and lower(").append(column).append(") = ?");
+                params.add(value.toLowerCase(Locale.ROOT));
+            }
+            case CONTAINS -> {
+                // '!' rather than a backslash, whose meaning inside SQL literals differs between databases.
+                sql.append(" and ").append(column).append(" like ? escape '!'");
+                params.add("%" + value.replace("!", "!!").replace("%", "!%").replace("_", "!_") + "%");
+            }
+        }
+    }
+
+    private static List<Long> ids(List<Log> logs) {
+        List<Long> ids = new ArrayList<>(logs.size());
+        for (Log log : logs) ids.add(log.getId());
+        return ids;
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+}
@@ -0,0 +1,69 @@
+package com.LogIngestor.Shard;
+
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+
+/**
+ * K-way merge of sorted iterators. Only the head of each source is held, and a source is only advanced
+ * when its head is taken, so lazily paged sources are read no further than the consumer goes.
+ *
+ * <p>An element equal to the previous one in the merge order is dropped: a log being moved between
+ * shards may briefly be on both.</p>
+ */
+final class MergingIterator<T> implements Iterator<T> {
+
+    private final class Head {
+        final Iterator<? extends T> source;
+        T value;
+
+        Head(Iterator<? extends T> source) {
+            this.source = source;
+            this.value = source.next();
+        }
+    }
+
+    private final Comparator<? super T> order;
+    private final PriorityQueue<Head> heads;
+    private T last;
+
+    MergingIterator(List<? extends Iterator<? extends T>> sources, Comparator<? super T> order) {
+        this.order = order;
+        this.heads = new PriorityQueue<>(Math.max(1, sources.size()), (a, b) -> order.compare(a.value, b.value));
+        for (Iterator<? extends T> source : sources) {
+            if (source.hasNext()) heads.add(new Head(source));
+        }
+        skipDuplicates();
+    }
+
+    @Override
+    public boolean hasNext() {
+        return !heads.isEmpty();
+    }
+
+    @Override
+    public T next() {
+        Head head = heads.poll();
+        if (head == null) throw new NoSuchElementException();
+        T value = head.value;
+        if (head.source.hasNext()) {
+            head.value = head.source.next();
+            heads.add(head);
+        }
+        last = value;
+        skipDuplicates();
+        return value;
+    }
+
+    private void skipDuplicates() {
+        while (last != null && !heads.isEmpty() && order.compare(heads.peek().value, last) == 0) {
+            Head head = heads.poll();
+            if (head.source.hasNext()) {
+                head.value = head.source.next();
+                heads.add(head);
+            }
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.LogIngestor.Shard;
+
+/**
+ * Maps a resource ID to its shard with jump consistent hashing (Lamping and Veach), so that going from
+ * {@code n} to {@code n + 1} shards only moves the resources that now belong to the new shard, about
+ * {@code 1 / (n + 1)} of them, and no resource moves between two existing shards.
+ */
+final class ShardRouter {
+
+    private ShardRouter() {
+    }
+
+    /**
+     * The index of the shard owning {@code resourceId}; logs without a resource ID share one shard.
+     */
+    static int shardFor(String resourceId, int shards) {
+        return jump(hash(resourceId == null ? "" : resourceId), shards);
+    }
+
+    static int jump(long key, int buckets) {
+        long bucket = -1;
+        long next = 0;
+        while (next < buckets) {
+            bucket = next;
+            key = key * 2862933555777941757L + 1;
+            next = (long) ((bucket + 1) * ((double) (1L << 31) / (double) ((key >>> 33) + 1)));
+        }
+        return (int) bucket;
+    }
+
+    /**
+     * 64-bit FNV-1a over the string's characters, finished with the MurmurHash3 mixer so that similar IDs
+     * ({@code server-1234}, {@code server-1235}) land far apart. Stable across JVMs and restarts.
+     */
+    static long hash(String value) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            h ^= value.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
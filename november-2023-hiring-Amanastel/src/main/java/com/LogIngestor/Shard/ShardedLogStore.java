@@ -0,0 +1,343 @@
+package com.LogIngestor.Shard;
+
+import com.LogIngestor.Config.ShardProperties;
+import com.LogIngestor.Config.StorageProperties;
+import com.LogIngestor.Dictionary.StringDictionary;
+import com.LogIngestor.Exception.LogException;
+import com.LogIngestor.Model.Log;
+import com.LogIngestor.Model.LogCursor;
+import com.LogIngestor.Model.LogQuery;
+import com.LogIngestor.Model.ShardStatus;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Spreads logs over several databases by resource ID and searches them with scatter-gather.
+ *
+ * <p>Each log is written to the shard {@link ShardRouter} picks for its resource ID. A search with a resource
+ * ID only touches that shard; any other search runs on every shard in parallel, each returning its matches
+ * in {@code (timestamp, id)} order one page at a time, and the pages are merged lazily by a
+ * {@link MergingIterator}. Each shard prefetches its next page while the current one is consumed.</p>
+ *
+ * <p>The first shard records how many shards the data was last balanced for. When the configured list
+ * differs, or retired shards are configured, resources may still be on their previous shard: until a
+ * rebalance has moved them, every search runs on all shards, retired ones included.</p>
+ */
+@Component
+@ConditionalOnProperty(name = StorageProperties.ENGINE, havingValue = "sharded")
+public class ShardedLogStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShardedLogStore.class);
+    static final Comparator<Log> ORDER = Comparator.comparing(Log::getTimestamp).thenComparing(Log::getId);
+
+    private final List<LogShard> shards;
+    private final List<LogShard> retired;
+    private final ShardProperties properties;
+    private final LogIdGenerator idGenerator;
+    private final ExecutorService pool;
+
+    private volatile boolean rebalancing;
+    private volatile Integer previousShardCount;
+    private volatile long lastRebalanceMoved;
+    private volatile LocalDateTime lastRebalanceAt;
+
+    /**
+     * Constructor for ShardedLogStore.
+     *
+     * @param properties The shard databases and tuning.
+     * @param dictionary Supplies shared instances of repeated values in loaded logs.
+     */
+    @Autowired
+    public ShardedLogStore(ShardProperties properties, StringDictionary dictionary) {
+        this(open("shard", properties.getShards(), dictionary), open("retired", properties.getRetired(), dictionary), properties);
+    }
+
+    ShardedLogStore(List<LogShard> shards, List<LogShard> retired, ShardProperties properties) {
+        if (shards.isEmpty()) throw new IllegalStateException("log.storage.engine=sharded needs at least one log.shard.shards entry");
+        this.shards = List.copyOf(shards);
+        this.retired = List.copyOf(retired);
+        this.properties = properties;
+        this.idGenerator = new LogIdGenerator(properties.getNodeId());
+        AtomicInteger threads = new AtomicInteger();
+        this.pool = Executors.newFixedThreadPool(properties.getThreads(), task -> {
+            Thread worker = new Thread(task, "log-shard-" + threads.getAndIncrement());
+            worker.setDaemon(true);
+            return worker;
+        });
+    }
+
+    @PostConstruct
+    void start() {
+        for (LogShard shard : all()) shard.createSchema();
+        previousShardCount = shards.get(0).readTopology().orElse(null);
+        if (previousShardCount == null && retired.isEmpty()) {
+            shards.get(0).writeTopology(shards.size());
+        } else if (!retired.isEmpty() || previousShardCount != shards.size()) {
+            rebalancing = true;
+            logger.info("Shards changed from {} to {} ({} retired); searching all shards until rebalanced",
+                    previousShardCount, shards.size(), retired.size());
+            if (properties.isRebalanceOnStart()) {
+                Thread rebalancer = new Thread(() -> {
+                    try {
+                        rebalance();
+                    } catch (RuntimeException e) {
+                        logger.error("Shard rebalance failed; retry with POST /logs/shards/rebalance", e);
+                    }
+                }, "log-shard-rebalance");
+                rebalancer.setDaemon(true);
+                rebalancer.start();
+            }
+        }
+        logger.info("Opened {} log shards", shards.size());
+    }
+
+    @PreDestroy
+    void close() {
+        pool.shutdownNow();
+        for (LogShard shard : all()) shard.close();
+    }
+
+    /**
+     * Assigns IDs and writes each log to its shard, all shards in parallel.
+     *
+     * @return The logs stored; logs routed to a shard whose write failed are missing.
+     */
+    public List<Log> append(List<Log> logs) {
+        Map<LogShard, List<Log>> byShard = new LinkedHashMap<>();
+        for (Log log : logs) {
+            log.setId(idGenerator.next());
+            byShard.computeIfAbsent(owner(log.getResourceId()), shard -> new ArrayList<>()).add(log);
+        }
+        List<CompletableFuture<List<Log>>> writes = new ArrayList<>();
+        for (Map.Entry<LogShard, List<Log>> entry : byShard.entrySet()) {
+            writes.add(CompletableFuture.supplyAsync(() -> {
+                entry.getKey().insert(entry.getValue());
+                return entry.getValue();
+            }, pool).exceptionally(e -> {
+                logger.warn("Failed to write {} logs to {}", entry.getValue().size(), entry.getKey(), e);
+                return List.of();
+            }));
+        }
+        List<Log> stored = new ArrayList<>(logs.size());
+        for (CompletableFuture<List<Log>> write : writes) stored.addAll(write.join());
+        return stored;
+    }
+
+    /**
+     * Looks a log up on every shard at once; IDs do not tell which shard holds a log.
+     */
+    public Log findById(long id) {
+        List<CompletableFuture<Log>> lookups = new ArrayList<>();
+        for (LogShard shard : searched()) lookups.add(async(shard, () -> shard.findById(id)));
+        Log found = null;
+        for (CompletableFuture<Log> lookup : lookups) {
+            Log log = join(lookup);
+            if (found == null) found = log;
+        }
+        return found;
+    }
+
+    /**
+     * Up to {@code limit} logs matching the query after {@code after}, in {@code (timestamp, id)} order.
+     * Every shard is asked for {@code limit} rows, as all of them may come from one shard.
+     */
+    public List<Log> find(LogQuery query, LogCursor after, int limit) {
+        List<Log> logs = new ArrayList<>(Math.min(limit, 1_024));
+        Iterator<Log> merged = stream(query, after, limit);
+        while (logs.size() < limit && merged.hasNext()) logs.add(merged.next());
+        return logs;
+    }
+
+    /**
+     * Lazily merges the matches of every shard the query needs, in {@code (timestamp, id)} order.
+     *
+     * @param pageSize Rows each shard returns per round trip.
+     */
+    public Iterator<Log> stream(LogQuery query, LogCursor after, int pageSize) {
+        List<ShardCursor> cursors = new ArrayList<>();
+        for (LogShard shard : route(query)) cursors.add(new ShardCursor(shard, query, after, pageSize));
+        return new MergingIterator<>(cursors, ORDER);
+    }
+
+    /**
+     * Names of the shards a query runs on.
+     */
+    public List<String> targets(LogQuery query) {
+        return route(query).stream().map(LogShard::getName).toList();
+    }
+
+    public boolean isRebalancing() {
+        return rebalancing;
+    }
+
+    /**
+     * Moves every resource that is not on its owning shard there, in batches, then records the shard count.
+     * Each batch is inserted on the owner before it is deleted from the source, and searches drop the
+     * duplicate, so logs stay visible throughout; an interrupted rebalance can simply be run again.
+     *
+     * @return The status after the rebalance.
+     */
+    public synchronized ShardStatus rebalance() {
+        long started = System.nanoTime();
+        long moved = 0;
+        int batchSize = properties.getRebalanceBatchSize();
+        for (LogShard source : all()) {
+            for (String resourceId : source.resourceIds()) {
+                LogShard owner = owner(resourceId);
+                if (owner == source) continue;
+                long afterId = Long.MIN_VALUE;
+                List<Log> batch;
+                do {
+                    batch = source.findByResource(resourceId, afterId, batchSize);
+                    if (batch.isEmpty()) break;
+                    owner.replace(batch);
+                    source.delete(batch.stream().map(Log::getId).toList());
+                    moved += batch.size();
+                    afterId = batch.get(batch.size() - 1).getId();
+                } while (batch.size() == batchSize);
+            }
+        }
+        shards.get(0).writeTopology(shards.size());
+        previousShardCount = shards.size();
+        rebalancing = false;
+        lastRebalanceMoved = moved;
+        lastRebalanceAt = LocalDateTime.now();
+        logger.info("Rebalanced {} shards: moved {} logs in {} ms", shards.size(), moved, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        return getStatus();
+    }
+
+    public ShardStatus getStatus() {
+        ShardStatus status = new ShardStatus();
+        status.setShardCount(shards.size());
+        status.setPreviousShardCount(previousShardCount);
+        status.setRebalancing(rebalancing);
+        status.setLastRebalanceMoved(lastRebalanceMoved);
+        status.setLastRebalanceAt(lastRebalanceAt);
+        List<CompletableFuture<Long>> counts = new ArrayList<>();
+        for (LogShard shard : all()) counts.add(async(shard, shard::count));
+        List<LogShard> all = all();
+        for (int i = 0; i < all.size(); i++) {
+            LogShard shard = all.get(i);
+            status.getShards().add(new ShardStatus.Shard(shard.getName(), i < shards.size() ? "active" : "retired", join(counts.get(i))));
+        }
+        return status;
+    }
+
+    private LogShard owner(String resourceId) {
+        return shards.get(ShardRouter.shardFor(resourceId, shards.size()));
+    }
+
+    private List<LogShard> route(LogQuery query) {
+        if (query.getResourceId() != null && !rebalancing) return List.of(owner(query.getResourceId()));
+        return searched();
+    }
+
+    private List<LogShard> searched() {
+        return rebalancing ? all() : shards;
+    }
+
+    private List<LogShard> all() {
+        if (retired.isEmpty()) return shards;
+        List<LogShard> all = new ArrayList<>(shards);
+        all.addAll(retired);
+        return all;
+    }
+
+    private <T> CompletableFuture<T> async(LogShard shard, Supplier<T> work) {
+        return CompletableFuture.supplyAsync(work, pool).exceptionally(e -> {
+            Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            throw new LogException("Query on " + shard + " failed: " + cause.getMessage());
+        });
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof LogException cause) throw cause;
+            throw e;
+        }
+    }
+
+    private static List<LogShard> open(String prefix, List<ShardProperties.Shard> configs, StringDictionary dictionary) {
+        List<LogShard> opened = new ArrayList<>();
+        for (ShardProperties.Shard config : configs) {
+            String name = prefix + "-" + opened.size();
+            HikariDataSource dataSource = new HikariDataSource();
+            dataSource.setPoolName("log-" + name);
+            dataSource.setJdbcUrl(config.getUrl());
+            dataSource.setUsername(config.getUsername());
+            dataSource.setPassword(config.getPassword());
+            dataSource.setMaximumPoolSize(config.getMaxPoolSize());
+            opened.add(new LogShard(name, dataSource, dictionary));
+        }
+        return opened;
+    }
+
+    /**
+     * One shard's matches, fetched a page at a time with a keyset cursor; the next page is requested as
+     * soon as the previous one arrives. Rows failing {@link LogQuery#matches(Log)} are dropped when the
+     * query verifies or has a regex.
+     */
+    private final class ShardCursor implements Iterator<Log> {
+        private final LogShard shard;
+        private final LogQuery query;
+        private final int pageSize;
+        private final boolean filter;
+        private final ArrayDeque<Log> buffered = new ArrayDeque<>();
+        private CompletableFuture<List<Log>> pending;
+
+        ShardCursor(LogShard shard, LogQuery query, LogCursor after, int pageSize) {
+            this.shard = shard;
+            this.query = query;
+            this.pageSize = pageSize;
+            this.filter = query.isVerify() || query.getRegex() != null;
+            this.pending = fetch(after);
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (buffered.isEmpty() && pending != null) {
+                List<Log> page = join(pending);
+                pending = page.size() < pageSize ? null : fetch(LogCursor.of(page.get(page.size() - 1)));
+                for (Log log : page) {
+                    if (!filter || query.matches(log)) buffered.add(log);
+                }
+            }
+            return !buffered.isEmpty();
+        }
+
+        @Override
+        public Log next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            return buffered.poll();
+        }
+
+        private CompletableFuture<List<Log>> fetch(LogCursor after) {
+            return async(shard, () -> shard.find(query, after, pageSize));
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.LogIngestor.Sketch;
+
+/**
+ * Frequency estimator (Cormode and Muthukrishnan) over 64-bit hashes. An estimate never undercounts and
+ * overcounts by at most {@link #epsilon()} times {@link #total()} with probability {@link #confidence()}.
+ * Sketches of the same shape merge by adding their counters.
+ */
+public final class CountMinSketch {
+
+    private final int depth;
+    private final int width;
+    private final long[] counters;
+    private long total;
+
+    public CountMinSketch(int depth, int width) {
+        if (depth < 1 || width < 1) throw new IllegalArgumentException("Count-min depth and width must be positive");
+        this.depth = depth;
+        this.width = width;
+        this.counters = new long[depth * width];
+    }
+
+    public void add(long hash, long count) {
+        for (int row = 0; row < depth; row++) counters[row * width + column(hash, row)] += count;
+        total += count;
+    }
+
+    public long estimate(long hash) {
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) estimate = Math.min(estimate, counters[row * width + column(hash, row)]);
+        return estimate;
+    }
+
+    public void merge(CountMinSketch other) {
+        if (other.depth != depth || other.width != width) throw new IllegalArgumentException("Cannot merge count-min sketches of different shape");
+        for (int i = 0; i < counters.length; i++) counters[i] += other.counters[i];
+        total += other.total;
+    }
+
+    public long total() {
+        return total;
+    }
+
+    public double epsilon() {
+        return Math.E / width;
+    }
+
+    public double confidence() {
+        return 1 - Math.exp(-depth);
+    }
+
+    /**
+     * Row hashes derived from the two halves of the hash (Kirsch and Mitzenmacher).
+     */
+    private int column(long hash, int row) {
+        int combined = (int) hash + row * (int) (hash >>> 32);
+        return (combined & Integer.MAX_VALUE) % width;
+    }
+}
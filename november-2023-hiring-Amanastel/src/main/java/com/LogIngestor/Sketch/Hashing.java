@@ -0,0 +1,29 @@
+package com.LogIngestor.Sketch;
+
+/**
+ * The 64-bit hash every sketch is fed with.
+ */
+public final class Hashing {
+
+    private Hashing() {
+    }
+
+    /**
+     * 64-bit FNV-1a over the string's characters, finished with the MurmurHash3 mixer so that every bit of the
+     * result depends on the whole value, as HyperLogLog registers and count-min rows need. Null hashes as empty.
+     */
+    public static long hash(String value) {
+        if (value == null) value = "";
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            h ^= value.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
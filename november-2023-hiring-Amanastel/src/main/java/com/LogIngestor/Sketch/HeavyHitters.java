@@ -0,0 +1,63 @@
+package com.LogIngestor.Sketch;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The keys with the highest count-min estimates seen so far, at most {@code capacity} of them: a key enters
+ * when its estimate beats the smallest one held, which it then evicts. Only the candidates are kept here;
+ * their counts are read back from the count-min sketch, merged over whatever range is asked for.
+ */
+public final class HeavyHitters {
+
+    private final int capacity;
+    private final Map<Long, Candidate> candidates;
+    // A lower bound of the smallest estimate held once full; keys estimated at or below it are not considered.
+    private long floor;
+
+    public HeavyHitters(int capacity) {
+        this.capacity = capacity;
+        this.candidates = new HashMap<>(capacity * 2);
+    }
+
+    /**
+     * Offers a key whose count-min estimate, including this occurrence, is {@code estimate}.
+     */
+    public void offer(long hash, String key, long estimate) {
+        Candidate candidate = candidates.get(hash);
+        if (candidate != null) {
+            candidate.estimate = estimate;
+            return;
+        }
+        if (candidates.size() < capacity) {
+            candidates.put(hash, new Candidate(key, estimate));
+            return;
+        }
+        if (estimate <= floor) return;
+        Map.Entry<Long, Candidate> smallest = null;
+        for (Map.Entry<Long, Candidate> entry : candidates.entrySet()) {
+            if (smallest == null || entry.getValue().estimate < smallest.getValue().estimate) smallest = entry;
+        }
+        floor = smallest.getValue().estimate;
+        if (estimate <= floor) return;
+        candidates.remove(smallest.getKey());
+        candidates.put(hash, new Candidate(key, estimate));
+    }
+
+    /**
+     * Adds this bucket's candidates to {@code keys}, by hash.
+     */
+    public void collect(Map<Long, String> keys) {
+        candidates.forEach((hash, candidate) -> keys.putIfAbsent(hash, candidate.key));
+    }
+
+    private static final class Candidate {
+        private final String key;
+        private long estimate;
+
+        Candidate(String key, long estimate) {
+            this.key = key;
+            this.estimate = estimate;
+        }
+    }
+}
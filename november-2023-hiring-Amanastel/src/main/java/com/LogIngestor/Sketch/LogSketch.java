@@ -0,0 +1,45 @@
+package com.LogIngestor.Sketch;
+
+import com.LogIngestor.Config.SketchProperties;
+
+/**
+ * The sketches of one time bucket, for all logs or for one level. Its size is fixed on creation.
+ * Not thread-safe; {@link LogSketchStore} locks the bucket around every access.
+ */
+final class LogSketch {
+
+    long count;
+    final HyperLogLog resources;
+    final HyperLogLog traces;
+    final CountMinSketch resourceCounts;
+    final CountMinSketch templateCounts;
+    final HeavyHitters topResources;
+    final HeavyHitters topTemplates;
+
+    LogSketch(SketchProperties properties) {
+        this.resources = new HyperLogLog(properties.getHllPrecision());
+        this.traces = new HyperLogLog(properties.getHllPrecision());
+        this.resourceCounts = new CountMinSketch(properties.getCmsDepth(), properties.getCmsWidth());
+        this.templateCounts = new CountMinSketch(properties.getCmsDepth(), properties.getCmsWidth());
+        this.topResources = new HeavyHitters(properties.getTopK());
+        this.topTemplates = new HeavyHitters(properties.getTopK());
+    }
+
+    void add(Entry entry) {
+        count++;
+        if (entry.resourceId() != null) {
+            resources.add(entry.resourceHash());
+            resourceCounts.add(entry.resourceHash(), 1);
+            topResources.offer(entry.resourceHash(), entry.resourceId(), resourceCounts.estimate(entry.resourceHash()));
+        }
+        if (entry.traceId() != null) traces.add(entry.traceHash());
+        templateCounts.add(entry.templateHash(), 1);
+        topTemplates.offer(entry.templateHash(), entry.template(), templateCounts.estimate(entry.templateHash()));
+    }
+
+    /**
+     * One log's values and their hashes, computed once for every sketch the log is added to.
+     */
+    record Entry(String resourceId, long resourceHash, String traceId, long traceHash, String template, long templateHash) {
+    }
+}
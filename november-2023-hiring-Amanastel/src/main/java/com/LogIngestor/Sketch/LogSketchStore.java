@@ -0,0 +1,146 @@
+package com.LogIngestor.Sketch;
+
+import com.LogIngestor.Config.SketchProperties;
+import com.LogIngestor.Ingest.LogIngestListener;
+import com.LogIngestor.Model.Log;
+import com.LogIngestor.Rollup.RollupGranularity;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * HyperLogLog, count-min and heavy-hitter sketches of every saved log, per time bucket, in memory.
+ *
+ * <p>Each bucket holds one set of sketches for all logs and one per configured level, all of a size fixed by
+ * {@link SketchProperties}; with the number of buckets bounded by the retention, memory does not grow with
+ * the ingest volume. Logs older than the retention, or more than a bucket in the future, are not sketched.
+ * A range is answered by merging the sketches of its buckets. Sketches are not persisted: after a restart
+ * they only cover the logs saved since.</p>
+ */
+@Component
+public class LogSketchStore implements LogIngestListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(LogSketchStore.class);
+
+    private final SketchProperties properties;
+    private final Duration width;
+    private final List<String> levels;
+    private final NavigableMap<LocalDateTime, Bucket> buckets = new ConcurrentSkipListMap<>();
+
+    /**
+     * Constructor for LogSketchStore.
+     *
+     * @param properties The sketch configuration.
+     */
+    @Autowired
+    public LogSketchStore(SketchProperties properties) {
+        this.properties = properties;
+        this.width = properties.getBucket();
+        this.levels = properties.getLevels().stream().map(String::trim).filter(level -> !level.isEmpty()).distinct().toList();
+        if (width.toSeconds() < 1) throw new IllegalStateException("log.sketch.bucket must be at least one second");
+    }
+
+    @Override
+    public void onLogsSaved(List<Log> logs) {
+        if (!properties.isEnabled()) return;
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime oldest = getRetainedFrom(now);
+        LocalDateTime newest = now.plus(width);
+        for (Log log : logs) {
+            LocalDateTime timestamp = log.getTimestamp();
+            if (timestamp == null || timestamp.isBefore(oldest) || !timestamp.isBefore(newest)) continue;
+            String template = MessageTemplate.of(log.getMessage());
+            LogSketch.Entry entry = new LogSketch.Entry(log.getResourceId(), Hashing.hash(log.getResourceId()),
+                    log.getTraceId(), Hashing.hash(log.getTraceId()), template, Hashing.hash(template));
+            int level = levelIndex(log.getLevel());
+            Bucket bucket = buckets.computeIfAbsent(RollupGranularity.align(timestamp, width), start -> new Bucket(properties, levels.size()));
+            synchronized (bucket) {
+                bucket.all.add(entry);
+                if (level >= 0) bucket.byLevel[level].add(entry);
+            }
+        }
+    }
+
+    @Override
+    public void onLogsExpired(LocalDateTime cutoff) {
+        buckets.headMap(RollupGranularity.align(cutoff, width), false).clear();
+    }
+
+    /**
+     * Drops buckets past the retention.
+     */
+    @Scheduled(fixedDelayString = "${log.sketch.eviction-interval-ms:60000}")
+    public void evict() {
+        NavigableMap<LocalDateTime, Bucket> expired = buckets.headMap(getRetainedFrom(LocalDateTime.now()), false);
+        int dropped = expired.size();
+        expired.clear();
+        if (dropped > 0) logger.debug("Dropped {} sketch buckets", dropped);
+    }
+
+    /**
+     * Merges the buckets starting in {@code [from, to)}; {@code from} and {@code to} should be aligned to {@link #getBucket()}.
+     *
+     * @param level Only logs of this level, which must be {@link #isTracked(String) tracked}; null for all logs.
+     */
+    public SketchRange merge(LocalDateTime from, LocalDateTime to, String level) {
+        int index = levelIndex(level);
+        if (level != null && index < 0) throw new IllegalArgumentException("Level " + level + " has no sketches");
+        SketchRange range = new SketchRange(properties);
+        for (Bucket bucket : buckets.subMap(from, true, to, false).values()) {
+            synchronized (bucket) {
+                range.add(index < 0 ? bucket.all : bucket.byLevel[index]);
+            }
+        }
+        return range;
+    }
+
+    public boolean isTracked(String level) {
+        return levelIndex(level) >= 0;
+    }
+
+    public List<String> getLevels() {
+        return levels;
+    }
+
+    public Duration getBucket() {
+        return width;
+    }
+
+    /**
+     * The start of the oldest bucket kept at {@code now}.
+     */
+    public LocalDateTime getRetainedFrom(LocalDateTime now) {
+        return RollupGranularity.align(now.minus(properties.getRetention()), width);
+    }
+
+    public int getBucketCount() {
+        return buckets.size();
+    }
+
+    private int levelIndex(String level) {
+        if (level == null) return -1;
+        for (int i = 0; i < levels.size(); i++) {
+            if (levels.get(i).equalsIgnoreCase(level)) return i;
+        }
+        return -1;
+    }
+
+    private static final class Bucket {
+        private final LogSketch all;
+        private final LogSketch[] byLevel;
+
+        Bucket(SketchProperties properties, int levels) {
+            this.all = new LogSketch(properties);
+            this.byLevel = new LogSketch[levels];
+            for (int i = 0; i < levels; i++) byLevel[i] = new LogSketch(properties);
+        }
+    }
+}
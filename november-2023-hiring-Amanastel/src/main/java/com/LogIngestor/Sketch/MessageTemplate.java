@@ -0,0 +1,37 @@
+package com.LogIngestor.Sketch;
+
+/**
+ * Reduces a message to its template by masking the variable parts: every whitespace-separated token that
+ * contains a digit becomes {@value #WILDCARD}, so {@code "Timeout after 30s on 10.0.0.7"} and
+ * {@code "Timeout after 5s on 10.0.0.9"} share {@code "Timeout after <*> on <*>"}.
+ */
+public final class MessageTemplate {
+
+    public static final String WILDCARD = "<*>";
+
+    private MessageTemplate() {
+    }
+
+    public static String of(String message) {
+        if (message == null) return "";
+        StringBuilder template = null;
+        int length = message.length();
+        int start = 0;
+        while (start < length) {
+            int end = start;
+            boolean variable = false;
+            while (end < length && !Character.isWhitespace(message.charAt(end))) {
+                if (Character.isDigit(message.charAt(end))) variable = true;
+                end++;
+            }
+            if (variable && template == null) template = new StringBuilder(length).append(message, 0, start);
+            if (template != null) {
+                if (variable) template.append(WILDCARD);
+                else template.append(message, start, end);
+                if (end < length) template.append(message.charAt(end));
+            }
+            start = end + 1;
+        }
+        return template == null ? message : template.toString();
+    }
+}
@@ -0,0 +1,92 @@
+package com.LogIngestor.Sketch;
+
+import com.LogIngestor.Config.SketchProperties;
+import com.LogIngestor.Model.ApproximateStats;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The sketches of consecutive buckets merged into one: distinct counts are the union of the buckets',
+ * frequencies their sum, and the heavy-hitter candidates of every bucket are ranked by the merged counts.
+ */
+public final class SketchRange {
+
+    private static final double CONFIDENCE_Z = 1.96;
+    private static final double HLL_CONFIDENCE = 0.95;
+
+    private final LogSketch merged;
+    private final Map<Long, String> resourceCandidates = new HashMap<>();
+    private final Map<Long, String> templateCandidates = new HashMap<>();
+    private int buckets;
+
+    SketchRange(SketchProperties properties) {
+        this.merged = new LogSketch(properties);
+    }
+
+    void add(LogSketch sketch) {
+        merged.count += sketch.count;
+        merged.resources.merge(sketch.resources);
+        merged.traces.merge(sketch.traces);
+        merged.resourceCounts.merge(sketch.resourceCounts);
+        merged.templateCounts.merge(sketch.templateCounts);
+        sketch.topResources.collect(resourceCandidates);
+        sketch.topTemplates.collect(templateCandidates);
+        buckets++;
+    }
+
+    public int getBuckets() {
+        return buckets;
+    }
+
+    public long getTotal() {
+        return merged.count;
+    }
+
+    public ApproximateStats.Estimate distinctResources() {
+        return distinct(merged.resources);
+    }
+
+    public ApproximateStats.Estimate distinctTraces() {
+        return distinct(merged.traces);
+    }
+
+    public List<ApproximateStats.Frequency> topResources(int limit) {
+        return top(resourceCandidates, merged.resourceCounts, limit);
+    }
+
+    public List<ApproximateStats.Frequency> topTemplates(int limit) {
+        return top(templateCandidates, merged.templateCounts, limit);
+    }
+
+    /**
+     * The estimated number of logs of one resource, whether or not it is among the heaviest.
+     */
+    public ApproximateStats.Frequency resource(String resourceId) {
+        return frequency(resourceId, merged.resourceCounts.estimate(Hashing.hash(resourceId)), merged.resourceCounts);
+    }
+
+    private ApproximateStats.Estimate distinct(HyperLogLog sketch) {
+        long estimate = Math.min(sketch.estimate(), merged.count);
+        double margin = CONFIDENCE_Z * sketch.standardError() * estimate;
+        long lower = Math.max(0, (long) Math.floor(estimate - margin));
+        long upper = Math.min(merged.count, (long) Math.ceil(estimate + margin));
+        return new ApproximateStats.Estimate(estimate, lower, upper, HLL_CONFIDENCE);
+    }
+
+    private List<ApproximateStats.Frequency> top(Map<Long, String> candidates, CountMinSketch counts, int limit) {
+        List<ApproximateStats.Frequency> ranked = new ArrayList<>(candidates.size());
+        candidates.forEach((hash, value) -> ranked.add(frequency(value, counts.estimate(hash), counts)));
+        ranked.sort(Comparator.comparingLong(ApproximateStats.Frequency::getEstimate).reversed()
+                .thenComparing(ApproximateStats.Frequency::getValue));
+        return ranked.size() > limit ? new ArrayList<>(ranked.subList(0, limit)) : ranked;
+    }
+
+    private static ApproximateStats.Frequency frequency(String value, long estimate, CountMinSketch counts) {
+        long error = (long) Math.ceil(counts.epsilon() * counts.total());
+        return new ApproximateStats.Frequency(value, estimate, Math.max(0, estimate - error), estimate, counts.confidence());
+    }
+}
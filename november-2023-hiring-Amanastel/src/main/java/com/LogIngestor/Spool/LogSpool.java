@@ -0,0 +1,443 @@
+package com.LogIngestor.Spool;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only, memory-mapped log of opaque entries, split into fixed-size segment files.
+ *
+ * <p>Every entry has a global byte offset that only grows, across segments and restarts. Appends write
+ * into the mapped head segment; a single sync thread forces the dirty segments to disk and then publishes
+ * the new durable offset, so every append that landed while one force was running shares the next one
+ * (group commit). Readers only see durable entries.</p>
+ *
+ * <p>An entry is {@code [int length][int crc32c][long appendedAtMillis][payload]}, with the length written
+ * last. A length of {@code -1} ends a segment; zero means nothing was written there yet. On open, entries
+ * before the drained offset are skipped, the tail of the last segment is checked entry by entry and
+ * everything from the first torn or corrupt entry onwards is zeroed: it was never acknowledged.</p>
+ */
+public final class LogSpool implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(LogSpool.class);
+    private static final Pattern SEGMENT_NAME = Pattern.compile("spool-(\\d{20})\\.seg");
+    static final int HEADER_BYTES = 16;
+    private static final int END_OF_SEGMENT = -1;
+
+    /**
+     * One spooled entry and the offset it starts at.
+     */
+    public record Entry(long offset, long appendedAtMillis, byte[] payload) {
+    }
+
+    /**
+     * Entries read in one call and the offset to continue reading from, which moves past segment ends
+     * even when no entry follows.
+     */
+    public record Batch(List<Entry> entries, long nextOffset) {
+    }
+
+    private static final class Segment {
+        final long base;
+        final int size;
+        final Path path;
+        final MappedByteBuffer buffer;
+
+        Segment(long base, int size, Path path, MappedByteBuffer buffer) {
+            this.base = base;
+            this.size = size;
+            this.path = path;
+            this.buffer = buffer;
+        }
+
+        long end() {
+            return base + size;
+        }
+    }
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final long maxBytes;
+    private final Thread syncer;
+    private final Object durability = new Object();
+
+    // Guarded by this.
+    private final TreeMap<Long, Segment> segments = new TreeMap<>();
+    private final Set<Segment> dirty = new LinkedHashSet<>();
+    private Segment head;
+    private long writeOffset;
+    private long pendingEntries;
+    private boolean closed;
+
+    private volatile long durableOffset;
+    private volatile long drainedOffset;
+
+    private LogSpool(Path directory, int segmentBytes, long maxBytes) {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.maxBytes = maxBytes;
+        this.syncer = new Thread(this::syncLoop, "log-spool-sync");
+        this.syncer.setDaemon(true);
+    }
+
+    /**
+     * Opens or creates the spool in {@code directory}, recovering it after a crash.
+     *
+     * @param directory     Where the segment files live.
+     * @param segmentBytes  The size of each new segment file.
+     * @param maxBytes      The most disk space all segments together may take; at least two segments.
+     * @param drainedOffset Where draining stopped; older entries are discarded, and new offsets never go below it.
+     * @return The open spool.
+     * @throws IOException if the segments cannot be read or created.
+     */
+    public static LogSpool open(Path directory, int segmentBytes, long maxBytes, long drainedOffset) throws IOException {
+        if (segmentBytes < 1024) throw new IllegalArgumentException("Spool segments must be at least 1 KB");
+        if (maxBytes < 2L * segmentBytes) throw new IllegalArgumentException("The spool must have room for at least two segments");
+        Files.createDirectories(directory);
+        LogSpool spool = new LogSpool(directory, segmentBytes, maxBytes);
+        spool.recover(drainedOffset);
+        spool.syncer.start();
+        return spool;
+    }
+
+    /**
+     * Appends an entry. It is neither durable nor visible to readers until {@link #awaitDurable} returns true for the returned offset.
+     *
+     * @param payload The entry contents.
+     * @return The offset just past the entry, or -1 if the spool is full.
+     * @throws IllegalArgumentException if the entry is larger than a segment.
+     */
+    public synchronized long append(byte[] payload) {
+        if (closed) throw new IllegalStateException("The spool is closed");
+        int recordBytes = HEADER_BYTES + payload.length;
+        if (recordBytes + Integer.BYTES > segmentBytes) {
+            throw new IllegalArgumentException("Entry of " + payload.length + " bytes does not fit in a " + segmentBytes + " byte spool segment");
+        }
+        int position = (int) (writeOffset - head.base);
+        if (position + recordBytes + Integer.BYTES > head.size) {
+            if (getDiskBytes() + segmentBytes > maxBytes) return -1;
+            head.buffer.putInt(position, END_OF_SEGMENT);
+            dirty.add(head);
+            try {
+                head = createSegment(head.end());
+            } catch (IOException e) {
+                throw new IllegalStateException("Cannot create spool segment in " + directory, e);
+            }
+            writeOffset = head.base;
+            position = 0;
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(payload);
+        head.buffer.putInt(position + 4, (int) crc.getValue());
+        head.buffer.putLong(position + 8, System.currentTimeMillis());
+        head.buffer.put(position + HEADER_BYTES, payload);
+        head.buffer.putInt(position, payload.length);
+        writeOffset += recordBytes;
+        pendingEntries++;
+        dirty.add(head);
+        notify();
+        return writeOffset;
+    }
+
+    /**
+     * Waits until everything before {@code offset} has been forced to disk.
+     *
+     * @return false if that did not happen within the timeout.
+     */
+    public boolean awaitDurable(long offset, long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        synchronized (durability) {
+            while (durableOffset < offset) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0 || !syncer.isAlive()) return durableOffset >= offset;
+                TimeUnit.NANOSECONDS.timedWait(durability, remaining);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Waits until durable entries exist after {@code offset}, or the timeout passes.
+     */
+    public void awaitEntries(long offset, long timeout, TimeUnit unit) throws InterruptedException {
+        synchronized (durability) {
+            if (durableOffset <= offset && syncer.isAlive()) TimeUnit.NANOSECONDS.timedWait(durability, unit.toNanos(timeout));
+        }
+    }
+
+    /**
+     * Reads up to {@code maxEntries} durable entries starting at {@code offset}.
+     */
+    public Batch read(long offset, int maxEntries) {
+        long limit = durableOffset;
+        List<Entry> entries = new ArrayList<>();
+        Segment segment = null;
+        while (entries.size() < maxEntries && offset < limit) {
+            if (segment == null || offset >= segment.end()) segment = segmentAt(offset);
+            int position = (int) (offset - segment.base);
+            int length = segment.buffer.getInt(position);
+            if (length == END_OF_SEGMENT) {
+                offset = segment.end();
+                continue;
+            }
+            byte[] payload = new byte[Math.max(0, length)];
+            if (length > 0 && position + HEADER_BYTES + length <= segment.size) segment.buffer.get(position + HEADER_BYTES, payload);
+            CRC32C crc = new CRC32C();
+            crc.update(payload);
+            if (length <= 0 || (int) crc.getValue() != segment.buffer.getInt(position + 4)) {
+                logger.error("Corrupt spool entry at offset {} in {}; skipping the rest of the segment", offset, segment.path);
+                offset = Math.min(segment.end(), limit);
+                continue;
+            }
+            entries.add(new Entry(offset, segment.buffer.getLong(position + 8), payload));
+            offset += HEADER_BYTES + length;
+        }
+        return new Batch(entries, offset);
+    }
+
+    /**
+     * Records that everything before {@code offset} is stored elsewhere, and deletes the segments that only held such entries.
+     *
+     * @param offset  The new drained offset, from {@link Batch#nextOffset()}.
+     * @param entries How many entries that offset moved past.
+     */
+    public synchronized void markDrained(long offset, int entries) {
+        drainedOffset = offset;
+        pendingEntries -= entries;
+        while (!segments.isEmpty()) {
+            Segment oldest = segments.firstEntry().getValue();
+            if (oldest == head || oldest.end() > offset) break;
+            segments.pollFirstEntry();
+            try {
+                Files.deleteIfExists(oldest.path);
+            } catch (IOException e) {
+                logger.warn("Cannot delete drained spool segment {}", oldest.path, e);
+            }
+        }
+    }
+
+    public long getDrainedOffset() {
+        return drainedOffset;
+    }
+
+    public long getDurableOffset() {
+        return durableOffset;
+    }
+
+    public synchronized long getWriteOffset() {
+        return writeOffset;
+    }
+
+    /**
+     * Bytes of entries written but not yet drained.
+     */
+    public synchronized long getPendingBytes() {
+        return writeOffset - drainedOffset;
+    }
+
+    public synchronized long getPendingEntries() {
+        return pendingEntries;
+    }
+
+    /**
+     * Disk space taken by the segment files.
+     */
+    public synchronized long getDiskBytes() {
+        long bytes = 0;
+        for (Segment segment : segments.values()) bytes += segment.size;
+        return bytes;
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * Stops the sync thread after a last force. Mappings are released when they are garbage collected.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (closed) return;
+            closed = true;
+            notify();
+        }
+        try {
+            syncer.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void syncLoop() {
+        while (true) {
+            long target;
+            List<Segment> toForce;
+            synchronized (this) {
+                while (!closed && writeOffset == durableOffset) {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                if (closed && writeOffset == durableOffset) {
+                    synchronized (durability) {
+                        durability.notifyAll();
+                    }
+                    return;
+                }
+                target = writeOffset;
+                toForce = new ArrayList<>(dirty);
+                dirty.clear();
+            }
+            for (Segment segment : toForce) segment.buffer.force();
+            synchronized (durability) {
+                durableOffset = target;
+                durability.notifyAll();
+            }
+        }
+    }
+
+    private synchronized Segment segmentAt(long offset) {
+        Map.Entry<Long, Segment> entry = segments.floorEntry(offset);
+        if (entry == null || offset >= entry.getValue().end()) {
+            throw new IllegalStateException("No spool segment holds offset " + offset);
+        }
+        return entry.getValue();
+    }
+
+    private void recover(long checkpoint) throws IOException {
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing.filter(path -> SEGMENT_NAME.matcher(path.getFileName().toString()).matches()).sorted().toList();
+        }
+        for (Path path : files) {
+            Matcher matcher = SEGMENT_NAME.matcher(path.getFileName().toString());
+            if (!matcher.matches()) continue;
+            long base = Long.parseLong(matcher.group(1));
+            long size = Files.size(path);
+            if (base + size <= checkpoint) {
+                Files.delete(path);
+                continue;
+            }
+            segments.put(base, mapSegment(base, (int) size, path));
+        }
+        if (segments.isEmpty()) {
+            head = createSegment(checkpoint);
+            writeOffset = checkpoint;
+            durableOffset = drainedOffset = checkpoint;
+            return;
+        }
+        long first = segments.firstKey();
+        long start = checkpoint;
+        if (checkpoint < first) {
+            logger.warn("Spool entries from offset {} to {} are missing and were never stored", checkpoint, first);
+            start = first;
+        }
+        long recovered = 0;
+        long offset = start;
+        for (Segment segment : segments.values()) {
+            head = segment;
+            int position = segment.base >= start ? 0 : skipTo(segment, (int) (start - segment.base));
+            while (true) {
+                int length = segment.buffer.getInt(position);
+                if (length == END_OF_SEGMENT && segment != segments.lastEntry().getValue()) break;
+                if (!validEntry(segment, position, length)) {
+                    truncate(segment, position);
+                    break;
+                }
+                if (segment.base + position >= start) recovered++;
+                position += HEADER_BYTES + length;
+            }
+            offset = segment.base + position;
+        }
+        if (offset < start) {
+            logger.warn("Spool in {} ends at offset {}, before the drained offset {}; starting a new segment", directory, offset, start);
+            for (Segment segment : segments.values()) Files.deleteIfExists(segment.path);
+            segments.clear();
+            head = createSegment(start);
+            offset = start;
+            recovered = 0;
+        }
+        writeOffset = offset;
+        durableOffset = offset;
+        drainedOffset = start;
+        pendingEntries = recovered;
+        logger.info("Recovered spool in {}: {} undrained entries, {} bytes, from offset {}", directory, recovered, offset - start, start);
+    }
+
+    /**
+     * The position of the first entry at or after {@code target} in a segment, walking entries from its start.
+     */
+    private int skipTo(Segment segment, int target) {
+        int position = 0;
+        while (position < target) {
+            int length = segment.buffer.getInt(position);
+            if (length == END_OF_SEGMENT || !validEntry(segment, position, length)) break;
+            position += HEADER_BYTES + length;
+        }
+        return position;
+    }
+
+    private static boolean validEntry(Segment segment, int position, int length) {
+        if (length <= 0 || position + HEADER_BYTES + length + Integer.BYTES > segment.size) return false;
+        byte[] payload = new byte[length];
+        segment.buffer.get(position + HEADER_BYTES, payload);
+        CRC32C crc = new CRC32C();
+        crc.update(payload);
+        return (int) crc.getValue() == segment.buffer.getInt(position + 4);
+    }
+
+    /**
+     * Zeroes a segment from {@code position}, dropping a torn entry and anything after it. A segment that
+     * is not the last one is closed with an end marker instead, so readers move on to the next.
+     */
+    private void truncate(Segment segment, int position) {
+        boolean last = segment == segments.lastEntry().getValue();
+        if (segment.buffer.getInt(position) != 0) {
+            logger.warn("Discarding unacknowledged spool data from offset {} in {}", segment.base + position, segment.path);
+        }
+        for (int i = position; i < segment.size; i += Long.BYTES) {
+            if (i + Long.BYTES <= segment.size) segment.buffer.putLong(i, 0);
+            else segment.buffer.put(i, (byte) 0);
+        }
+        if (!last) segment.buffer.putInt(position, END_OF_SEGMENT);
+        segment.buffer.force();
+    }
+
+    private Segment createSegment(long base) throws IOException {
+        Path path = directory.resolve(String.format("spool-%020d.seg", base));
+        try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw")) {
+            file.setLength(segmentBytes);
+        }
+        Segment segment = mapSegment(base, segmentBytes, path);
+        segments.put(base, segment);
+        return segment;
+    }
+
+    private static Segment mapSegment(long base, int size, Path path) throws IOException {
+        try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw")) {
+            MappedByteBuffer buffer = file.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, size);
+            return new Segment(base, size, path, buffer);
+        }
+    }
+}
@@ -0,0 +1,305 @@
+package com.LogIngestor.Spool;
+
+import com.LogIngestor.Config.SpoolProperties;
+import com.LogIngestor.Config.StorageProperties;
+import com.LogIngestor.Exception.LogException;
+import com.LogIngestor.Exception.SpoolFullException;
+import com.LogIngestor.Ingest.LogIngestNotifier;
+import com.LogIngestor.Model.Log;
+import com.LogIngestor.Model.SpoolCheckpoint;
+import com.LogIngestor.Model.SpoolStatus;
+import com.LogIngestor.Repository.LogRepository;
+import com.LogIngestor.Repository.SpoolCheckpointRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-ahead spool in front of the database: ingested logs are acknowledged once they are on local disk,
+ * and a drainer thread replays them into {@link LogRepository} in batches.
+ *
+ * <p>Each batch is saved in the same transaction as the new {@link SpoolCheckpoint}, so on restart the
+ * spool resumes exactly after the last committed batch and no log is written twice or lost. While the
+ * database is unavailable the drainer retries the same batch with backoff and the spool absorbs ingest
+ * up to its disk quota; past that, requests are rejected with {@link SpoolFullException}. A batch the database
+ * rejects for its contents is written again one log at a time, and the logs rejected on their own are logged
+ * and skipped so they cannot hold up the spool.</p>
+ */
+@Component
+@ConditionalOnProperty(name = StorageProperties.ENGINE, havingValue = "jpa", matchIfMissing = true)
+@ConditionalOnExpression("${log.spool.enabled:false}")
+public class LogSpooler {
+
+    private static final Logger logger = LoggerFactory.getLogger(LogSpooler.class);
+    private static final String NAME = "ingest";
+    private static final long IDLE_WAIT_MS = 200;
+    private static final Duration MAX_BACKOFF = Duration.ofMinutes(1);
+
+    private final LogRepository logRepository;
+    private final SpoolCheckpointRepository checkpointRepository;
+    private final LogIngestNotifier logIngestNotifier;
+    private final TransactionTemplate transactionTemplate;
+    private final SpoolProperties properties;
+    private final ObjectWriter writer;
+    private final ObjectReader reader;
+    private final Counter skipped;
+
+    private LogSpool spool;
+    private Thread drainer;
+    private volatile boolean running;
+    private volatile long oldestPendingMillis;
+
+    /**
+     * Constructor for LogSpooler.
+     *
+     * @param logRepository        The repository spooled logs are drained into.
+     * @param checkpointRepository Stores the drained offset alongside each batch.
+     * @param logIngestNotifier    Notified after each drained batch is committed.
+     * @param transactionManager   The transaction manager used for each batch.
+     * @param objectMapper         Encodes logs as spool entries.
+     * @param properties           The spool configuration.
+     * @param registry             The registry spool depth and drain lag are published to.
+     */
+    @Autowired
+    public LogSpooler(LogRepository logRepository, SpoolCheckpointRepository checkpointRepository, LogIngestNotifier logIngestNotifier,
+                      PlatformTransactionManager transactionManager, ObjectMapper objectMapper, SpoolProperties properties,
+                      MeterRegistry registry) {
+        this.logRepository = logRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.logIngestNotifier = logIngestNotifier;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = properties;
+        this.writer = objectMapper.writerFor(Log.class);
+        this.reader = objectMapper.readerFor(Log.class);
+        Gauge.builder("log.spool.depth.entries", this, spooler -> spooler.spool == null ? 0 : spooler.spool.getPendingEntries())
+                .description("Logs acknowledged but not yet written to the database")
+                .register(registry);
+        Gauge.builder("log.spool.depth.bytes", this, spooler -> spooler.spool == null ? 0 : spooler.spool.getPendingBytes())
+                .description("Spool bytes not yet drained")
+                .baseUnit("bytes")
+                .register(registry);
+        this.skipped = Counter.builder("log.spool.drain.skipped")
+                .description("Spooled logs the database rejected, skipped instead of written")
+                .register(registry);
+        TimeGauge.builder("log.spool.drain.lag", this, TimeUnit.MILLISECONDS, LogSpooler::getDrainLagMillis)
+                .description("Age of the oldest spooled log not yet written to the database")
+                .register(registry);
+    }
+
+    @PostConstruct
+    void start() throws IOException {
+        long checkpoint = checkpointRepository.findById(NAME).map(SpoolCheckpoint::getDrainedOffset).orElse(0L);
+        spool = LogSpool.open(Paths.get(properties.getDirectory()), Math.multiplyExact(properties.getSegmentMegabytes(), 1 << 20),
+                properties.getMaxMegabytes() << 20, checkpoint);
+        running = true;
+        drainer = new Thread(this::drain, "log-spool-drainer");
+        drainer.setDaemon(true);
+        drainer.start();
+    }
+
+    /**
+     * Stops draining after the current batch. Whatever is left stays spooled for the next start.
+     */
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        if (drainer != null) drainer.join(TimeUnit.SECONDS.toMillis(30));
+        if (spool != null) spool.close();
+    }
+
+    /**
+     * Spools logs and waits until they are forced to disk.
+     *
+     * @param logs The logs to spool, with their timestamps already set.
+     * @return How many of the logs, from the front, were spooled; the rest did not fit.
+     * @throws SpoolFullException if not even the first log fits.
+     * @throws LogException       if a log cannot be encoded or the disk does not confirm the write in time.
+     */
+    public int spool(List<Log> logs) {
+        List<byte[]> payloads = new ArrayList<>(logs.size());
+        for (Log log : logs) {
+            try {
+                payloads.add(writer.writeValueAsBytes(log));
+            } catch (JsonProcessingException e) {
+                throw new LogException("Cannot spool log: " + e.getOriginalMessage());
+            }
+        }
+        int spooled = 0;
+        long end = 0;
+        for (byte[] payload : payloads) {
+            long offset;
+            try {
+                offset = spool.append(payload);
+            } catch (IllegalArgumentException e) {
+                throw new LogException(e.getMessage());
+            }
+            if (offset < 0) break;
+            end = offset;
+            spooled++;
+        }
+        if (spooled == 0 && !logs.isEmpty()) {
+            throw new SpoolFullException("The ingest spool is full (" + properties.getMaxMegabytes() + " MB); retry later", properties.getRetryAfter());
+        }
+        try {
+            if (!spool.awaitDurable(end, properties.getCommitTimeout().toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new LogException("Spooled logs were not forced to disk within " + properties.getCommitTimeout());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new LogException("Interrupted while waiting for the spool");
+        }
+        return spooled;
+    }
+
+    /**
+     * How long the oldest log waiting in the spool has been there; zero when the spool is drained.
+     */
+    public long getDrainLagMillis() {
+        long oldest = oldestPendingMillis;
+        return oldest == 0 ? 0 : Math.max(0, System.currentTimeMillis() - oldest);
+    }
+
+    public SpoolStatus getStatus() {
+        SpoolStatus status = new SpoolStatus();
+        status.setEnabled(true);
+        status.setDepthEntries(spool.getPendingEntries());
+        status.setDepthBytes(spool.getPendingBytes());
+        status.setDiskBytes(spool.getDiskBytes());
+        status.setMaxBytes(spool.getMaxBytes());
+        status.setDrainLagMillis(getDrainLagMillis());
+        status.setWriteOffset(spool.getWriteOffset());
+        status.setDurableOffset(spool.getDurableOffset());
+        status.setDrainedOffset(spool.getDrainedOffset());
+        return status;
+    }
+
+    private void drain() {
+        Duration backoff = properties.getRetryBackoff();
+        while (running) {
+            try {
+                LogSpool.Batch batch = spool.read(spool.getDrainedOffset(), properties.getDrainBatchSize());
+                if (batch.nextOffset() == spool.getDrainedOffset()) {
+                    oldestPendingMillis = 0;
+                    spool.awaitEntries(batch.nextOffset(), IDLE_WAIT_MS, TimeUnit.MILLISECONDS);
+                    continue;
+                }
+                if (!batch.entries().isEmpty()) oldestPendingMillis = batch.entries().get(0).appendedAtMillis();
+                List<Log> logs;
+                try {
+                    logs = drainBatch(batch);
+                } catch (DataIntegrityViolationException e) {
+                    logger.warn("Database rejected the spooled batch at offset {}; writing it one log at a time", spool.getDrainedOffset(), e);
+                    logs = drainOneByOne(batch);
+                }
+                backoff = properties.getRetryBackoff();
+                logger.debug("Drained {} spooled logs up to offset {}", logs.size(), batch.nextOffset());
+                logIngestNotifier.notifySaved(logs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                logger.warn("Failed to drain spooled logs from offset {}; retrying in {}", spool.getDrainedOffset(), backoff, e);
+                try {
+                    Thread.sleep(backoff.toMillis());
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                backoff = backoff.multipliedBy(2).compareTo(MAX_BACKOFF) > 0 ? MAX_BACKOFF : backoff.multipliedBy(2);
+            }
+        }
+    }
+
+    /**
+     * Writes a batch in one transaction with the checkpoint past it.
+     *
+     * @return The logs written.
+     */
+    private List<Log> drainBatch(LogSpool.Batch batch) {
+        List<Log> logs = decode(batch.entries());
+        transactionTemplate.executeWithoutResult(status -> {
+            logRepository.saveAll(logs);
+            checkpointRepository.save(new SpoolCheckpoint(NAME, batch.nextOffset()));
+        });
+        spool.markDrained(batch.nextOffset(), batch.entries().size());
+        return logs;
+    }
+
+    /**
+     * Writes a batch the database rejected one log per transaction, each with the checkpoint just past it.
+     * Logs the database rejects on their own are logged with their payload and skipped. Any other failure
+     * propagates with the checkpoint after the last log written, so the retry resumes there.
+     *
+     * @return The logs written.
+     */
+    private List<Log> drainOneByOne(LogSpool.Batch batch) {
+        List<LogSpool.Entry> entries = batch.entries();
+        List<Log> saved = new ArrayList<>(entries.size());
+        for (int i = 0; i < entries.size(); i++) {
+            LogSpool.Entry entry = entries.get(i);
+            long next = i + 1 < entries.size() ? entries.get(i + 1).offset() : batch.nextOffset();
+            Log log = decode(entry);
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    if (log != null) logRepository.save(log);
+                    checkpointRepository.save(new SpoolCheckpoint(NAME, next));
+                });
+                if (log != null) saved.add(log);
+            } catch (DataIntegrityViolationException e) {
+                logger.error("Skipping spooled log at offset {} rejected by the database ({}): {}", entry.offset(),
+                        e.getMostSpecificCause().getMessage(), new String(entry.payload(), StandardCharsets.UTF_8));
+                skipped.increment();
+                transactionTemplate.executeWithoutResult(status -> checkpointRepository.save(new SpoolCheckpoint(NAME, next)));
+            }
+            spool.markDrained(next, 1);
+        }
+        return saved;
+    }
+
+    private List<Log> decode(List<LogSpool.Entry> entries) {
+        List<Log> logs = new ArrayList<>(entries.size());
+        for (LogSpool.Entry entry : entries) {
+            Log log = decode(entry);
+            if (log != null) logs.add(log);
+        }
+        return logs;
+    }
+
+    /**
+     * @return The log, without an ID, or null if the entry cannot be decoded.
+     */
+    private Log decode(LogSpool.Entry entry) {
+        try {
+            Log log = reader.readValue(entry.payload());
+            log.setId(null);
+            return log;
+        } catch (IOException e) {
+            logger.error("Skipping undecodable spool entry at offset {}", entry.offset(), e);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.LogIngestor.Tail;
+
+/**
+ * What happens to matching logs while a subscriber's queue is full.
+ */
+public enum Backpressure {
+
+    /**
+     * Logs that do not fit are dropped and reported in a {@code dropped} event once the queue has room.
+     */
+    DROP,
+
+    /**
+     * Only every n-th matching log is queued, n doubling each time the queue fills up and returning to 1
+     * once it has drained; skipped logs are reported like dropped ones.
+     */
+    SAMPLE
+}
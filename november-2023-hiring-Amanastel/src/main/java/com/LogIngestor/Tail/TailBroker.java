@@ -0,0 +1,183 @@
+package com.LogIngestor.Tail;
+
+import com.LogIngestor.Config.TailProperties;
+import com.LogIngestor.Exception.LogException;
+import com.LogIngestor.Ingest.LogIngestListener;
+import com.LogIngestor.Model.Log;
+import com.LogIngestor.Model.LogQuery;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Routes every saved log to the live tails whose filter it matches.
+ *
+ * <p>Subscriptions are indexed by resource ID, or by case-folded level when they have no resource filter,
+ * so a log is only tested against the subscriptions for its own resource and level plus those filtering
+ * on neither. Matching and queueing never block the ingest thread: each subscriber has a bounded queue with
+ * its own {@link Backpressure} policy, and a small pool of sender threads writes the queues to the clients.</p>
+ */
+@Component
+public class TailBroker implements LogIngestListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(TailBroker.class);
+
+    private final TailProperties properties;
+    private final ExecutorService senders;
+    private final AtomicLong ids = new AtomicLong();
+    private final AtomicInteger count = new AtomicInteger();
+    private final Map<Long, TailSubscription> subscriptions = new ConcurrentHashMap<>();
+    private final Map<String, Set<TailSubscription>> byResource = new ConcurrentHashMap<>();
+    private final Map<String, Set<TailSubscription>> byLevel = new ConcurrentHashMap<>();
+    private final Set<TailSubscription> unindexed = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Constructor for TailBroker.
+     *
+     * @param properties The live tail configuration.
+     */
+    @Autowired
+    public TailBroker(TailProperties properties) {
+        this.properties = properties;
+        AtomicInteger threads = new AtomicInteger();
+        this.senders = Executors.newFixedThreadPool(properties.getSenderThreads(), task -> {
+            Thread sender = new Thread(task, "log-tail-sender-" + threads.getAndIncrement());
+            sender.setDaemon(true);
+            return sender;
+        });
+    }
+
+    /**
+     * Opens a live tail of the logs matching {@code query}.
+     *
+     * @param query        The filter; time bounds apply to log timestamps.
+     * @param backpressure What to do with matching logs while the subscriber cannot keep up.
+     * @return The subscription, whose emitter is returned to the client.
+     * @throws LogException if the subscriber limit is reached.
+     */
+    public TailSubscription subscribe(LogQuery query, Backpressure backpressure) {
+        if (count.incrementAndGet() > properties.getMaxSubscribers()) {
+            count.decrementAndGet();
+            throw new LogException("Too many live tails; at most " + properties.getMaxSubscribers() + " are allowed");
+        }
+        SseEmitter emitter = new SseEmitter(properties.getTimeout().toMillis());
+        TailSubscription subscription = new TailSubscription(ids.incrementAndGet(), query, backpressure, emitter, properties.getQueueCapacity());
+        emitter.onCompletion(() -> unsubscribe(subscription));
+        emitter.onTimeout(() -> unsubscribe(subscription));
+        emitter.onError(e -> unsubscribe(subscription));
+        subscriptions.put(subscription.getId(), subscription);
+        synchronized (this) {
+            index(subscription).add(subscription);
+        }
+        logger.debug("Live tail {} opened: {}", subscription.getId(), query);
+        return subscription;
+    }
+
+    public void unsubscribe(TailSubscription subscription) {
+        if (subscriptions.remove(subscription.getId()) == null) return;
+        count.decrementAndGet();
+        subscription.close();
+        synchronized (this) {
+            index(subscription).remove(subscription);
+            LogQuery query = subscription.getQuery();
+            if (query.getResourceId() != null) byResource.computeIfPresent(query.getResourceId(), (key, set) -> set.isEmpty() ? null : set);
+            else if (query.getLevel() != null) byLevel.computeIfPresent(LogQuery.foldCase(query.getLevel()), (key, set) -> set.isEmpty() ? null : set);
+        }
+        logger.debug("Live tail {} closed", subscription.getId());
+    }
+
+    public int getSubscriberCount() {
+        return subscriptions.size();
+    }
+
+    @Override
+    public void onLogsSaved(List<Log> logs) {
+        if (subscriptions.isEmpty()) return;
+        for (Log log : logs) {
+            for (TailSubscription subscription : matching(log)) {
+                if (subscription.offer(log)) schedule(subscription);
+            }
+        }
+    }
+
+    /**
+     * Subscriptions whose filter matches {@code log}.
+     */
+    List<TailSubscription> matching(Log log) {
+        List<TailSubscription> matched = new ArrayList<>();
+        if (log.getResourceId() != null) collect(byResource.get(log.getResourceId()), log, matched);
+        if (log.getLevel() != null) collect(byLevel.get(LogQuery.foldCase(log.getLevel())), log, matched);
+        collect(unindexed, log, matched);
+        return matched;
+    }
+
+    @Scheduled(fixedDelayString = "${log.tail.heartbeat-interval-ms:15000}")
+    public void heartbeat() {
+        for (TailSubscription subscription : subscriptions.values()) {
+            subscription.requestHeartbeat();
+            schedule(subscription);
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        for (TailSubscription subscription : subscriptions.values()) {
+            subscription.getEmitter().complete();
+            unsubscribe(subscription);
+        }
+        senders.shutdownNow();
+    }
+
+    private static void collect(Set<TailSubscription> candidates, Log log, List<TailSubscription> matched) {
+        if (candidates == null) return;
+        for (TailSubscription subscription : candidates) {
+            if (subscription.getQuery().matches(log)) matched.add(subscription);
+        }
+    }
+
+    /**
+     * The index set holding {@code subscription}. Callers hold the lock on this broker.
+     */
+    private Set<TailSubscription> index(TailSubscription subscription) {
+        LogQuery query = subscription.getQuery();
+        if (query.getResourceId() != null) {
+            return byResource.computeIfAbsent(query.getResourceId(), k -> ConcurrentHashMap.newKeySet());
+        }
+        if (query.getLevel() != null && query.getLevelMatch() != LogQuery.Match.CONTAINS) {
+            return byLevel.computeIfAbsent(LogQuery.foldCase(query.getLevel()), k -> ConcurrentHashMap.newKeySet());
+        }
+        return unindexed;
+    }
+
+    private void schedule(TailSubscription subscription) {
+        if (subscription.schedule()) senders.execute(() -> send(subscription));
+    }
+
+    private void send(TailSubscription subscription) {
+        try {
+            subscription.send(properties.getSendBatchSize());
+        } catch (IOException | IllegalStateException e) {
+            logger.debug("Live tail {} disconnected: {}", subscription.getId(), e.getMessage());
+            subscription.getEmitter().completeWithError(e);
+            unsubscribe(subscription);
+        } finally {
+            subscription.unschedule();
+        }
+        if (subscription.hasWork()) schedule(subscription);
+    }
+}
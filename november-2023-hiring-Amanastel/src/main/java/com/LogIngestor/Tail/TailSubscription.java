@@ -0,0 +1,145 @@
+package com.LogIngestor.Tail;
+
+import com.LogIngestor.Model.Log;
+import com.LogIngestor.Model.LogQuery;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * One live tail: its filter, the SSE connection and a bounded queue of logs waiting to be sent.
+ * Ingest threads only ever {@link #offer(Log)}; a sender thread writes the queued events.
+ */
+public final class TailSubscription {
+
+    private static final int MAX_SAMPLE_EVERY = 1 << 16;
+
+    private final long id;
+    private final LogQuery query;
+    private final Backpressure backpressure;
+    private final SseEmitter emitter;
+    private final BlockingQueue<Log> queue;
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private volatile boolean heartbeatDue;
+    private volatile boolean closed;
+
+    // Sampling state, guarded by this.
+    private int sampleEvery = 1;
+    private long seen;
+
+    TailSubscription(long id, LogQuery query, Backpressure backpressure, SseEmitter emitter, int queueCapacity) {
+        this.id = id;
+        this.query = query;
+        this.backpressure = backpressure;
+        this.emitter = emitter;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public LogQuery getQuery() {
+        return query;
+    }
+
+    public SseEmitter getEmitter() {
+        return emitter;
+    }
+
+    long getDropped() {
+        return dropped.get();
+    }
+
+    int getQueued() {
+        return queue.size();
+    }
+
+    /**
+     * Queues a matching log without blocking, applying the backpressure policy when the queue is full.
+     *
+     * @return true if the log was queued.
+     */
+    boolean offer(Log log) {
+        if (closed) return false;
+        if (backpressure == Backpressure.DROP) {
+            if (queue.offer(log)) return true;
+            dropped.incrementAndGet();
+            return false;
+        }
+        synchronized (this) {
+            if (++seen % sampleEvery != 0) {
+                dropped.incrementAndGet();
+                return false;
+            }
+            if (queue.offer(log)) return true;
+            sampleEvery = Math.min(sampleEvery * 2, MAX_SAMPLE_EVERY);
+            dropped.incrementAndGet();
+            return false;
+        }
+    }
+
+    void requestHeartbeat() {
+        heartbeatDue = true;
+    }
+
+    boolean hasWork() {
+        return !closed && (heartbeatDue || dropped.get() > 0 || !queue.isEmpty());
+    }
+
+    /**
+     * Marks the subscription as waiting for a sender.
+     *
+     * @return false if a sender is already scheduled or running.
+     */
+    boolean schedule() {
+        return !closed && scheduled.compareAndSet(false, true);
+    }
+
+    void unschedule() {
+        scheduled.set(false);
+    }
+
+    /**
+     * Writes a pending heartbeat, the number of logs dropped since the last write, then up to {@code batchSize} logs.
+     *
+     * @throws IOException if the client has gone away.
+     */
+    void send(int batchSize) throws IOException {
+        if (heartbeatDue) {
+            heartbeatDue = false;
+            emitter.send(SseEmitter.event().comment("heartbeat"));
+        }
+        long skipped = dropped.getAndSet(0);
+        if (skipped > 0) {
+            emitter.send(SseEmitter.event().name("dropped").data(Map.of("dropped", skipped), MediaType.APPLICATION_JSON));
+        }
+        for (int i = 0; i < batchSize; i++) {
+            Log log = queue.poll();
+            if (log == null) break;
+            SseEmitter.SseEventBuilder event = SseEmitter.event().name("log").data(log, MediaType.APPLICATION_JSON);
+            if (log.getId() != null) event.id(log.getId().toString());
+            emitter.send(event);
+        }
+        if (backpressure == Backpressure.SAMPLE && queue.isEmpty()) {
+            synchronized (this) {
+                sampleEvery = 1;
+            }
+        }
+    }
+
+    /**
+     * Stops accepting logs and releases the queued ones.
+     */
+    void close() {
+        closed = true;
+        queue.clear();
+    }
+}
@@ -0,0 +1,144 @@
+package com.LogIngestor.Template;
+
+import com.LogIngestor.Model.LogQuery;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One immutable version of a message template: the message split on single spaces, with the variable tokens
+ * replaced by wildcards. A message of the template is rebuilt from the template and its parameters, the
+ * tokens at the wildcard positions, in order. When a cluster of messages generalizes, it gets a new version
+ * under a new ID, so rows encoded against an older version still decode to the same message.
+ */
+public final class LogTemplate {
+
+    public static final String WILDCARD = "<*>";
+
+    /**
+     * Whether all, none or only some of the messages a template can produce satisfy a query.
+     */
+    public enum Coverage {
+        ALL, NONE, SOME
+    }
+
+    private final int id;
+    private final int clusterId;
+    // Null entries are wildcards.
+    private final String[] tokens;
+    private final int wildcards;
+    private final String text;
+
+    LogTemplate(int id, int clusterId, String[] tokens) {
+        this.id = id;
+        this.clusterId = clusterId;
+        this.tokens = tokens;
+        int count = 0;
+        for (String token : tokens) if (token == null) count++;
+        this.wildcards = count;
+        this.text = join(tokens, null, 0);
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * The cluster this version belongs to; every version of a cluster shares it.
+     */
+    public int getClusterId() {
+        return clusterId;
+    }
+
+    public int getWildcards() {
+        return wildcards;
+    }
+
+    /**
+     * The template with {@value #WILDCARD} at the variable positions.
+     */
+    public String getText() {
+        return text;
+    }
+
+    String[] tokens() {
+        return tokens;
+    }
+
+    /**
+     * Rebuilds a message from {@link #getWildcards()} parameters stored in {@code params} from {@code from}.
+     */
+    public String render(String[] params, int from) {
+        return wildcards == 0 ? text : join(tokens, params, from);
+    }
+
+    /**
+     * Decides the query's message and regex filters for every message of this template at once, where the
+     * template's fixed text is enough: a template without wildcards is one message; a substring found in a
+     * fixed run of the template is in every message; an exact value that does not fit the template is in none.
+     */
+    public Coverage cover(LogQuery query) {
+        if (wildcards == 0) return query.matchesMessage(text) && query.matchesPattern(text) ? Coverage.ALL : Coverage.NONE;
+        Coverage message = coverMessage(query);
+        if (message == Coverage.NONE) return Coverage.NONE;
+        return message == Coverage.ALL && query.getRegex() == null ? Coverage.ALL : Coverage.SOME;
+    }
+
+    private Coverage coverMessage(LogQuery query) {
+        String value = query.getMessage();
+        if (value == null) return Coverage.ALL;
+        return switch (query.getMessageMatch()) {
+            case CONTAINS -> {
+                for (String run : fixedRuns()) {
+                    if (run.contains(value)) yield Coverage.ALL;
+                }
+                yield Coverage.SOME;
+            }
+            case EXACT -> fits(value) ? Coverage.SOME : Coverage.NONE;
+            case IGNORE_CASE -> Coverage.SOME;
+        };
+    }
+
+    /**
+     * The text between wildcards, separators included.
+     */
+    private List<String> fixedRuns() {
+        List<String> runs = new ArrayList<>();
+        StringBuilder run = new StringBuilder();
+        for (int i = 0; i < tokens.length; i++) {
+            if (tokens[i] == null) {
+                if (i > 0) run.append(' ');
+                runs.add(run.toString());
+                run.setLength(0);
+                continue;
+            }
+            if (i > 0) run.append(' ');
+            run.append(tokens[i]);
+        }
+        runs.add(run.toString());
+        return runs;
+    }
+
+    private static String join(String[] tokens, String[] params, int from) {
+        StringBuilder message = new StringBuilder(tokens.length * 8);
+        int param = from;
+        for (int i = 0; i < tokens.length; i++) {
+            if (i > 0) message.append(' ');
+            message.append(tokens[i] != null ? tokens[i] : params == null ? WILDCARD : params[param++]);
+        }
+        return message.toString();
+    }
+
+    /**
+     * Whether some choice of parameters renders exactly {@code value}: as parameters never contain a space,
+     * the value must have as many space-separated tokens, the fixed ones equal.
+     */
+    private boolean fits(String value) {
+        String[] parts = LogTemplateMiner.split(value);
+        if (parts.length != tokens.length) return false;
+        for (int i = 0; i < tokens.length; i++) {
+            if (tokens[i] != null && !tokens[i].equals(parts[i])) return false;
+        }
+        return true;
+    }
+}
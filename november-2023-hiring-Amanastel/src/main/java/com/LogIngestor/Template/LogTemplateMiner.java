@@ -0,0 +1,327 @@
+package com.LogIngestor.Template;
+
+import com.LogIngestor.Config.StorageProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UTFDataFormatException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Online message template extraction with a Drain-style fixed-depth parse tree (He et al., ICWS 2017).
+ *
+ * <p>A message is split on single spaces. Messages are routed by their token count, then by their first
+ * {@code templateTreeDepth} tokens, tokens holding a digit taking the wildcard branch, to a leaf holding a
+ * few clusters. The message joins the cluster whose template shares the largest fraction of its tokens, if
+ * at least {@code templateSimilarity}; the positions where they differ become wildcards. Otherwise it starts
+ * a cluster of its own, its digit-holding tokens already wildcards.</p>
+ *
+ * <p>Every template version is journaled once, like the {@link com.LogIngestor.Dictionary.StringDictionary},
+ * and never changes: generalizing a cluster adds a version. Lookups by ID are lock-free; mining is
+ * synchronized. Messages too long, with too many tokens, or arriving once the template limit is reached
+ * are not templated, and callers keep them as plain strings.</p>
+ */
+@Component
+@ConditionalOnProperty(name = StorageProperties.ENGINE, havingValue = "columnar")
+public class LogTemplateMiner {
+
+    private static final Logger logger = LoggerFactory.getLogger(LogTemplateMiner.class);
+    private static final int MAX_MESSAGE_CHARS = 16_384;
+    private static final int MAX_TOKENS = 512;
+
+    /**
+     * A message's template and the tokens at its wildcard positions.
+     */
+    public record Match(LogTemplate template, String[] params) {
+    }
+
+    private final int maxTemplates;
+    private final double similarity;
+    private final int depth;
+    private final int maxChildren;
+    private final Map<Integer, Node> byLength = new HashMap<>();
+    private final List<Cluster> clusters = new ArrayList<>();
+    private volatile LogTemplate[] templates = new LogTemplate[256];
+    private volatile int size;
+    private Path file;
+    private FileChannel channel;
+    private DataOutputStream journal;
+
+    /**
+     * Constructor for LogTemplateMiner.
+     *
+     * @param properties The storage configuration holding the template settings.
+     */
+    @Autowired
+    public LogTemplateMiner(StorageProperties properties) {
+        this.maxTemplates = properties.getTemplateMaxCount();
+        this.similarity = properties.getTemplateSimilarity();
+        this.depth = properties.getTemplateTreeDepth();
+        this.maxChildren = properties.getTemplateMaxChildren();
+    }
+
+    /**
+     * Splits on single spaces, keeping empty tokens, so that joining the tokens with spaces gives the message back.
+     */
+    public static String[] split(String message) {
+        return message.split(" ", -1);
+    }
+
+    /**
+     * Loads the templates journaled in {@code file}, rebuilding the parse tree, and appends new templates
+     * to it from now on. A record torn by a crash is truncated away.
+     *
+     * @throws IllegalStateException if templates were already mined, since their IDs could clash.
+     */
+    public synchronized void open(Path file) throws IOException {
+        if (this.file != null) throw new IllegalStateException("Template miner already opened on " + this.file);
+        if (size > 0) throw new IllegalStateException("Template miner already holds " + size + " templates");
+        long valid = 0;
+        if (Files.exists(file)) {
+            byte[] bytes = Files.readAllBytes(file);
+            ByteArrayInputStream buffer = new ByteArrayInputStream(bytes);
+            try (DataInputStream in = new DataInputStream(buffer)) {
+                while (true) {
+                    int clusterId = in.readInt();
+                    String[] tokens = new String[in.readInt()];
+                    for (int i = 0; i < tokens.length; i++) tokens[i] = in.readBoolean() ? in.readUTF() : null;
+                    LogTemplate template = insert(clusterId, tokens);
+                    if (clusterId == clusters.size()) {
+                        Cluster cluster = new Cluster(template);
+                        clusters.add(cluster);
+                        leaf(tokens, true).add(cluster);
+                    } else {
+                        clusters.get(clusterId).template = template;
+                    }
+                    valid = bytes.length - buffer.available();
+                }
+            } catch (EOFException | UTFDataFormatException | IndexOutOfBoundsException | NegativeArraySizeException e) {
+                // End of journal, possibly with a torn last record.
+            }
+        }
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        if (channel.size() > valid) {
+            logger.warn("Truncating torn template record in {}", file);
+            channel.truncate(valid);
+        }
+        channel.position(valid);
+        journal = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 14));
+        this.file = file;
+        logger.info("Opened template journal {}: {} templates in {} clusters", file, size, clusters.size());
+    }
+
+    /**
+     * Forces journaled templates to disk. Call before persisting data that refers to new template IDs.
+     */
+    public synchronized void sync() throws IOException {
+        if (journal == null) return;
+        journal.flush();
+        channel.force(false);
+    }
+
+    public synchronized void close() throws IOException {
+        if (journal == null) return;
+        sync();
+        journal.close();
+        journal = null;
+        channel = null;
+        file = null;
+    }
+
+    /**
+     * Assigns {@code message} to a cluster, creating or generalizing templates as needed.
+     *
+     * @return The message's template and parameters, or null if it is to be stored as a plain string.
+     */
+    public synchronized Match mine(String message) {
+        if (message == null || message.length() > MAX_MESSAGE_CHARS) return null;
+        String[] tokens = split(message);
+        if (tokens.length > MAX_TOKENS) return null;
+        List<Cluster> leaf = leaf(tokens, true);
+        Cluster cluster = closest(leaf, tokens);
+        if (cluster == null) {
+            if (size >= maxTemplates) return null;
+            String[] masked = new String[tokens.length];
+            for (int i = 0; i < tokens.length; i++) masked[i] = hasDigit(tokens[i]) ? null : tokens[i];
+            LogTemplate template = add(clusters.size(), masked);
+            if (template == null) return null;
+            cluster = new Cluster(template);
+            clusters.add(cluster);
+            leaf.add(cluster);
+        } else {
+            String[] current = cluster.template.tokens();
+            String[] merged = null;
+            for (int i = 0; i < tokens.length; i++) {
+                if (current[i] != null && !current[i].equals(tokens[i])) {
+                    if (merged == null) merged = current.clone();
+                    merged[i] = null;
+                }
+            }
+            if (merged != null) {
+                if (size >= maxTemplates) return null;
+                LogTemplate template = add(cluster.template.getClusterId(), merged);
+                if (template == null) return null;
+                cluster.template = template;
+            }
+        }
+        return new Match(cluster.template, params(cluster.template, tokens));
+    }
+
+    /**
+     * The current template of the cluster {@code message} would join, without learning from it.
+     *
+     * @return The template, or null if the message would start a new cluster.
+     */
+    public synchronized LogTemplate classify(String message) {
+        if (message == null || message.length() > MAX_MESSAGE_CHARS) return null;
+        String[] tokens = split(message);
+        List<Cluster> leaf = leaf(tokens, false);
+        Cluster cluster = leaf == null ? null : closest(leaf, tokens);
+        return cluster == null ? null : cluster.template;
+    }
+
+    public LogTemplate template(int id) {
+        return templates[id];
+    }
+
+    /**
+     * The latest version of a cluster's template.
+     */
+    public synchronized LogTemplate latest(int clusterId) {
+        return clusters.get(clusterId).template;
+    }
+
+    /**
+     * The number of template versions.
+     */
+    public int size() {
+        return size;
+    }
+
+    public synchronized int clusterCount() {
+        return clusters.size();
+    }
+
+    private List<Cluster> leaf(String[] tokens, boolean create) {
+        Node node = byLength.get(tokens.length);
+        if (node == null) {
+            if (!create) return null;
+            node = new Node();
+            byLength.put(tokens.length, node);
+        }
+        for (int i = 0; i < Math.min(depth, tokens.length); i++) {
+            String key = tokens[i] == null || hasDigit(tokens[i]) ? LogTemplate.WILDCARD : tokens[i];
+            Node child = node.children.get(key);
+            if (child == null && !key.equals(LogTemplate.WILDCARD) && node.children.size() >= maxChildren) {
+                key = LogTemplate.WILDCARD;
+                child = node.children.get(key);
+            }
+            if (child == null) {
+                if (!create) return null;
+                child = new Node();
+                node.children.put(key, child);
+            }
+            node = child;
+        }
+        return node.clusters;
+    }
+
+    /**
+     * The cluster sharing the largest fraction of fixed tokens with the message, if at least the similarity threshold.
+     */
+    private Cluster closest(List<Cluster> leaf, String[] tokens) {
+        Cluster best = null;
+        double bestSimilarity = -1;
+        int bestWildcards = -1;
+        for (Cluster cluster : leaf) {
+            String[] template = cluster.template.tokens();
+            int same = 0;
+            for (int i = 0; i < tokens.length; i++) {
+                if (template[i] != null && template[i].equals(tokens[i])) same++;
+            }
+            double score = (double) same / tokens.length;
+            int wildcards = cluster.template.getWildcards();
+            if (score > bestSimilarity || (score == bestSimilarity && wildcards > bestWildcards)) {
+                best = cluster;
+                bestSimilarity = score;
+                bestWildcards = wildcards;
+            }
+        }
+        return bestSimilarity >= similarity ? best : null;
+    }
+
+    private LogTemplate add(int clusterId, String[] tokens) {
+        if (journal != null) {
+            try {
+                journal.writeInt(clusterId);
+                journal.writeInt(tokens.length);
+                for (String token : tokens) {
+                    journal.writeBoolean(token != null);
+                    if (token != null) journal.writeUTF(token);
+                }
+            } catch (IOException e) {
+                logger.error("Failed to journal template; leaving message untemplated", e);
+                return null;
+            }
+        }
+        return insert(clusterId, tokens);
+    }
+
+    private LogTemplate insert(int clusterId, String[] tokens) {
+        int id = size;
+        LogTemplate[] current = templates;
+        if (id == current.length) current = Arrays.copyOf(current, id * 2);
+        current[id] = new LogTemplate(id, clusterId, tokens);
+        templates = current;
+        size = id + 1;
+        return current[id];
+    }
+
+    private static String[] params(LogTemplate template, String[] tokens) {
+        String[] params = new String[template.getWildcards()];
+        String[] fixed = template.tokens();
+        int param = 0;
+        for (int i = 0; i < tokens.length; i++) {
+            if (fixed[i] == null) params[param++] = tokens[i];
+        }
+        return params;
+    }
+
+    private static boolean hasDigit(String token) {
+        for (int i = 0; i < token.length(); i++) {
+            if (Character.isDigit(token.charAt(i))) return true;
+        }
+        return false;
+    }
+
+    private static final class Node {
+        private final Map<String, Node> children = new HashMap<>();
+        private final List<Cluster> clusters = new ArrayList<>();
+    }
+
+    private static final class Cluster {
+        private LogTemplate template;
+
+        Cluster(LogTemplate template) {
+            this.template = template;
+        }
+    }
+}
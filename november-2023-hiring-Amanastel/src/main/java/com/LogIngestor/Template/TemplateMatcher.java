@@ -0,0 +1,32 @@
+package com.LogIngestor.Template;
+
+import com.LogIngestor.Model.LogQuery;
+
+import java.util.Arrays;
+
+/**
+ * A query's message and regex filters evaluated on template IDs: the first test of a template decides
+ * whether all, none or some of its messages match and remembers it, so rows of decided templates are
+ * never rebuilt. Not thread-safe; create one per scan.
+ */
+public final class TemplateMatcher {
+
+    private final LogTemplateMiner miner;
+    private final LogQuery query;
+    private LogTemplate.Coverage[] memo = new LogTemplate.Coverage[64];
+
+    public TemplateMatcher(LogTemplateMiner miner, LogQuery query) {
+        this.miner = miner;
+        this.query = query;
+    }
+
+    public LogTemplate.Coverage coverage(int templateId) {
+        if (templateId >= memo.length) memo = Arrays.copyOf(memo, Math.max(templateId + 1, memo.length * 2));
+        LogTemplate.Coverage coverage = memo[templateId];
+        if (coverage == null) {
+            coverage = miner.template(templateId).cover(query);
+            memo[templateId] = coverage;
+        }
+        return coverage;
+    }
+}
@@ -0,0 +1,116 @@
+package com.LogIngestor.Trace;
+
+import com.LogIngestor.Model.Log;
+import com.LogIngestor.Model.LogTrace;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Builds a {@link LogTrace} in one pass over the logs of a trace, which must arrive in {@code (timestamp, id)} order.
+ *
+ * <p>Each log costs a couple of hash lookups, so traces of hundreds of thousands of logs assemble in
+ * linear time. A resource's parent is the first {@code parentResourceId} it logged; a parent link that
+ * would close a cycle is dropped, making that resource a root.</p>
+ */
+public final class TraceAssembler {
+
+    private final LogTrace trace = new LogTrace();
+    private final Map<String, LogTrace.Span> spans = new LinkedHashMap<>();
+    private final Map<String, LogTrace.Resource> resources = new LinkedHashMap<>();
+    private final Map<String, Set<String>> resourceSpans = new HashMap<>();
+    private final Map<String, String> parents = new HashMap<>();
+
+    public TraceAssembler(String traceId) {
+        trace.setTraceId(traceId);
+    }
+
+    public int getLogCount() {
+        return trace.getLogCount();
+    }
+
+    public void add(Log log) {
+        LogTrace.Span span = spans.computeIfAbsent(log.getSpanId(), spanId -> {
+            LogTrace.Span created = new LogTrace.Span();
+            created.setSpanId(spanId);
+            created.setResourceId(log.getResourceId());
+            created.setStartTime(log.getTimestamp());
+            return created;
+        });
+        span.getLogs().add(log);
+        LocalDateTime timestamp = log.getTimestamp();
+        if (timestamp != null) {
+            if (span.getStartTime() == null) span.setStartTime(timestamp);
+            span.setEndTime(timestamp);
+            if (trace.getStartTime() == null) trace.setStartTime(timestamp);
+            trace.setEndTime(timestamp);
+        }
+        trace.setLogCount(trace.getLogCount() + 1);
+
+        String resourceId = log.getResourceId();
+        if (resourceId == null) return;
+        LogTrace.Resource resource = resource(resourceId);
+        resource.setLogCount(resource.getLogCount() + 1);
+        if (log.getSpanId() != null) resourceSpans.computeIfAbsent(resourceId, k -> new LinkedHashSet<>()).add(log.getSpanId());
+        String parentId = log.getMetadata() == null ? null : log.getMetadata().getParentResourceId();
+        if (parentId != null && !parentId.equals(resourceId) && !parents.containsKey(resourceId)) {
+            parents.put(resourceId, parentId);
+            resource(parentId);
+        }
+    }
+
+    /**
+     * Finishes the trace.
+     *
+     * @param truncated Whether logs were left out because the trace was too large.
+     */
+    public LogTrace build(boolean truncated) {
+        trace.setTruncated(truncated);
+        trace.setDurationMillis(millisBetween(trace.getStartTime(), trace.getEndTime()));
+        for (LogTrace.Span span : spans.values()) {
+            span.setDurationMillis(millisBetween(span.getStartTime(), span.getEndTime()));
+            trace.getSpans().add(span);
+        }
+        for (LogTrace.Resource resource : resources.values()) {
+            Set<String> spanIds = resourceSpans.get(resource.getResourceId());
+            if (spanIds != null) resource.getSpanIds().addAll(spanIds);
+            String parentId = parents.get(resource.getResourceId());
+            if (parentId != null && closesCycle(resource.getResourceId(), parentId)) {
+                parents.remove(resource.getResourceId());
+                parentId = null;
+            }
+            if (parentId == null) trace.getResources().add(resource);
+            else resources.get(parentId).getChildren().add(resource);
+        }
+        return trace;
+    }
+
+    private LogTrace.Resource resource(String resourceId) {
+        return resources.computeIfAbsent(resourceId, id -> {
+            LogTrace.Resource created = new LogTrace.Resource();
+            created.setResourceId(id);
+            return created;
+        });
+    }
+
+    /**
+     * Whether {@code childId} is already an ancestor of {@code parentId}.
+     */
+    private boolean closesCycle(String childId, String parentId) {
+        Set<String> seen = new HashSet<>();
+        for (String ancestor = parentId; ancestor != null && seen.add(ancestor); ancestor = parents.get(ancestor)) {
+            if (ancestor.equals(childId)) return true;
+        }
+        return false;
+    }
+
+    private static long millisBetween(LocalDateTime start, LocalDateTime end) {
+        return start == null || end == null ? 0 : Duration.between(start, end).toMillis();
+    }
+}
@@ -0,0 +1,35 @@
+package com.LogIngestor.Wire;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+
+/**
+ * Fixed-size heap buffers reused across connections and datagrams. Only the listener thread uses it,
+ * so it is not synchronized.
+ */
+final class BufferPool {
+
+    private final int bufferBytes;
+    private final int maxIdle;
+    private final ArrayDeque<ByteBuffer> idle = new ArrayDeque<>();
+
+    BufferPool(int bufferBytes, int maxIdle) {
+        this.bufferBytes = bufferBytes;
+        this.maxIdle = maxIdle;
+    }
+
+    ByteBuffer acquire() {
+        ByteBuffer buffer = idle.pollFirst();
+        return buffer != null ? buffer : ByteBuffer.allocate(bufferBytes);
+    }
+
+    void release(ByteBuffer buffer) {
+        if (idle.size() >= maxIdle) return;
+        buffer.clear();
+        idle.addFirst(buffer);
+    }
+
+    int idle() {
+        return idle.size();
+    }
+}
@@ -0,0 +1,96 @@
+package com.LogIngestor.Wire;
+
+import com.LogIngestor.Model.Log;
+import com.LogIngestor.Model.Metadata;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Reads the binary frames written by {@link LogFrameEncoder}. Strings are decoded straight out of the
+ * read buffer's backing array, so the only objects created per frame are the log and its field values.
+ */
+final class LogFrameDecoder {
+
+    private LogFrameDecoder() {
+    }
+
+    /**
+     * Whether a buffer holding the start of a stream carries binary frames rather than syslog lines.
+     * A syslog line starts with {@code '<'}; a frame starts with the high byte of its length, which is far
+     * smaller than the gigabyte frame that would start with that byte.
+     */
+    static boolean isBinary(ByteBuffer buffer) {
+        return buffer.get(buffer.position()) != '<';
+    }
+
+    /**
+     * The length of the frame starting at the buffer's position, counting its length prefix, or -1 if not
+     * even the prefix has arrived yet. The position does not move.
+     *
+     * @throws IllegalArgumentException if the length is not a plausible frame length.
+     */
+    static int frameLength(ByteBuffer buffer, int maxFrameBytes) {
+        if (buffer.remaining() < Integer.BYTES) return -1;
+        int length = buffer.getInt(buffer.position());
+        if (length < 1 + Long.BYTES || length > maxFrameBytes - Integer.BYTES) {
+            throw new IllegalArgumentException("Invalid frame length " + length);
+        }
+        return Integer.BYTES + length;
+    }
+
+    /**
+     * Decodes the complete frame at the buffer's position and moves past it.
+     *
+     * @param buffer A heap buffer holding at least {@link #frameLength} bytes.
+     * @throws IllegalArgumentException if the frame is malformed; the position is then undefined.
+     */
+    static Log decode(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        int end = buffer.position() + length;
+        if (length < 0 || end > buffer.limit()) throw new IllegalArgumentException("Frame extends past the data received");
+        byte version = buffer.get();
+        if (version != LogFrameEncoder.VERSION) throw new IllegalArgumentException("Unsupported frame version " + version);
+        long millis = buffer.getLong();
+
+        Log log = new Log();
+        if (millis != LogFrameEncoder.NO_TIMESTAMP) {
+            log.setTimestamp(LocalDateTime.ofEpochSecond(Math.floorDiv(millis, 1000), (int) Math.floorMod(millis, 1000) * 1_000_000, ZoneOffset.UTC));
+        }
+        log.setLevel(string(buffer, end));
+        log.setMessage(string(buffer, end));
+        log.setResourceId(string(buffer, end));
+        log.setTraceId(string(buffer, end));
+        log.setSpanId(string(buffer, end));
+        log.setCommit(string(buffer, end));
+        String parent = string(buffer, end);
+        if (parent != null) log.setMetadata(new Metadata(parent));
+        if (buffer.position() != end) throw new IllegalArgumentException("Frame length does not match its fields");
+        return log;
+    }
+
+    private static String string(ByteBuffer buffer, int end) {
+        int length = varint(buffer, end) - 1;
+        if (length < 0) return null;
+        int position = buffer.position();
+        if (length > end - position) throw new IllegalArgumentException("String extends past the end of the frame");
+        buffer.position(position + length);
+        return new String(buffer.array(), buffer.arrayOffset() + position, length, StandardCharsets.UTF_8);
+    }
+
+    private static int varint(ByteBuffer buffer, int end) {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            if (buffer.position() >= end) throw new IllegalArgumentException("Truncated string length");
+            byte b = buffer.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                if (value < 0) throw new IllegalArgumentException("String length out of range");
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("String length out of range");
+    }
+}
@@ -0,0 +1,134 @@
+package com.LogIngestor.Wire;
+
+import com.LogIngestor.Model.Log;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.time.ZoneOffset;
+
+/**
+ * Client side of the binary wire format read by {@link LogFrameDecoder}. Logs are written straight into
+ * the caller's buffer, so a client can reuse one buffer for every frame it sends.
+ *
+ * <p>A frame is {@code [int length][byte version][long timestamp][7 strings]}, big-endian, where the length
+ * counts the bytes after itself and the timestamp is UTC epoch millis, or {@link Long#MIN_VALUE} to let the
+ * server stamp it. Each string is a varint of its UTF-8 length plus one, zero meaning null, followed by its
+ * bytes, in the order level, message, resourceId, traceId, spanId, commit, parentResourceId.</p>
+ */
+public final class LogFrameEncoder {
+
+    public static final byte VERSION = 1;
+    public static final long NO_TIMESTAMP = Long.MIN_VALUE;
+
+    private LogFrameEncoder() {
+    }
+
+    /**
+     * Writes one frame at the buffer's position.
+     *
+     * @param log The log to encode.
+     * @param out The buffer to write to; on overflow its position is left unchanged.
+     * @return The number of bytes written.
+     * @throws BufferOverflowException if the frame does not fit in the remaining space.
+     */
+    public static int encode(Log log, ByteBuffer out) {
+        String parent = log.getMetadata() == null ? null : log.getMetadata().getParentResourceId();
+        String[] fields = {log.getLevel(), log.getMessage(), log.getResourceId(), log.getTraceId(), log.getSpanId(), log.getCommit(), parent};
+        int length = 1 + Long.BYTES;
+        for (String field : fields) length += stringSize(field);
+        if (out.remaining() < Integer.BYTES + length) throw new BufferOverflowException();
+
+        int start = out.position();
+        out.putInt(length);
+        out.put(VERSION);
+        out.putLong(log.getTimestamp() == null ? NO_TIMESTAMP : log.getTimestamp().toInstant(ZoneOffset.UTC).toEpochMilli());
+        for (String field : fields) putString(out, field);
+        return out.position() - start;
+    }
+
+    /**
+     * Encodes one log into a new array.
+     */
+    public static byte[] encode(Log log) {
+        ByteBuffer buffer = ByteBuffer.allocate(frameSize(log));
+        encode(log, buffer);
+        return buffer.array();
+    }
+
+    /**
+     * The number of bytes {@link #encode(Log, ByteBuffer)} writes for a log.
+     */
+    public static int frameSize(Log log) {
+        String parent = log.getMetadata() == null ? null : log.getMetadata().getParentResourceId();
+        return Integer.BYTES + 1 + Long.BYTES + stringSize(log.getLevel()) + stringSize(log.getMessage())
+                + stringSize(log.getResourceId()) + stringSize(log.getTraceId()) + stringSize(log.getSpanId())
+                + stringSize(log.getCommit()) + stringSize(parent);
+    }
+
+    private static int stringSize(String value) {
+        if (value == null) return 1;
+        int bytes = utf8Length(value);
+        return varintSize(bytes + 1) + bytes;
+    }
+
+    private static void putString(ByteBuffer out, String value) {
+        if (value == null) {
+            out.put((byte) 0);
+            return;
+        }
+        putVarint(out, utf8Length(value) + 1);
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                out.put((byte) c);
+            } else if (c < 0x800) {
+                out.put((byte) (0xC0 | c >> 6));
+                out.put((byte) (0x80 | c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < value.length() && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int cp = Character.toCodePoint(c, value.charAt(++i));
+                out.put((byte) (0xF0 | cp >> 18));
+                out.put((byte) (0x80 | cp >> 12 & 0x3F));
+                out.put((byte) (0x80 | cp >> 6 & 0x3F));
+                out.put((byte) (0x80 | cp & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                out.put((byte) '?');
+            } else {
+                out.put((byte) (0xE0 | c >> 12));
+                out.put((byte) (0x80 | c >> 6 & 0x3F));
+                out.put((byte) (0x80 | c & 0x3F));
+            }
+        }
+    }
+
+    /**
+     * UTF-8 length of a string, counting an unpaired surrogate as the one byte {@code '?'} it is written as.
+     */
+    private static int utf8Length(String value) {
+        int bytes = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) bytes += 1;
+            else if (c < 0x800) bytes += 2;
+            else if (Character.isHighSurrogate(c) && i + 1 < value.length() && Character.isLowSurrogate(value.charAt(i + 1))) {
+                bytes += 4;
+                i++;
+            } else if (Character.isSurrogate(c)) bytes += 1;
+            else bytes += 3;
+        }
+        return bytes;
+    }
+
+    static int varintSize(int value) {
+        int size = 1;
+        while ((value >>>= 7) != 0) size++;
+        return size;
+    }
+
+    static void putVarint(ByteBuffer out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.put((byte) (value & 0x7F | 0x80));
+            value >>>= 7;
+        }
+        out.put((byte) value);
+    }
+}
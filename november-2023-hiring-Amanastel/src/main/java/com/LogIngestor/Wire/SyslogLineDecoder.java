@@ -0,0 +1,118 @@
+package com.LogIngestor.Wire;
+
+import com.LogIngestor.Model.Log;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Parses one syslog line, read in place from a receive buffer, into a log.
+ *
+ * <p>RFC 5424 lines ({@code <PRI>1 TIMESTAMP HOSTNAME APP PROCID MSGID SD MSG}) keep their timestamp and
+ * use the hostname as resource ID; structured data is skipped. Older RFC 3164 lines
+ * ({@code <PRI>Mmm dd hh:mm:ss HOSTNAME MSG}) carry no year, so they are stamped on arrival. In both the
+ * severity in {@code PRI} becomes the level.</p>
+ */
+final class SyslogLineDecoder {
+
+    private static final String[] LEVELS = {"fatal", "fatal", "fatal", "error", "warn", "info", "info", "debug"};
+    private static final int BSD_TIMESTAMP_LENGTH = "Mmm dd hh:mm:ss".length();
+
+    private SyslogLineDecoder() {
+    }
+
+    /**
+     * @param line   The array holding the line.
+     * @param offset Where the line starts.
+     * @param length The line length, without its newline.
+     * @throws IllegalArgumentException if the line has no valid {@code <PRI>} header or timestamp.
+     */
+    static Log decode(byte[] line, int offset, int length) {
+        int end = offset + length;
+        if (end > offset && line[end - 1] == '\r') end--;
+        if (end - offset < 3 || line[offset] != '<') throw new IllegalArgumentException("Missing syslog <PRI> header");
+        int p = offset + 1;
+        int pri = 0;
+        while (p < end && p - offset <= 3 && line[p] >= '0' && line[p] <= '9') pri = pri * 10 + line[p++] - '0';
+        if (p == offset + 1 || p >= end || line[p] != '>' || pri > 191) throw new IllegalArgumentException("Invalid syslog <PRI> header");
+        p++;
+
+        Log log = new Log();
+        log.setLevel(LEVELS[pri & 7]);
+        if (end - p >= 2 && line[p] == '1' && line[p + 1] == ' ') {
+            p = rfc5424(line, p + 2, end, log);
+        } else {
+            p = rfc3164(line, p, end, log);
+        }
+        if (end - p >= 3 && (line[p] & 0xFF) == 0xEF && (line[p + 1] & 0xFF) == 0xBB && (line[p + 2] & 0xFF) == 0xBF) p += 3;
+        log.setMessage(new String(line, p, end - p, StandardCharsets.UTF_8));
+        return log;
+    }
+
+    private static int rfc5424(byte[] line, int p, int end, Log log) {
+        int tokenEnd = tokenEnd(line, p, end);
+        if (!nil(line, p, tokenEnd)) {
+            String value = new String(line, p, tokenEnd - p, StandardCharsets.US_ASCII);
+            try {
+                log.setTimestamp(OffsetDateTime.parse(value).withOffsetSameInstant(ZoneOffset.UTC).toLocalDateTime());
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("Invalid syslog timestamp '" + value + "'");
+            }
+        }
+        p = skipSpace(line, tokenEnd, end);
+        tokenEnd = tokenEnd(line, p, end);
+        if (!nil(line, p, tokenEnd)) log.setResourceId(new String(line, p, tokenEnd - p, StandardCharsets.US_ASCII));
+        p = skipSpace(line, tokenEnd, end);
+        // APP-NAME, PROCID and MSGID
+        for (int i = 0; i < 3; i++) p = skipSpace(line, tokenEnd(line, p, end), end);
+        return skipSpace(line, structuredDataEnd(line, p, end), end);
+    }
+
+    private static int rfc3164(byte[] line, int p, int end, Log log) {
+        if (end - p > BSD_TIMESTAMP_LENGTH && line[p + 3] == ' ' && line[p + 6] == ' ' && line[p + 9] == ':'
+                && line[p + 12] == ':' && line[p + BSD_TIMESTAMP_LENGTH] == ' ') {
+            p += BSD_TIMESTAMP_LENGTH + 1;
+            int tokenEnd = tokenEnd(line, p, end);
+            if (tokenEnd > p) log.setResourceId(new String(line, p, tokenEnd - p, StandardCharsets.US_ASCII));
+            p = tokenEnd;
+        }
+        return skipSpace(line, p, end);
+    }
+
+    /**
+     * The end of the structured data starting at {@code p}: a nil value, or bracketed elements whose
+     * quoted parameter values may contain escaped quotes and brackets.
+     */
+    private static int structuredDataEnd(byte[] line, int p, int end) {
+        if (p < end && line[p] == '-') return p + 1;
+        while (p < end && line[p] == '[') {
+            boolean quoted = false;
+            for (p++; p < end; p++) {
+                byte b = line[p];
+                if (quoted && b == '\\') p++;
+                else if (b == '"') quoted = !quoted;
+                else if (!quoted && b == ']') break;
+            }
+            if (p >= end) throw new IllegalArgumentException("Unterminated syslog structured data");
+            p++;
+        }
+        return p;
+    }
+
+    private static int tokenEnd(byte[] line, int p, int end) {
+        while (p < end && line[p] != ' ') p++;
+        return p;
+    }
+
+    private static int skipSpace(byte[] line, int p, int end) {
+        while (p < end && line[p] == ' ') p++;
+        return p;
+    }
+
+    private static boolean nil(byte[] line, int start, int end) {
+        return end - start == 1 && line[start] == '-';
+    }
+}
@@ -0,0 +1,373 @@
+package com.LogIngestor.Wire;
+
+import com.LogIngestor.Config.IngestProperties;
+import com.LogIngestor.Config.WireProperties;
+import com.LogIngestor.Exception.LogException;
+import com.LogIngestor.Model.BatchIngestResponse;
+import com.LogIngestor.Model.Log;
+import com.LogIngestor.Service.LogService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Non-blocking TCP and UDP ingest listener running next to the HTTP endpoints.
+ *
+ * <p>A connection carries either binary frames ({@link LogFrameEncoder}) or newline-terminated syslog
+ * lines, told apart by its first byte; every UDP datagram is judged on its own. One selector thread reads
+ * all channels into pooled buffers, decodes logs in place and hands them to {@link LogService#saveLogs} in
+ * chunks of {@code log.ingest.batch-size}, the same path as {@code /logs/ingest/batch}. While that path is
+ * full the thread waits like any other producer, which stops it reading and lets TCP push back on senders;
+ * UDP datagrams are dropped once the socket buffer fills.</p>
+ *
+ * <p>A malformed frame or line is counted as rejected and skipped. A frame length that cannot be right
+ * means the stream has lost its framing, so that connection is closed.</p>
+ */
+@Component
+@ConditionalOnProperty(name = "log.wire.enabled", havingValue = "true")
+public class WireIngestServer {
+
+    private static final Logger logger = LoggerFactory.getLogger(WireIngestServer.class);
+
+    private enum Transport {
+        TCP, UDP
+    }
+
+    private static final class Connection {
+        final SocketChannel channel;
+        // Held only while part of a frame or line is waiting for more bytes.
+        ByteBuffer buffer;
+        // Unknown until the first byte arrives.
+        Boolean binary;
+        // Skipping the rest of a syslog line longer than a buffer.
+        boolean discarding;
+
+        Connection(SocketChannel channel) {
+            this.channel = channel;
+        }
+    }
+
+    private final LogService logService;
+    private final WireProperties properties;
+    private final int chunkSize;
+    private final BufferPool pool;
+    private final List<Log> chunk;
+    private final AtomicInteger connections = new AtomicInteger();
+    private final Counter[] accepted = new Counter[Transport.values().length];
+    private final Counter[] rejected = new Counter[Transport.values().length];
+
+    private Selector selector;
+    private ServerSocketChannel tcp;
+    private DatagramChannel udp;
+    private Thread thread;
+    private volatile boolean running;
+
+    /**
+     * Constructor for WireIngestServer.
+     *
+     * @param logService       Receives the decoded logs.
+     * @param ingestProperties The ingest pipeline configuration, whose batch size sets the chunk size.
+     * @param properties       The listener configuration.
+     * @param registry         The registry log counts and open connections are published to.
+     */
+    @Autowired
+    public WireIngestServer(LogService logService, IngestProperties ingestProperties, WireProperties properties, MeterRegistry registry) {
+        this.logService = logService;
+        this.properties = properties;
+        this.chunkSize = ingestProperties.getBatchSize();
+        this.pool = new BufferPool(properties.getBufferBytes(), properties.getMaxPooledBuffers());
+        this.chunk = new ArrayList<>(chunkSize);
+        for (Transport transport : Transport.values()) {
+            String tag = transport.name().toLowerCase();
+            accepted[transport.ordinal()] = Counter.builder("log.wire.logs").tag("transport", tag).tag("result", "accepted")
+                    .description("Logs received by the TCP/UDP listener").register(registry);
+            rejected[transport.ordinal()] = Counter.builder("log.wire.logs").tag("transport", tag).tag("result", "rejected")
+                    .description("Logs received by the TCP/UDP listener").register(registry);
+        }
+        Gauge.builder("log.wire.connections", connections, AtomicInteger::get)
+                .description("Open TCP ingest connections")
+                .register(registry);
+    }
+
+    @PostConstruct
+    void start() throws IOException {
+        selector = Selector.open();
+        if (properties.getTcpPort() >= 0) {
+            tcp = ServerSocketChannel.open();
+            tcp.bind(new InetSocketAddress(properties.getBindAddress(), properties.getTcpPort()), 1_024);
+            tcp.configureBlocking(false);
+            tcp.register(selector, SelectionKey.OP_ACCEPT);
+        }
+        if (properties.getUdpPort() >= 0) {
+            udp = DatagramChannel.open();
+            udp.setOption(StandardSocketOptions.SO_RCVBUF, properties.getUdpReceiveBufferBytes());
+            udp.bind(new InetSocketAddress(properties.getBindAddress(), properties.getUdpPort()));
+            udp.configureBlocking(false);
+            udp.register(selector, SelectionKey.OP_READ);
+        }
+        running = true;
+        thread = new Thread(this::run, "log-wire-listener");
+        thread.setDaemon(true);
+        thread.start();
+        logger.info("Wire ingest listening on TCP port {} and UDP port {}", getTcpPort(), getUdpPort());
+    }
+
+    /**
+     * Stops reading and closes every channel. Logs already handed to the service are written as usual.
+     */
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        if (selector != null) selector.wakeup();
+        if (thread != null) thread.join(TimeUnit.SECONDS.toMillis(30));
+    }
+
+    /**
+     * The bound TCP port, or -1 when TCP is disabled.
+     */
+    public int getTcpPort() {
+        return tcp == null ? -1 : tcp.socket().getLocalPort();
+    }
+
+    /**
+     * The bound UDP port, or -1 when UDP is disabled.
+     */
+    public int getUdpPort() {
+        return udp == null ? -1 : udp.socket().getLocalPort();
+    }
+
+    public long getAcceptedLogs() {
+        return (long) (accepted[0].count() + accepted[1].count());
+    }
+
+    public long getRejectedLogs() {
+        return (long) (rejected[0].count() + rejected[1].count());
+    }
+
+    public int getConnections() {
+        return connections.get();
+    }
+
+    private void run() {
+        try {
+            while (running) {
+                selector.select();
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (!key.isValid()) continue;
+                    try {
+                        if (key.isAcceptable()) accept();
+                        else if (key.channel() == udp) receive();
+                        else read(key);
+                    } catch (IOException | RuntimeException e) {
+                        logger.warn("Wire ingest channel failed", e);
+                        if (key.attachment() instanceof Connection connection) close(key, connection);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            logger.error("Wire ingest listener stopped", e);
+        } finally {
+            for (SelectionKey key : selector.keys()) {
+                if (key.attachment() instanceof Connection connection) close(key, connection);
+            }
+            closeQuietly(tcp);
+            closeQuietly(udp);
+            closeQuietly(selector);
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel;
+        while ((channel = tcp.accept()) != null) {
+            if (connections.get() >= properties.getMaxConnections()) {
+                logger.debug("Refusing wire ingest connection from {}: {} connections open", channel.getRemoteAddress(), connections.get());
+                channel.close();
+                continue;
+            }
+            channel.configureBlocking(false);
+            channel.register(selector, SelectionKey.OP_READ, new Connection(channel));
+            connections.incrementAndGet();
+        }
+    }
+
+    private void read(SelectionKey key) throws IOException {
+        Connection connection = (Connection) key.attachment();
+        if (connection.buffer == null) connection.buffer = pool.acquire();
+        ByteBuffer buffer = connection.buffer;
+        boolean eof = connection.channel.read(buffer) < 0;
+        buffer.flip();
+        try {
+            if (connection.binary == null && buffer.hasRemaining()) connection.binary = LogFrameDecoder.isBinary(buffer);
+            if (Boolean.TRUE.equals(connection.binary)) {
+                frames(buffer, Transport.TCP);
+                if (eof && buffer.hasRemaining()) reject(Transport.TCP, "Connection closed inside a frame");
+            } else if (connection.binary != null) {
+                connection.discarding = lines(buffer, connection.discarding, eof, Transport.TCP);
+            }
+        } catch (IllegalArgumentException e) {
+            reject(Transport.TCP, e.getMessage());
+            eof = true;
+        }
+        flush(Transport.TCP);
+        if (eof) {
+            close(key, connection);
+            return;
+        }
+        buffer.compact();
+        if (buffer.position() == 0) {
+            pool.release(buffer);
+            connection.buffer = null;
+        }
+    }
+
+    private void receive() throws IOException {
+        ByteBuffer buffer = pool.acquire();
+        try {
+            while (udp.receive(buffer) != null) {
+                buffer.flip();
+                if (buffer.hasRemaining()) {
+                    try {
+                        if (LogFrameDecoder.isBinary(buffer)) {
+                            frames(buffer, Transport.UDP);
+                            if (buffer.hasRemaining()) reject(Transport.UDP, "Datagram ends inside a frame");
+                        } else {
+                            lines(buffer, false, true, Transport.UDP);
+                        }
+                    } catch (IllegalArgumentException e) {
+                        reject(Transport.UDP, e.getMessage());
+                    }
+                }
+                buffer.clear();
+            }
+        } finally {
+            pool.release(buffer);
+            flush(Transport.UDP);
+        }
+    }
+
+    /**
+     * Decodes every complete frame in the buffer, leaving it positioned at the first incomplete one.
+     *
+     * @throws IllegalArgumentException if a frame length is invalid and the framing is lost.
+     */
+    private void frames(ByteBuffer buffer, Transport transport) {
+        int length;
+        while ((length = LogFrameDecoder.frameLength(buffer, properties.getBufferBytes())) > 0 && buffer.remaining() >= length) {
+            int next = buffer.position() + length;
+            try {
+                add(LogFrameDecoder.decode(buffer), transport);
+            } catch (IllegalArgumentException e) {
+                reject(transport, e.getMessage());
+            }
+            buffer.position(next);
+        }
+    }
+
+    /**
+     * Decodes every complete line in the buffer, leaving it positioned at the start of an incomplete one.
+     *
+     * @param discarding Whether the first line is the rest of an overlong line to skip.
+     * @param last       Whether no more bytes will follow, so a final line without newline is complete.
+     * @return Whether the line the buffer ends with is overlong and the rest of it must be skipped.
+     */
+    private boolean lines(ByteBuffer buffer, boolean discarding, boolean last, Transport transport) {
+        byte[] array = buffer.array();
+        int start = buffer.position();
+        int limit = buffer.limit();
+        for (int i = start; i < limit; i++) {
+            if (array[i] != '\n') continue;
+            if (!discarding) line(array, start, i - start, transport);
+            discarding = false;
+            start = i + 1;
+        }
+        if (last && start < limit) {
+            if (!discarding) line(array, start, limit - start, transport);
+            start = limit;
+        } else if (start == 0 && limit == buffer.capacity()) {
+            if (!discarding) reject(transport, "Syslog line exceeds " + buffer.capacity() + " bytes");
+            discarding = true;
+            start = limit;
+        } else if (discarding) {
+            start = limit;
+        }
+        buffer.position(start);
+        return discarding;
+    }
+
+    private void line(byte[] array, int offset, int length, Transport transport) {
+        if (length == 0 || length == 1 && array[offset] == '\r') return;
+        try {
+            add(SyslogLineDecoder.decode(array, offset, length), transport);
+        } catch (IllegalArgumentException e) {
+            reject(transport, e.getMessage());
+        }
+    }
+
+    private void add(Log log, Transport transport) {
+        chunk.add(log);
+        if (chunk.size() >= chunkSize) flush(transport);
+    }
+
+    private void flush(Transport transport) {
+        if (chunk.isEmpty()) return;
+        try {
+            BatchIngestResponse response = logService.saveLogs(chunk);
+            accepted[transport.ordinal()].increment(response.getAccepted());
+            rejected[transport.ordinal()].increment(response.getRejected());
+        } catch (LogException e) {
+            logger.debug("Rejected {} {} logs: {}", chunk.size(), transport, e.getMessage());
+            rejected[transport.ordinal()].increment(chunk.size());
+        } finally {
+            chunk.clear();
+        }
+    }
+
+    private void reject(Transport transport, String reason) {
+        logger.debug("Rejected {} input: {}", transport, reason);
+        rejected[transport.ordinal()].increment();
+    }
+
+    private void close(SelectionKey key, Connection connection) {
+        key.cancel();
+        closeQuietly(connection.channel);
+        if (connection.buffer != null) {
+            pool.release(connection.buffer);
+            connection.buffer = null;
+        }
+        connections.decrementAndGet();
+    }
+
+    private static void closeQuietly(AutoCloseable closeable) {
+        if (closeable == null) return;
+        try {
+            closeable.close();
+        } catch (Exception e) {
+            logger.debug("Failed to close {}", closeable, e);
+        }
+    }
+}
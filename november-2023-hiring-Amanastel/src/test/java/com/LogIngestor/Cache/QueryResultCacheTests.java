@@ -0,0 +1,83 @@
+package com.LogIngestor.Cache;
+
+import com.LogIngestor.Config.CacheProperties;
+import com.LogIngestor.Model.Log;
+import com.LogIngestor.Model.LogQuery;
+import com.LogIngestor.Model.QueryCacheStats;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class QueryResultCacheTests {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2023, 11, 19, 8, 0);
+
+    private QueryResultCache cache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        cache = new QueryResultCache(new CacheProperties());
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    void savedLogsEvictOnlyQueriesTheyCouldMatch() {
+        LogQuery errors = LogQuery.byLevel("error");
+        LogQuery server = LogQuery.builder().resourceId("server-1").build();
+        LogQuery past = LogQuery.dateRange(BASE.minusDays(2), BASE.minusDays(1));
+        for (LogQuery query : List.of(errors, server, past)) cache.get(query, this::load);
+
+        cache.onLogsSaved(List.of(log("info", "server-2", 0)));
+        for (LogQuery query : List.of(errors, server, past)) cache.get(query, this::load);
+        assert loads.get() == 3;
+
+        // Collations compare case-insensitively, so "ERROR" may be returned for "error".
+        cache.onLogsSaved(List.of(log("ERROR", "server-2", 0)));
+        cache.get(errors, this::load);
+        cache.get(server, this::load);
+        cache.get(past, this::load);
+        assert loads.get() == 4;
+
+        QueryCacheStats stats = cache.getStats();
+        assert stats.getHits() == 5;
+        assert stats.getMisses() == 4;
+        assert stats.getInvalidations() == 1;
+    }
+
+    @Test
+    void resultLoadedWhileAMatchingLogIsSavedIsNotKept() {
+        LogQuery errors = LogQuery.byLevel("error");
+        cache.get(errors, () -> {
+            cache.onLogsSaved(List.of(log("error", "server-1", 0)));
+            return load();
+        });
+        cache.get(errors, this::load);
+        assert loads.get() == 2;
+    }
+
+    @Test
+    void collationKeyIgnoresCaseAccentsAndTrailingSpaces() {
+        assert QueryResultCache.collationKey("Erreur ").equals("erreur");
+        assert QueryResultCache.collationKey("ÉRREUR").equals("erreur");
+        assert !QueryResultCache.couldMatch(LogQuery.multipleFilters("error", "DB", null, null, null, null), log("error", "server-1", 0));
+    }
+
+    private List<Log> load() {
+        loads.incrementAndGet();
+        return List.of(log("error", "server-1", -60));
+    }
+
+    private static Log log(String level, String resourceId, int minutes) {
+        Log log = new Log();
+        log.setId((long) minutes + 1000);
+        log.setLevel(level);
+        log.setResourceId(resourceId);
+        log.setMessage("Failed to connect");
+        log.setTimestamp(BASE.plusMinutes(minutes));
+        return log;
+    }
+}
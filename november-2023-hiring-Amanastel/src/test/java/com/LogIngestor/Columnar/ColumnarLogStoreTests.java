@@ -0,0 +1,142 @@
+package com.LogIngestor.Columnar;
+
+import com.LogIngestor.Config.IngestProperties;
+import com.LogIngestor.Config.StorageProperties;
+import com.LogIngestor.Dictionary.StringDictionary;
+import com.LogIngestor.Model.Log;
+import com.LogIngestor.Model.LogCursor;
+import com.LogIngestor.Model.LogQuery;
+import com.LogIngestor.Model.Metadata;
+import com.LogIngestor.Model.StorageFootprint;
+import com.LogIngestor.Query.QueryCompiler;
+import com.LogIngestor.Template.LogTemplateMiner;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+class ColumnarLogStoreTests {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2023, 11, 19, 8, 0);
+
+    @TempDir
+    Path directory;
+
+    private StorageProperties properties;
+    private ColumnarLogStore store;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        properties = new StorageProperties();
+        properties.setDirectory(directory.toString());
+        properties.setCompactionMinSegments(3);
+        store = open();
+    }
+
+    @Test
+    void searchesBufferedAndFlushedLogsInOrder() {
+        store.append(List.of(log("error", "Failed to connect to DB", 20), log("info", "Heartbeat", 0)));
+        store.flush();
+        store.append(List.of(log("ERROR", "failed to connect to db", 10), log("warn", "Disk almost full", 30)));
+
+        assert messages(store.find(LogQuery.builder().build(), null, 10))
+                .equals(List.of("Heartbeat", "failed to connect to db", "Failed to connect to DB", "Disk almost full"));
+        assert messages(store.find(LogQuery.multipleFilters("error", "DB", null, null, null, null), null, 10))
+                .equals(List.of("Failed to connect to DB"));
+        assert messages(store.find(LogQuery.regex("failed.*db"), null, 10))
+                .equals(List.of("failed to connect to db", "Failed to connect to DB"));
+        assert messages(store.find(LogQuery.dateRange(BASE, BASE.plusMinutes(30)), null, 10))
+                .equals(List.of("failed to connect to db", "Failed to connect to DB"));
+        assert messages(store.find(QueryCompiler.compile("resourceId:server-12* AND (level:warn OR msg~/db$/)", BASE), null, 10))
+                .equals(List.of("failed to connect to db", "Failed to connect to DB", "Disk almost full"));
+
+        List<Log> first = store.find(LogQuery.builder().build(), null, 2);
+        List<Log> second = store.find(LogQuery.builder().build(), LogCursor.of(first.get(1)), 2);
+        assert messages(second).equals(List.of("Failed to connect to DB", "Disk almost full"));
+    }
+
+    @Test
+    void compactsAndReopensSegments() throws IOException {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            Log log = log("info", "message " + i, i);
+            log.setMetadata(new Metadata("parent-" + i));
+            store.append(List.of(log));
+            ids.add(log.getId());
+            store.flush();
+        }
+        assert store.getSegmentCount() == 4;
+        store.compact();
+        assert store.getSegmentCount() == 1;
+
+        store = open();
+        assert store.getSegmentCount() == 1;
+        Log restored = store.findById(ids.get(2));
+        assert restored.getMessage().equals("message 2");
+        assert restored.getMetadata().getParentResourceId().equals("parent-2");
+        assert restored.getTimestamp().equals(BASE.plusMinutes(2));
+        assert restored.getResourceId() == store.findById(ids.get(0)).getResourceId();
+
+        StorageFootprint footprint = store.getFootprint();
+        assert footprint.getRows() == 4 && footprint.getDictionaryEntries() == 6;
+        assert footprint.getColumns().stream()
+                .filter(column -> column.getDictionaryEncodedSegments() == 1)
+                .map(StorageFootprint.ColumnFootprint::getColumn).toList()
+                .equals(List.of("LEVEL", "RESOURCE_ID", "COMMIT", "PARENT_RESOURCE_ID"));
+        assert footprint.getEstimatedEncodedHeapBytes() > 0;
+
+        Log next = log("debug", "after reopen", 5);
+        store.append(List.of(next));
+        assert next.getId() > ids.get(3);
+    }
+
+    @Test
+    void storesAndGroupsMessagesByTemplate() throws IOException {
+        for (int i = 0; i < 20; i++) {
+            store.append(List.of(log(i % 5 == 0 ? "error" : "info", "Request " + i + " took " + (i * 7) + "ms", i)));
+        }
+        store.append(List.of(log("warn", "Disk almost full", 20)));
+        store.flush();
+
+        StorageFootprint footprint = store.getFootprint();
+        assert footprint.getTemplates() == 2;
+        assert footprint.getColumns().stream().anyMatch(column -> column.getColumn().equals("MESSAGE") && column.getTemplateEncodedSegments() == 1);
+
+        store = open();
+        assert messages(store.find(LogQuery.multipleFilters(null, "took 21ms", null, null, null, null), null, 10))
+                .equals(List.of("Request 3 took 21ms"));
+        assert messages(store.find(LogQuery.regex("^disk"), null, 10)).equals(List.of("Disk almost full"));
+        assert store.find(LogQuery.multipleFilters("error", "Request", null, null, null, null), null, 10).size() == 4;
+
+        store.append(List.of(log("info", "Request 99 took 5ms", 21)));
+        Map<Integer, Long> counts = store.countTemplates(LogQuery.builder().build());
+        assert counts.values().stream().sorted().toList().equals(List.of(1L, 21L));
+        assert store.countTemplates(LogQuery.byLevel("error")).values().stream().toList().equals(List.of(4L));
+    }
+
+    private ColumnarLogStore open() throws IOException {
+        ColumnarLogStore opened = new ColumnarLogStore(properties, new StringDictionary(properties), new IngestProperties(),
+                new LogTemplateMiner(properties));
+        opened.open();
+        return opened;
+    }
+
+    private static Log log(String level, String message, int minutes) {
+        Log log = new Log();
+        log.setLevel(level);
+        log.setMessage(message);
+        log.setResourceId("server-1234");
+        log.setTimestamp(BASE.plusMinutes(minutes));
+        return log;
+    }
+
+    private static List<String> messages(List<Log> logs) {
+        return logs.stream().map(Log::getMessage).toList();
+    }
+}
@@ -0,0 +1,61 @@
+package com.LogIngestor.Execution;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+import static org.mockito.Mockito.*;
+
+class ConcurrencyLimitingDataSourceTests {
+
+    private DataSource target;
+    private ConcurrencyLimitingDataSource dataSource;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        target = mock(DataSource.class);
+        when(target.getConnection()).thenAnswer(invocation -> mock(Connection.class));
+        dataSource = new ConcurrencyLimitingDataSource(target, 2, Duration.ofMillis(50));
+    }
+
+    @Test
+    void holdsAPermitUntilTheConnectionIsClosed() throws SQLException {
+        Connection first = dataSource.getConnection();
+        Connection second = dataSource.getConnection();
+        assert dataSource.getAvailablePermits() == 0;
+        assertRejected();
+
+        first.close();
+        first.close();
+        assert dataSource.getAvailablePermits() == 1;
+        dataSource.getConnection().close();
+        second.close();
+        assert dataSource.getAvailablePermits() == 2;
+    }
+
+    @Test
+    void releasesThePermitWhenTheTargetFails() throws SQLException {
+        when(target.getConnection()).thenThrow(new SQLException("down"));
+        try {
+            dataSource.getConnection();
+            throw new AssertionError("Expected SQLException");
+        } catch (SQLException expected) {
+            // The target failure is passed through.
+        }
+        assert dataSource.getAvailablePermits() == 2;
+    }
+
+    private void assertRejected() throws SQLException {
+        try {
+            dataSource.getConnection();
+            throw new AssertionError("Expected SQLTransientConnectionException");
+        } catch (SQLTransientConnectionException expected) {
+            // No permit was free within the timeout.
+        }
+    }
+}
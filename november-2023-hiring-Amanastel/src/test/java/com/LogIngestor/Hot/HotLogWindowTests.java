@@ -0,0 +1,77 @@
+package com.LogIngestor.Hot;
+
+import com.LogIngestor.Config.HotProperties;
+import com.LogIngestor.Model.Log;
+import com.LogIngestor.Model.LogCursor;
+import com.LogIngestor.Model.LogQuery;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+class HotLogWindowTests {
+
+    private HotProperties properties;
+    private HotLogWindow window;
+    private LocalDateTime now;
+
+    @BeforeEach
+    void setUp() {
+        properties = new HotProperties();
+        window = new HotLogWindow(null, properties);
+        window.clear();
+        now = LocalDateTime.now();
+    }
+
+    @Test
+    void findsByIndexedFieldsInOrder() {
+        window.onLogsSaved(List.of(
+                log(1, "ERROR", "server-1", "Failed to connect", 30),
+                log(2, "info", "server-2", "Heartbeat", 10),
+                log(3, "error", "server-2", "Disk full", 20),
+                log(4, "warn", "server-1", "Slow query", 90)));
+
+        assert ids(window.find(LogQuery.multipleFilters("Error", null, null, null, null, null), null, null, 10)).equals(List.of(3L, 1L));
+        assert ids(window.find(LogQuery.byLevel("error"), null, null, 10)).equals(List.of(3L));
+        assert ids(window.find(LogQuery.builder().resourceId("server-1").build(), null, null, 10)).equals(List.of(1L, 4L));
+        assert ids(window.find(LogQuery.dateRange(now.plusSeconds(10), now.plusSeconds(90)), null, null, 10)).equals(List.of(3L, 1L));
+
+        List<Log> first = window.find(LogQuery.builder().build(), null, null, 2);
+        assert ids(first).equals(List.of(2L, 3L));
+        assert ids(window.find(LogQuery.builder().build(), null, LogCursor.of(first.get(1)), 10)).equals(List.of(1L, 4L));
+        assert ids(window.find(LogQuery.builder().build(), now.plusSeconds(30), null, 10)).equals(List.of(1L, 4L));
+    }
+
+    @Test
+    void ignoresDuplicatesAndLogsOlderThanTheWindow() {
+        window.onLogsSaved(List.of(log(1, "info", "server-1", "a", 5), log(1, "info", "server-1", "a", 5)));
+        window.onLogsSaved(List.of(log(2, "info", "server-1", "old", -60)));
+        assert window.getLogCount() == 1;
+    }
+
+    @Test
+    void evictsBucketsBeyondTheMemoryBudget() {
+        properties.setMaxMegabytes(0);
+        properties.setWindow(Duration.ofHours(1));
+        window.onLogsSaved(List.of(log(1, "info", "server-1", "a", 5)));
+        window.evict();
+        assert window.getLogCount() == 0;
+        assert window.getEstimatedBytes() == 0;
+    }
+
+    private Log log(long id, String level, String resourceId, String message, int seconds) {
+        Log log = new Log();
+        log.setId(id);
+        log.setLevel(level);
+        log.setResourceId(resourceId);
+        log.setMessage(message);
+        log.setTimestamp(now.plusSeconds(seconds));
+        return log;
+    }
+
+    private static List<Long> ids(List<Log> logs) {
+        return logs.stream().map(Log::getId).toList();
+    }
+}
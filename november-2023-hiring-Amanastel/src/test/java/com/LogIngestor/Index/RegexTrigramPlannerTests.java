@@ -0,0 +1,74 @@
+package com.LogIngestor.Index;
+
+import com.LogIngestor.Model.Log;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.roaringbitmap.longlong.Roaring64NavigableMap;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+class RegexTrigramPlannerTests {
+
+    private static final List<String> MESSAGES = List.of(
+            "Failed to connect to DB",
+            "Connection timeout after 30s",
+            "User alice logged in",
+            "Disk usage at 91% on /var",
+            "payment FAILED: card declined",
+            "Cache miss for key user:42",
+            "ab",
+            "Retrying request (attempt 3)");
+
+    private MessageTrigramIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new MessageTrigramIndex();
+        List<Log> logs = new ArrayList<>();
+        for (int i = 0; i < MESSAGES.size(); i++) {
+            Log log = new Log();
+            log.setId((long) i + 1);
+            log.setMessage(MESSAGES.get(i));
+            logs.add(log);
+        }
+        index.add(logs);
+        index.markReady();
+    }
+
+    @Test
+    void candidatesNeverMissAMatch() {
+        List<String> regexes = List.of("failed", "connect.*db", "time(out|d)", "us(er|age)", "user \\w+ logged",
+                "^payment", "[0-9]+% on", "miss for key user:\\d+", "\\Qattempt 3)\\E", "fail(ed)?", "(?i)CARD",
+                "retr(y|ies)+ing", "a{3}", "disk|cache", "a.b", "(?:connection )?timeout", "x?yz*", "\\bdb$");
+        for (String regex : regexes) {
+            Pattern pattern = Pattern.compile(regex, Pattern.CASE_INSENSITIVE);
+            Roaring64NavigableMap candidates = index.candidates(regex);
+            for (int i = 0; i < MESSAGES.size(); i++) {
+                if (pattern.matcher(MESSAGES.get(i)).find()) {
+                    assert candidates == null || candidates.contains(i + 1) : regex + " missed " + MESSAGES.get(i);
+                }
+            }
+        }
+    }
+
+    @Test
+    void literalsNarrowTheCandidates() {
+        assert index.candidates("failed").getLongCardinality() == 2;
+        assert index.candidates("connect.*db").getLongCardinality() == 2;
+        assert index.candidates("declined|logged").getLongCardinality() == 2;
+        assert index.candidates("no such message").isEmpty();
+    }
+
+    @Test
+    void unconstrainedRegexesScanEverything() {
+        assert RegexTrigramPlanner.plan(".*").isAll();
+        assert RegexTrigramPlanner.plan("ab|cde").isAll();
+        assert RegexTrigramPlanner.plan("(abc)*").isAll();
+        assert RegexTrigramPlanner.plan("(a)\\1bcd").isAll();
+        assert RegexTrigramPlanner.plan("(?x) a b c").isAll();
+        assert !RegexTrigramPlanner.plan("abc+").isAll();
+        assert index.candidates(".*") == null;
+    }
+}
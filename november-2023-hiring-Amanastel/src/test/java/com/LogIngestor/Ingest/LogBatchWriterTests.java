@@ -0,0 +1,56 @@
+package com.LogIngestor.Ingest;
+
+import com.LogIngestor.Model.Log;
+import com.LogIngestor.Repository.LogRepository;
+import com.LogIngestor.Service.LogService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:logBatchWriter;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=TIMESTAMP,COMMIT")
+class LogBatchWriterTests {
+
+    @Autowired
+    private LogService logService;
+
+    @Autowired
+    private LogRepository logRepository;
+
+    @Autowired
+    private LogBatchWriter logBatchWriter;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Test
+    void writesTheRestOfABatchAndCountsTheLogsTheDatabaseRejects() throws InterruptedException {
+        double dropped = registry.counter("log.ingest.dropped").count();
+        // The message column is varchar(255), so the middle log can never be written.
+        List<Log> logs = List.of(log("Connected to DB"), log("x".repeat(300)), log("Heartbeat"));
+        assert logService.saveLogs(logs).getAccepted() == 3;
+
+        long deadline = System.currentTimeMillis() + 10_000;
+        while ((registry.counter("log.ingest.dropped").count() == dropped || logRepository.count() < 2)
+                && System.currentTimeMillis() < deadline) Thread.sleep(20);
+
+        assert logBatchWriter.getQueueDepth() == 0;
+        assert registry.counter("log.ingest.dropped").count() == dropped + 1;
+        assert logRepository.findAll().stream().map(Log::getMessage).collect(Collectors.toSet())
+                .equals(Set.of("Connected to DB", "Heartbeat"));
+    }
+
+    private static Log log(String message) {
+        Log log = new Log();
+        log.setLevel("info");
+        log.setMessage(message);
+        log.setResourceId("server-1234");
+        log.setTimestamp(LocalDateTime.of(2023, 11, 19, 8, 0));
+        return log;
+    }
+}
@@ -0,0 +1,74 @@
+package com.LogIngestor.Ingest;
+
+import com.LogIngestor.Config.IngestProperties;
+import com.LogIngestor.Model.BatchIngestResponse;
+import com.LogIngestor.Model.Log;
+import com.LogIngestor.Model.StreamIngestResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+class NdjsonLogReaderTests {
+
+    private IngestProperties properties;
+    private NdjsonLogReader reader;
+    private List<Log> received;
+
+    @BeforeEach
+    void setUp() {
+        properties = new IngestProperties();
+        properties.setBatchSize(2);
+        reader = new NdjsonLogReader(new ObjectMapper(), properties);
+        received = new ArrayList<>();
+    }
+
+    @Test
+    void parsesLinesInChunksAndReportsMalformedLines() throws IOException {
+        String body = """
+                {"level":"error","message":"Failed to connect to DB","resourceId":"server-1234","timestamp":"2023-09-15T08:00:00Z","metadata":{"parentResourceId":"server-0987"}}
+                {"level":"info","message":"broken"
+                
+                {"level":"warn","message":"Disk almost full","unknown":{"nested":[1,2]}}\r
+                {"level":"debug","message":"Heartbeat"}""";
+
+        StreamIngestResponse response = read(body);
+
+        assert response.getLines() == 4;
+        assert response.getAccepted() == 3;
+        assert response.getRejected() == 1;
+        assert response.getErrors().size() == 1;
+        assert response.getErrors().get(0).getLine() == 2;
+
+        assert received.size() == 3;
+        Log first = received.get(0);
+        assert first.getTimestamp().equals(LocalDateTime.of(2023, 9, 15, 8, 0));
+        assert first.getMetadata().getParentResourceId().equals("server-0987");
+        assert received.get(1).getMessage().equals("Disk almost full");
+    }
+
+    @Test
+    void skipsLinesLongerThanTheLimit() throws IOException {
+        properties.setStreamMaxLineBytes(64);
+        String body = "{\"level\":\"error\",\"message\":\"" + "x".repeat(200) + "\"}\n{\"level\":\"info\",\"message\":\"ok\"}\n";
+
+        StreamIngestResponse response = read(body);
+
+        assert response.getAccepted() == 1;
+        assert response.getErrors().get(0).getLine() == 1;
+        assert received.get(0).getMessage().equals("ok");
+    }
+
+    private StreamIngestResponse read(String body) throws IOException {
+        return reader.read(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), chunk -> {
+            received.addAll(chunk);
+            return new BatchIngestResponse(chunk.size(), 0);
+        });
+    }
+}
@@ -1,6 +1,8 @@
 package com.LogIngestor;
 
 import com.LogIngestor.Controller.LogController;
+import com.LogIngestor.Model.BatchIngestResponse;
+import com.LogIngestor.Model.LogPage;
 import com.LogIngestor.Model.Metadata;
 import com.LogIngestor.Service.LogService;
 import org.junit.jupiter.api.BeforeEach;
@@ -43,19 +45,45 @@ class LogIngestorApplicationTests {
         assert response.getBody().equals(sampleLog);
     }
 
+    @Test
+    void saveLogsHandler() {
+        List<Log> sampleLogs = createSampleLogs();
+        when(logService.saveLogs(any())).thenReturn(new BatchIngestResponse(1, 0));
+
+        ResponseEntity<BatchIngestResponse> response = logController.saveLogsHandler(sampleLogs);
+
+        verify(logService, times(1)).saveLogs(sampleLogs);
+        assert response.getStatusCode().value() == 202;
+        assert response.getBody() != null;
+        assert response.getBody().getAccepted() == 1;
+    }
+
     @Test
     void searchLogs() {
         List<Log> sampleLogs = createSampleLogs();
         when(logService.searchLogs(anyString(), anyString(), anyString(), any(), any()))
                 .thenReturn(sampleLogs);
 
-        ResponseEntity<List<Log>> response = logController.searchLogs("error", "Failed to connect", "server-1234", null, null);
+        ResponseEntity<List<Log>> response = logController.searchLogs("error", "Failed to connect", "server-1234", null, null, null, null);
 
         verify(logService, times(1)).searchLogs(anyString(), anyString(), anyString(), any(), any());
         assert response.getBody() != null;
         assert response.getBody().equals(sampleLogs);
     }
 
+    @Test
+    void searchLogsPaged() {
+        List<Log> sampleLogs = createSampleLogs();
+        when(logService.searchLogsPage(any(), eq(1), isNull())).thenReturn(new LogPage(sampleLogs, "next"));
+
+        ResponseEntity<List<Log>> response = logController.searchLogs("error", null, null, null, null, 1, null);
+
+        verify(logService, never()).searchLogs(any(), any(), any(), any(), any());
+        assert "next".equals(response.getHeaders().getFirst("X-Next-Cursor"));
+        assert response.getBody() != null;
+        assert response.getBody().equals(sampleLogs);
+    }
+
     // Add similar tests for other methods
 
     private Log createSampleLog() {
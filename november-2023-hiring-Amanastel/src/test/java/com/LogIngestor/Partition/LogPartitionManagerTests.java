@@ -0,0 +1,54 @@
+package com.LogIngestor.Partition;
+
+import com.LogIngestor.Config.PartitionProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+class LogPartitionManagerTests {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2023, 11, 19, 8, 30);
+
+    private PartitionProperties properties;
+    private LogPartitionManager manager;
+
+    @BeforeEach
+    void setUp() {
+        properties = new PartitionProperties();
+        properties.setPrecreate(2);
+        manager = new LogPartitionManager(null, properties, null);
+    }
+
+    @Test
+    void partitionNamesRoundTrip() {
+        LocalDateTime hour = LocalDateTime.of(2023, 11, 19, 8, 0);
+        assert PartitionGranularity.HOUR.partitionName(hour).equals("p2023111908");
+        assert PartitionGranularity.HOUR.parse("p2023111908").equals(hour);
+        assert PartitionGranularity.DAY.partitionName(hour).equals("p20231119");
+        assert PartitionGranularity.DAY.parse("p20231119").equals(hour.toLocalDate().atStartOfDay());
+        assert PartitionGranularity.DAY.parse(LogPartitionManager.MAX_PARTITION) == null;
+        assert PartitionGranularity.DAY.parse("p2023111908") == null;
+    }
+
+    @Test
+    void createsBucketsAheadOfNow() {
+        List<String> partitions = List.of(LogPartitionManager.HISTORY_PARTITION, "p20231118", "p20231119", LogPartitionManager.MAX_PARTITION);
+        assert manager.upcomingBuckets(partitions, NOW)
+                .equals(List.of(LocalDateTime.of(2023, 11, 20, 0, 0), LocalDateTime.of(2023, 11, 21, 0, 0)));
+        assert manager.upcomingBuckets(List.of("p20231121", LogPartitionManager.MAX_PARTITION), NOW).isEmpty();
+    }
+
+    @Test
+    void dropsOnlyFullyExpiredPartitions() {
+        List<String> partitions = List.of(LogPartitionManager.HISTORY_PARTITION, "p20231116", "p20231117", "p20231118",
+                "p20231119", LogPartitionManager.MAX_PARTITION);
+        assert manager.expiredPartitions(partitions, NOW).isEmpty();
+
+        properties.setRetention(Duration.ofDays(2));
+        assert manager.expiredPartitions(partitions, NOW)
+                .equals(List.of(LogPartitionManager.HISTORY_PARTITION, "p20231116"));
+    }
+}
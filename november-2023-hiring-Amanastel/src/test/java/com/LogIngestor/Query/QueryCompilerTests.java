@@ -0,0 +1,83 @@
+package com.LogIngestor.Query;
+
+import com.LogIngestor.Exception.LogException;
+import com.LogIngestor.Model.Log;
+import com.LogIngestor.Model.LogQuery;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+class QueryCompilerTests {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2023, 11, 19, 8, 0);
+
+    @Test
+    void pushesIndexableConjunctsDown() {
+        LogQuery query = QueryCompiler.compile("level:error AND resourceId:server-12* AND msg~/Failed.*DB/ AND time:[-1h,now]", NOW);
+        assert query.getLevel().equals("error") && query.getLevelMatch() == LogQuery.Match.IGNORE_CASE;
+        assert query.getRegex().equals("Failed.*DB");
+        assert query.getStartTime().equals(NOW.minusHours(1)) && query.getEndTime().equals(NOW);
+        assert query.isInclusiveTimeBounds() && query.isVerify();
+        assert query.getResourceId() == null;
+        assert query.getResidualExpression().equals("resourceId:\"server-12\"*");
+
+        LogQuery exact = QueryCompiler.compile("resourceId:server-1 msg:\"Failed to \\\"connect\\\"\" msg~/a\\/b\\.c/", NOW);
+        assert exact.getResourceId().equals("server-1");
+        assert exact.getMessage().equals("Failed to \"connect\"") && exact.getMessageMatch() == LogQuery.Match.CONTAINS;
+        assert exact.getRegex().equals("a/b\\.c");
+        assert exact.getResidual() == null;
+
+        LogQuery either = QueryCompiler.compile("resourceId:a OR resourceId:b", NOW);
+        assert either.getResourceId() == null && either.getResidual() != null;
+    }
+
+    @Test
+    void ordersTermsByCostAndSelectivity() {
+        assert QueryCompiler.optimize(QueryParser.parse("msg~/timeout/ OR resourceId:a OR level:warn", NOW)).toString()
+                .equals("level:\"warn\" OR resourceId:\"a\" OR msg~/timeout/");
+        assert QueryCompiler.optimize(QueryParser.parse("msg~/timeout/ msg:DB (traceId:abc AND time:[-5m,*])", NOW)).toString()
+                .equals("traceId:\"abc\" AND time:[2023-11-19T07:55,*] AND msg:\"DB\" AND msg~/timeout/");
+        assert QueryCompiler.optimize(QueryParser.parse("NOT NOT level:warn", NOW)).toString().equals("level:\"warn\"");
+    }
+
+    @Test
+    void evaluatesResidualTerms() {
+        LogQuery query = QueryCompiler.compile("level:ERROR AND (resourceId:server-12* OR NOT commit:*)", NOW);
+        assert query.getLevel().equals("ERROR");
+        assert query.getResidualExpression().equals("resourceId:\"server-12\"* OR NOT commit:*");
+        assert query.matches(log("error", "server-123", "c1"));
+        assert query.matches(log("error", "server-9", null));
+        assert !query.matches(log("error", "server-9", "c1"));
+        assert !query.matches(log("info", "server-123", "c1"));
+    }
+
+    @Test
+    void identifiesQueriesByResolvedTerms() {
+        String expression = "level:error OR time:[-1h,now]";
+        assert QueryCompiler.compile(expression, NOW).equals(QueryCompiler.compile(expression, NOW));
+        assert !QueryCompiler.compile(expression, NOW).equals(QueryCompiler.compile(expression, NOW.plusMinutes(1)));
+    }
+
+    @Test
+    void rejectsMalformedExpressions() {
+        for (String expression : new String[]{" ", "level:", "foo:bar", "msg~/[/", "(level:error", "level:error AND",
+                "time:[now,-1h]", "time:[-1x,now]", "level:error)"}) {
+            try {
+                QueryCompiler.compile(expression, NOW);
+            } catch (LogException e) {
+                continue;
+            }
+            throw new AssertionError("Expected a LogException for " + expression);
+        }
+    }
+
+    private static Log log(String level, String resourceId, String commit) {
+        Log log = new Log();
+        log.setLevel(level);
+        log.setMessage("Failed to connect to DB");
+        log.setResourceId(resourceId);
+        log.setCommit(commit);
+        log.setTimestamp(NOW);
+        return log;
+    }
+}
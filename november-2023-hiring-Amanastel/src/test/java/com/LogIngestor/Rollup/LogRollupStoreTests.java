@@ -0,0 +1,93 @@
+package com.LogIngestor.Rollup;
+
+import com.LogIngestor.Exception.LogException;
+import com.LogIngestor.Model.Log;
+import com.LogIngestor.Model.LogStats;
+import com.LogIngestor.Service.StatsService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@SpringBootTest
+class LogRollupStoreTests {
+
+    private static final LocalDateTime BASE = LocalDateTime.now().minusDays(2).withHour(8).withMinute(0).withSecond(0).withNano(0);
+
+    @Autowired
+    private LogRollupStore logRollupStore;
+
+    @Autowired
+    private StatsService statsService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        logRollupStore.flush();
+        jdbcTemplate.update("DELETE FROM log_rollup");
+        logRollupStore.onLogsSaved(List.of(
+                log(1, "error", "server-1", 0),
+                log(2, "error", "server-1", 0),
+                log(3, "error", "server-2", 1),
+                log(4, "info", "server-1", 61)));
+    }
+
+    @Test
+    void countsPendingAndFlushedLogsPerBucket() {
+        LogStats pending = statsService.getStats(List.of("resourceId"), "1m", BASE, BASE.plusMinutes(2), "error", null);
+        logRollupStore.flush();
+        LogStats flushed = statsService.getStats(List.of("resourceId"), "1m", BASE, BASE.plusMinutes(2), "error", null);
+
+        for (LogStats stats : List.of(pending, flushed)) {
+            assert stats.getTotal() == 3;
+            assert stats.getBuckets().equals(List.of(
+                    new LogStats.Bucket(BASE, null, "server-1", 2),
+                    new LogStats.Bucket(BASE.plusMinutes(1), null, "server-2", 1)));
+        }
+    }
+
+    @Test
+    void coarseIntervalsAreServedFromHourlyRollups() {
+        logRollupStore.flush();
+        Integer hourRows = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM log_rollup WHERE granularity = 'HOUR'", Integer.class);
+        assert hourRows == 3;
+
+        LogStats stats = statsService.getStats(List.of("level"), "1h", BASE, BASE.plusHours(3), null, null);
+        assert stats.getBuckets().equals(List.of(
+                new LogStats.Bucket(BASE, "error", null, 3),
+                new LogStats.Bucket(BASE.plusHours(1), "info", null, 1)));
+        assert statsService.getStats(null, "1d", BASE.minusDays(1), BASE.plusDays(1), null, null).getTotal() == 4;
+    }
+
+    @Test
+    void rejectsInvalidParameters() {
+        assertRejected(() -> statsService.getStats(List.of("message"), "1m", BASE, BASE.plusHours(1), null, null));
+        assertRejected(() -> statsService.getStats(null, "90s", BASE, BASE.plusHours(1), null, null));
+        assertRejected(() -> statsService.getStats(null, "1m", BASE.minusDays(30), BASE, null, null));
+    }
+
+    private static void assertRejected(Runnable call) {
+        try {
+            call.run();
+        } catch (LogException e) {
+            return;
+        }
+        throw new AssertionError("Expected a LogException");
+    }
+
+    private static Log log(long id, String level, String resourceId, int minutes) {
+        Log log = new Log();
+        log.setId(id);
+        log.setLevel(level);
+        log.setResourceId(resourceId);
+        log.setMessage("message");
+        log.setTimestamp(BASE.plusMinutes(minutes));
+        return log;
+    }
+}
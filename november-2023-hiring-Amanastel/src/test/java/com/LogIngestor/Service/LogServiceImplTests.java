@@ -0,0 +1,296 @@
+package com.LogIngestor.Service;
+
+import com.LogIngestor.Cache.QueryResultCache;
+import com.LogIngestor.Config.ScanProperties;
+import com.LogIngestor.Config.SearchProperties;
+import com.LogIngestor.Hot.HotLogWindow;
+import com.LogIngestor.Index.LogIndexBootstrap;
+import com.LogIngestor.Model.Log;
+import com.LogIngestor.Model.LogPage;
+import com.LogIngestor.Model.LogQuery;
+import com.LogIngestor.Model.Metadata;
+import com.LogIngestor.Model.QueryPlan;
+import com.LogIngestor.Model.ScanResult;
+import com.LogIngestor.Repository.LogRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@SpringBootTest
+class LogServiceImplTests {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2023, 11, 19, 8, 0);
+
+    @Autowired
+    private LogService logService;
+
+    @Autowired
+    private LogRepository logRepository;
+
+    @Autowired
+    private LogIndexService logIndexService;
+
+    @Autowired
+    private LogIndexBootstrap logIndexBootstrap;
+
+    @Autowired
+    private HotLogWindow hotLogWindow;
+
+    @Autowired
+    private QueryResultCache queryResultCache;
+
+    @Autowired
+    private ScanProperties scanProperties;
+
+    @Autowired
+    private SearchProperties searchProperties;
+
+    @BeforeEach
+    void setUp() {
+        logRepository.deleteAll();
+        hotLogWindow.clear();
+        queryResultCache.clear();
+        List<Log> logs = new ArrayList<>();
+        logs.add(log("error", "Failed to connect to DB", "server-1234", 0));
+        logs.add(log("ERROR", "failed to connect to db", "server-1234", 10));
+        logs.add(log("info", "Connected to DB 100% of the time", "server-5678", 20));
+        logs.add(log("warn", "Retrying connection_pool", "Server-1234", 30));
+        logs.add(log("info", "Heartbeat", "server-5678", 40));
+        logRepository.saveAll(logs);
+    }
+
+    @Test
+    void searchLogsMatchesExactFieldsAndInclusiveRange() {
+        assert messages(logService.searchLogs("error", null, "server-1234", null, null))
+                .equals(Set.of("Failed to connect to DB"));
+        assert messages(logService.searchLogs("info", null, null, BASE.plusMinutes(20), BASE.plusMinutes(40)))
+                .equals(Set.of("Connected to DB 100% of the time", "Heartbeat"));
+    }
+
+    @Test
+    void searchLogsByDateRangeExcludesBounds() {
+        assert messages(logService.searchLogsByDateRange(BASE, BASE.plusMinutes(40)))
+                .equals(Set.of("failed to connect to db", "Connected to DB 100% of the time", "Retrying connection_pool"));
+    }
+
+    @Test
+    void searchLogsByRegexIsCaseInsensitive() {
+        assert messages(logService.searchLogsByRegex("Failed.*DB"))
+                .equals(Set.of("Failed to connect to DB", "failed to connect to db"));
+    }
+
+    @Test
+    void searchLogsByMultipleFiltersKeepsJavaStringSemantics() {
+        assert messages(logService.searchLogsByMultipleFilters("error", "DB", "server-1234", null, null, null))
+                .equals(Set.of("Failed to connect to DB"));
+        assert messages(logService.searchLogsByMultipleFilters(null, "100%", null, null, null, null))
+                .equals(Set.of("Connected to DB 100% of the time"));
+        assert messages(logService.searchLogsByMultipleFilters(null, "_pool", "Server-1234", null, null, null))
+                .equals(Set.of("Retrying connection_pool"));
+        assert messages(logService.searchLogsByMultipleFiltersWithOptional(null, null, null,
+                Optional.of(BASE), Optional.empty(), "connect"))
+                .equals(Set.of("failed to connect to db", "Connected to DB 100% of the time", "Retrying connection_pool"));
+    }
+
+    @Test
+    void searchLogsPageWalksKeysetCursor() {
+        LogQuery query = LogQuery.multipleFilters(null, null, null, null, null, "connect");
+        LogPage first = logService.searchLogsPage(query, 2, null);
+        LogPage second = logService.searchLogsPage(query, 2, first.getNextCursor());
+
+        assert first.getLogs().size() == 2;
+        assert first.getNextCursor() != null;
+        assert second.getLogs().size() == 2;
+        assert second.getLogs().get(0).getTimestamp().isAfter(first.getLogs().get(1).getTimestamp());
+        assert messages(second.getLogs()).equals(Set.of("Connected to DB 100% of the time", "Retrying connection_pool"));
+    }
+
+    @Test
+    void exportLogsWritesNdjson() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        logService.exportLogs(LogQuery.byLevel("info"), out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assert lines.length == 2;
+        assert lines[0].startsWith("{") && lines[0].contains("Connected to DB");
+        assert lines[1].contains("Heartbeat");
+    }
+
+    @Test
+    void statelessReadsReturnTheSameLogsAsManagedReads() throws IOException {
+        LogQuery query = LogQuery.multipleFilters(null, null, null, null, null, "connect");
+        List<Log> stateless = logService.searchLogsByRegex("connect");
+        LogPage statelessPage = logService.searchLogsPage(query, 2, null);
+        ByteArrayOutputStream statelessExport = new ByteArrayOutputStream();
+        logService.exportLogs(query, statelessExport);
+
+        searchProperties.setStatelessReads(false);
+        try {
+            queryResultCache.clear();
+            assert messages(logService.searchLogsByRegex("connect")).equals(messages(stateless));
+            assert messages(logService.searchLogsPage(query, 2, null).getLogs()).equals(messages(statelessPage.getLogs()));
+            ByteArrayOutputStream managedExport = new ByteArrayOutputStream();
+            logService.exportLogs(query, managedExport);
+            assert managedExport.toString(StandardCharsets.UTF_8).equals(statelessExport.toString(StandardCharsets.UTF_8));
+        } finally {
+            searchProperties.setStatelessReads(true);
+        }
+        assert stateless.size() == 4;
+        assert stateless.stream().allMatch(log -> log.getId() != null && "server-0987".equals(log.getMetadata().getParentResourceId()));
+    }
+
+    @Test
+    void searchLogsByTermsIntersectsPostings() {
+        logIndexBootstrap.rebuild();
+
+        assert messages(logIndexService.searchLogsByTerms("connect DB", false, 10))
+                .equals(Set.of("Failed to connect to DB", "failed to connect to db"));
+        assert messages(logIndexService.searchLogsByTerms("to db", true, 10))
+                .equals(Set.of("Failed to connect to DB", "failed to connect to db", "Connected to DB 100% of the time"));
+        assert logIndexService.searchLogsByTerms("db to", true, 10).isEmpty();
+        assert logIndexService.searchLogsByTerms("connect db", false, 1).size() == 1;
+    }
+
+    @Test
+    void recentSearchesAreServedFromTheHotWindow() {
+        hotLogWindow.preload();
+        Log saved = logService.saveLog(log("error", "Failed to reach cache", "server-1234", 0));
+        // Only the hot window still holds it, so every hit below comes from memory.
+        logRepository.deleteById(saved.getId());
+
+        assert messages(logService.searchLogsByMultipleFilters("ERROR", "cache", null, saved.getTimestamp().minusMinutes(1), null, null))
+                .equals(Set.of("Failed to reach cache"));
+        assert messages(logService.searchLogsByMultipleFilters("error", null, "server-1234", null, null, null))
+                .equals(Set.of("Failed to connect to DB", "failed to connect to db", "Failed to reach cache"));
+
+        LogQuery query = LogQuery.multipleFilters("error", null, null, null, null, null);
+        LogPage first = logService.searchLogsPage(query, 2, null);
+        LogPage second = logService.searchLogsPage(query, 2, first.getNextCursor());
+        assert messages(first.getLogs()).equals(Set.of("Failed to connect to DB", "failed to connect to db"));
+        assert messages(second.getLogs()).equals(Set.of("Failed to reach cache"));
+        assert second.getNextCursor() == null;
+    }
+
+    @Test
+    void collationDependentSearchesSkipTheHotWindow() {
+        hotLogWindow.preload();
+        Log saved = logService.saveLog(log("error", "Failed to reach cache", "server-1234", 0));
+        logRepository.deleteById(saved.getId());
+
+        // Exact searches compare with the column collation, which only the database applies.
+        assert messages(logService.searchLogByLevel("error")).equals(Set.of("Failed to connect to DB"));
+        assert messages(logService.searchLogs("error", null, "server-1234", null, null)).equals(Set.of("Failed to connect to DB"));
+    }
+
+    @Test
+    void scanLogsStopsAtLimitAndRowBudget() {
+        long chunkIds = scanProperties.getChunkIds();
+        long maxRowsScanned = scanProperties.getMaxRowsScanned();
+        int parallelism = scanProperties.getParallelism();
+        // One log per chunk, one chunk at a time, so the budget is hit with chunks left to read.
+        scanProperties.setChunkIds(1);
+        scanProperties.setParallelism(1);
+        try {
+            ScanResult all = logService.scanLogs(LogQuery.regex("connect"), null).join();
+            assert !all.isPartial();
+            assert messages(all.getLogs()).equals(Set.of("Failed to connect to DB", "failed to connect to db",
+                    "Connected to DB 100% of the time", "Retrying connection_pool"));
+
+            ScanResult limited = logService.scanLogs(LogQuery.regex("connect"), 1).join();
+            assert !limited.isPartial();
+            assert limited.getLogs().size() == 1;
+
+            // With every chunk in flight at once, an older chunk may reach the limit before the newer ones run.
+            scanProperties.setParallelism(5);
+            for (int i = 0; i < 20; i++) {
+                ScanResult newest = logService.scanLogs(LogQuery.regex("connect"), 2).join();
+                assert !newest.isPartial();
+                assert messages(newest.getLogs()).equals(Set.of("Connected to DB 100% of the time", "Retrying connection_pool"));
+            }
+            scanProperties.setParallelism(1);
+
+            scanProperties.setMaxRowsScanned(2);
+            ScanResult budgeted = logService.scanLogs(LogQuery.multipleFilters(null, null, null, null, null, null), null).join();
+            assert budgeted.getCutoff() == ScanResult.Cutoff.ROW_BUDGET;
+            assert budgeted.getLogs().size() < 5;
+        } finally {
+            scanProperties.setChunkIds(chunkIds);
+            scanProperties.setMaxRowsScanned(maxRowsScanned);
+            scanProperties.setParallelism(parallelism);
+        }
+    }
+
+    @Test
+    void limitedScanKeepsTheNewestLogsAcrossTheHotWindow() {
+        hotLogWindow.preload();
+        logService.saveLog(log("error", "Failed to reach cache", "server-1234", 0));
+        logService.saveLog(log("error", "Failed to reach queue", "server-1234", 0));
+        LogQuery query = LogQuery.multipleFilters("error", null, null, null, null, null);
+
+        assert messages(logService.scanLogs(query, 1).join().getLogs()).equals(Set.of("Failed to reach queue"));
+        List<Log> newest = logService.scanLogs(query, 3).join().getLogs();
+        assert newest.stream().map(Log::getMessage).toList()
+                .equals(List.of("failed to connect to db", "Failed to reach cache", "Failed to reach queue"));
+    }
+
+    @Test
+    void explainLogsReportsStagesInsteadOfLogs() {
+        QueryPlan plan = logService.explainLogs(LogQuery.multipleFilters("error", null, "server-1234", null, null, null));
+
+        assert plan.getSource().startsWith("database");
+        assert plan.getIndexes().contains("idx_log_resource_timestamp");
+        assert plan.getRowsReturned() == 2;
+        assert plan.getRowsScanned() >= plan.getRowsReturned();
+        assert plan.getStages().stream().anyMatch(stage -> stage.getName().equals("database"));
+        assert !queryResultCache.contains(LogQuery.multipleFilters("error", null, "server-1234", null, null, null));
+    }
+
+    @Test
+    void explainScanRunsTheScanWithItsLimitAndBudget() {
+        LogQuery query = LogQuery.multipleFilters("error", null, "server-1234", null, null, null);
+        QueryPlan plan = logService.explainScan(query, null);
+
+        assert plan.getSource().startsWith("database");
+        assert plan.getStages().stream().anyMatch(stage -> stage.getName().equals("scan"));
+        assert plan.getStages().stream().noneMatch(stage -> stage.getName().equals("database"));
+        assert plan.getRowsReturned() == 2;
+        assert plan.getScan().getChunkIds() == scanProperties.getChunkIds();
+        assert plan.getScan().getMaxRowsScanned() == scanProperties.getMaxRowsScanned();
+        assert plan.getScan().getCutoff() == null;
+        // The level is matched case-insensitively, so only the resource index applies.
+        assert plan.getIndexes().contains("idx_log_resource_timestamp");
+        assert !plan.getIndexes().contains("idx_log_level_timestamp");
+        assert !queryResultCache.contains(query);
+
+        QueryPlan limited = logService.explainScan(query, 1);
+        assert limited.getRowsReturned() == 1;
+        assert limited.getScan().getLimit() == 1;
+
+        searchProperties.setCaseInsensitiveCollation(true);
+        try {
+            assert logService.explainScan(query, null).getIndexes().contains("idx_log_level_timestamp");
+        } finally {
+            searchProperties.setCaseInsensitiveCollation(false);
+        }
+    }
+
+    private static Log log(String level, String message, String resourceId, int minutes) {
+        return new Log(null, level, message, resourceId, BASE.plusMinutes(minutes), "trace-" + minutes, "span-" + minutes,
+                "5e5342f", new Metadata("server-0987"));
+    }
+
+    private static Set<String> messages(List<Log> logs) {
+        return logs.stream().map(Log::getMessage).collect(Collectors.toSet());
+    }
+}
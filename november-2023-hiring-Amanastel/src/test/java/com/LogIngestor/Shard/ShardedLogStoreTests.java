@@ -0,0 +1,127 @@
+package com.LogIngestor.Shard;
+
+import com.LogIngestor.Config.ShardProperties;
+import com.LogIngestor.Config.StorageProperties;
+import com.LogIngestor.Dictionary.StringDictionary;
+import com.LogIngestor.Model.Log;
+import com.LogIngestor.Model.LogCursor;
+import com.LogIngestor.Model.LogQuery;
+import com.LogIngestor.Model.ShardStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+class ShardedLogStoreTests {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2023, 11, 19, 8, 0);
+
+    private final String run = UUID.randomUUID().toString();
+    private final StringDictionary dictionary = new StringDictionary(new StorageProperties());
+    private ShardProperties properties;
+    private ShardedLogStore store;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ShardProperties();
+        properties.setThreads(4);
+        properties.setRebalanceBatchSize(7);
+        properties.setRebalanceOnStart(false);
+        store = open(3);
+    }
+
+    @AfterEach
+    void tearDown() {
+        store.close();
+    }
+
+    @Test
+    void routesByResourceAndMergesInOrder() {
+        List<Log> logs = new ArrayList<>();
+        for (int i = 0; i < 60; i++) logs.add(log(i % 2 == 0 ? "error" : "info", "message " + i, "server-" + (i % 6), 59 - i));
+        assert store.append(logs).size() == 60;
+
+        List<Log> all = store.find(LogQuery.builder().build(), null, 100);
+        assert all.size() == 60;
+        for (int i = 1; i < all.size(); i++) assert ShardedLogStore.ORDER.compare(all.get(i - 1), all.get(i)) < 0;
+
+        List<Log> paged = new ArrayList<>();
+        LogCursor cursor = null;
+        List<Log> page;
+        do {
+            page = store.find(LogQuery.builder().build(), cursor, 8);
+            paged.addAll(page);
+            if (!page.isEmpty()) cursor = LogCursor.of(page.get(page.size() - 1));
+        } while (page.size() == 8);
+        assert ids(paged).equals(ids(all));
+
+        LogQuery byResource = LogQuery.multipleFilters("error", null, "server-2", null, null, null);
+        assert store.targets(byResource).size() == 1;
+        assert store.find(byResource, null, 100).size() == 10;
+        assert store.find(LogQuery.regex("message 1[0-9]"), null, 100).size() == 10;
+        assert store.findById(logs.get(17).getId()).getMessage().equals("message 17");
+        assert store.getStatus().getShards().stream().filter(shard -> shard.getRows() > 0).count() > 1;
+    }
+
+    @Test
+    void rebalancesWhenAShardIsAdded() {
+        // setUp already recorded a 3-shard topology in its databases, so start from fresh ones.
+        String grown = UUID.randomUUID().toString();
+        store.close();
+        store = open(grown, 2);
+        List<Log> logs = new ArrayList<>();
+        for (int i = 0; i < 100; i++) logs.add(log("info", "message " + i, "server-" + (i % 20), i));
+        store.append(logs);
+        store.close();
+
+        store = open(grown, 3);
+        assert store.isRebalancing();
+        assert store.targets(LogQuery.multipleFilters(null, null, "server-1", null, null, null)).size() == 3;
+        assert store.find(LogQuery.builder().build(), null, 200).size() == 100;
+
+        ShardStatus status = store.rebalance();
+        assert !store.isRebalancing();
+        assert status.getLastRebalanceMoved() > 0;
+        assert status.getShards().stream().mapToLong(ShardStatus.Shard::getRows).sum() == 100;
+        for (int i = 0; i < 20; i++) {
+            LogQuery query = LogQuery.multipleFilters(null, null, "server-" + i, null, null, null);
+            assert store.targets(query).size() == 1;
+            assert store.find(query, null, 100).size() == 5;
+        }
+        assert store.rebalance().getLastRebalanceMoved() == 0;
+    }
+
+    private ShardedLogStore open(int count) {
+        return open(run, count);
+    }
+
+    private ShardedLogStore open(String run, int count) {
+        List<LogShard> shards = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                    "jdbc:h2:mem:shard-" + run + "-" + i + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=TIMESTAMP,COMMIT;DB_CLOSE_DELAY=-1");
+            shards.add(new LogShard("shard-" + i, dataSource, dictionary));
+        }
+        ShardedLogStore opened = new ShardedLogStore(shards, List.of(), properties);
+        opened.start();
+        return opened;
+    }
+
+    private static Log log(String level, String message, String resourceId, int minutes) {
+        Log log = new Log();
+        log.setLevel(level);
+        log.setMessage(message);
+        log.setResourceId(resourceId);
+        log.setTimestamp(BASE.plusMinutes(minutes));
+        return log;
+    }
+
+    private static List<Long> ids(List<Log> logs) {
+        return logs.stream().map(Log::getId).toList();
+    }
+}
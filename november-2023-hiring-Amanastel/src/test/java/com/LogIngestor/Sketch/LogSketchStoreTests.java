@@ -0,0 +1,96 @@
+package com.LogIngestor.Sketch;
+
+import com.LogIngestor.Config.SketchProperties;
+import com.LogIngestor.Model.ApproximateStats;
+import com.LogIngestor.Model.Log;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+class LogSketchStoreTests {
+
+    private static final LocalDateTime BASE = LocalDateTime.now().minusHours(3).withMinute(0).withSecond(0).withNano(0);
+
+    private SketchProperties properties;
+    private LogSketchStore store;
+
+    @BeforeEach
+    void setUp() {
+        properties = new SketchProperties();
+        properties.setTopK(10);
+        store = new LogSketchStore(properties);
+    }
+
+    @Test
+    void masksVariableTokensInTemplates() {
+        assert MessageTemplate.of("Timeout after 30s on 10.0.0.7").equals("Timeout after <*> on <*>");
+        assert MessageTemplate.of("Disk  almost full").equals("Disk  almost full");
+        assert MessageTemplate.of("user 42 logged in ").equals("user <*> logged in ");
+    }
+
+    @Test
+    void estimatesDistinctCountsWithinBounds() {
+        HyperLogLog hll = new HyperLogLog(12);
+        for (int i = 0; i < 100_000; i++) hll.add(Hashing.hash("trace-" + i));
+        assert Math.abs(hll.estimate() - 100_000) < 100_000 * 4 * hll.standardError();
+
+        HyperLogLog small = new HyperLogLog(12);
+        for (int i = 0; i < 50; i++) small.add(Hashing.hash("server-" + i));
+        assert Math.abs(small.estimate() - 50) <= 2;
+    }
+
+    @Test
+    void ranksHeavyHittersAcrossBuckets() {
+        List<Log> logs = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            String resource = i % 2 == 0 ? "server-hot" : "server-" + (i % 200);
+            String level = i % 4 == 0 ? "ERROR" : "info";
+            logs.add(log(level, "Request " + i + " took " + (i % 50) + "ms", resource, "trace-" + (i / 4), i % 120));
+        }
+        logs.add(log("error", "Disk almost full", "server-7", null, 30));
+        store.onLogsSaved(logs);
+
+        SketchRange range = store.merge(BASE, BASE.plusHours(2), null);
+        assert range.getBuckets() == 2;
+        assert range.getTotal() == 2_001;
+        ApproximateStats.Estimate resources = range.distinctResources();
+        assert resources.getLower() <= 101 && resources.getUpper() >= 101;
+        ApproximateStats.Estimate traces = range.distinctTraces();
+        assert traces.getLower() <= 500 && traces.getUpper() >= 500;
+
+        List<ApproximateStats.Frequency> top = range.topResources(3);
+        assert top.size() == 3;
+        assert top.get(0).getValue().equals("server-hot");
+        assert top.get(0).getEstimate() >= 1_000 && top.get(0).getLower() <= 1_000;
+        assert range.topTemplates(1).get(0).getValue().equals("Request <*> took <*>");
+        assert range.resource("server-7").getEstimate() >= 11;
+
+        SketchRange errors = store.merge(BASE, BASE.plusHours(2), "error");
+        assert errors.getTotal() == 501;
+        assert errors.topTemplates(2).stream().anyMatch(frequency -> frequency.getValue().equals("Disk almost full"));
+        assert store.merge(BASE, BASE.plusHours(1), null).getTotal() < 2_001;
+    }
+
+    @Test
+    void dropsExpiredBuckets() {
+        properties.setRetention(Duration.ofHours(2));
+        store.onLogsSaved(List.of(log("info", "old", "server-1", null, 0), log("info", "new", "server-1", null, 100)));
+        assert store.getBucketCount() == 1;
+        store.onLogsExpired(LocalDateTime.now());
+        assert store.getBucketCount() == 0;
+    }
+
+    private static Log log(String level, String message, String resourceId, String traceId, int minutes) {
+        Log log = new Log();
+        log.setLevel(level);
+        log.setMessage(message);
+        log.setResourceId(resourceId);
+        log.setTraceId(traceId);
+        log.setTimestamp(BASE.plusMinutes(minutes));
+        return log;
+    }
+}
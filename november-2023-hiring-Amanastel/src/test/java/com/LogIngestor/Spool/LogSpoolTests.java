@@ -0,0 +1,103 @@
+package com.LogIngestor.Spool;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+class LogSpoolTests {
+
+    private static final int SEGMENT_BYTES = 1024;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void replaysExactlyTheUndrainedEntriesAfterReopening() throws Exception {
+        long drained;
+        try (LogSpool spool = LogSpool.open(directory, SEGMENT_BYTES, 8 * SEGMENT_BYTES, 0)) {
+            long end = 0;
+            for (int i = 0; i < 40; i++) end = spool.append(entry(i));
+            assert spool.awaitDurable(end, 5, TimeUnit.SECONDS);
+
+            LogSpool.Batch batch = spool.read(0, 25);
+            assert payloads(batch).equals(expected(0, 25));
+            spool.markDrained(batch.nextOffset(), batch.entries().size());
+            drained = batch.nextOffset();
+            assert spool.getPendingEntries() == 15;
+            assert segmentFiles() < 4;
+        }
+
+        try (LogSpool spool = LogSpool.open(directory, SEGMENT_BYTES, 8 * SEGMENT_BYTES, drained)) {
+            assert spool.getPendingEntries() == 15;
+            LogSpool.Batch batch = spool.read(drained, 100);
+            assert payloads(batch).equals(expected(25, 40));
+            long next = spool.append(entry(40));
+            assert next > batch.nextOffset();
+            assert spool.awaitDurable(next, 5, TimeUnit.SECONDS);
+            assert payloads(spool.read(batch.nextOffset(), 100)).equals(expected(40, 41));
+        }
+    }
+
+    @Test
+    void discardsATornTailOnRecovery() throws Exception {
+        long end;
+        try (LogSpool spool = LogSpool.open(directory, SEGMENT_BYTES, 4 * SEGMENT_BYTES, 0)) {
+            spool.append(entry(0));
+            end = spool.append(entry(1));
+            assert spool.awaitDurable(end, 5, TimeUnit.SECONDS);
+        }
+        // A crash mid-append: the length is written but the payload does not match its checksum.
+        try (Stream<Path> files = Files.list(directory);
+             RandomAccessFile file = new RandomAccessFile(files.findFirst().orElseThrow().toFile(), "rw")) {
+            file.seek(end);
+            file.writeInt(10);
+            file.writeInt(12345);
+        }
+
+        try (LogSpool spool = LogSpool.open(directory, SEGMENT_BYTES, 4 * SEGMENT_BYTES, 0)) {
+            assert spool.getWriteOffset() == end;
+            long next = spool.append(entry(2));
+            assert spool.awaitDurable(next, 5, TimeUnit.SECONDS);
+            assert payloads(spool.read(0, 100)).equals(List.of("entry-0", "entry-1", "entry-2"));
+        }
+    }
+
+    @Test
+    void refusesEntriesOnceTheQuotaIsReached() throws Exception {
+        try (LogSpool spool = LogSpool.open(directory, SEGMENT_BYTES, 2 * SEGMENT_BYTES, 0)) {
+            int appended = 0;
+            while (spool.append(new byte[200]) > 0) appended++;
+            assert appended == 8;
+            assert spool.getDiskBytes() == 2 * SEGMENT_BYTES;
+        }
+    }
+
+    private long segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.count();
+        }
+    }
+
+    private static byte[] entry(int i) {
+        return ("entry-" + i).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static List<String> payloads(LogSpool.Batch batch) {
+        return batch.entries().stream().map(entry -> new String(entry.payload(), StandardCharsets.UTF_8)).toList();
+    }
+
+    private static List<String> expected(int from, int to) {
+        List<String> expected = new ArrayList<>();
+        for (int i = from; i < to; i++) expected.add("entry-" + i);
+        return expected;
+    }
+}
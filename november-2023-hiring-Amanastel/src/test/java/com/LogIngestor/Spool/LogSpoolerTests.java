@@ -0,0 +1,68 @@
+package com.LogIngestor.Spool;
+
+import com.LogIngestor.Model.Log;
+import com.LogIngestor.Repository.LogRepository;
+import com.LogIngestor.Service.LogService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:logSpooler;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=TIMESTAMP,COMMIT",
+        "log.spool.enabled=true",
+        "log.spool.segment-megabytes=1",
+        "log.spool.max-megabytes=4",
+        "log.spool.retry-backoff=50ms"
+})
+class LogSpoolerTests {
+
+    @TempDir
+    static Path directory;
+
+    @Autowired
+    private LogService logService;
+
+    @Autowired
+    private LogRepository logRepository;
+
+    @Autowired
+    private LogSpooler logSpooler;
+
+    @DynamicPropertySource
+    static void spoolDirectory(DynamicPropertyRegistry registry) {
+        registry.add("log.spool.directory", () -> directory.toString());
+    }
+
+    @Test
+    void skipsLogsTheDatabaseRejectsAndDrainsTheRest() throws InterruptedException {
+        // The message column is varchar(255), so the middle log can never be written.
+        List<Log> logs = List.of(log("Connected to DB"), log("x".repeat(300)), log("Heartbeat"));
+        assert logService.saveLogs(logs).getAccepted() == 3;
+
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (logSpooler.getStatus().getDepthEntries() > 0 && System.currentTimeMillis() < deadline) Thread.sleep(20);
+
+        assert logSpooler.getStatus().getDepthEntries() == 0;
+        assert logSpooler.getStatus().getDrainedOffset() == logSpooler.getStatus().getWriteOffset();
+        assert logRepository.findAll().stream().map(Log::getMessage).collect(Collectors.toSet())
+                .equals(Set.of("Connected to DB", "Heartbeat"));
+    }
+
+    private static Log log(String message) {
+        Log log = new Log();
+        log.setLevel("info");
+        log.setMessage(message);
+        log.setResourceId("server-1234");
+        log.setTimestamp(LocalDateTime.of(2023, 11, 19, 8, 0));
+        return log;
+    }
+}
@@ -0,0 +1,81 @@
+package com.LogIngestor.Tail;
+
+import com.LogIngestor.Config.TailProperties;
+import com.LogIngestor.Exception.LogException;
+import com.LogIngestor.Model.Log;
+import com.LogIngestor.Model.LogQuery;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+class TailBrokerTests {
+
+    private TailProperties properties;
+    private TailBroker broker;
+
+    @BeforeEach
+    void setUp() {
+        properties = new TailProperties();
+        properties.setQueueCapacity(2);
+        properties.setMaxSubscribers(3);
+        broker = new TailBroker(properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        broker.stop();
+    }
+
+    @Test
+    void routesLogsOnlyToMatchingSubscriptions() {
+        TailSubscription errors = broker.subscribe(LogQuery.multipleFilters("ERROR", null, null, null, null, null), Backpressure.DROP);
+        TailSubscription server = broker.subscribe(LogQuery.multipleFilters(null, null, "server-1", null, null, "timeout"), Backpressure.DROP);
+        TailSubscription all = broker.subscribe(LogQuery.multipleFilters(null, "DB", null, null, null, null), Backpressure.DROP);
+
+        assert broker.matching(log("error", "server-2", "Failed to connect to DB")).equals(List.of(errors, all));
+        assert broker.matching(log("info", "server-1", "Request Timeout")).equals(List.of(server));
+        assert broker.matching(log("info", "server-3", "Heartbeat")).isEmpty();
+
+        broker.unsubscribe(errors);
+        assert broker.matching(log("error", "server-2", "Heartbeat")).isEmpty();
+        assert broker.getSubscriberCount() == 2;
+    }
+
+    @Test
+    void rejectsSubscribersBeyondTheLimit() {
+        for (int i = 0; i < properties.getMaxSubscribers(); i++) broker.subscribe(LogQuery.builder().build(), Backpressure.DROP);
+        try {
+            broker.subscribe(LogQuery.builder().build(), Backpressure.DROP);
+        } catch (LogException e) {
+            return;
+        }
+        throw new AssertionError("Expected a LogException");
+    }
+
+    @Test
+    void fullQueuesDropOrSampleWithoutBlocking() {
+        TailSubscription drop = new TailSubscription(1, LogQuery.builder().build(), Backpressure.DROP, null, 2);
+        for (int i = 0; i < 5; i++) drop.offer(log("info", "server-1", "m" + i));
+        assert drop.getQueued() == 2;
+        assert drop.getDropped() == 3;
+
+        TailSubscription sample = new TailSubscription(2, LogQuery.builder().build(), Backpressure.SAMPLE, null, 2);
+        for (int i = 0; i < 9; i++) sample.offer(log("info", "server-1", "m" + i));
+        // Two fit, the third fills the queue and halves the rate, then every other log is tried and dropped.
+        assert sample.getQueued() == 2;
+        assert sample.getDropped() == 7;
+    }
+
+    private static Log log(String level, String resourceId, String message) {
+        Log log = new Log();
+        log.setId(1L);
+        log.setLevel(level);
+        log.setResourceId(resourceId);
+        log.setMessage(message);
+        log.setTimestamp(LocalDateTime.now());
+        return log;
+    }
+}
@@ -0,0 +1,79 @@
+package com.LogIngestor.Template;
+
+import com.LogIngestor.Config.StorageProperties;
+import com.LogIngestor.Model.LogQuery;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+class LogTemplateMinerTests {
+
+    @TempDir
+    Path directory;
+
+    private final StorageProperties properties = new StorageProperties();
+
+    @Test
+    void minesTemplatesAndRendersMessagesBack() {
+        LogTemplateMiner miner = new LogTemplateMiner(properties);
+        LogTemplateMiner.Match first = miner.mine("Connected to db-7 in 12 ms");
+        assert first.template().getText().equals("Connected to <*> in <*> ms");
+        assert first.template().render(first.params(), 0).equals("Connected to db-7 in 12 ms");
+
+        LogTemplateMiner.Match second = miner.mine("Connected to db-9 in 3 ms");
+        assert second.template().getText().equals("Connected to <*> in <*> ms");
+        assert second.template().getId() == first.template().getId();
+
+        LogTemplateMiner.Match widened = miner.mine("Connected to db-9 in 3 seconds");
+        assert widened.template().getText().equals("Connected to <*> in <*> <*>");
+        assert widened.template().getClusterId() == first.template().getClusterId();
+        assert widened.template().getId() != first.template().getId();
+        assert miner.template(first.template().getId()).render(first.params(), 0).equals("Connected to db-7 in 12 ms");
+
+        assert miner.mine("Heartbeat").template().getWildcards() == 0;
+        assert miner.mine(" padded  message ").template().render(new String[0], 0).equals(" padded  message ");
+        assert miner.size() == 4 && miner.clusterCount() == 3;
+        assert miner.classify("Connected to queue-2 in 5 ms").getId() == widened.template().getId();
+        assert miner.classify("Unknown message") == null;
+        assert miner.size() == 4;
+    }
+
+    @Test
+    void reloadsJournaledTemplates() throws IOException {
+        Path file = directory.resolve("TEMPLATES");
+        LogTemplateMiner miner = new LogTemplateMiner(properties);
+        miner.open(file);
+        int id = miner.mine("User 42 logged in").template().getId();
+        miner.mine("User 43 logged out");
+        miner.close();
+        Files.write(file, new byte[]{0, 0, 0, 9, 0}, StandardOpenOption.APPEND);
+
+        LogTemplateMiner reopened = new LogTemplateMiner(properties);
+        reopened.open(file);
+        assert reopened.size() == 2 && reopened.clusterCount() == 1;
+        assert reopened.template(id).getText().equals("User <*> logged in");
+        assert reopened.latest(0).getText().equals("User <*> logged <*>");
+        assert reopened.mine("User 44 logged in").template().getId() == 1;
+        reopened.close();
+    }
+
+    @Test
+    void decidesFiltersPerTemplate() {
+        LogTemplateMiner miner = new LogTemplateMiner(properties);
+        LogTemplate template = miner.mine("Failed to connect to 10.0.0.7 after 3 retries").template();
+
+        assert template.cover(LogQuery.multipleFilters(null, "to connect", null, null, null, null)) == LogTemplate.Coverage.ALL;
+        assert template.cover(LogQuery.multipleFilters(null, "10.0.0", null, null, null, null)) == LogTemplate.Coverage.SOME;
+        assert template.cover(LogQuery.exactMatch(null, "Failed to connect", null, null, null)) == LogTemplate.Coverage.NONE;
+        assert template.cover(LogQuery.exactMatch(null, "Failed to connect to db after 1 retries", null, null, null)) == LogTemplate.Coverage.SOME;
+        assert template.cover(LogQuery.regex("failed")) == LogTemplate.Coverage.SOME;
+
+        LogTemplate fixed = miner.mine("Disk almost full").template();
+        assert fixed.cover(LogQuery.regex("^disk")) == LogTemplate.Coverage.ALL;
+        assert fixed.cover(LogQuery.multipleFilters(null, "Failed", null, null, null, null)) == LogTemplate.Coverage.NONE;
+    }
+}
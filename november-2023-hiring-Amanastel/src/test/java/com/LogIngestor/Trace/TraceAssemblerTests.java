@@ -0,0 +1,66 @@
+package com.LogIngestor.Trace;
+
+import com.LogIngestor.Model.Log;
+import com.LogIngestor.Model.LogTrace;
+import com.LogIngestor.Model.Metadata;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+class TraceAssemblerTests {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2023, 11, 19, 8, 0);
+
+    @Test
+    void groupsLogsBySpanAndRebuildsResourceTree() {
+        TraceAssembler assembler = new TraceAssembler("trace-1");
+        assembler.add(log(1, "span-a", "gateway", null, 0));
+        assembler.add(log(2, "span-b", "orders", "gateway", 10));
+        assembler.add(log(3, "span-a", "gateway", null, 20));
+        assembler.add(log(4, "span-c", "db", "orders", 30));
+        assembler.add(log(5, "span-b", "orders", "gateway", 40));
+        LogTrace trace = assembler.build(false);
+
+        assert trace.getLogCount() == 5;
+        assert trace.getDurationMillis() == 40_000;
+        assert trace.getSpans().stream().map(LogTrace.Span::getSpanId).toList().equals(List.of("span-a", "span-b", "span-c"));
+        LogTrace.Span orders = trace.getSpans().get(1);
+        assert orders.getLogs().stream().map(Log::getId).toList().equals(List.of(2L, 5L));
+        assert orders.getDurationMillis() == 30_000;
+
+        assert trace.getResources().size() == 1;
+        LogTrace.Resource gateway = trace.getResources().get(0);
+        assert gateway.getResourceId().equals("gateway") && gateway.getLogCount() == 2;
+        LogTrace.Resource db = gateway.getChildren().get(0).getChildren().get(0);
+        assert db.getResourceId().equals("db") && db.getSpanIds().equals(List.of("span-c"));
+    }
+
+    @Test
+    void breaksParentCyclesAndKeepsSilentParents() {
+        TraceAssembler assembler = new TraceAssembler("trace-2");
+        assembler.add(log(1, "span-a", "a", "b", 0));
+        assembler.add(log(2, "span-b", "b", "a", 1));
+        assembler.add(log(3, "span-c", "c", "lb", 2));
+        LogTrace trace = assembler.build(false);
+
+        // a is seen first, so its link to b is the one dropped.
+        assert trace.getResources().stream().map(LogTrace.Resource::getResourceId).toList().equals(List.of("a", "lb"));
+        assert trace.getResources().get(0).getChildren().get(0).getResourceId().equals("b");
+        LogTrace.Resource lb = trace.getResources().get(1);
+        assert lb.getLogCount() == 0 && lb.getChildren().get(0).getResourceId().equals("c");
+    }
+
+    private static Log log(long id, String spanId, String resourceId, String parentResourceId, int seconds) {
+        Log log = new Log();
+        log.setId(id);
+        log.setLevel("info");
+        log.setMessage("m" + id);
+        log.setTraceId("trace");
+        log.setSpanId(spanId);
+        log.setResourceId(resourceId);
+        log.setTimestamp(BASE.plusSeconds(seconds));
+        log.setMetadata(new Metadata(parentResourceId));
+        return log;
+    }
+}
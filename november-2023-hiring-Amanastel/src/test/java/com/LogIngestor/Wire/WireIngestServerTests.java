@@ -0,0 +1,142 @@
+package com.LogIngestor.Wire;
+
+import com.LogIngestor.Config.IngestProperties;
+import com.LogIngestor.Config.WireProperties;
+import com.LogIngestor.Model.BatchIngestResponse;
+import com.LogIngestor.Model.Log;
+import com.LogIngestor.Model.Metadata;
+import com.LogIngestor.Service.LogService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class WireIngestServerTests {
+
+    private final List<Log> saved = new CopyOnWriteArrayList<>();
+    private WireIngestServer server;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        LogService logService = mock(LogService.class);
+        when(logService.saveLogs(any())).thenAnswer(invocation -> {
+            List<Log> logs = invocation.getArgument(0);
+            saved.addAll(logs);
+            return new BatchIngestResponse(logs.size(), 0);
+        });
+        WireProperties properties = new WireProperties();
+        properties.setBindAddress("127.0.0.1");
+        properties.setTcpPort(0);
+        properties.setUdpPort(0);
+        properties.setBufferBytes(1024);
+        server = new WireIngestServer(logService, new IngestProperties(), properties, new SimpleMeterRegistry());
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        server.stop();
+    }
+
+    @Test
+    void framesRoundTripThroughTheEncoder() {
+        Log log = new Log(null, "error", "Connexion échouée 🚫", "server-1234", LocalDateTime.of(2023, 9, 15, 8, 0, 0, 123_000_000),
+                "abc-xyz-123", "span-456", null, new Metadata("server-0987"));
+        ByteBuffer buffer = ByteBuffer.wrap(LogFrameEncoder.encode(log));
+        assert LogFrameDecoder.frameLength(buffer, 1024) == buffer.capacity();
+
+        Log decoded = LogFrameDecoder.decode(buffer);
+        assert !buffer.hasRemaining();
+        assert decoded.getMessage().equals(log.getMessage());
+        assert decoded.getTimestamp().equals(log.getTimestamp());
+        assert decoded.getTraceId().equals("abc-xyz-123");
+        assert decoded.getCommit() == null;
+        assert decoded.getMetadata().getParentResourceId().equals("server-0987");
+    }
+
+    @Test
+    void parsesBothSyslogFormats() {
+        Log modern = syslog("<11>1 2023-09-15T08:00:00.5+02:00 server-1234 app 42 ID7 [meta key=\"a \\] b\"] Failed to connect");
+        assert modern.getLevel().equals("error");
+        assert modern.getResourceId().equals("server-1234");
+        assert modern.getTimestamp().equals(LocalDateTime.of(2023, 9, 15, 6, 0, 0, 500_000_000));
+        assert modern.getMessage().equals("Failed to connect");
+
+        Log bsd = syslog("<38>Oct 11 22:14:15 server-5678 su: 'su root' failed\r");
+        assert bsd.getLevel().equals("info");
+        assert bsd.getResourceId().equals("server-5678");
+        assert bsd.getTimestamp() == null;
+        assert bsd.getMessage().equals("su: 'su root' failed");
+
+        assertInvalid("no header");
+        assertInvalid("<999>1 - - - - - - too high");
+        assertInvalid("<11>1 yesterday host app - - - msg");
+    }
+
+    @Test
+    void ingestsFramesSplitAcrossReadsAndSyslogDatagrams() throws Exception {
+        ByteBuffer frames = ByteBuffer.allocate(4096);
+        for (int i = 0; i < 20; i++) {
+            LogFrameEncoder.encode(new Log(null, "info", "Heartbeat " + i, "server-1234", null, null, null, null, null), frames);
+        }
+        frames.flip();
+        try (SocketChannel channel = SocketChannel.open(new InetSocketAddress("127.0.0.1", server.getTcpPort()))) {
+            // Cut mid-frame, so the listener has to carry the partial frame over to the next read.
+            ByteBuffer first = frames.slice(0, 37);
+            while (first.hasRemaining()) channel.write(first);
+            Thread.sleep(50);
+            frames.position(37);
+            while (frames.hasRemaining()) channel.write(frames);
+        }
+        try (DatagramChannel channel = DatagramChannel.open()) {
+            byte[] lines = "<12>1 - server-5678 - - - - Disk almost full\nnot syslog\n<15>debug line".getBytes(StandardCharsets.UTF_8);
+            channel.send(ByteBuffer.wrap(lines), new InetSocketAddress("127.0.0.1", server.getUdpPort()));
+        }
+
+        long deadline = System.currentTimeMillis() + 5_000;
+        while ((saved.size() < 22 || server.getRejectedLogs() < 1) && System.currentTimeMillis() < deadline) Thread.sleep(10);
+        assert saved.size() == 22;
+        assert server.getAcceptedLogs() == 22;
+        assert server.getRejectedLogs() == 1;
+        assert saved.stream().filter(log -> log.getMessage().startsWith("Heartbeat")).count() == 20;
+        assert saved.stream().anyMatch(log -> log.getLevel().equals("warn") && log.getMessage().equals("Disk almost full"));
+    }
+
+    @Test
+    void closesAConnectionThatLostItsFraming() throws Exception {
+        try (SocketChannel channel = SocketChannel.open(new InetSocketAddress("127.0.0.1", server.getTcpPort()))) {
+            channel.write(ByteBuffer.allocate(8).putInt(1 << 20).putInt(0).flip());
+            // The listener closes its end, which shows up as end of stream here.
+            assert channel.read(ByteBuffer.allocate(1)) == -1;
+        }
+        assert server.getRejectedLogs() == 1;
+        assert saved.isEmpty();
+    }
+
+    private static Log syslog(String line) {
+        byte[] bytes = line.getBytes(StandardCharsets.UTF_8);
+        return SyslogLineDecoder.decode(bytes, 0, bytes.length);
+    }
+
+    private static void assertInvalid(String line) {
+        try {
+            syslog(line);
+            assert false : "Expected '" + line + "' to be rejected";
+        } catch (IllegalArgumentException expected) {
+            // expected
+        }
+    }
+}